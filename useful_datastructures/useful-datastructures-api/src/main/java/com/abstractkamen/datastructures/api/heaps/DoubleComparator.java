@@ -0,0 +1,48 @@
+package com.abstractkamen.datastructures.api.heaps;
+
+/**
+ * A comparison function over primitive {@code double} values. The contract is the same as {@link java.util.Comparator#compare(Object,
+ * Object)} without boxing either argument.
+ *
+ * @see DoubleHeap
+ */
+@FunctionalInterface
+public interface DoubleComparator {
+
+    /**
+     * Compares its two arguments for order.
+     *
+     * @param a the first value to be compared
+     * @param b the second value to be compared
+     * @return a negative integer, zero, or a positive integer as the first argument is less than, equal to, or greater than the
+     * second
+     */
+    int compare(double a, double b);
+
+    /**
+     * Returns a comparator that imposes the reverse ordering of this comparator.
+     *
+     * @return the reverse of this comparator
+     */
+    default DoubleComparator reversed() {
+        return (a, b) -> compare(b, a);
+    }
+
+    /**
+     * Ascending order, a heap using it is a min heap.
+     *
+     * @return natural order comparator
+     */
+    static DoubleComparator naturalOrder() {
+        return Double::compare;
+    }
+
+    /**
+     * Descending order, a heap using it is a max heap.
+     *
+     * @return reverse order comparator
+     */
+    static DoubleComparator reverseOrder() {
+        return (a, b) -> Double.compare(b, a);
+    }
+}
@@ -1,7 +1,9 @@
 package com.abstractkamen.datastructures.api.heaps;
 
+import java.util.Collection;
 import java.util.Comparator;
 import java.util.NoSuchElementException;
+import java.util.function.Consumer;
 
 /**
  * A heap is a data structure which satisfies the heap property. Depending on a compare operation by using either
@@ -59,4 +61,47 @@ public interface Heap<T> {
      */
     Comparator<T> comparator();
 
+    /**
+     * Inserts all elements of {@code items} into the heap. The default implementation pushes them one at a time, implementations
+     * backed by an array may append them all and restore the heap property once.
+     *
+     * @param items The elements to be inserted.
+     * @return The new size of the heap after insertion.
+     */
+    default int pushAll(Collection<? extends T> items) {
+        int size = size();
+        for (T item : items) {
+            size = push(item);
+        }
+        return size;
+    }
+
+    /**
+     * Removes up to {@code n} best elements in order and passes each of them to {@code action}.
+     *
+     * @param n      The maximum number of elements to remove.
+     * @param action Receives the removed elements in order.
+     * @return The number of removed elements, {@code min(n, size())}.
+     * @throws IllegalArgumentException if {@code n} is negative.
+     */
+    default int popN(int n, Consumer<? super T> action) {
+        if (n < 0) {
+            throw new IllegalArgumentException("n cannot be negative");
+        }
+        final int count = Math.min(n, size());
+        for (int i = 0; i < count; i++) {
+            action.accept(pop());
+        }
+        return count;
+    }
+
+    /**
+     * Removes all elements in order and adds them to {@code target}.
+     *
+     * @param target The collection receiving the elements.
+     * @return The number of removed elements.
+     */
+    default int drainTo(Collection<? super T> target) {
+        return popN(size(), target::add);
+    }
 }
@@ -0,0 +1,108 @@
+package com.abstractkamen.datastructures.api.heaps;
+
+/**
+ * Operation counters of a {@link Heap}, meant to tell from the outside why a heap is slow. A sift distance is the number of levels
+ * an element moved during a single sift up or sift down, a distance of zero means the element stayed where it was put.
+ * <p>
+ * The getters follow the bean naming convention so that an implementation can be exposed over JMX as it is. The values are read
+ * without synchronization and may be slightly stale when the heap is modified by another thread.
+ *
+ * @see Heap
+ */
+public interface HeapMetrics {
+
+    /**
+     * @return number of inserted elements, including the elements of bulk pushes
+     */
+    long getPushCount();
+
+    /**
+     * @return number of removed elements
+     */
+    long getPopCount();
+
+    /**
+     * @return number of merges into the heap
+     */
+    long getMergeCount();
+
+    /**
+     * @return number of comparator invocations
+     */
+    long getComparisonCount();
+
+    /**
+     * @return number of sift up operations
+     */
+    long getSiftUpCount();
+
+    /**
+     * @return sum of the distances of all sift up operations
+     */
+    long getSiftUpDistance();
+
+    /**
+     * @return the longest sift up distance
+     */
+    int getMaxSiftUpDistance();
+
+    /**
+     * @return number of sift down operations
+     */
+    long getSiftDownCount();
+
+    /**
+     * @return sum of the distances of all sift down operations
+     */
+    long getSiftDownDistance();
+
+    /**
+     * @return the longest sift down distance
+     */
+    int getMaxSiftDownDistance();
+
+    /**
+     * Sift up distances as a histogram, element {@code d} is the number of sift ups which moved an element {@code d} levels.
+     *
+     * @return a copy of the histogram
+     */
+    long[] getSiftUpHistogram();
+
+    /**
+     * Sift down distances as a histogram, element {@code d} is the number of sift downs which moved an element {@code d} levels.
+     *
+     * @return a copy of the histogram
+     */
+    long[] getSiftDownHistogram();
+
+    /**
+     * @return number of times the backing storage was grown or shrunk
+     */
+    long getResizeCount();
+
+    /**
+     * @return current capacity of the backing storage
+     */
+    int getCapacity();
+
+    /**
+     * @return largest capacity the backing storage ever had
+     */
+    int getPeakCapacity();
+
+    /**
+     * @return average sift up distance, zero if there were no sift ups
+     */
+    default double getAverageSiftUpDistance() {
+        final long count = getSiftUpCount();
+        return count == 0 ? 0 : (double) getSiftUpDistance() / count;
+    }
+
+    /**
+     * @return average sift down distance, zero if there were no sift downs
+     */
+    default double getAverageSiftDownDistance() {
+        final long count = getSiftDownCount();
+        return count == 0 ? 0 : (double) getSiftDownDistance() / count;
+    }
+}
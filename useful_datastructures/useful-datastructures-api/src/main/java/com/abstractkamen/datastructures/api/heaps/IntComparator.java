@@ -0,0 +1,48 @@
+package com.abstractkamen.datastructures.api.heaps;
+
+/**
+ * A comparison function over primitive {@code int} values. The contract is the same as {@link java.util.Comparator#compare(Object,
+ * Object)} without boxing either argument.
+ *
+ * @see IntHeap
+ */
+@FunctionalInterface
+public interface IntComparator {
+
+    /**
+     * Compares its two arguments for order.
+     *
+     * @param a the first value to be compared
+     * @param b the second value to be compared
+     * @return a negative integer, zero, or a positive integer as the first argument is less than, equal to, or greater than the
+     * second
+     */
+    int compare(int a, int b);
+
+    /**
+     * Returns a comparator that imposes the reverse ordering of this comparator.
+     *
+     * @return the reverse of this comparator
+     */
+    default IntComparator reversed() {
+        return (a, b) -> compare(b, a);
+    }
+
+    /**
+     * Ascending order, a heap using it is a min heap.
+     *
+     * @return natural order comparator
+     */
+    static IntComparator naturalOrder() {
+        return Integer::compare;
+    }
+
+    /**
+     * Descending order, a heap using it is a max heap.
+     *
+     * @return reverse order comparator
+     */
+    static IntComparator reverseOrder() {
+        return (a, b) -> Integer.compare(b, a);
+    }
+}
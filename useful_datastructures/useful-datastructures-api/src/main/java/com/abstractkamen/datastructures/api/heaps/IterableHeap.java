@@ -0,0 +1,65 @@
+package com.abstractkamen.datastructures.api.heaps;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/**
+ * A heap whose elements can be inspected without popping them. {@link #iterator()}, {@link #forEach} and {@link #spliterator()}
+ * visit the elements in no particular order, {@link #orderedIterator()} visits them best first.
+ * <p>
+ * Neither kind of iteration copies the heap, so the heap must not be modified while it is iterated, the result of doing so is
+ * undefined. Iterators do not support {@link Iterator#remove()}.
+ *
+ * @param <T> The type of elements stored in the heap.
+ * @see Heap
+ */
+public interface IterableHeap<T> extends Heap<T>, Iterable<T> {
+
+    /**
+     * Iterates over the elements in no particular order.
+     *
+     * @return an iterator over the elements of this heap
+     */
+    @Override
+    Iterator<T> iterator();
+
+    /**
+     * Iterates over the elements best first without modifying the heap. The iterator is lazy, the first {@code k} elements cost
+     * O(k log k) no matter how large the heap is.
+     *
+     * @return an iterator returning the elements in the order {@link #pop()} would
+     */
+    Iterator<T> orderedIterator();
+
+    /**
+     * Get the {@code n} best elements in order without removing them.
+     *
+     * @param n The maximum number of elements.
+     * @return The {@code min(n, size())} best elements, best first.
+     * @throws IllegalArgumentException if {@code n} is negative.
+     */
+    default List<T> peekN(int n) {
+        if (n < 0) {
+            throw new IllegalArgumentException("n cannot be negative");
+        }
+        final int count = Math.min(n, size());
+        final List<T> result = new ArrayList<>(count);
+        final Iterator<T> iterator = orderedIterator();
+        for (int i = 0; i < count; i++) {
+            result.add(iterator.next());
+        }
+        return result;
+    }
+
+    /**
+     * Streams the elements in no particular order.
+     *
+     * @return a sequential stream over the elements of this heap
+     */
+    default Stream<T> stream() {
+        return StreamSupport.stream(spliterator(), false);
+    }
+}
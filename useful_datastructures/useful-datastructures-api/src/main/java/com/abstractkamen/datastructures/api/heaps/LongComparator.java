@@ -0,0 +1,48 @@
+package com.abstractkamen.datastructures.api.heaps;
+
+/**
+ * A comparison function over primitive {@code long} values. The contract is the same as {@link java.util.Comparator#compare(Object,
+ * Object)} without boxing either argument.
+ *
+ * @see LongHeap
+ */
+@FunctionalInterface
+public interface LongComparator {
+
+    /**
+     * Compares its two arguments for order.
+     *
+     * @param a the first value to be compared
+     * @param b the second value to be compared
+     * @return a negative integer, zero, or a positive integer as the first argument is less than, equal to, or greater than the
+     * second
+     */
+    int compare(long a, long b);
+
+    /**
+     * Returns a comparator that imposes the reverse ordering of this comparator.
+     *
+     * @return the reverse of this comparator
+     */
+    default LongComparator reversed() {
+        return (a, b) -> compare(b, a);
+    }
+
+    /**
+     * Ascending order, a heap using it is a min heap.
+     *
+     * @return natural order comparator
+     */
+    static LongComparator naturalOrder() {
+        return Long::compare;
+    }
+
+    /**
+     * Descending order, a heap using it is a max heap.
+     *
+     * @return reverse order comparator
+     */
+    static LongComparator reverseOrder() {
+        return (a, b) -> Long.compare(b, a);
+    }
+}
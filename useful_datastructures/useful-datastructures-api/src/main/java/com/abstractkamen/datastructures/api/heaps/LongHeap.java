@@ -0,0 +1,91 @@
+package com.abstractkamen.datastructures.api.heaps;
+
+import java.util.NoSuchElementException;
+import java.util.function.LongConsumer;
+
+/**
+ * A {@link Heap} of primitive {@code long} values. Depending on the {@link LongComparator} the best(minimum) value will always be at
+ * the root of the heap and available to be queried in O(1) constant time. Values are never boxed.
+ *
+ * @see Heap
+ */
+public interface LongHeap {
+
+    /**
+     * Inserts a value into the heap and ensures that the heap property is maintained.
+     *
+     * @param value The value to be inserted.
+     * @return The new size of the heap after insertion.
+     */
+    int push(long value);
+
+    /**
+     * Retrieves the best value of the heap without removing it.
+     *
+     * @return The best value of the heap.
+     * @throws NoSuchElementException if the heap is empty.
+     */
+    long peek();
+
+    /**
+     * Removes and retrieves the best value of the heap, and ensures that the heap property is maintained after removal.
+     *
+     * @return The best value of the heap.
+     * @throws NoSuchElementException if the heap is empty.
+     */
+    long pop();
+
+    /**
+     * Gets the number of values currently stored in the heap.
+     *
+     * @return The size of the heap.
+     */
+    int size();
+
+    /**
+     * Checks if the heap is empty.
+     *
+     * @return {@code true} if the heap is empty, {@code false} otherwise.
+     */
+    boolean isEmpty();
+
+    /**
+     * Get the comparator used to order values in this heap.
+     *
+     * @return The comparator used to order values in this heap. Never null.
+     */
+    LongComparator comparator();
+
+    /**
+     * Inserts all {@code values} into the heap. The default implementation pushes them one at a time.
+     *
+     * @param values The values to be inserted.
+     * @return The new size of the heap after insertion.
+     */
+    default int pushAll(long... values) {
+        int size = size();
+        for (long value : values) {
+            size = push(value);
+        }
+        return size;
+    }
+
+    /**
+     * Removes up to {@code n} best values in order and passes each of them to {@code action}.
+     *
+     * @param n      The maximum number of values to remove.
+     * @param action Receives the removed values in order.
+     * @return The number of removed values, {@code min(n, size())}.
+     * @throws IllegalArgumentException if {@code n} is negative.
+     */
+    default int popN(int n, LongConsumer action) {
+        if (n < 0) {
+            throw new IllegalArgumentException("n cannot be negative");
+        }
+        final int count = Math.min(n, size());
+        for (int i = 0; i < count; i++) {
+            action.accept(pop());
+        }
+        return count;
+    }
+}
@@ -0,0 +1,101 @@
+package com.abstractkamen.datastructures.api.queues;
+
+import java.util.NoSuchElementException;
+import java.util.PrimitiveIterator;
+import java.util.function.DoubleConsumer;
+import java.util.stream.DoubleStream;
+
+/**
+ * A ring buffer of primitive {@code double} values. The contract is the same as {@link RingBuffer} without boxing a single value.
+ *
+ * @see RingBuffer
+ */
+public interface DoubleRingBuffer {
+
+    /**
+     * True if buffer is empty.
+     *
+     * @return true if buffer is empty
+     */
+    boolean isEmpty();
+
+    /**
+     * Returns the number of values currently stored in the buffer.
+     *
+     * @return the number of values in the buffer.
+     */
+    int size();
+
+    /**
+     * Returns the total capacity of the buffer.
+     *
+     * @return the capacity of the buffer.
+     */
+    int capacity();
+
+    /**
+     * Enqueues the specified value into the buffer.
+     *
+     * @param value the value to be enqueued.
+     * @return {@code true} if value is successfully enqueued.
+     */
+    boolean enqueue(double value);
+
+    /**
+     * Dequeues and returns the oldest value from the buffer.
+     *
+     * @return the oldest value in the buffer.
+     * @throws NoSuchElementException if the buffer is empty.
+     */
+    double dequeue();
+
+    /**
+     * Enqueues all values in order. The default implementation enqueues them one at a time, implementations may copy them in bulk.
+     *
+     * @param values the values to be enqueued.
+     * @return the new size of the buffer.
+     */
+    default int enqueueAll(double... values) {
+        for (double value : values) {
+            enqueue(value);
+        }
+        return size();
+    }
+
+    /**
+     * Dequeues up to {@code target.length} of the oldest values into {@code target}, oldest first.
+     *
+     * @param target the array receiving the values.
+     * @return the number of dequeued values, {@code min(size(), target.length)}.
+     */
+    default int drainTo(double[] target) {
+        final int n = Math.min(size(), target.length);
+        for (int i = 0; i < n; i++) {
+            target[i] = dequeue();
+        }
+        return n;
+    }
+
+    /**
+     * Returns a sequential {@link DoubleStream} of the values in the buffer, oldest first.
+     *
+     * @return a sequential stream of values in the buffer.
+     */
+    DoubleStream stream();
+
+    /**
+     * Returns an iterator over the values in the buffer, oldest first. {@link PrimitiveIterator.OfDouble#remove()} is not supported.
+     *
+     * @return an iterator over the values in the buffer.
+     */
+    PrimitiveIterator.OfDouble iterator();
+
+    /**
+     * Passes every value in the buffer to {@code action}, oldest first.
+     *
+     * @param action receives the values.
+     */
+    default void forEach(DoubleConsumer action) {
+        iterator().forEachRemaining(action);
+    }
+}
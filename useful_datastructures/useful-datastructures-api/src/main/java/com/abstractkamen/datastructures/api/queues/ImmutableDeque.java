@@ -0,0 +1,69 @@
+package com.abstractkamen.datastructures.api.queues;
+
+/**
+ * This double ended queue is considered 'immutable' because no operations are performed in-place. All 'modifying' operations at
+ * either end return new deques, so a deque can be published to other threads as a snapshot which never changes.
+ *
+ * @param <T> type of elements
+ */
+public interface ImmutableDeque<T> extends Iterable<T> {
+    /**
+     * Creates a new deque with the element added at the front.
+     *
+     * @param element to add
+     * @return new deque
+     */
+    ImmutableDeque<T> pushFront(T element);
+
+    /**
+     * Creates a new deque with the element added at the back.
+     *
+     * @param element to add
+     * @return new deque
+     */
+    ImmutableDeque<T> pushBack(T element);
+
+    /**
+     * Returns the deque without its front element.
+     *
+     * @return new deque without the front element
+     * @throws java.util.NoSuchElementException if the deque is empty
+     */
+    ImmutableDeque<T> popFront();
+
+    /**
+     * Returns the deque without its back element.
+     *
+     * @return new deque without the back element
+     * @throws java.util.NoSuchElementException if the deque is empty
+     */
+    ImmutableDeque<T> popBack();
+
+    /**
+     * See the front element.
+     *
+     * @return front element, null if the deque is empty
+     */
+    T peekFront();
+
+    /**
+     * See the back element.
+     *
+     * @return back element, null if the deque is empty
+     */
+    T peekBack();
+
+    /**
+     * The number of elements.
+     *
+     * @return size of the deque
+     */
+    int size();
+
+    /**
+     * True if deque is empty.
+     *
+     * @return true if deque is empty
+     */
+    boolean isEmpty();
+}
@@ -0,0 +1,46 @@
+package com.abstractkamen.datastructures.api.queues;
+
+/**
+ * This queue is considered 'immutable' because no operations are performed in-place. All 'modifying' operations like enqueue and
+ * dequeue return new queues, so a queue can be published to other threads as a snapshot which never changes.
+ *
+ * @param <T> type of elements
+ */
+public interface ImmutableQueue<T> extends Iterable<T> {
+    /**
+     * Creates a new queue with the element added at the back.
+     *
+     * @param element to add
+     * @return new queue
+     */
+    ImmutableQueue<T> enqueue(T element);
+
+    /**
+     * Returns the queue without its front element.
+     *
+     * @return new queue without the front element
+     * @throws java.util.NoSuchElementException if the queue is empty
+     */
+    ImmutableQueue<T> dequeue();
+
+    /**
+     * See the front element.
+     *
+     * @return front element, null if the queue is empty
+     */
+    T peek();
+
+    /**
+     * The number of elements.
+     *
+     * @return size of the queue
+     */
+    int size();
+
+    /**
+     * True if queue is empty.
+     *
+     * @return true if queue is empty
+     */
+    boolean isEmpty();
+}
@@ -46,6 +46,25 @@ public interface RingBuffer<T> extends Iterable<T> {
      */
     T dequeue();
 
+    /**
+     * Enqueues the specified item if the buffer accepts it, never throws because the buffer is full.
+     *
+     * @param item the item to be enqueued.
+     * @return {@code true} if item is successfully enqueued, {@code false} if the buffer is full and does not overwrite.
+     */
+    default boolean offer(T item) {
+        return enqueue(item);
+    }
+
+    /**
+     * Dequeues and returns the oldest item from the buffer, never throws because the buffer is empty.
+     *
+     * @return the oldest item in the buffer, or {@code null} if the buffer is empty.
+     */
+    default T poll() {
+        return isEmpty() ? null : dequeue();
+    }
+
     /**
      * Returns a sequential {@link java.util.stream.Stream} of items in the buffer.
      *
@@ -0,0 +1,67 @@
+package com.abstractkamen.datastructures.api.stacks;
+
+import java.util.NoSuchElementException;
+import java.util.PrimitiveIterator;
+import java.util.function.LongConsumer;
+
+/**
+ * An {@link ImmutableStack} of primitive {@code long} values. All 'modifying' operations like push and pop return new stacks and no
+ * value is boxed.
+ *
+ * @see ImmutableStack
+ */
+public interface LongImmutableStack {
+    /**
+     * Creates a new stack with the value on top of this one.
+     *
+     * @param value to push
+     * @return new stack
+     */
+    LongImmutableStack push(long value);
+
+    /**
+     * Returns the stack below the top value.
+     *
+     * @return tail of current stack
+     * @throws NoSuchElementException if the stack is empty
+     */
+    LongImmutableStack pop();
+
+    /**
+     * See the top value.
+     *
+     * @return top value
+     * @throws NoSuchElementException if the stack is empty
+     */
+    long peek();
+
+    /**
+     * The depth of current stack.
+     *
+     * @return depth of current stack
+     */
+    int depth();
+
+    /**
+     * True if stack is empty.
+     *
+     * @return true if stack is empty
+     */
+    boolean isEmpty();
+
+    /**
+     * Returns an iterator over the values from the top of the stack to the bottom.
+     *
+     * @return an iterator over the values of the stack
+     */
+    PrimitiveIterator.OfLong iterator();
+
+    /**
+     * Performs the action for every value from the top of the stack to the bottom.
+     *
+     * @param action the action to be performed for each value
+     */
+    default void forEach(LongConsumer action) {
+        iterator().forEachRemaining(action);
+    }
+}
@@ -0,0 +1,112 @@
+package com.abstractkamen.datastructures.benchmarks;
+
+import java.util.SplittableRandom;
+
+/**
+ * Deterministic input generators shared by the benchmarks. Every generator takes an explicit seed so that two runs, or two releases,
+ * are measured against exactly the same data.
+ */
+public final class BenchmarkData {
+
+    /**
+     * The seed used by benchmarks unless they have a reason to vary it.
+     */
+    public static final long SEED = 0x5EED_CAFEL;
+    private static final char[] ALPHABET = "abcdefghijklmnopqrstuvwxyz".toCharArray();
+
+    private BenchmarkData() {
+    }
+
+    /**
+     * Random ints in {@code [0, bound)}.
+     *
+     * @param size  number of values
+     * @param bound exclusive upper bound
+     * @param seed  random seed
+     * @return array of random ints
+     */
+    public static int[] ints(int size, int bound, long seed) {
+        return new SplittableRandom(seed).ints(size, 0, bound).toArray();
+    }
+
+    /**
+     * Random boxed ints in {@code [0, bound)}. Boxing happens here, during setup, so that it is not measured.
+     *
+     * @param size  number of values
+     * @param bound exclusive upper bound
+     * @param seed  random seed
+     * @return array of random boxed ints
+     */
+    public static Integer[] boxedInts(int size, int bound, long seed) {
+        final int[] ints = ints(size, bound, seed);
+        final Integer[] boxed = new Integer[size];
+        for (int i = 0; i < size; i++) {
+            boxed[i] = ints[i];
+        }
+        return boxed;
+    }
+
+    /**
+     * Random longs in {@code [0, bound)}.
+     *
+     * @param size  number of values
+     * @param bound exclusive upper bound
+     * @param seed  random seed
+     * @return array of random longs
+     */
+    public static long[] longs(int size, long bound, long seed) {
+        return new SplittableRandom(seed).longs(size, 0, bound).toArray();
+    }
+
+    /**
+     * Random lowercase words with lengths in {@code [minLength, maxLength]}. The first letters are skewed towards the start of the
+     * alphabet so that prefixes are shared the way they are in natural language text.
+     *
+     * @param size      number of words
+     * @param minLength minimum word length
+     * @param maxLength maximum word length
+     * @param seed      random seed
+     * @return array of words, may contain duplicates
+     */
+    public static String[] words(int size, int minLength, int maxLength, long seed) {
+        final SplittableRandom random = new SplittableRandom(seed);
+        final String[] words = new String[size];
+        final char[] buffer = new char[maxLength];
+        for (int i = 0; i < size; i++) {
+            final int length = random.nextInt(minLength, maxLength + 1);
+            for (int j = 0; j < length; j++) {
+                // squaring a uniform value skews towards 0 which gives us shared prefixes
+                final double skew = random.nextDouble();
+                final int letter = j < 2 ? (int) (skew * skew * ALPHABET.length) : random.nextInt(ALPHABET.length);
+                buffer[j] = ALPHABET[letter];
+            }
+            words[i] = new String(buffer, 0, length);
+        }
+        return words;
+    }
+
+    /**
+     * Random documents made of space separated {@link #words(int, int, int, long) words}.
+     *
+     * @param size          number of documents
+     * @param wordsPerDoc   number of words in each document
+     * @param seed          random seed
+     * @return array of documents
+     */
+    public static String[] documents(int size, int wordsPerDoc, long seed) {
+        final String[] words = words(size * wordsPerDoc, 2, 10, seed);
+        final String[] documents = new String[size];
+        final StringBuilder sb = new StringBuilder();
+        for (int i = 0; i < size; i++) {
+            sb.setLength(0);
+            for (int j = 0; j < wordsPerDoc; j++) {
+                if (j > 0) {
+                    sb.append(' ');
+                }
+                sb.append(words[i * wordsPerDoc + j]);
+            }
+            documents[i] = sb.toString();
+        }
+        return documents;
+    }
+}
@@ -0,0 +1,68 @@
+package com.abstractkamen.datastructures.benchmarks.heaps;
+
+import com.abstractkamen.datastructures.benchmarks.BenchmarkData;
+import com.abstractkamen.datastructures.impl.heaps.AdjustableBinaryHeap;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.Comparator;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * {@link AdjustableBinaryHeap} key adjustment benchmarks. Each invocation replaces a random element of a heap holding {@code size}
+ * elements with a smaller or a greater one, which is the typical access pattern of Dijkstra or Prim.
+ */
+@State(Scope.Thread)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class AdjustableBinaryHeapBenchmark {
+
+    @Param({"1000", "10000", "100000"})
+    int size;
+
+    private Key[] keys;
+    private AdjustableBinaryHeap<Key> heap;
+    private SplittableRandom random;
+
+    @Setup(Level.Iteration)
+    public void setUp() {
+        random = new SplittableRandom(BenchmarkData.SEED);
+        final long[] values = BenchmarkData.longs(size, Long.MAX_VALUE >>> 1, BenchmarkData.SEED);
+        keys = new Key[size];
+        heap = new AdjustableBinaryHeap<>(Key.COMPARATOR, size);
+        for (int i = 0; i < size; i++) {
+            keys[i] = new Key(values[i]);
+            heap.push(keys[i]);
+        }
+    }
+
+    @Benchmark
+    public boolean decreaseKey() {
+        final int i = random.nextInt(size);
+        final Key decreased = new Key(keys[i].value - 1 - random.nextInt(1000));
+        final boolean result = heap.decreaseKey(keys[i], decreased);
+        keys[i] = decreased;
+        return result;
+    }
+
+    @Benchmark
+    public boolean increaseKey() {
+        final int i = random.nextInt(size);
+        final Key increased = new Key(keys[i].value + 1 + random.nextInt(1000));
+        final boolean result = heap.increaseKey(keys[i], increased);
+        keys[i] = increased;
+        return result;
+    }
+
+    static final class Key {
+        static final Comparator<Key> COMPARATOR = Comparator.comparingLong(k -> k.value);
+        final long value;
+
+        Key(long value) {
+            this.value = value;
+        }
+    }
+}
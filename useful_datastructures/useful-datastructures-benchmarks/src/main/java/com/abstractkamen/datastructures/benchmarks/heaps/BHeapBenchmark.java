@@ -0,0 +1,63 @@
+package com.abstractkamen.datastructures.benchmarks.heaps;
+
+import com.abstractkamen.datastructures.benchmarks.BenchmarkData;
+import com.abstractkamen.datastructures.impl.heaps.BHeap;
+import com.abstractkamen.datastructures.impl.heaps.BinaryHeap;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * {@link BHeap} against {@link BinaryHeap} for heaps far bigger than the last level cache. Both heaps are kept at a steady
+ * {@code size} and {@code pushPop} measures one push followed by one pop, the pop sifts from the root to the bottom.
+ * <p>
+ * The default sizes fit the default fork heap, run the 100M case with
+ * {@code -p size=100000000 -jvmArgsAppend -Xmx12g}. The values are boxed once up front and shared by both heaps so that only
+ * the layout of the backing arrays differs.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class BHeapBenchmark {
+
+    @Param({"1000000", "10000000"})
+    int size;
+
+    @Param({"64", "1024"})
+    int pageSize;
+
+    private Integer[] values;
+    private BHeap<Integer> heap;
+    private BinaryHeap<Integer> binaryHeap;
+    private int next;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        values = BenchmarkData.boxedInts(size, Integer.MAX_VALUE, BenchmarkData.SEED);
+        heap = BHeap.createComparable(pageSize, size + 1);
+        binaryHeap = BinaryHeap.createComparable(size + 2);
+        for (Integer value : values) {
+            heap.push(value);
+            binaryHeap.push(value);
+        }
+    }
+
+    @Benchmark
+    public Integer pushPop() {
+        final Integer value = values[next];
+        next = next + 1 == size ? 0 : next + 1;
+        heap.push(value);
+        return heap.pop();
+    }
+
+    @Benchmark
+    public Integer binaryHeapPushPop() {
+        final Integer value = values[next];
+        next = next + 1 == size ? 0 : next + 1;
+        binaryHeap.push(value);
+        return binaryHeap.pop();
+    }
+}
@@ -0,0 +1,153 @@
+package com.abstractkamen.datastructures.benchmarks.heaps;
+
+import com.abstractkamen.datastructures.benchmarks.BenchmarkData;
+import com.abstractkamen.datastructures.impl.heaps.BinaryHeap;
+import com.abstractkamen.datastructures.impl.heaps.HeapMetricsRecorder;
+import com.abstractkamen.datastructures.impl.utils.ResizePolicy;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * {@link BinaryHeap} push/pop/merge benchmarks.
+ * <ul>
+ *     <li>{@code pushPop} keeps the heap at a steady {@code size} and measures one push followed by one pop</li>
+ *     <li>{@code pushPopWithMetrics} does the same on a heap recording {@link HeapMetricsRecorder metrics}</li>
+ *     <li>{@code peekTop100} reads the 100 best items with {@link BinaryHeap#peekN(int)}, {@code popAndPushBackTop100} does the
+ *     same by popping them and pushing them back</li>
+ *     <li>{@code fillAndDrain} pushes {@code size} items into an empty heap and pops them all</li>
+ *     <li>{@code mergeWith} merges two heaps of {@code size} items each</li>
+ *     <li>{@code loadWithPush}, {@code loadWithPushAll} and {@code loadWithHeapify} build a heap of {@code size} items starting from
+ *     the default capacity</li>
+ * </ul>
+ */
+@State(Scope.Thread)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class BinaryHeapBenchmark {
+
+    @Param({"1000", "100000", "1000000"})
+    int size;
+
+    private Integer[] values;
+    private List<Integer> valueList;
+    private BinaryHeap<Integer> heap;
+    private BinaryHeap<Integer> meteredHeap;
+    private int next;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        values = BenchmarkData.boxedInts(size, Integer.MAX_VALUE, BenchmarkData.SEED);
+        valueList = Arrays.asList(values);
+        heap = BinaryHeap.createComparable(size);
+        meteredHeap = new BinaryHeap<>(Comparator.<Integer>naturalOrder(), size, ResizePolicy.DEFAULT, new HeapMetricsRecorder());
+        for (Integer value : values) {
+            heap.push(value);
+            meteredHeap.push(value);
+        }
+    }
+
+    @Benchmark
+    public Integer pushPop() {
+        final Integer value = values[next];
+        next = next + 1 == size ? 0 : next + 1;
+        heap.push(value);
+        return heap.pop();
+    }
+
+    @Benchmark
+    public Integer pushPopWithMetrics() {
+        final Integer value = values[next];
+        next = next + 1 == size ? 0 : next + 1;
+        meteredHeap.push(value);
+        return meteredHeap.pop();
+    }
+
+    @Benchmark
+    public List<Integer> peekTop100() {
+        return heap.peekN(100);
+    }
+
+    @Benchmark
+    public List<Integer> popAndPushBackTop100() {
+        final List<Integer> top = new ArrayList<>(100);
+        heap.popN(100, top::add);
+        heap.pushAll(top);
+        return top;
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.AverageTime)
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    public void fillAndDrain(Blackhole bh) {
+        final BinaryHeap<Integer> h = BinaryHeap.createComparable();
+        for (Integer value : values) {
+            h.push(value);
+        }
+        while (!h.isEmpty()) {
+            bh.consume(h.pop());
+        }
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.AverageTime)
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    public BinaryHeap<Integer> loadWithPush() {
+        final BinaryHeap<Integer> h = BinaryHeap.createComparable();
+        for (Integer value : values) {
+            h.push(value);
+        }
+        return h;
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.AverageTime)
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    public BinaryHeap<Integer> loadWithPushAll() {
+        final BinaryHeap<Integer> h = BinaryHeap.createComparable();
+        h.pushAll(valueList);
+        return h;
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.AverageTime)
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    public BinaryHeap<Integer> loadWithHeapify() {
+        return BinaryHeap.heapify(Integer::compare, values);
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.AverageTime)
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    public BinaryHeap<Integer> mergeWith(MergeState state) {
+        return state.left.mergeWith(state.right);
+    }
+
+    /**
+     * Merging mutates the left heap so a fresh pair is created for every invocation. The heaps are large enough that the setup
+     * overhead JMH warns about for {@link Level#Invocation} is negligible next to the merge itself.
+     */
+    @State(Scope.Thread)
+    public static class MergeState {
+        BinaryHeap<Integer> left;
+        BinaryHeap<Integer> right;
+
+        @Setup(Level.Invocation)
+        public void setUp(BinaryHeapBenchmark benchmark) {
+            left = BinaryHeap.createComparable(benchmark.size);
+            right = BinaryHeap.createComparable(benchmark.size);
+            for (Integer value : benchmark.values) {
+                left.push(value);
+                right.push(value);
+            }
+        }
+    }
+}
@@ -0,0 +1,110 @@
+package com.abstractkamen.datastructures.benchmarks.heaps;
+
+import com.abstractkamen.datastructures.impl.heaps.BinaryHeap;
+import com.abstractkamen.datastructures.impl.heaps.MultiQueueHeap;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.PriorityBlockingQueue;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Shared priority queue under contention, {@link MultiQueueHeap} against {@link PriorityBlockingQueue} and a {@link BinaryHeap}
+ * behind a single lock. Every thread pushes a random value and pops one so the queue stays at {@code size}. The thread count
+ * defaults to 8, run with {@code -t 32} or {@code -t max} to see the locked heaps flatten out.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@Threads(8)
+public class ConcurrentHeapBenchmark {
+
+    @Param({"multiQueue", "priorityBlockingQueue", "lockedBinaryHeap"})
+    String implementation;
+
+    @Param({"100000"})
+    int size;
+
+    private Queue queue;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        switch (implementation) {
+            case "multiQueue":
+                final MultiQueueHeap<Integer> multiQueue = MultiQueueHeap.createComparable();
+                queue = new Queue() {
+                    @Override
+                    public void push(Integer value) {
+                        multiQueue.push(value);
+                    }
+
+                    @Override
+                    public Integer pop() {
+                        return multiQueue.pop();
+                    }
+                };
+                break;
+            case "priorityBlockingQueue":
+                final PriorityBlockingQueue<Integer> blockingQueue = new PriorityBlockingQueue<>();
+                queue = new Queue() {
+                    @Override
+                    public void push(Integer value) {
+                        blockingQueue.offer(value);
+                    }
+
+                    @Override
+                    public Integer pop() {
+                        return blockingQueue.poll();
+                    }
+                };
+                break;
+            case "lockedBinaryHeap":
+                final BinaryHeap<Integer> binaryHeap = BinaryHeap.createComparable();
+                final ReentrantLock lock = new ReentrantLock();
+                queue = new Queue() {
+                    @Override
+                    public void push(Integer value) {
+                        lock.lock();
+                        try {
+                            binaryHeap.push(value);
+                        } finally {
+                            lock.unlock();
+                        }
+                    }
+
+                    @Override
+                    public Integer pop() {
+                        lock.lock();
+                        try {
+                            return binaryHeap.pop();
+                        } finally {
+                            lock.unlock();
+                        }
+                    }
+                };
+                break;
+            default:
+                throw new IllegalArgumentException("unknown implementation " + implementation);
+        }
+        final ThreadLocalRandom random = ThreadLocalRandom.current();
+        for (int i = 0; i < size; i++) {
+            queue.push(random.nextInt());
+        }
+    }
+
+    @Benchmark
+    public Integer pushPop() {
+        queue.push(ThreadLocalRandom.current().nextInt());
+        return queue.pop();
+    }
+
+    private interface Queue {
+        void push(Integer value);
+
+        Integer pop();
+    }
+}
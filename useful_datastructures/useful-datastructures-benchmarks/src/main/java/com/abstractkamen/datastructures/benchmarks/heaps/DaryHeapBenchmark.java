@@ -0,0 +1,77 @@
+package com.abstractkamen.datastructures.benchmarks.heaps;
+
+import com.abstractkamen.datastructures.benchmarks.BenchmarkData;
+import com.abstractkamen.datastructures.impl.heaps.BinaryHeap;
+import com.abstractkamen.datastructures.impl.heaps.DaryHeap;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * {@link DaryHeap} push/pop benchmarks across arities, with the same workloads as {@link BinaryHeapBenchmark} so the two can be read
+ * side by side. {@code binaryHeapPushPop} is the {@link BinaryHeap} baseline in the same run.
+ * <ul>
+ *     <li>{@code pushPop} keeps the heap at a steady {@code size} and measures one push followed by one pop</li>
+ *     <li>{@code fillAndDrain} pushes {@code size} items into an empty heap and pops them all</li>
+ * </ul>
+ */
+@State(Scope.Thread)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class DaryHeapBenchmark {
+
+    @Param({"2", "4", "8"})
+    int arity;
+
+    @Param({"100000", "1000000"})
+    int size;
+
+    private Integer[] values;
+    private DaryHeap<Integer> heap;
+    private BinaryHeap<Integer> binaryHeap;
+    private int next;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        values = BenchmarkData.boxedInts(size, Integer.MAX_VALUE, BenchmarkData.SEED);
+        heap = DaryHeap.createComparable(arity, size);
+        binaryHeap = BinaryHeap.createComparable(size);
+        for (Integer value : values) {
+            heap.push(value);
+            binaryHeap.push(value);
+        }
+    }
+
+    @Benchmark
+    public Integer pushPop() {
+        final Integer value = values[next];
+        next = next + 1 == size ? 0 : next + 1;
+        heap.push(value);
+        return heap.pop();
+    }
+
+    @Benchmark
+    public Integer binaryHeapPushPop() {
+        final Integer value = values[next];
+        next = next + 1 == size ? 0 : next + 1;
+        binaryHeap.push(value);
+        return binaryHeap.pop();
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.AverageTime)
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    public void fillAndDrain(Blackhole bh) {
+        final DaryHeap<Integer> h = DaryHeap.createComparable(arity);
+        for (Integer value : values) {
+            h.push(value);
+        }
+        while (!h.isEmpty()) {
+            bh.consume(h.pop());
+        }
+    }
+}
@@ -0,0 +1,205 @@
+package com.abstractkamen.datastructures.benchmarks.heaps;
+
+import com.abstractkamen.datastructures.api.heaps.AdjustableHeap;
+import com.abstractkamen.datastructures.api.heaps.Heap;
+import com.abstractkamen.datastructures.impl.heaps.AdjustableBinaryHeap;
+import com.abstractkamen.datastructures.impl.heaps.BinaryHeap;
+import com.abstractkamen.datastructures.impl.heaps.FibonacciHeap;
+import com.abstractkamen.datastructures.impl.heaps.IndexedAdjustableBinaryHeap;
+import com.abstractkamen.datastructures.impl.heaps.PairingHeap;
+import com.abstractkamen.datastructures.impl.heaps.RadixHeap;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Single source shortest paths with decrease-key, comparing the linear scan of {@link AdjustableBinaryHeap} with the position
+ * index of {@link IndexedAdjustableBinaryHeap} and the node based {@link PairingHeap} and {@link FibonacciHeap}. Queue entries are
+ * immutable so every heap is driven through {@link AdjustableHeap#decreaseKey(Object, Object)} with a fresh entry, exactly as the
+ * contract describes.
+ * <p>
+ * On the {@code dag} graph of {@code AdjustableBinaryHeapCompareTest} the heap never holds more than {@code edges} entries so the
+ * scan is cheap, on the {@code random} graph the heap holds a large part of the graph and the scan dominates. A run over the
+ * {@code random} graph costs O(edges * vertices²) with the scan, which does not finish for the sizes of this class, so
+ * {@link AdjustableBinaryHeap} is measured by {@link LinearScan} on graphs a tenth of the size.
+ * <p>
+ * {@code binaryHeapLazy} and {@code radixHeap} skip decrease-key altogether, they push a new entry for every improved distance and
+ * drop stale entries when they are popped. Dijkstra pops non-decreasing distances, which is all {@link RadixHeap} needs.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2)
+@Measurement(iterations = 5)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+public class DijkstraBenchmark {
+
+    @Param({"100000", "200000"})
+    int vertices;
+
+    @Param({"15"})
+    int edges;
+
+    @Param({"dag", "random"})
+    String graphType;
+
+    private Graph graph;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        graph = Graph.create(graphType, vertices, edges);
+    }
+
+    @Benchmark
+    public long indexedAdjustableBinaryHeap() {
+        return shortestPaths(graph, new IndexedAdjustableBinaryHeap<>(Entry.COMPARATOR));
+    }
+
+    @Benchmark
+    public long pairingHeap() {
+        return shortestPaths(graph, new PairingHeap<>(Entry.COMPARATOR));
+    }
+
+    @Benchmark
+    public long fibonacciHeap() {
+        return shortestPaths(graph, new FibonacciHeap<>(Entry.COMPARATOR));
+    }
+
+    @Benchmark
+    public long binaryHeapLazy() {
+        final BinaryHeap<Entry> heap = new BinaryHeap<>(Entry.COMPARATOR);
+        final long[] distances = initialDistances();
+        heap.push(new Entry(0, 0));
+        long sum = 0;
+        while (!heap.isEmpty()) {
+            final Entry closest = heap.pop();
+            final int v = closest.vertex;
+            if (closest.distance > distances[v]) {
+                continue;
+            }
+            sum += closest.distance;
+            for (int e = graph.offsets[v]; e < graph.offsets[v + 1]; e++) {
+                final int t = graph.targets[e];
+                final long d = closest.distance + graph.weights[e];
+                if (d < distances[t]) {
+                    distances[t] = d;
+                    heap.push(new Entry(t, d));
+                }
+            }
+        }
+        return sum;
+    }
+
+    @Benchmark
+    public long radixHeap() {
+        final RadixHeap heap = new RadixHeap(true);
+        final long[] distances = initialDistances();
+        heap.push(0, 0);
+        long sum = 0;
+        while (!heap.isEmpty()) {
+            final long distance = heap.pop();
+            final int v = (int) heap.lastPayload();
+            if (distance > distances[v]) {
+                continue;
+            }
+            sum += distance;
+            for (int e = graph.offsets[v]; e < graph.offsets[v + 1]; e++) {
+                final int t = graph.targets[e];
+                final long d = distance + graph.weights[e];
+                if (d < distances[t]) {
+                    distances[t] = d;
+                    heap.push(d, t);
+                }
+            }
+        }
+        return sum;
+    }
+
+    private long[] initialDistances() {
+        final long[] distances = new long[graph.vertices];
+        Arrays.fill(distances, Long.MAX_VALUE);
+        distances[0] = 0;
+        return distances;
+    }
+
+    /**
+     * @return sum of all finite distances, consumed by JMH
+     */
+    private static <H extends Heap<Entry> & AdjustableHeap<Entry>> long shortestPaths(Graph graph, H heap) {
+        final long[] distances = new long[graph.vertices];
+        Arrays.fill(distances, Long.MAX_VALUE);
+        final Entry[] queued = new Entry[graph.vertices];
+        distances[0] = 0;
+        queued[0] = new Entry(0, 0);
+        heap.push(queued[0]);
+        long sum = 0;
+        while (!heap.isEmpty()) {
+            final Entry closest = heap.pop();
+            final int v = closest.vertex;
+            queued[v] = null;
+            sum += closest.distance;
+            for (int e = graph.offsets[v]; e < graph.offsets[v + 1]; e++) {
+                final int t = graph.targets[e];
+                final long d = closest.distance + graph.weights[e];
+                if (d < distances[t]) {
+                    distances[t] = d;
+                    final Entry decreased = new Entry(t, d);
+                    if (queued[t] == null) {
+                        heap.push(decreased);
+                    } else {
+                        heap.decreaseKey(queued[t], decreased);
+                    }
+                    queued[t] = decreased;
+                }
+            }
+        }
+        return sum;
+    }
+
+    /**
+     * {@link AdjustableBinaryHeap} on smaller graphs, compare it with the other heaps by running
+     * {@link #indexedAdjustableBinaryHeap()} with the same {@code vertices}.
+     */
+    @State(Scope.Benchmark)
+    @BenchmarkMode(Mode.SingleShotTime)
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    @Warmup(iterations = 2)
+    @Measurement(iterations = 5)
+    @Fork(1)
+    public static class LinearScan {
+
+        @Param({"10000", "20000"})
+        int vertices;
+
+        @Param({"15"})
+        int edges;
+
+        @Param({"dag", "random"})
+        String graphType;
+
+        private Graph graph;
+
+        @Setup(Level.Trial)
+        public void setUp() {
+            graph = Graph.create(graphType, vertices, edges);
+        }
+
+        @Benchmark
+        public long adjustableBinaryHeap() {
+            return shortestPaths(graph, new AdjustableBinaryHeap<>(Entry.COMPARATOR));
+        }
+    }
+
+    static final class Entry {
+        static final Comparator<Entry> COMPARATOR = Comparator.comparingLong(e -> e.distance);
+        final int vertex;
+        final long distance;
+
+        Entry(int vertex, long distance) {
+            this.vertex = vertex;
+            this.distance = distance;
+        }
+    }
+}
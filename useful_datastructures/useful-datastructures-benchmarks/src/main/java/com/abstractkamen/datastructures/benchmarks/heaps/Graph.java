@@ -0,0 +1,85 @@
+package com.abstractkamen.datastructures.benchmarks.heaps;
+
+import com.abstractkamen.datastructures.benchmarks.BenchmarkData;
+
+import java.util.SplittableRandom;
+
+/**
+ * A directed weighted graph in compressed sparse row form used by the shortest path benchmarks. The edges of vertex {@code v} are
+ * {@code targets[offsets[v]] .. targets[offsets[v + 1] - 1]} with matching {@code weights}. Weights are positive integers so the
+ * same graph can drive heaps with {@code double} and {@code long} keys.
+ */
+final class Graph {
+    final int vertices;
+    final int[] offsets;
+    final int[] targets;
+    final int[] weights;
+
+    private Graph(int vertices, int[] offsets, int[] targets, int[] weights) {
+        this.vertices = vertices;
+        this.offsets = offsets;
+        this.targets = targets;
+        this.weights = weights;
+    }
+
+    /**
+     * The graph used by {@code AdjustableBinaryHeapCompareTest}, every vertex links to the next {@code edges} vertices. The frontier
+     * of a shortest path search never exceeds {@code edges} vertices.
+     *
+     * @param vertices number of vertices
+     * @param edges    out edges of every vertex
+     * @return a directed acyclic graph
+     */
+    static Graph dag(int vertices, int edges) {
+        final SplittableRandom random = new SplittableRandom(BenchmarkData.SEED);
+        final int[] offsets = new int[vertices + 1];
+        final int[] targets = new int[vertices * edges];
+        final int[] weights = new int[targets.length];
+        int e = 0;
+        for (int v = 0; v < vertices; v++) {
+            offsets[v] = e;
+            for (int t = v + 1; t <= v + edges && t < vertices; t++) {
+                targets[e] = t;
+                weights[e] = random.nextInt(1, 1000);
+                e++;
+            }
+        }
+        offsets[vertices] = e;
+        return new Graph(vertices, offsets, targets, weights);
+    }
+
+    /**
+     * Every vertex links to {@code edges} uniformly random vertices. The frontier of a shortest path search grows to a large fraction
+     * of all vertices, which is where the cost of locating a vertex inside the heap shows.
+     *
+     * @param vertices number of vertices
+     * @param edges    out edges of every vertex
+     * @return a random directed graph
+     */
+    static Graph random(int vertices, int edges) {
+        final SplittableRandom random = new SplittableRandom(BenchmarkData.SEED);
+        final int[] offsets = new int[vertices + 1];
+        final int[] targets = new int[vertices * edges];
+        final int[] weights = new int[targets.length];
+        for (int v = 0; v < vertices; v++) {
+            offsets[v] = v * edges;
+            for (int e = v * edges; e < (v + 1) * edges; e++) {
+                targets[e] = random.nextInt(vertices);
+                weights[e] = random.nextInt(1, 1000);
+            }
+        }
+        offsets[vertices] = targets.length;
+        return new Graph(vertices, offsets, targets, weights);
+    }
+
+    static Graph create(String type, int vertices, int edges) {
+        switch (type) {
+            case "dag":
+                return dag(vertices, edges);
+            case "random":
+                return random(vertices, edges);
+            default:
+                throw new IllegalArgumentException("unknown graph type " + type);
+        }
+    }
+}
@@ -0,0 +1,114 @@
+package com.abstractkamen.datastructures.benchmarks.heaps;
+
+import com.abstractkamen.datastructures.api.heaps.Heap;
+import com.abstractkamen.datastructures.api.heaps.MergeableHeap;
+import com.abstractkamen.datastructures.benchmarks.BenchmarkData;
+import com.abstractkamen.datastructures.impl.heaps.BinaryHeap;
+import com.abstractkamen.datastructures.impl.heaps.FibonacciHeap;
+import com.abstractkamen.datastructures.impl.heaps.PairingHeap;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.Comparator;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+
+/**
+ * {@link BinaryHeap} against the node based {@link PairingHeap} and {@link FibonacciHeap}.
+ * <ul>
+ *     <li>{@code pushPop} keeps the heap at a steady {@code size} and measures one push followed by one pop</li>
+ *     <li>{@code mergeWith} merges {@code shards} heaps of {@code size / shards} items each into one, the per-shard queue
+ *     pattern, a fresh set of shards is built for every invocation</li>
+ * </ul>
+ */
+@State(Scope.Thread)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class MergeableHeapBenchmark {
+    private static final Comparator<Integer> COMPARATOR = Integer::compare;
+
+    @Param({"binary", "pairing", "fibonacci"})
+    String implementation;
+
+    @Param({"100000", "1000000"})
+    int size;
+
+    @Param({"16"})
+    int shards;
+
+    private Integer[] values;
+    private Heap<Integer> heap;
+    private int next;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        values = BenchmarkData.boxedInts(size, Integer.MAX_VALUE, BenchmarkData.SEED);
+        heap = create(implementation);
+        for (Integer value : values) {
+            heap.push(value);
+        }
+    }
+
+    @Benchmark
+    public Integer pushPop() {
+        final Integer value = values[next];
+        next = next + 1 == size ? 0 : next + 1;
+        heap.push(value);
+        return heap.pop();
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.AverageTime)
+    @OutputTimeUnit(TimeUnit.MICROSECONDS)
+    @SuppressWarnings("unchecked")
+    public Heap<Integer> mergeWith(MergeState state) {
+        final Heap<Integer>[] shards = state.shards;
+        final MergeableHeap<Integer> merged = (MergeableHeap<Integer>) shards[0];
+        for (int i = 1; i < shards.length; i++) {
+            merged.mergeWith(shards[i]);
+        }
+        return shards[0];
+    }
+
+    private static Heap<Integer> create(String implementation) {
+        final Function<Comparator<Integer>, Heap<Integer>> factory;
+        switch (implementation) {
+            case "binary":
+                factory = BinaryHeap::new;
+                break;
+            case "pairing":
+                factory = PairingHeap::new;
+                break;
+            case "fibonacci":
+                factory = FibonacciHeap::new;
+                break;
+            default:
+                throw new IllegalArgumentException("unknown implementation " + implementation);
+        }
+        return factory.apply(COMPARATOR);
+    }
+
+    /**
+     * Merging mutates the shards so a fresh set is created for every invocation. The shards share one comparator instance which is
+     * what lets the node based heaps take their O(1) path.
+     */
+    @State(Scope.Thread)
+    public static class MergeState {
+        Heap<Integer>[] shards;
+
+        @Setup(Level.Invocation)
+        @SuppressWarnings("unchecked")
+        public void setUp(MergeableHeapBenchmark benchmark) {
+            shards = new Heap[benchmark.shards];
+            for (int i = 0; i < shards.length; i++) {
+                shards[i] = create(benchmark.implementation);
+            }
+            final Integer[] values = benchmark.values;
+            for (int i = 0; i < values.length; i++) {
+                shards[i % shards.length].push(values[i]);
+            }
+        }
+    }
+}
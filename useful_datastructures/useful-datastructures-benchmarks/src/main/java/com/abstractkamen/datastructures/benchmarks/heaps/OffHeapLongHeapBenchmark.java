@@ -0,0 +1,75 @@
+package com.abstractkamen.datastructures.benchmarks.heaps;
+
+import com.abstractkamen.datastructures.benchmarks.BenchmarkData;
+import com.abstractkamen.datastructures.impl.heaps.BinaryHeap;
+import com.abstractkamen.datastructures.impl.heaps.LongBinaryHeap;
+import com.abstractkamen.datastructures.impl.heaps.OffHeapLongHeap;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Large timestamp queues, {@link OffHeapLongHeap} against {@link LongBinaryHeap} and {@code BinaryHeap<Long>}. Every heap is kept at
+ * a steady {@code size} and {@code pushPop} measures one push followed by one pop. Run with {@code -prof gc} to compare the
+ * allocation rate, {@code BinaryHeap<Long>} allocates a {@code Long} per push while the other two allocate nothing, and the
+ * off-heap entries are not even scanned by the garbage collector.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class OffHeapLongHeapBenchmark {
+
+    @Param({"1000000", "10000000"})
+    int size;
+
+    private long[] values;
+    private OffHeapLongHeap offHeap;
+    private LongBinaryHeap longHeap;
+    private BinaryHeap<Long> boxedHeap;
+    private int next;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        values = BenchmarkData.longs(size, Long.MAX_VALUE, BenchmarkData.SEED);
+        offHeap = OffHeapLongHeap.createMin();
+        longHeap = LongBinaryHeap.createMin(size + 1);
+        boxedHeap = BinaryHeap.createComparable(size + 2);
+        for (long value : values) {
+            offHeap.push(value);
+            longHeap.push(value);
+            boxedHeap.push(value);
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        offHeap.close();
+    }
+
+    @Benchmark
+    public long offHeapPushPop() {
+        offHeap.push(nextValue());
+        return offHeap.pop();
+    }
+
+    @Benchmark
+    public long longBinaryHeapPushPop() {
+        longHeap.push(nextValue());
+        return longHeap.pop();
+    }
+
+    @Benchmark
+    public Long boxedBinaryHeapPushPop() {
+        boxedHeap.push(nextValue());
+        return boxedHeap.pop();
+    }
+
+    private long nextValue() {
+        final long value = values[next];
+        next = next + 1 == size ? 0 : next + 1;
+        return value;
+    }
+}
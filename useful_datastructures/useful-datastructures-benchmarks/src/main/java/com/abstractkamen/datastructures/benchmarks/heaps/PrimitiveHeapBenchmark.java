@@ -0,0 +1,86 @@
+package com.abstractkamen.datastructures.benchmarks.heaps;
+
+import com.abstractkamen.datastructures.benchmarks.BenchmarkData;
+import com.abstractkamen.datastructures.impl.heaps.BinaryHeap;
+import com.abstractkamen.datastructures.impl.heaps.LongBinaryHeap;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * {@link LongBinaryHeap} against {@code BinaryHeap<Long>} on a scheduler-like workload of {@code long} deadlines. Unlike
+ * {@link BinaryHeapBenchmark} the boxed values are created inside the benchmark since that is what a caller holding a {@code long}
+ * pays for. Run with {@code -prof gc} to see the allocation difference.
+ */
+@State(Scope.Thread)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class PrimitiveHeapBenchmark {
+
+    @Param({"1000", "100000", "1000000"})
+    int size;
+
+    private long[] deadlines;
+    private LongBinaryHeap primitive;
+    private BinaryHeap<Long> boxed;
+    private int next;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        deadlines = BenchmarkData.longs(size, Long.MAX_VALUE, BenchmarkData.SEED);
+        primitive = LongBinaryHeap.createMin(size);
+        boxed = BinaryHeap.createComparable(size);
+        for (long deadline : deadlines) {
+            primitive.push(deadline);
+            boxed.push(deadline);
+        }
+    }
+
+    private long nextDeadline() {
+        final long deadline = deadlines[next];
+        next = next + 1 == size ? 0 : next + 1;
+        return deadline;
+    }
+
+    @Benchmark
+    public long longBinaryHeap_pushPop() {
+        primitive.push(nextDeadline());
+        return primitive.pop();
+    }
+
+    @Benchmark
+    public long binaryHeap_pushPop() {
+        boxed.push(nextDeadline());
+        return boxed.pop();
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.AverageTime)
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    public void longBinaryHeap_fillAndDrain(Blackhole bh) {
+        final LongBinaryHeap h = LongBinaryHeap.createMin();
+        for (long deadline : deadlines) {
+            h.push(deadline);
+        }
+        while (!h.isEmpty()) {
+            bh.consume(h.pop());
+        }
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.AverageTime)
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    public void binaryHeap_fillAndDrain(Blackhole bh) {
+        final BinaryHeap<Long> h = BinaryHeap.createComparable();
+        for (long deadline : deadlines) {
+            h.push(deadline);
+        }
+        while (!h.isEmpty()) {
+            bh.consume(h.pop().longValue());
+        }
+    }
+}
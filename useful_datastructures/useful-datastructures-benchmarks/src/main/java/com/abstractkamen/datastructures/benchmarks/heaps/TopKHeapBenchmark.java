@@ -0,0 +1,73 @@
+package com.abstractkamen.datastructures.benchmarks.heaps;
+
+import com.abstractkamen.datastructures.benchmarks.BenchmarkData;
+import com.abstractkamen.datastructures.impl.heaps.BinaryHeap;
+import com.abstractkamen.datastructures.impl.heaps.IntTopKHeap;
+import com.abstractkamen.datastructures.impl.heaps.TopKHeap;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Selecting the {@code k} greatest of {@code size} streamed scores.
+ * <ul>
+ *     <li>{@code binaryHeap} pushes every score into a max {@link BinaryHeap} and pops {@code k} times, O(n log n) time and O(n)
+ *     memory</li>
+ *     <li>{@code topKHeap} offers every score to a {@link TopKHeap}, O(n log k) time and O(k) memory</li>
+ *     <li>{@code intTopKHeap} does the same with unboxed scores</li>
+ * </ul>
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class TopKHeapBenchmark {
+
+    @Param({"1000000"})
+    int size;
+
+    @Param({"10", "1000"})
+    int k;
+
+    private int[] scores;
+    private Integer[] boxedScores;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        scores = BenchmarkData.ints(size, Integer.MAX_VALUE, BenchmarkData.SEED);
+        boxedScores = BenchmarkData.boxedInts(size, Integer.MAX_VALUE, BenchmarkData.SEED);
+    }
+
+    @Benchmark
+    public void binaryHeap(Blackhole bh) {
+        final BinaryHeap<Integer> heap = new BinaryHeap<>((a, b) -> Integer.compare(b, a));
+        for (Integer score : boxedScores) {
+            heap.push(score);
+        }
+        for (int i = 0; i < k; i++) {
+            bh.consume(heap.pop());
+        }
+    }
+
+    @Benchmark
+    public List<Integer> topKHeap() {
+        final TopKHeap<Integer> heap = TopKHeap.createComparable(k);
+        for (Integer score : boxedScores) {
+            heap.offer(score);
+        }
+        return heap.toSortedList();
+    }
+
+    @Benchmark
+    public int[] intTopKHeap() {
+        final IntTopKHeap heap = IntTopKHeap.createLargest(k);
+        for (int score : scores) {
+            heap.offer(score);
+        }
+        return heap.toSortedArray();
+    }
+}
@@ -0,0 +1,82 @@
+package com.abstractkamen.datastructures.benchmarks.queues;
+
+import com.abstractkamen.datastructures.benchmarks.BenchmarkData;
+import com.abstractkamen.datastructures.impl.queues.AggregatingRingBuffer;
+import com.abstractkamen.datastructures.impl.queues.OverwritingRingBuffer;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.Arrays;
+import java.util.LongSummaryStatistics;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Window statistics after every new sample of a full sliding window of {@code capacity} samples.
+ * <ul>
+ *     <li>{@code streamStatistics} streams an {@link OverwritingRingBuffer} into a {@link LongSummaryStatistics}, O(window) per
+ *     query</li>
+ *     <li>{@code aggregatingStatistics} reads mean, min and max of an {@link AggregatingRingBuffer}, O(1) per query</li>
+ *     <li>{@code sortedP99} copies and sorts the window for the 99th percentile, {@code sketchP99} asks the quantile sketch</li>
+ * </ul>
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class AggregatingRingBufferBenchmark {
+
+    @Param({"1024", "65536"})
+    int capacity;
+
+    private long[] samples;
+    private OverwritingRingBuffer<Long> window;
+    private AggregatingRingBuffer aggregating;
+    private int next;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        samples = BenchmarkData.longs(capacity, 1_000_000, BenchmarkData.SEED);
+        window = new OverwritingRingBuffer<>(capacity);
+        aggregating = new AggregatingRingBuffer(capacity, 7);
+        for (long sample : samples) {
+            window.enqueue(sample);
+            aggregating.enqueue(sample);
+        }
+    }
+
+    @Benchmark
+    public LongSummaryStatistics streamStatistics() {
+        window.enqueue(nextSample());
+        return window.stream().mapToLong(Long::longValue).summaryStatistics();
+    }
+
+    @Benchmark
+    public void aggregatingStatistics(Blackhole bh) {
+        aggregating.enqueue(nextSample());
+        bh.consume(aggregating.mean());
+        bh.consume(aggregating.min());
+        bh.consume(aggregating.max());
+    }
+
+    @Benchmark
+    public long sortedP99() {
+        window.enqueue(nextSample());
+        final long[] sorted = window.stream().mapToLong(Long::longValue).toArray();
+        Arrays.sort(sorted);
+        return sorted[(int) Math.ceil(0.99 * sorted.length) - 1];
+    }
+
+    @Benchmark
+    public long sketchP99() {
+        aggregating.enqueue(nextSample());
+        return aggregating.quantile(0.99);
+    }
+
+    private long nextSample() {
+        final long sample = samples[next];
+        next = (next + 1) & (capacity - 1);
+        return sample;
+    }
+}
@@ -0,0 +1,63 @@
+package com.abstractkamen.datastructures.benchmarks.queues;
+
+import com.abstractkamen.datastructures.impl.queues.BlockingRingBuffer;
+import com.abstractkamen.datastructures.impl.queues.BlockingRingBuffer.FullBufferPolicy;
+import com.abstractkamen.datastructures.impl.queues.BlockingRingBuffer.WaitStrategy;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * One producer handing items to one consumer through a {@link BlockingRingBuffer} which waits with each {@link WaitStrategy}, and
+ * through an {@link ArrayBlockingQueue} of the same capacity.
+ * <p>
+ * Both sides wait at most {@value #TIMEOUT_MICROS} microseconds, so that neither is left waiting forever when the other one stops at
+ * the end of an iteration, and count the successful operations in the {@code offered} and {@code polled} counters. The spinning
+ * strategies need a core per thread, on fewer cores the numbers show the scheduler rather than the strategy. Add {@code -prof gc}
+ * or watch the CPU usage to see what the lower latency costs.
+ */
+@State(Scope.Group)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class BlockingRingBufferBenchmark {
+    private static final Integer ITEM = 42;
+    private static final long TIMEOUT_MICROS = 100;
+
+    @Param({"BUSY_SPIN", "YIELD", "PARK", "BLOCKING", "arrayBlockingQueue"})
+    String implementation;
+
+    @Param({"1024"})
+    int capacity;
+
+    private BlockingRingBuffer<Integer> buffer;
+    private ArrayBlockingQueue<Integer> queue;
+
+    @Setup(Level.Iteration)
+    public void setUp() {
+        if ("arrayBlockingQueue".equals(implementation)) {
+            queue = new ArrayBlockingQueue<>(capacity);
+        } else {
+            buffer = new BlockingRingBuffer<>(capacity, FullBufferPolicy.BLOCK, WaitStrategy.valueOf(implementation));
+        }
+    }
+
+    @Benchmark
+    @Group("handoff")
+    @GroupThreads(1)
+    public boolean put(ConcurrentRingBufferBenchmark.Counters counters) throws InterruptedException {
+        return counters.offered(queue == null ? buffer.offer(ITEM, TIMEOUT_MICROS, TimeUnit.MICROSECONDS)
+                                              : queue.offer(ITEM, TIMEOUT_MICROS, TimeUnit.MICROSECONDS));
+    }
+
+    @Benchmark
+    @Group("handoff")
+    @GroupThreads(1)
+    public Integer take(ConcurrentRingBufferBenchmark.Counters counters) throws InterruptedException {
+        return counters.polled(queue == null ? buffer.poll(TIMEOUT_MICROS, TimeUnit.MICROSECONDS)
+                                             : queue.poll(TIMEOUT_MICROS, TimeUnit.MICROSECONDS));
+    }
+}
@@ -0,0 +1,150 @@
+package com.abstractkamen.datastructures.benchmarks.queues;
+
+import com.abstractkamen.datastructures.impl.queues.MpscRingBuffer;
+import com.abstractkamen.datastructures.impl.queues.SpscRingBuffer;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Handing items from producer threads to a single consumer thread, {@link SpscRingBuffer} and {@link MpscRingBuffer} against an
+ * {@link ArrayBlockingQueue} of the same capacity.
+ * <ul>
+ *     <li>{@code spsc} runs one producer and one consumer</li>
+ *     <li>{@code mpsc} runs three producers and one consumer, the log writer shape</li>
+ * </ul>
+ * Neither side blocks or backs off, an {@code offer} on a full queue and a {@code poll} on an empty one return right away and still
+ * count as an operation. The {@code offered} and {@code polled} counters report the successful ones, compare those for throughput
+ * and the sample time percentiles for latency.
+ */
+@State(Scope.Group)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ConcurrentRingBufferBenchmark {
+    private static final Integer ITEM = 42;
+
+    @Param({"ringBuffer", "arrayBlockingQueue"})
+    String implementation;
+
+    @Param({"1024"})
+    int capacity;
+
+    private Queue spsc;
+    private Queue mpsc;
+
+    @Setup(Level.Iteration)
+    public void setUp() {
+        if ("ringBuffer".equals(implementation)) {
+            final SpscRingBuffer<Integer> spscBuffer = new SpscRingBuffer<>(capacity);
+            spsc = new Queue() {
+                @Override
+                public boolean offer(Integer item) {
+                    return spscBuffer.offer(item);
+                }
+
+                @Override
+                public Integer poll() {
+                    return spscBuffer.poll();
+                }
+            };
+            final MpscRingBuffer<Integer> mpscBuffer = new MpscRingBuffer<>(capacity);
+            mpsc = new Queue() {
+                @Override
+                public boolean offer(Integer item) {
+                    return mpscBuffer.offer(item);
+                }
+
+                @Override
+                public Integer poll() {
+                    return mpscBuffer.poll();
+                }
+            };
+        } else {
+            spsc = blockingQueue(capacity);
+            mpsc = blockingQueue(capacity);
+        }
+    }
+
+    @Benchmark
+    @Group("spsc")
+    @GroupThreads(1)
+    public boolean spscOffer(Counters counters) {
+        return counters.offered(spsc.offer(ITEM));
+    }
+
+    @Benchmark
+    @Group("spsc")
+    @GroupThreads(1)
+    public Integer spscPoll(Counters counters) {
+        return counters.polled(spsc.poll());
+    }
+
+    @Benchmark
+    @Group("mpsc")
+    @GroupThreads(3)
+    public boolean mpscOffer(Counters counters) {
+        return counters.offered(mpsc.offer(ITEM));
+    }
+
+    @Benchmark
+    @Group("mpsc")
+    @GroupThreads(1)
+    public Integer mpscPoll(Counters counters) {
+        return counters.polled(mpsc.poll());
+    }
+
+    private static Queue blockingQueue(int capacity) {
+        final ArrayBlockingQueue<Integer> queue = new ArrayBlockingQueue<>(capacity);
+        return new Queue() {
+            @Override
+            public boolean offer(Integer item) {
+                return queue.offer(item);
+            }
+
+            @Override
+            public Integer poll() {
+                return queue.poll();
+            }
+        };
+    }
+
+    private interface Queue {
+        boolean offer(Integer item);
+
+        Integer poll();
+    }
+
+    /**
+     * Successful operations per thread.
+     */
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.OPERATIONS)
+    public static class Counters {
+        public long offered;
+        public long polled;
+
+        @Setup(Level.Iteration)
+        public void reset() {
+            offered = 0;
+            polled = 0;
+        }
+
+        boolean offered(boolean success) {
+            if (success) {
+                offered++;
+            }
+            return success;
+        }
+
+        Integer polled(Integer item) {
+            if (item != null) {
+                polled++;
+            }
+            return item;
+        }
+    }
+}
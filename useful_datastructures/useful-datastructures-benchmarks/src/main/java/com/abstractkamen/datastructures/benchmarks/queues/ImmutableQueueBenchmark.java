@@ -0,0 +1,71 @@
+package com.abstractkamen.datastructures.benchmarks.queues;
+
+import com.abstractkamen.datastructures.api.queues.ImmutableDeque;
+import com.abstractkamen.datastructures.api.queues.ImmutableQueue;
+import com.abstractkamen.datastructures.impl.queues.ImmutableDequeImpl;
+import com.abstractkamen.datastructures.impl.queues.ImmutableQueueImpl;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.ArrayDeque;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Publishing a new snapshot of a work queue of {@code size} items after every change, the shape of a queue shared between threads
+ * without locking.
+ * <ul>
+ *     <li>{@code copyOnWrite} copies an {@link ArrayDeque}, enqueues one item and dequeues one from the copy</li>
+ *     <li>{@code immutableQueue} enqueues and dequeues on an {@link ImmutableQueueImpl}, sharing everything else</li>
+ *     <li>{@code immutableDeque} pushes at the back and pops at the front of an {@link ImmutableDequeImpl}</li>
+ * </ul>
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ImmutableQueueBenchmark {
+    private static final Integer ITEM = 42;
+
+    @Param({"100", "10000"})
+    int size;
+
+    private ArrayDeque<Integer> copyOnWrite;
+    private ImmutableQueue<Integer> queue;
+    private ImmutableDeque<Integer> deque;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        copyOnWrite = new ArrayDeque<>(size + 1);
+        queue = new ImmutableQueueImpl<>();
+        deque = new ImmutableDequeImpl<>();
+        for (int i = 0; i < size; i++) {
+            copyOnWrite.addLast(i);
+            queue = queue.enqueue(i);
+            deque = deque.pushBack(i);
+        }
+    }
+
+    @Benchmark
+    public Integer copyOnWrite() {
+        final ArrayDeque<Integer> next = new ArrayDeque<>(copyOnWrite);
+        next.addLast(ITEM);
+        final Integer head = next.pollFirst();
+        copyOnWrite = next;
+        return head;
+    }
+
+    @Benchmark
+    public Integer immutableQueue() {
+        final Integer head = queue.peek();
+        queue = queue.enqueue(ITEM).dequeue();
+        return head;
+    }
+
+    @Benchmark
+    public Integer immutableDeque() {
+        final Integer head = deque.peekFront();
+        deque = deque.pushBack(ITEM).popFront();
+        return head;
+    }
+}
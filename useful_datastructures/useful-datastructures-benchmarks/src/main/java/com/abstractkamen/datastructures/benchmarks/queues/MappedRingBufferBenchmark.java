@@ -0,0 +1,91 @@
+package com.abstractkamen.datastructures.benchmarks.queues;
+
+import com.abstractkamen.datastructures.impl.queues.MappedRingBuffer;
+import com.abstractkamen.datastructures.impl.queues.OverwritingRingBuffer;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Keeping the last {@code capacity} audit events of 64 bytes, the steady state where every event overwrites the oldest one.
+ * <ul>
+ *     <li>{@code heapEnqueue} copies every event into a new {@code byte[]} of an {@link OverwritingRingBuffer}, which is lost
+ *     with the process</li>
+ *     <li>{@code mappedEnqueue} copies it into the page cache through a {@link MappedRingBuffer}, which survives the process</li>
+ *     <li>{@code heapScan} and {@code mappedScan} sum one byte of every retained event, the mapped buffer reads in place</li>
+ * </ul>
+ * None of them calls {@link MappedRingBuffer#force()}, the cost of which depends on the storage device.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class MappedRingBufferBenchmark {
+    private static final int EVENT_SIZE = 64;
+
+    @Param({"1024", "65536"})
+    int capacity;
+
+    private Path file;
+    private byte[] event;
+    private ByteBuffer eventBuffer;
+    private OverwritingRingBuffer<byte[]> heap;
+    private MappedRingBuffer mapped;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        file = Files.createTempFile("audit", ".ring");
+        Files.delete(file);
+        event = new byte[EVENT_SIZE];
+        ThreadLocalRandom.current().nextBytes(event);
+        eventBuffer = ByteBuffer.wrap(event);
+        heap = new OverwritingRingBuffer<>(capacity);
+        mapped = new MappedRingBuffer(file, EVENT_SIZE, capacity);
+        for (int i = 0; i < capacity; i++) {
+            heap.enqueue(event.clone());
+            mapped.enqueue(eventBuffer);
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        mapped.close();
+        Files.deleteIfExists(file);
+    }
+
+    @Benchmark
+    public boolean heapEnqueue() {
+        return heap.enqueue(Arrays.copyOf(event, EVENT_SIZE));
+    }
+
+    @Benchmark
+    public boolean mappedEnqueue() {
+        return mapped.enqueue(eventBuffer);
+    }
+
+    @Benchmark
+    public long heapScan() {
+        long sum = 0;
+        for (byte[] e : heap) {
+            sum += e[EVENT_SIZE - 1];
+        }
+        return sum;
+    }
+
+    @Benchmark
+    public long mappedScan() {
+        long sum = 0;
+        for (ByteBuffer e : mapped) {
+            sum += e.get(EVENT_SIZE - 1);
+        }
+        return sum;
+    }
+}
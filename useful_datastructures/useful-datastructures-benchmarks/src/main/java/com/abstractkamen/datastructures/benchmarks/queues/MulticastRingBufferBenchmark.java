@@ -0,0 +1,147 @@
+package com.abstractkamen.datastructures.benchmarks.queues;
+
+import com.abstractkamen.datastructures.impl.queues.MulticastRingBuffer;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * One producer fanning events out to four readers, {@link MulticastRingBuffer} against an {@link ArrayBlockingQueue} per reader.
+ * The ring fills pre-allocated events and every reader drains what is available as one batch, the queues need a new event per
+ * publish which the producer offers to every queue, and every reader drains its queue with {@code drainTo}.
+ * <p>
+ * A publish on a full ring or full queue and a poll which finds nothing return right away, the {@code published} and
+ * {@code received} counters report the events which actually went through. Run on a machine with at least five cores, with fewer
+ * the numbers only show the scheduler.
+ */
+@State(Scope.Group)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class MulticastRingBufferBenchmark {
+    private static final int READERS = 4;
+
+    @Param({"multicastRingBuffer", "blockingQueues"})
+    String implementation;
+
+    @Param({"1024"})
+    int capacity;
+
+    private final AtomicInteger nextReader = new AtomicInteger();
+    private MulticastRingBuffer<Event> ring;
+    private List<MulticastRingBuffer.Reader<Event>> readers;
+    private List<ArrayBlockingQueue<Event>> queues;
+    private long value;
+
+    public static final class Event {
+        long value;
+    }
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        ring = new MulticastRingBuffer<>(Event::new, capacity);
+        readers = new ArrayList<>();
+        queues = new ArrayList<>();
+        for (int i = 0; i < READERS; i++) {
+            readers.add(ring.newReader());
+            queues.add(new ArrayBlockingQueue<>(capacity));
+        }
+    }
+
+    @Benchmark
+    @Group("fanOut")
+    @GroupThreads(1)
+    public boolean publish(Counters counters) {
+        final long v = value++;
+        final boolean published;
+        if ("multicastRingBuffer".equals(implementation)) {
+            published = ring.tryPublish(e -> e.value = v);
+        } else {
+            published = offerToAll(v);
+        }
+        if (published) {
+            counters.published++;
+        }
+        return published;
+    }
+
+    @Benchmark
+    @Group("fanOut")
+    @GroupThreads(READERS)
+    public long read(ReaderState reader, Counters counters) {
+        final int received;
+        if ("multicastRingBuffer".equals(implementation)) {
+            received = reader.reader.poll(reader);
+        } else {
+            received = reader.queue.drainTo(reader.drained);
+            for (Event event : reader.drained) {
+                reader.sum += event.value;
+            }
+            reader.drained.clear();
+        }
+        counters.received += received;
+        return reader.sum;
+    }
+
+    /**
+     * The producer is the only thread offering, so a queue with room keeps it until the event was offered to all of them.
+     */
+    private boolean offerToAll(long v) {
+        for (ArrayBlockingQueue<Event> queue : queues) {
+            if (queue.remainingCapacity() == 0) {
+                return false;
+            }
+        }
+        final Event event = new Event();
+        event.value = v;
+        for (ArrayBlockingQueue<Event> queue : queues) {
+            queue.offer(event);
+        }
+        return true;
+    }
+
+    /**
+     * The reader or queue of one reader thread.
+     */
+    @State(Scope.Thread)
+    public static class ReaderState implements MulticastRingBuffer.EventHandler<Event> {
+        MulticastRingBuffer.Reader<Event> reader;
+        ArrayBlockingQueue<Event> queue;
+        final List<Event> drained = new ArrayList<>();
+        long sum;
+
+        @Setup(Level.Trial)
+        public void setUp(MulticastRingBufferBenchmark benchmark) {
+            final int i = benchmark.nextReader.getAndIncrement();
+            reader = benchmark.readers.get(i);
+            queue = benchmark.queues.get(i);
+        }
+
+        @Override
+        public void onEvent(Event event, long sequence, boolean endOfBatch) {
+            sum += event.value;
+        }
+    }
+
+    /**
+     * Events which went through, per thread.
+     */
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.OPERATIONS)
+    public static class Counters {
+        public long published;
+        public long received;
+
+        @Setup(Level.Iteration)
+        public void reset() {
+            published = 0;
+            received = 0;
+        }
+    }
+}
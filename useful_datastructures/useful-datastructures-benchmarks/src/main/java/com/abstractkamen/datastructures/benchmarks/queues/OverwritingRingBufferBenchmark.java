@@ -0,0 +1,90 @@
+package com.abstractkamen.datastructures.benchmarks.queues;
+
+import com.abstractkamen.datastructures.benchmarks.BenchmarkData;
+import com.abstractkamen.datastructures.impl.queues.OverwritingRingBuffer;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * {@link OverwritingRingBuffer} benchmarks. The buffer is kept full so that every {@code enqueue} overwrites the oldest item, which
+ * is the steady state of a sliding window.
+ * <p>
+ * {@code iterate}, {@code forEach}, {@code stream} and {@code parallelStream} visit every item, {@code drainTo} empties the buffer
+ * into an array in two copies and fills it again, the shape of a periodic metrics flush. Add {@code -prof gc} to compare the
+ * allocation of the iterator and the spliterator paths.
+ */
+@State(Scope.Thread)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class OverwritingRingBufferBenchmark {
+
+    @Param({"1024", "65536"})
+    int capacity;
+
+    private Integer[] values;
+    private OverwritingRingBuffer<Integer> buffer;
+    private Integer[] drained;
+    private int next;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        values = BenchmarkData.boxedInts(capacity, Integer.MAX_VALUE, BenchmarkData.SEED);
+        buffer = new OverwritingRingBuffer<>(capacity);
+        drained = new Integer[capacity];
+        for (Integer value : values) {
+            buffer.enqueue(value);
+        }
+    }
+
+    @Benchmark
+    public boolean enqueue() {
+        final Integer value = values[next];
+        next = (next + 1) & (capacity - 1);
+        return buffer.enqueue(value);
+    }
+
+    @Benchmark
+    public Integer dequeueEnqueue() {
+        final Integer value = buffer.dequeue();
+        buffer.enqueue(value);
+        return value;
+    }
+
+    @Benchmark
+    public long iterate() {
+        long sum = 0;
+        for (Integer value : buffer) {
+            sum += value;
+        }
+        return sum;
+    }
+
+    @Benchmark
+    public long stream() {
+        return buffer.stream().mapToLong(Integer::longValue).sum();
+    }
+
+    @Benchmark
+    public void forEach(Blackhole bh) {
+        buffer.forEach(bh::consume);
+    }
+
+    @Benchmark
+    public long parallelStream() {
+        return buffer.stream().parallel().mapToLong(Integer::longValue).sum();
+    }
+
+    @Benchmark
+    public int drainTo() {
+        final int n = buffer.drainTo(drained, capacity);
+        for (int i = 0; i < n; i++) {
+            buffer.enqueue(drained[i]);
+        }
+        return n;
+    }
+}
@@ -0,0 +1,99 @@
+package com.abstractkamen.datastructures.benchmarks.queues;
+
+import com.abstractkamen.datastructures.benchmarks.BenchmarkData;
+import com.abstractkamen.datastructures.impl.queues.DirectRecordRingBuffer;
+import com.abstractkamen.datastructures.impl.queues.LongOverwritingRingBuffer;
+import com.abstractkamen.datastructures.impl.queues.OverwritingRingBuffer;
+import org.openjdk.jmh.annotations.*;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * A rolling window of the last {@code capacity} latency samples, the steady state where every sample overwrites the oldest one.
+ * <ul>
+ *     <li>{@code boxedEnqueue} boxes every sample into an {@link OverwritingRingBuffer}, {@code longEnqueue} stores it in a
+ *     {@link LongOverwritingRingBuffer} and {@code recordEnqueue} copies a 16 byte timestamp and latency record into a
+ *     {@link DirectRecordRingBuffer}</li>
+ *     <li>{@code boxedSnapshot} and {@code longSnapshot} copy the window into a {@code long[]}</li>
+ * </ul>
+ * Add {@code -prof gc} to see the allocation of the boxed window.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class PrimitiveRingBufferBenchmark {
+
+    @Param({"1024", "65536"})
+    int capacity;
+
+    private long[] samples;
+    private OverwritingRingBuffer<Long> boxed;
+    private LongOverwritingRingBuffer primitive;
+    private DirectRecordRingBuffer records;
+    private ByteBuffer record;
+    private int next;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        samples = BenchmarkData.longs(capacity, 1_000_000, BenchmarkData.SEED);
+        boxed = new OverwritingRingBuffer<>(capacity);
+        primitive = new LongOverwritingRingBuffer(capacity);
+        records = new DirectRecordRingBuffer(2 * Long.BYTES, capacity);
+        record = ByteBuffer.allocateDirect(2 * Long.BYTES).order(ByteOrder.nativeOrder());
+        for (int i = 0; i < capacity; i++) {
+            boxed.enqueue(samples[i]);
+            primitive.enqueue(samples[i]);
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        records.close();
+    }
+
+    @Benchmark
+    public boolean boxedEnqueue() {
+        return boxed.enqueue(nextSample());
+    }
+
+    @Benchmark
+    public boolean longEnqueue() {
+        return primitive.enqueue(nextSample());
+    }
+
+    @Benchmark
+    public int recordEnqueue() {
+        record.clear();
+        record.putLong(0, next).putLong(Long.BYTES, nextSample());
+        records.enqueue(record);
+        return records.size();
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.AverageTime)
+    public long[] boxedSnapshot() {
+        final long[] result = new long[boxed.size()];
+        int i = 0;
+        for (Long value : boxed) {
+            result[i++] = value;
+        }
+        return result;
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.AverageTime)
+    public long[] longSnapshot() {
+        return primitive.toArray();
+    }
+
+    private long nextSample() {
+        final long sample = samples[next];
+        next = (next + 1) & (capacity - 1);
+        return sample;
+    }
+}
@@ -0,0 +1,79 @@
+package com.abstractkamen.datastructures.benchmarks.queues;
+
+import com.abstractkamen.datastructures.impl.queues.RingDeque;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * A replay window of {@code size} requests which slides by a batch of 64 requests and then reads 64 requests by index.
+ * <ul>
+ *     <li>{@code arrayDeque} appends the batch to an {@link ArrayDeque}, polls 64 requests from the front and copies the deque into
+ *     an {@link ArrayList} for the indexed reads</li>
+ *     <li>{@code ringDeque} appends the batch to a {@link RingDeque}, drops 64 requests with {@link RingDeque#removeFirst(int)} and
+ *     reads in place</li>
+ * </ul>
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class RingDequeBenchmark {
+    private static final int BATCH = 64;
+
+    @Param({"1024", "65536"})
+    int size;
+
+    private List<Integer> batch;
+    private int[] indices;
+    private ArrayDeque<Integer> arrayDeque;
+    private RingDeque<Integer> ringDeque;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        final Integer[] items = new Integer[BATCH];
+        indices = new int[BATCH];
+        for (int i = 0; i < BATCH; i++) {
+            items[i] = i;
+            indices[i] = (int) ((long) i * 7919 % size);
+        }
+        batch = Arrays.asList(items);
+        arrayDeque = new ArrayDeque<>(size + BATCH);
+        ringDeque = new RingDeque<>(size + BATCH);
+        for (int i = 0; i < size; i++) {
+            arrayDeque.addLast(i);
+            ringDeque.addLast(i);
+        }
+    }
+
+    @Benchmark
+    public long arrayDeque() {
+        arrayDeque.addAll(batch);
+        for (int i = 0; i < BATCH; i++) {
+            arrayDeque.pollFirst();
+        }
+        final List<Integer> list = new ArrayList<>(arrayDeque);
+        long sum = 0;
+        for (int index : indices) {
+            sum += list.get(index);
+        }
+        return sum;
+    }
+
+    @Benchmark
+    public long ringDeque() {
+        ringDeque.addAll(batch);
+        ringDeque.removeFirst(BATCH);
+        long sum = 0;
+        for (int index : indices) {
+            sum += ringDeque.get(index);
+        }
+        return sum;
+    }
+}
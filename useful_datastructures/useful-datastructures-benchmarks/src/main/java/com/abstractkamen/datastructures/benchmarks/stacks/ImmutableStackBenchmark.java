@@ -0,0 +1,78 @@
+package com.abstractkamen.datastructures.benchmarks.stacks;
+
+import com.abstractkamen.datastructures.api.stacks.ImmutableStack;
+import com.abstractkamen.datastructures.benchmarks.BenchmarkData;
+import com.abstractkamen.datastructures.impl.stacks.ChunkedImmutableStack;
+import com.abstractkamen.datastructures.impl.stacks.ImmutableStackImpl;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * {@link ImmutableStackImpl} and {@link ChunkedImmutableStack} benchmarks.
+ * <ul>
+ *     <li>{@code pushAll} builds a stack of {@code depth} elements from the empty stack</li>
+ *     <li>{@code popAll} walks a prebuilt stack of {@code depth} elements with peek and pop</li>
+ *     <li>{@code pushPop} pushes onto and pops from a shared prebuilt stack, the typical undo/redo access</li>
+ *     <li>{@code iterate} walks a prebuilt stack with its iterator</li>
+ * </ul>
+ * Add {@code -prof gc} to compare the bytes allocated per pushed element.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ImmutableStackBenchmark {
+
+    @Param({"1000", "100000"})
+    int depth;
+
+    @Param({"linked", "chunked"})
+    String implementation;
+
+    private Integer[] values;
+    private ImmutableStack<Integer> stack;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        values = BenchmarkData.boxedInts(depth, Integer.MAX_VALUE, BenchmarkData.SEED);
+        stack = pushAll();
+    }
+
+    @Benchmark
+    public ImmutableStack<Integer> pushAll() {
+        ImmutableStack<Integer> s = "linked".equals(implementation) ? new ImmutableStackImpl<>() : new ChunkedImmutableStack<>();
+        for (Integer value : values) {
+            s = s.push(value);
+        }
+        return s;
+    }
+
+    @Benchmark
+    public long popAll() {
+        long sum = 0;
+        ImmutableStack<Integer> s = stack;
+        for (int i = 0; i < depth; i++) {
+            sum += s.peek();
+            s = s.pop();
+        }
+        return sum;
+    }
+
+    @Benchmark
+    @BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+    public Integer pushPop() {
+        return stack.push(values[0]).pop().peek();
+    }
+
+    @Benchmark
+    public long iterate() {
+        long sum = 0;
+        for (Integer value : stack) {
+            sum += value;
+        }
+        return sum;
+    }
+}
@@ -0,0 +1,113 @@
+package com.abstractkamen.datastructures.benchmarks.stacks;
+
+import com.abstractkamen.datastructures.api.stacks.ImmutableStack;
+import com.abstractkamen.datastructures.api.stacks.IntImmutableStack;
+import com.abstractkamen.datastructures.impl.stacks.ChunkedIntImmutableStack;
+import com.abstractkamen.datastructures.impl.stacks.ImmutableStackImpl;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.PrimitiveIterator;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * {@link ChunkedIntImmutableStack} against {@link ImmutableStackImpl} of {@link Integer} in a backtracking search.
+ * <ul>
+ *     <li>{@code queens} counts the placements of {@code n} queens, every partial placement is a version of the stack of queen
+ *     columns and every candidate is checked by walking the stack</li>
+ *     <li>{@code pushAll} builds a stack of {@code 100000} search states, the values are not in the {@link Integer} cache</li>
+ * </ul>
+ * Add {@code -prof gc} to compare the bytes allocated per pushed value.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class PrimitiveImmutableStackBenchmark {
+    private static final int STATES = 100_000;
+
+    @Param({"8", "10"})
+    int n;
+
+    @Benchmark
+    public int queensBoxed() {
+        return queens(new ImmutableStackImpl<>());
+    }
+
+    @Benchmark
+    public int queensInt() {
+        return queens(new ChunkedIntImmutableStack());
+    }
+
+    @Benchmark
+    public ImmutableStack<Integer> pushAllBoxed() {
+        ImmutableStack<Integer> s = new ImmutableStackImpl<>();
+        for (int i = 0; i < STATES; i++) {
+            s = s.push(state(i));
+        }
+        return s;
+    }
+
+    @Benchmark
+    public IntImmutableStack pushAllInt() {
+        IntImmutableStack s = new ChunkedIntImmutableStack();
+        for (int i = 0; i < STATES; i++) {
+            s = s.push(state(i));
+        }
+        return s;
+    }
+
+    private static int state(int i) {
+        return i * 31 + 1024;
+    }
+
+    private int queens(ImmutableStack<Integer> placed) {
+        if (placed.depth() == n) {
+            return 1;
+        }
+        int solutions = 0;
+        for (int column = 0; column < n; column++) {
+            if (safe(placed, column)) {
+                solutions += queens(placed.push(column));
+            }
+        }
+        return solutions;
+    }
+
+    private static boolean safe(ImmutableStack<Integer> placed, int column) {
+        int distance = 1;
+        for (Integer other : placed) {
+            if (other == column || Math.abs(other - column) == distance) {
+                return false;
+            }
+            distance++;
+        }
+        return true;
+    }
+
+    private int queens(IntImmutableStack placed) {
+        if (placed.depth() == n) {
+            return 1;
+        }
+        int solutions = 0;
+        for (int column = 0; column < n; column++) {
+            if (safe(placed, column)) {
+                solutions += queens(placed.push(column));
+            }
+        }
+        return solutions;
+    }
+
+    private static boolean safe(IntImmutableStack placed, int column) {
+        int distance = 1;
+        for (PrimitiveIterator.OfInt it = placed.iterator(); it.hasNext(); ) {
+            final int other = it.nextInt();
+            if (other == column || Math.abs(other - column) == distance) {
+                return false;
+            }
+            distance++;
+        }
+        return true;
+    }
+}
@@ -0,0 +1,80 @@
+package com.abstractkamen.datastructures.benchmarks.trees.search;
+
+import com.abstractkamen.datastructures.benchmarks.BenchmarkData;
+import com.abstractkamen.datastructures.impl.trees.search.AvlTree;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * {@link AvlTree} benchmarks on a tree of {@code size} random elements.
+ */
+@State(Scope.Thread)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class AvlTreeBenchmark {
+
+    @Param({"1000", "100000", "1000000"})
+    int size;
+
+    private Integer[] values;
+    private AvlTree<Integer> tree;
+    private int next;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        values = BenchmarkData.boxedInts(size, Integer.MAX_VALUE, BenchmarkData.SEED);
+        tree = AvlTree.createComparable();
+        for (Integer value : values) {
+            tree.add(value);
+        }
+    }
+
+    private Integer nextValue() {
+        final Integer value = values[next];
+        next = next + 1 == size ? 0 : next + 1;
+        return value;
+    }
+
+    @Benchmark
+    public boolean contains() {
+        return tree.contains(nextValue());
+    }
+
+    @Benchmark
+    public Integer greater() {
+        return tree.greater(nextValue());
+    }
+
+    @Benchmark
+    public int removeAdd() {
+        final Integer value = nextValue();
+        tree.remove(value);
+        tree.add(value);
+        return tree.size();
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.AverageTime)
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    public AvlTree<Integer> build() {
+        final AvlTree<Integer> t = AvlTree.createComparable();
+        for (Integer value : values) {
+            t.add(value);
+        }
+        return t;
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.AverageTime)
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    public void iterate(Blackhole bh) {
+        for (Integer value : tree) {
+            bh.consume(value);
+        }
+    }
+}
@@ -0,0 +1,79 @@
+package com.abstractkamen.datastructures.benchmarks.trees.search;
+
+import com.abstractkamen.datastructures.api.trees.search.PrefixTrie;
+import com.abstractkamen.datastructures.benchmarks.BenchmarkData;
+import com.abstractkamen.datastructures.impl.trees.search.PrefixTrieImpl;
+import com.abstractkamen.datastructures.impl.trees.search.ReversePrefixTrie;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.Collection;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * {@link PrefixTrie} benchmarks for both {@link PrefixTrieImpl} and {@link ReversePrefixTrie}, which pays for its suffix support
+ * with a second, reversed, copy of every word.
+ */
+@State(Scope.Thread)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class PrefixTrieBenchmark {
+
+    @Param({"PrefixTrieImpl", "ReversePrefixTrie"})
+    String implementation;
+
+    @Param({"10000", "100000"})
+    int words;
+
+    private String[] input;
+    private String[] prefixes;
+    private PrefixTrie trie;
+    private Supplier<PrefixTrie> factory;
+    private int next;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        factory = "ReversePrefixTrie".equals(implementation) ? ReversePrefixTrie::new : PrefixTrieImpl::new;
+        input = BenchmarkData.words(words, 3, 12, BenchmarkData.SEED);
+        prefixes = new String[input.length];
+        for (int i = 0; i < input.length; i++) {
+            prefixes[i] = input[i].substring(0, Math.min(3, input[i].length()));
+        }
+        trie = build();
+    }
+
+    private int nextIndex() {
+        final int i = next;
+        next = next + 1 == input.length ? 0 : next + 1;
+        return i;
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.AverageTime)
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    public PrefixTrie build() {
+        final PrefixTrie t = factory.get();
+        for (String word : input) {
+            t.insert(word);
+        }
+        return t;
+    }
+
+    @Benchmark
+    public boolean contains() {
+        return trie.contains(input[nextIndex()]);
+    }
+
+    @Benchmark
+    public boolean isPrefix() {
+        return trie.isPrefix(prefixes[nextIndex()]);
+    }
+
+    @Benchmark
+    public Collection<String> startsWith() {
+        return trie.startsWith(prefixes[nextIndex()], 10);
+    }
+}
@@ -0,0 +1,54 @@
+package com.abstractkamen.datastructures.benchmarks.trees.search;
+
+import com.abstractkamen.datastructures.benchmarks.BenchmarkData;
+import com.abstractkamen.datastructures.impl.trees.search.ReversePrefixTrie;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.Collection;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Suffix queries of {@link ReversePrefixTrie}. Prefix queries and construction are covered by {@link PrefixTrieBenchmark}.
+ */
+@State(Scope.Thread)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ReversePrefixTrieBenchmark {
+
+    @Param({"10000", "100000"})
+    int words;
+
+    private String[] suffixes;
+    private ReversePrefixTrie trie;
+    private int next;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        final String[] input = BenchmarkData.words(words, 3, 12, BenchmarkData.SEED);
+        suffixes = new String[input.length];
+        trie = new ReversePrefixTrie();
+        for (int i = 0; i < input.length; i++) {
+            trie.insert(input[i]);
+            suffixes[i] = input[i].substring(Math.max(0, input[i].length() - 3));
+        }
+    }
+
+    private String nextSuffix() {
+        final String suffix = suffixes[next];
+        next = next + 1 == suffixes.length ? 0 : next + 1;
+        return suffix;
+    }
+
+    @Benchmark
+    public boolean isSuffix() {
+        return trie.isSuffix(nextSuffix());
+    }
+
+    @Benchmark
+    public Collection<String> endsWith() {
+        return trie.endsWith(nextSuffix(), 10);
+    }
+}
@@ -0,0 +1,152 @@
+package com.abstractkamen.datastructures.benchmarks.trees.search;
+
+import com.abstractkamen.datastructures.api.trees.search.ByteArraySuffixTree;
+import com.abstractkamen.datastructures.api.trees.search.SuffixTree;
+import com.abstractkamen.datastructures.benchmarks.BenchmarkData;
+import com.abstractkamen.datastructures.impl.trees.search.*;
+import org.openjdk.jmh.annotations.*;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Locale;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Construction and query benchmarks of the three Ukkonen suffix trees over {@code documents} generated documents. The query
+ * patterns are random substrings of the documents so every query has at least one match.
+ * <p>
+ * {@link GenericUkkonenByteArraySuffixTree} needs {@code --add-exports java.base/jdk.internal.util=ALL-UNNAMED} which is passed to
+ * the forked JVM.
+ */
+@State(Scope.Thread)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = {"--add-exports", "java.base/jdk.internal.util=ALL-UNNAMED"})
+public class SuffixTreeBenchmark {
+
+    @Param({"GenericUkkonenSuffixTree", "CaseInsensitiveGenericUkkonenSuffixTree", "GenericUkkonenByteArraySuffixTree"})
+    String implementation;
+
+    @Param({"1000", "10000"})
+    int documents;
+
+    private String[] input;
+    private String[] patterns;
+    private byte[][] bytePatterns;
+    private Index index;
+    private int next;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        input = BenchmarkData.documents(documents, 8, BenchmarkData.SEED);
+        final SplittableRandom random = new SplittableRandom(BenchmarkData.SEED);
+        patterns = new String[1024];
+        bytePatterns = new byte[patterns.length][];
+        for (int i = 0; i < patterns.length; i++) {
+            final String document = input[random.nextInt(input.length)];
+            final int from = random.nextInt(document.length() - 4);
+            patterns[i] = document.substring(from, from + 4);
+            bytePatterns[i] = patterns[i].getBytes(StandardCharsets.UTF_8);
+        }
+        index = build();
+    }
+
+    private int nextPattern() {
+        final int i = next;
+        next = (next + 1) & (patterns.length - 1);
+        return i;
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.SingleShotTime)
+    @Warmup(iterations = 3)
+    @Measurement(iterations = 5)
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    public Index build() {
+        switch (implementation) {
+            case "GenericUkkonenSuffixTree": {
+                final List<UkkonenSuffixTreeInput<Integer>> in = new ArrayList<>(input.length);
+                for (int i = 0; i < input.length; i++) {
+                    in.add(new UkkonenSuffixTreeInput<>(input[i], i));
+                }
+                return new StringIndex(new GenericUkkonenSuffixTree<>(in));
+            }
+            case "CaseInsensitiveGenericUkkonenSuffixTree": {
+                final List<LocalisedUkkonenSuffixTreeInput<Integer>> in = new ArrayList<>(input.length);
+                for (int i = 0; i < input.length; i++) {
+                    in.add(new LocalisedUkkonenSuffixTreeInput<>(input[i], Locale.ENGLISH, i));
+                }
+                return new StringIndex(new CaseInsensitiveGenericUkkonenSuffixTree<>(in));
+            }
+            case "GenericUkkonenByteArraySuffixTree": {
+                final List<UkkonenByteArraySuffixTreeInput<Integer>> in = new ArrayList<>(input.length);
+                for (int i = 0; i < input.length; i++) {
+                    in.add(new UkkonenByteArraySuffixTreeInput<>(input[i].getBytes(StandardCharsets.UTF_8), i));
+                }
+                return new ByteArrayIndex(new GenericUkkonenByteArraySuffixTree<>(in));
+            }
+            default:
+                throw new IllegalArgumentException("unknown implementation " + implementation);
+        }
+    }
+
+    @Benchmark
+    public boolean contains() {
+        return index.contains(nextPattern());
+    }
+
+    @Benchmark
+    public Collection<Integer> findAllOccurrences() {
+        return index.findAllOccurrences(nextPattern());
+    }
+
+    /**
+     * Common view over the {@link SuffixTree} and {@link ByteArraySuffixTree} apis, queried by pattern index.
+     */
+    public interface Index {
+        boolean contains(int pattern);
+
+        Collection<Integer> findAllOccurrences(int pattern);
+    }
+
+    private final class StringIndex implements Index {
+        private final SuffixTree<Integer> tree;
+
+        StringIndex(SuffixTree<Integer> tree) {
+            this.tree = tree;
+        }
+
+        @Override
+        public boolean contains(int pattern) {
+            return tree.contains(patterns[pattern]);
+        }
+
+        @Override
+        public Collection<Integer> findAllOccurrences(int pattern) {
+            return tree.findAllOccurrences(patterns[pattern]);
+        }
+    }
+
+    private final class ByteArrayIndex implements Index {
+        private final ByteArraySuffixTree<Integer> tree;
+
+        ByteArrayIndex(ByteArraySuffixTree<Integer> tree) {
+            this.tree = tree;
+        }
+
+        @Override
+        public boolean contains(int pattern) {
+            return tree.contains(bytePatterns[pattern]);
+        }
+
+        @Override
+        public Collection<Integer> findAllOccurrences(int pattern) {
+            return tree.findAllOccurrences(bytePatterns[pattern]);
+        }
+    }
+}
@@ -0,0 +1,509 @@
+package com.abstractkamen.datastructures.impl.heaps;
+
+import com.abstractkamen.datastructures.api.heaps.*;
+import com.abstractkamen.datastructures.impl.utils.ResizePolicy;
+
+import java.util.*;
+import java.util.function.Consumer;
+
+/**
+ * A page aware binary heap, the B-heap described by Poul-Henning Kamp in "You're Doing It Wrong". The order and the complexity of
+ * every operation are the same as in {@link BinaryHeap}, only the positions of the nodes in the backing array differ.
+ * <p>
+ * In the implicit layout of {@link BinaryHeap} the children of {@code i} are at {@code 2i + 1} and {@code 2i + 2}, so below the
+ * first few levels every step of a sift lands on a different cache line and, for heaps far bigger than the last level cache, on a
+ * different memory page. A B-heap splits the backing array into pages of {@code pageSize} slots and stores a complete binary
+ * subtree of {@code log2(pageSize)} levels in each page:
+ * <ul>
+ *     <li>slot 0 of every page is left empty, the subtree root is at slot 1 and a node at slot {@code j} has its children at
+ *     {@code 2j} and {@code 2j + 1} of the same page, exactly like a 1-based binary heap</li>
+ *     <li>the children of the {@code pageSize / 2} nodes in the second half of a page are the roots of {@code pageSize} child
+ *     pages, so the pages themselves form a {@code pageSize}-ary tree</li>
+ * </ul>
+ * A sift stays inside one page for {@code log2(pageSize)} levels and therefore touches O(log n / log pageSize) pages instead of
+ * O(log n). Pages are filled one after the other, a page is started only when every page before it is full, so the heap always
+ * has a valid shape. The empty slot wastes one reference per page.
+ * <p>
+ * The default page of 1024 slots is 4KiB with compressed references, the size of a typical virtual memory page. The JVM does not
+ * let us align the backing array, so a logical page may straddle two physical pages, which still bounds the pages touched per
+ * sift. The elements themselves live on the Java heap and are dereferenced by the comparator, so the gain is largest when the
+ * elements are compact or were allocated close to each other. The backing array grows and shrinks according to a
+ * {@link ResizePolicy} in whole pages. This implementation does not permit null elements.
+ * <p>
+ * The heap is iterated in position order, skipping the empty slots, or best first with {@link #orderedIterator()}.
+ *
+ * @param <T> The type of elements stored in the heap.
+ * @see IterableHeap
+ * @see MergeableHeap
+ * @see BinaryHeap
+ */
+public class BHeap<T> implements IterableHeap<T>, MergeableHeap<T> {
+    /**
+     * The default number of slots in a page.
+     */
+    public static final int DEFAULT_PAGE_SIZE = 1024;
+    private static final int ROOT = 1;
+    private final Comparator<T> comparator;
+    private final ResizePolicy resizePolicy;
+    private final int pageShift;
+    private final int pageMask;
+    private final int halfPage;
+    private final int minCapacity;
+    private Object[] items;
+    private int size;
+    /**
+     * Position of the next free slot. Positions grow with the insertion order, so a node exists if its position is below it.
+     */
+    private int end = ROOT;
+    /**
+     * Position below which {@link #pop()} shrinks {@link #items}, see {@link ResizePolicy#shrinkBelow(int, int)}.
+     */
+    private int shrinkBelow;
+
+    /**
+     * Create a {@code BHeap<T>} with a custom comparator, page size, capacity and resize policy.
+     *
+     * @param comparator   custom comparator
+     * @param pageSize     number of slots in a page, a power of two greater than one
+     * @param capacity     initial capacity in elements, the heap never shrinks below it on its own
+     * @param resizePolicy how the backing array grows and shrinks
+     * @throws IllegalArgumentException if pageSize is not a power of two greater than one or capacity is below one
+     */
+    public BHeap(Comparator<T> comparator, int pageSize, int capacity, ResizePolicy resizePolicy) {
+        if (pageSize < 2 || Integer.bitCount(pageSize) != 1) {
+            throw new IllegalArgumentException("pageSize must be a power of two greater than one");
+        }
+        if (capacity < 1) {
+            throw new IllegalArgumentException("capacity cannot be below 1");
+        }
+        this.comparator = comparator;
+        this.resizePolicy = Objects.requireNonNull(resizePolicy);
+        this.pageShift = Integer.numberOfTrailingZeros(pageSize);
+        this.pageMask = pageSize - 1;
+        this.halfPage = pageSize >>> 1;
+        // every page holds pageSize - 1 elements
+        this.minCapacity = wholePages(((capacity + (long) pageMask - 1) / pageMask) << pageShift);
+        this.items = new Object[minCapacity];
+    }
+
+    /**
+     * Create a {@code BHeap<T>} with a custom comparator, page size and capacity.
+     *
+     * @param comparator custom comparator
+     * @param pageSize   number of slots in a page, a power of two greater than one
+     * @param capacity   initial capacity in elements
+     * @throws IllegalArgumentException if pageSize is not a power of two greater than one or capacity is below one
+     */
+    public BHeap(Comparator<T> comparator, int pageSize, int capacity) {
+        this(comparator, pageSize, capacity, ResizePolicy.DEFAULT);
+    }
+
+    /**
+     * Create a {@code BHeap<T>} with a custom comparator and page size, the initial capacity is a single page.
+     *
+     * @param comparator custom comparator
+     * @param pageSize   number of slots in a page, a power of two greater than one
+     * @throws IllegalArgumentException if pageSize is not a power of two greater than one
+     */
+    public BHeap(Comparator<T> comparator, int pageSize) {
+        this(comparator, pageSize, pageSize - 1);
+    }
+
+    /**
+     * Create a {@code BHeap<T>} with a custom comparator and {@link #DEFAULT_PAGE_SIZE}.
+     *
+     * @param comparator custom comparator
+     */
+    public BHeap(Comparator<T> comparator) {
+        this(comparator, DEFAULT_PAGE_SIZE);
+    }
+
+    /**
+     * Create a {@code BHeap<T>} with natural order comparator in a type safe way.
+     *
+     * @param <T> comparable type
+     * @return a comparable heap with default page size
+     */
+    public static <T extends Comparable<T>> BHeap<T> createComparable() {
+        final Comparator<T> c = Comparable::compareTo;
+        return new BHeap<>(c);
+    }
+
+    /**
+     * Create a {@code BHeap<T>} with natural order comparator in a type safe way.
+     *
+     * @param pageSize number of slots in a page, a power of two greater than one
+     * @param <T>      comparable type
+     * @return a comparable heap with given page size
+     */
+    public static <T extends Comparable<T>> BHeap<T> createComparable(int pageSize) {
+        final Comparator<T> c = Comparable::compareTo;
+        return new BHeap<>(c, pageSize);
+    }
+
+    /**
+     * Create a {@code BHeap<T>} with natural order comparator in a type safe way.
+     *
+     * @param pageSize number of slots in a page, a power of two greater than one
+     * @param capacity initial capacity in elements
+     * @param <T>      comparable type
+     * @return a comparable heap with given page size and capacity
+     */
+    public static <T extends Comparable<T>> BHeap<T> createComparable(int pageSize, int capacity) {
+        final Comparator<T> c = Comparable::compareTo;
+        return new BHeap<>(c, pageSize, capacity);
+    }
+
+    /**
+     * Get the number of slots in a page.
+     *
+     * @return page size
+     */
+    public int pageSize() {
+        return pageMask + 1;
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    @Override
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    @Override
+    public int push(T item) {
+        if (end >= items.length) {
+            resize(resizePolicy.grow(items.length, end + 1));
+        }
+        final int i = end;
+        end = next(end);
+        ++size;
+        heapifyUp(i, item);
+        return size;
+    }
+
+    /**
+     * Appends all items in page order. A batch at least as large as the heap is ordered with one {@link #restoreHeapOrder()} in
+     * O(n + k), a smaller batch is sifted up item by item.
+     *
+     * @param items The elements to be inserted.
+     * @return The new size of the heap after insertion.
+     */
+    @Override
+    public int pushAll(Collection<? extends T> items) {
+        appendAll(items.toArray(), items.size());
+        return size;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public T peek() {
+        return isEmpty() ? null : (T) items[ROOT];
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public T pop() {
+        if (size == 0) {
+            throw new NoSuchElementException();
+        }
+        final T result = (T) items[ROOT];
+        --size;
+        end = previous(end);
+        final T last = (T) items[end];
+        items[end] = null;
+        if (size > 0) {
+            heapifyDown(ROOT, last);
+        }
+        if (end < shrinkBelow) {
+            resize(resizePolicy.shrink(end, minCapacity));
+        }
+        return result;
+    }
+
+    @Override
+    public Comparator<T> comparator() {
+        return comparator;
+    }
+
+    /**
+     * Merges this heap with the other using {@code this.}{@link #comparator()} in O(n + m). The page size of {@code other} does
+     * not matter and {@code other} is left unchanged.
+     *
+     * @param other heap
+     * @return {@code this} merged with other
+     * @throws ClassCastException if {@code other} is not a {@code BHeap}
+     */
+    @Override
+    public BHeap<T> mergeWith(Heap<T> other) {
+        if (!(other instanceof BHeap)) throw new ClassCastException("other must be an instance of BHeap");
+        final BHeap<T> cast = (BHeap<T>) other;
+        final Object[] batch = new Object[cast.size];
+        int n = 0;
+        for (int i = ROOT; i < cast.end; i = cast.next(i)) {
+            batch[n++] = cast.items[i];
+        }
+        appendAll(batch, n);
+        return this;
+    }
+
+    /**
+     * Restores the heap property after the keys of some elements were mutated in place. See {@link BinaryHeap#restoreHeapOrder()}.
+     */
+    @SuppressWarnings("unchecked")
+    public void restoreHeapOrder() {
+        // children are always at greater positions than their parent, so walking the positions backwards is bottom up
+        for (int i = previous(end); i >= ROOT; i = previous(i)) {
+            heapifyDown(i, (T) items[i]);
+        }
+    }
+
+    /**
+     * Shrinks the backing array to the pages in use. The next push grows it again according to the resize policy.
+     */
+    public void trimToSize() {
+        resize(previous(end) + 1);
+    }
+
+    /**
+     * Get the resize policy of this heap.
+     *
+     * @return resize policy
+     */
+    public ResizePolicy resizePolicy() {
+        return resizePolicy;
+    }
+
+    protected Object[] getItems() {
+        return items;
+    }
+
+    /**
+     * Iterates in position order, skipping the empty first slot of every page.
+     *
+     * @return an iterator over the elements of this heap
+     */
+    @Override
+    public Iterator<T> iterator() {
+        return new Iterator<>() {
+            private int i = ROOT;
+
+            @Override
+            public boolean hasNext() {
+                return i < end;
+            }
+
+            @Override
+            @SuppressWarnings("unchecked")
+            public T next() {
+                if (i >= end) {
+                    throw new NoSuchElementException();
+                }
+                final T result = (T) items[i];
+                i = BHeap.this.next(i);
+                return result;
+            }
+        };
+    }
+
+    /**
+     * The empty slots rule out a plain array spliterator, this one splits the {@link #iterator()} in batches.
+     *
+     * @return a sized spliterator over the elements of this heap
+     */
+    @Override
+    public Spliterator<T> spliterator() {
+        return Spliterators.spliterator(iterator(), size, Spliterator.NONNULL);
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public void forEach(Consumer<? super T> action) {
+        Objects.requireNonNull(action);
+        final Object[] items = this.items;
+        for (int i = ROOT, end = this.end; i < end; i = next(i)) {
+            action.accept((T) items[i]);
+        }
+    }
+
+    @Override
+    public Iterator<T> orderedIterator() {
+        return new OrderedHeapIterator<>(items, comparator, ROOT, size == 0) {
+            @Override
+            protected void pushChildren(int i) {
+                final int left = firstChild(i, end);
+                if (left >= 0) {
+                    offer(left);
+                    final int right = sibling(left);
+                    if (right < end) {
+                        offer(right);
+                    }
+                }
+            }
+        };
+    }
+
+    @Override
+    public String toString() {
+        final List<Object> list = new ArrayList<>(size);
+        for (int i = ROOT; i < end; i = next(i)) {
+            list.add(items[i]);
+        }
+        return "not in order" + list;
+    }
+
+    @SuppressWarnings("unchecked")
+    private void appendAll(Object[] batch, int length) {
+        final int prevSize = size;
+        final int newSize = prevSize + length;
+        final int newEnd = position(newSize);
+        if (items.length <= newEnd) {
+            resize(resizePolicy.grow(items.length, newEnd + 1));
+        }
+        int i = end;
+        for (int k = 0; k < length; k++, i = next(i)) {
+            items[i] = batch[k];
+        }
+        final int prevEnd = end;
+        end = i;
+        size = newSize;
+        if (length >= prevSize) {
+            restoreHeapOrder();
+        } else {
+            for (int j = prevEnd; j < end; j = next(j)) {
+                heapifyUp(j, (T) items[j]);
+            }
+        }
+    }
+
+    /**
+     * Moves the hole at {@code i} up until {@code item} can be placed in it.
+     */
+    @SuppressWarnings("unchecked")
+    private void heapifyUp(int i, T item) {
+        final Object[] items = this.items;
+        while (i != ROOT) {
+            final int parent = parent(i);
+            final T p = (T) items[parent];
+            if (comparator.compare(p, item) <= 0) {
+                break;
+            }
+            items[i] = p;
+            i = parent;
+        }
+        items[i] = item;
+    }
+
+    /**
+     * Moves the hole at {@code i} down until {@code item} can be placed in it.
+     */
+    @SuppressWarnings("unchecked")
+    private void heapifyDown(int i, T item) {
+        final Object[] items = this.items;
+        final int end = this.end;
+        while (true) {
+            final int left = firstChild(i, end);
+            if (left < 0) {
+                break;
+            }
+            final int right = sibling(left);
+            int child = left;
+            T c = (T) items[left];
+            if (right < end && comparator.compare(c, (T) items[right]) > 0) {
+                child = right;
+                c = (T) items[right];
+            }
+            if (comparator.compare(item, c) <= 0) {
+                break;
+            }
+            items[i] = c;
+            i = child;
+        }
+        items[i] = item;
+    }
+
+    /**
+     * Position of the left child of {@code i}, -1 if it is not below {@code end}.
+     */
+    private int firstChild(int i, int end) {
+        final int j = i & pageMask;
+        if (j < halfPage) {
+            // both children in the same page
+            final int left = i + j;
+            return left < end ? left : -1;
+        }
+        // children are the roots of two adjacent child pages
+        final long childPage = (long) (i & ~pageMask) + 1 + ((j - halfPage) << 1);
+        final long left = (childPage << pageShift) | ROOT;
+        return left < end ? (int) left : -1;
+    }
+
+    /**
+     * Position of the right child given the position of the left one.
+     */
+    private int sibling(int left) {
+        // a page root has its sibling in the next page
+        return (left & pageMask) == ROOT ? left + pageMask + 1 : left + 1;
+    }
+
+    private int parent(int i) {
+        final int j = i & pageMask;
+        if (j > ROOT) {
+            return (i & ~pageMask) | (j >>> 1);
+        }
+        // page root, the parent is a node in the second half of the parent page
+        final int c = (i >>> pageShift) - 1;
+        return ((c >>> pageShift) << pageShift) | (halfPage + ((c & pageMask) >>> 1));
+    }
+
+    /**
+     * Position after {@code i} in insertion order, skipping the empty first slot of the next page.
+     */
+    private int next(int i) {
+        return (i & pageMask) == pageMask ? i + 2 : i + 1;
+    }
+
+    /**
+     * Position before {@code i} in insertion order, skipping the empty first slot of its page.
+     */
+    private int previous(int i) {
+        return (i & pageMask) == ROOT ? i - 2 : i - 1;
+    }
+
+    /**
+     * Position of the {@code n}-th inserted element.
+     *
+     * @throws OutOfMemoryError if the position cannot be held by an array
+     */
+    private int position(int n) {
+        final int perPage = pageMask;
+        final long position = ((long) (n / perPage) << pageShift) + n % perPage + ROOT;
+        if (position > Integer.MAX_VALUE - 8) {
+            throw new OutOfMemoryError("required array capacity " + position + " is too large");
+        }
+        return (int) position;
+    }
+
+    private void resize(int capacity) {
+        // never below the last position in use, an empty heap keeps a single page
+        final int newCapacity = wholePages(Math.max(capacity, Math.max(previous(end) + 1, 1)));
+        items = Arrays.copyOf(items, newCapacity);
+        shrinkBelow = resizePolicy.shrinkBelow(newCapacity, minCapacity);
+    }
+
+    /**
+     * Rounds {@code slots} up to whole pages.
+     *
+     * @throws OutOfMemoryError if the result cannot be held by an array
+     */
+    private int wholePages(long slots) {
+        final long rounded = (slots + pageMask) & ~(long) pageMask;
+        if (rounded > Integer.MAX_VALUE - 8) {
+            throw new OutOfMemoryError("required array capacity " + rounded + " is too large");
+        }
+        return (int) rounded;
+    }
+}
@@ -1,37 +1,88 @@
 package com.abstractkamen.datastructures.impl.heaps;
 
 import com.abstractkamen.datastructures.api.heaps.*;
+import com.abstractkamen.datastructures.impl.utils.ResizePolicy;
 
 import java.util.*;
+import java.util.function.Consumer;
 
 /**
  * The elements of the binary heap are ordered according to their natural ordering,
  * or by a Comparator provided at construction time, depending on which
  * constructor is used. This implementation does not permit null elements.
+ * <p>
+ * The backing array grows and shrinks according to a {@link ResizePolicy}, {@link ResizePolicy#DEFAULT} unless one is given at
+ * construction time. It never shrinks below the initial capacity on its own, {@link #trimToSize()} releases the spare slots
+ * explicitly. Popped elements are not referenced by the heap anymore.
+ * <p>
+ * The heap can be iterated in array order or, with {@link #orderedIterator()}, best first without popping anything.
+ * <p>
+ * A heap created with a {@link HeapMetricsRecorder} records its {@link HeapMetrics}, see {@link #metrics()}.
  *
  * @param <T> The type of elements stored in the binary heap.
  */
-public class BinaryHeap<T> implements Heap<T>, MergeableHeap<T> {
+public class BinaryHeap<T> implements IterableHeap<T>, MergeableHeap<T> {
     /**
      * The default heap capacity
      */
     protected static final int DEFAULT_CAPACITY = 16;
     private final Comparator<T> comparator;
+    /**
+     * {@link #comparator} or, with metrics enabled, a wrapper counting its invocations.
+     */
+    private final Comparator<T> ordering;
+    private final HeapMetricsRecorder metrics;
+    private final ResizePolicy resizePolicy;
+    private final int minCapacity;
     private Object[] items;
     private int size;
+    /**
+     * Size below which {@link #pop()} shrinks {@link #items}, see {@link ResizePolicy#shrinkBelow(int, int)}.
+     */
+    private int shrinkBelow;
 
     /**
-     * Create an {@code BinaryHeap<T>} with a custom comparator and capacity.
+     * Create an {@code BinaryHeap<T>} with a custom comparator, capacity, resize policy and metrics.
      *
-     * @param comparator custom comparator
-     * @param capacity   initial capacity
+     * @param comparator   custom comparator
+     * @param capacity     initial capacity, the heap never shrinks below it on its own
+     * @param resizePolicy how the backing array grows and shrinks
+     * @param metrics      records the metrics of this heap, null to record nothing
      */
-    public BinaryHeap(Comparator<T> comparator, int capacity) {
+    public BinaryHeap(Comparator<T> comparator, int capacity, ResizePolicy resizePolicy, HeapMetricsRecorder metrics) {
         if (capacity < 1) {
             throw new IllegalArgumentException("capacity cannot be below 1");
         }
         this.comparator = comparator;
+        this.ordering = metrics == null ? comparator : metrics.counting(comparator);
+        this.metrics = metrics;
+        this.resizePolicy = Objects.requireNonNull(resizePolicy);
+        this.minCapacity = capacity;
         this.items = new Object[capacity];
+        if (metrics != null) {
+            metrics.resized(capacity, true);
+        }
+    }
+
+    /**
+     * Create an {@code BinaryHeap<T>} with a custom comparator, capacity and resize policy.
+     *
+     * @param comparator   custom comparator
+     * @param capacity     initial capacity, the heap never shrinks below it on its own
+     * @param resizePolicy how the backing array grows and shrinks
+     */
+    public BinaryHeap(Comparator<T> comparator, int capacity, ResizePolicy resizePolicy) {
+        this(comparator, capacity, resizePolicy, null);
+    }
+
+    /**
+     * Create an {@code BinaryHeap<T>} with a custom comparator and capacity.
+     *
+     * @param comparator custom comparator
+     * @param capacity   initial capacity
+     */
+    public BinaryHeap(Comparator<T> comparator, int capacity) {
+        this(comparator, capacity, ResizePolicy.DEFAULT);
     }
 
     /**
@@ -64,6 +115,36 @@ public class BinaryHeap<T> implements Heap<T>, MergeableHeap<T> {
         return new BinaryHeap<>(c, capacity);
     }
 
+    /**
+     * Create an {@code BinaryHeap<T>} holding a copy of {@code items}. The heap is built in O(n) with Floyd's method instead of n
+     * pushes.
+     *
+     * @param comparator custom comparator
+     * @param items      initial items
+     * @param <T>        value type
+     * @return a heap of the given items
+     */
+    public static <T> BinaryHeap<T> heapify(Comparator<T> comparator, T[] items) {
+        final BinaryHeap<T> heap = new BinaryHeap<>(comparator);
+        heap.appendAll(items);
+        return heap;
+    }
+
+    /**
+     * Create an {@code BinaryHeap<T>} holding the elements of {@code items}. The heap is built in O(n) with Floyd's method instead
+     * of n pushes.
+     *
+     * @param comparator custom comparator
+     * @param items      initial items
+     * @param <T>        value type
+     * @return a heap of the given items
+     */
+    public static <T> BinaryHeap<T> heapify(Comparator<T> comparator, Collection<? extends T> items) {
+        final BinaryHeap<T> heap = new BinaryHeap<>(comparator);
+        heap.appendAll(items.toArray());
+        return heap;
+    }
+
     @Override
     public int size() {
         return size;
@@ -78,11 +159,27 @@ public class BinaryHeap<T> implements Heap<T>, MergeableHeap<T> {
     public int push(T item) {
         final int i = size;
         if (items.length <= i + 1) {
-            items = Arrays.copyOf(items, items.length << 1);
+            resize(resizePolicy.grow(items.length, i + 2));
         }
         items[i] = item;
-        heapifyUp(items, comparator, i);
+        siftUp(i);
         ++size;
+        if (metrics != null) {
+            metrics.pushed(1);
+        }
+        return size;
+    }
+
+    /**
+     * Appends all items with a single array copy. A batch at least as large as the heap is ordered with one
+     * {@link #restoreHeapOrder()} in O(n + k), a smaller batch is sifted up item by item in O(k log(n + k)).
+     *
+     * @param items The elements to be inserted.
+     * @return The new size of the heap after insertion.
+     */
+    @Override
+    public int pushAll(Collection<? extends T> items) {
+        appendAll(items.toArray());
         return size;
     }
 
@@ -100,14 +197,117 @@ public class BinaryHeap<T> implements Heap<T>, MergeableHeap<T> {
         } else {
             final T result = (T) items[0];
             --size;
+            final Object last = items[size];
+            items[size] = null;
             if (size > 0) {
-                items[0] = items[size];
-                heapifyDown(items, comparator, 0, size);
+                items[0] = last;
+                siftDown(0);
+            }
+            if (size < shrinkBelow) {
+                resize(resizePolicy.shrink(size, minCapacity));
+            }
+            if (metrics != null) {
+                metrics.popped();
             }
             return result;
         }
     }
 
+    /**
+     * Pushes {@code item} and pops the best element with at most one sift down, which is cheaper than {@link #push(Object)} followed
+     * by {@link #pop()} and never grows the heap.
+     *
+     * @param item The element to be inserted.
+     * @return {@code item} itself if it is not worse than the best element, otherwise the previous best element.
+     */
+    @SuppressWarnings("unchecked")
+    public T pushPop(T item) {
+        if (metrics != null) {
+            metrics.pushed(1);
+            metrics.popped();
+        }
+        if (size == 0 || ordering.compare(item, (T) items[0]) <= 0) {
+            return item;
+        }
+        final T result = (T) items[0];
+        items[0] = item;
+        siftDown(0);
+        return result;
+    }
+
+    /**
+     * Pops the best element and pushes {@code item} with a single sift down. Unlike {@link #pushPop(Object)} the previous best
+     * element is returned even if {@code item} is better.
+     *
+     * @param item The element to be inserted.
+     * @return The previous best element.
+     * @throws NoSuchElementException if the heap is empty.
+     */
+    @SuppressWarnings("unchecked")
+    public T replaceTop(T item) {
+        if (size == 0) {
+            throw new NoSuchElementException();
+        }
+        if (metrics != null) {
+            metrics.pushed(1);
+            metrics.popped();
+        }
+        final T result = (T) items[0];
+        items[0] = item;
+        siftDown(0);
+        return result;
+    }
+
+    /**
+     * Get the metrics of this heap.
+     *
+     * @return the metrics recorder passed at construction time, null if this heap records no metrics
+     */
+    public HeapMetrics metrics() {
+        return metrics;
+    }
+
+    @Override
+    public Iterator<T> iterator() {
+        return Spliterators.iterator(spliterator());
+    }
+
+    /**
+     * Splits the live backing array, nothing is copied.
+     *
+     * @return a sized spliterator over the elements of this heap in array order
+     */
+    @Override
+    public Spliterator<T> spliterator() {
+        return Spliterators.spliterator(items, 0, size, Spliterator.NONNULL);
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public void forEach(Consumer<? super T> action) {
+        Objects.requireNonNull(action);
+        final Object[] items = this.items;
+        for (int i = 0, n = size; i < n; i++) {
+            action.accept((T) items[i]);
+        }
+    }
+
+    @Override
+    public Iterator<T> orderedIterator() {
+        return new OrderedHeapIterator<>(items, comparator, 0, size == 0) {
+            @Override
+            protected void pushChildren(int i) {
+                final int left = (i << 1) + 1;
+                if (left < size) {
+                    offer(left);
+                    if (left + 1 < size) {
+                        offer(left + 1);
+                    }
+                }
+            }
+        };
+    }
+
     @Override
     public String toString() {
         return "not in order" + Arrays.toString(items);
@@ -124,9 +324,14 @@ public class BinaryHeap<T> implements Heap<T>, MergeableHeap<T> {
         final BinaryHeap<T> cast = (BinaryHeap<T>) other;
         int prevSize = this.size;
         this.size += cast.size;
-        this.items = Arrays.copyOf(items, size);
+        if (items.length <= size) {
+            resize(resizePolicy.grow(items.length, size + 1));
+        }
         System.arraycopy(cast.items, 0, items, prevSize, cast.size);
         restoreHeapOrder();
+        if (metrics != null) {
+            metrics.merged();
+        }
         return this;
     }
 
@@ -147,7 +352,65 @@ public class BinaryHeap<T> implements Heap<T>, MergeableHeap<T> {
     public void restoreHeapOrder() {
         int i = (size >>> 1) - 1;
         for (; i >= 0; i--) {
-            heapifyDown(items, comparator, i, size);
+            siftDown(i);
+        }
+    }
+
+    private void appendAll(Object[] batch) {
+        final int prevSize = size;
+        final int newSize = prevSize + batch.length;
+        if (items.length <= newSize) {
+            resize(resizePolicy.grow(items.length, newSize + 1));
+        }
+        System.arraycopy(batch, 0, items, prevSize, batch.length);
+        size = newSize;
+        if (batch.length >= prevSize) {
+            restoreHeapOrder();
+        } else {
+            for (int i = prevSize; i < newSize; i++) {
+                siftUp(i);
+            }
+        }
+        if (metrics != null) {
+            metrics.pushed(batch.length);
+        }
+    }
+
+    /**
+     * Shrinks the backing array to the current size of the heap. The next push grows it again according to the resize policy.
+     */
+    public void trimToSize() {
+        resize(Math.max(size, 1));
+    }
+
+    /**
+     * Get the resize policy of this heap.
+     *
+     * @return resize policy
+     */
+    public ResizePolicy resizePolicy() {
+        return resizePolicy;
+    }
+
+    private void resize(int capacity) {
+        items = Arrays.copyOf(items, capacity);
+        shrinkBelow = resizePolicy.shrinkBelow(capacity, minCapacity);
+        if (metrics != null) {
+            metrics.resized(capacity, false);
+        }
+    }
+
+    private void siftUp(int i) {
+        final int distance = heapifyUp(items, ordering, i);
+        if (metrics != null) {
+            metrics.siftedUp(distance);
+        }
+    }
+
+    private void siftDown(int i) {
+        final int distance = heapifyDown(items, ordering, i, size);
+        if (metrics != null) {
+            metrics.siftedDown(distance);
         }
     }
 
@@ -162,17 +425,21 @@ public class BinaryHeap<T> implements Heap<T>, MergeableHeap<T> {
      * @param i current index
      * @param size size of heap
      * @param <T> value type
+     * @return number of levels the element moved down
      */
-    protected static <T> void heapifyDown(Object[] items, Comparator<T> comparator, int i, int size) {
+    protected static <T> int heapifyDown(Object[] items, Comparator<T> comparator, int i, int size) {
         int half = size >>> 1;
+        int distance = 0;
         while (i < half) {
             final int smallest = smallestChild(i, size, comparator, items);
             if (smallest == i) {
-                return;
+                return distance;
             }
             swap(items, i, smallest);
             i = smallest;
+            distance++;
         }
+        return distance;
     }
 
     private static <T> int smallestChild(int i, int size, Comparator<T> comparator, Object[] items) {
@@ -194,17 +461,21 @@ public class BinaryHeap<T> implements Heap<T>, MergeableHeap<T> {
      * @param comparator comparator
      * @param i current index
      * @param <T> value type
+     * @return number of levels the element moved up
      */
-    protected static <T> void heapifyUp(Object[] items, Comparator<T> comparator, int i) {
+    protected static <T> int heapifyUp(Object[] items, Comparator<T> comparator, int i) {
+        int distance = 0;
         while (i > 0) {
             final int parent = (i - 1) >>> 1;
             if (greaterThanOrEqual(parent, i, comparator, items)) {
                 swap(items, i, parent);
                 i = parent;
+                distance++;
             } else {
-                return;
+                return distance;
             }
         }
+        return distance;
     }
 
     private static void swap(Object[] items, int a, int b) {
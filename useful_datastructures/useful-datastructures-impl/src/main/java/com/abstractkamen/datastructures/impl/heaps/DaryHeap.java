@@ -0,0 +1,395 @@
+package com.abstractkamen.datastructures.impl.heaps;
+
+import com.abstractkamen.datastructures.api.heaps.*;
+import com.abstractkamen.datastructures.impl.utils.ResizePolicy;
+
+import java.util.*;
+import java.util.function.Consumer;
+
+/**
+ * A d-ary heap where every node has {@code arity} children instead of two. A wider node makes the tree shallower, a 4-ary heap is
+ * half as high as a binary heap and an 8-ary heap is a third as high, and all children of a node sit next to each other in the
+ * backing array, so a sift touches fewer cache lines. The price is {@code arity} comparisons per level on the way down, which is why
+ * 4 is usually the sweet spot for large heaps.
+ * <p>
+ * The arity must be a power of two so that parent and child indices are computed with shifts. Just like
+ * {@link AdjustableBinaryHeap}, elements are located for key adjustment with a linear identity scan. This implementation does not
+ * permit null elements.
+ * <p>
+ * The backing array grows and shrinks according to a {@link ResizePolicy}, see {@link BinaryHeap}. Iteration works like in
+ * {@link BinaryHeap}.
+ *
+ * @param <T> The type of elements stored in the heap.
+ * @see IterableHeap
+ * @see MergeableHeap
+ * @see AdjustableHeap
+ */
+public class DaryHeap<T> implements IterableHeap<T>, MergeableHeap<T>, AdjustableHeap<T> {
+    private final Comparator<T> comparator;
+    private final int arity;
+    /**
+     * log2 of {@link #arity}
+     */
+    private final int shift;
+    private final ResizePolicy resizePolicy;
+    private final int minCapacity;
+    private Object[] items;
+    private int size;
+    /**
+     * Size below which {@link #pop()} shrinks {@link #items}, see {@link ResizePolicy#shrinkBelow(int, int)}.
+     */
+    private int shrinkBelow;
+
+    /**
+     * Create a {@code DaryHeap<T>} with a custom comparator, arity, capacity and resize policy.
+     *
+     * @param comparator   custom comparator
+     * @param arity        number of children of every node, a power of two greater than one
+     * @param capacity     initial capacity, the heap never shrinks below it on its own
+     * @param resizePolicy how the backing array grows and shrinks
+     * @throws IllegalArgumentException if arity is not a power of two greater than one or capacity is below one
+     */
+    public DaryHeap(Comparator<T> comparator, int arity, int capacity, ResizePolicy resizePolicy) {
+        if (arity < 2 || Integer.bitCount(arity) != 1) {
+            throw new IllegalArgumentException("arity must be a power of two greater than one");
+        }
+        if (capacity < 1) {
+            throw new IllegalArgumentException("capacity cannot be below 1");
+        }
+        this.comparator = comparator;
+        this.arity = arity;
+        this.shift = Integer.numberOfTrailingZeros(arity);
+        this.resizePolicy = Objects.requireNonNull(resizePolicy);
+        this.minCapacity = capacity;
+        this.items = new Object[capacity];
+    }
+
+    /**
+     * Create a {@code DaryHeap<T>} with a custom comparator, arity and capacity.
+     *
+     * @param comparator custom comparator
+     * @param arity      number of children of every node, a power of two greater than one
+     * @param capacity   initial capacity
+     * @throws IllegalArgumentException if arity is not a power of two greater than one or capacity is below one
+     */
+    public DaryHeap(Comparator<T> comparator, int arity, int capacity) {
+        this(comparator, arity, capacity, ResizePolicy.DEFAULT);
+    }
+
+    /**
+     * Create a {@code DaryHeap<T>} with a custom comparator and arity.
+     *
+     * @param comparator custom comparator
+     * @param arity      number of children of every node, a power of two greater than one
+     * @throws IllegalArgumentException if arity is not a power of two greater than one
+     */
+    public DaryHeap(Comparator<T> comparator, int arity) {
+        this(comparator, arity, BinaryHeap.DEFAULT_CAPACITY);
+    }
+
+    /**
+     * Create a {@code DaryHeap<T>} with natural order comparator in a type safe way.
+     *
+     * @param arity number of children of every node, a power of two greater than one
+     * @param <T>   comparable type
+     * @return a comparable heap with default capacity
+     */
+    public static <T extends Comparable<T>> DaryHeap<T> createComparable(int arity) {
+        final Comparator<T> c = Comparable::compareTo;
+        return new DaryHeap<>(c, arity);
+    }
+
+    /**
+     * Create a {@code DaryHeap<T>} with natural order comparator in a type safe way.
+     *
+     * @param arity    number of children of every node, a power of two greater than one
+     * @param capacity initial capacity
+     * @param <T>      comparable type
+     * @return a comparable heap with given capacity
+     */
+    public static <T extends Comparable<T>> DaryHeap<T> createComparable(int arity, int capacity) {
+        final Comparator<T> c = Comparable::compareTo;
+        return new DaryHeap<>(c, arity, capacity);
+    }
+
+    /**
+     * Get the number of children of every node.
+     *
+     * @return arity of this heap
+     */
+    public int arity() {
+        return arity;
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    @Override
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    @Override
+    public int push(T item) {
+        if (items.length == size) {
+            resize(resizePolicy.grow(items.length, size + 1));
+        }
+        heapifyUp(size, item);
+        ++size;
+        return size;
+    }
+
+    /**
+     * Appends all items with a single array copy. A batch at least as large as the heap is ordered with one
+     * {@link #restoreHeapOrder()} in O(n + k), a smaller batch is sifted up item by item.
+     *
+     * @param items The elements to be inserted.
+     * @return The new size of the heap after insertion.
+     */
+    @Override
+    @SuppressWarnings("unchecked")
+    public int pushAll(Collection<? extends T> items) {
+        final Object[] batch = items.toArray();
+        final int prevSize = size;
+        final int newSize = prevSize + batch.length;
+        if (this.items.length < newSize) {
+            resize(resizePolicy.grow(this.items.length, newSize));
+        }
+        System.arraycopy(batch, 0, this.items, prevSize, batch.length);
+        if (batch.length >= prevSize) {
+            size = newSize;
+            restoreHeapOrder();
+        } else {
+            for (int i = prevSize; i < newSize; i++) {
+                heapifyUp(i, (T) this.items[i]);
+                size++;
+            }
+        }
+        return size;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public T peek() {
+        return isEmpty() ? null : (T) items[0];
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public T pop() {
+        if (size == 0) {
+            throw new NoSuchElementException();
+        }
+        final T result = (T) items[0];
+        --size;
+        final T last = (T) items[size];
+        items[size] = null;
+        if (size > 0) {
+            heapifyDown(0, last);
+        }
+        if (size < shrinkBelow) {
+            resize(resizePolicy.shrink(size, minCapacity));
+        }
+        return result;
+    }
+
+    @Override
+    public Comparator<T> comparator() {
+        return comparator;
+    }
+
+    @Override
+    public boolean increaseKey(T item, T increasedItem) {
+        final int compare = comparator.compare(item, increasedItem);
+        if (compare > 0) return false;
+        final int i = indexOf(item);
+        if (i > -1) {
+            if (compare == 0) return false;
+            heapifyDown(i, increasedItem);
+        } else {
+            push(increasedItem);
+        }
+        return true;
+    }
+
+    @Override
+    public boolean decreaseKey(T item, T decreasedItem) {
+        final int compare = comparator.compare(item, decreasedItem);
+        if (compare < 0) return false;
+        final int i = indexOf(item);
+        if (i > -1) {
+            if (compare == 0) return false;
+            heapifyUp(i, decreasedItem);
+        } else {
+            push(decreasedItem);
+        }
+        return true;
+    }
+
+    /**
+     * Merges this heap with the other using {@code this.}{@link #comparator()} in O(n + m). The arity of {@code other} does not
+     * matter.
+     *
+     * @param other heap
+     * @return {@code this} merged with other
+     * @throws ClassCastException if {@code other} is not a {@code DaryHeap}
+     */
+    @Override
+    public DaryHeap<T> mergeWith(Heap<T> other) {
+        if (!(other instanceof DaryHeap)) throw new ClassCastException("other must be an instance of DaryHeap");
+        final DaryHeap<T> cast = (DaryHeap<T>) other;
+        final int prevSize = this.size;
+        final int otherSize = cast.size;
+        this.size += otherSize;
+        if (items.length < size) {
+            resize(resizePolicy.grow(items.length, size));
+        }
+        System.arraycopy(cast.items, 0, items, prevSize, otherSize);
+        restoreHeapOrder();
+        return this;
+    }
+
+    /**
+     * Restores the heap property after the keys of some elements were mutated in place. See {@link BinaryHeap#restoreHeapOrder()}.
+     */
+    @SuppressWarnings("unchecked")
+    public void restoreHeapOrder() {
+        if (size < 2) {
+            return;
+        }
+        for (int i = (size - 2) >>> shift; i >= 0; i--) {
+            heapifyDown(i, (T) items[i]);
+        }
+    }
+
+    /**
+     * Shrinks the backing array to the current size of the heap. The next push grows it again according to the resize policy.
+     */
+    public void trimToSize() {
+        resize(Math.max(size, 1));
+    }
+
+    /**
+     * Get the resize policy of this heap.
+     *
+     * @return resize policy
+     */
+    public ResizePolicy resizePolicy() {
+        return resizePolicy;
+    }
+
+    protected Object[] getItems() {
+        return items;
+    }
+
+    @Override
+    public Iterator<T> iterator() {
+        return Spliterators.iterator(spliterator());
+    }
+
+    /**
+     * Splits the live backing array, nothing is copied.
+     *
+     * @return a sized spliterator over the elements of this heap in array order
+     */
+    @Override
+    public Spliterator<T> spliterator() {
+        return Spliterators.spliterator(items, 0, size, Spliterator.NONNULL);
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public void forEach(Consumer<? super T> action) {
+        Objects.requireNonNull(action);
+        final Object[] items = this.items;
+        for (int i = 0, n = size; i < n; i++) {
+            action.accept((T) items[i]);
+        }
+    }
+
+    @Override
+    public Iterator<T> orderedIterator() {
+        return new OrderedHeapIterator<>(items, comparator, 0, size == 0) {
+            @Override
+            protected void pushChildren(int i) {
+                final int first = (i << shift) + 1;
+                if (first < size && first > 0) {
+                    for (int c = first, end = Math.min(first + arity, size); c < end; c++) {
+                        offer(c);
+                    }
+                }
+            }
+        };
+    }
+
+    private void resize(int capacity) {
+        items = Arrays.copyOf(items, capacity);
+        shrinkBelow = resizePolicy.shrinkBelow(capacity, minCapacity);
+    }
+
+    @Override
+    public String toString() {
+        return "not in order" + Arrays.toString(Arrays.copyOf(items, size));
+    }
+
+    private int indexOf(Object item) {
+        for (int i = 0; i < size; i++) {
+            if (item == items[i]) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Moves the hole at {@code i} up until {@code item} can be placed in it.
+     */
+    @SuppressWarnings("unchecked")
+    private void heapifyUp(int i, T item) {
+        final Object[] items = this.items;
+        while (i > 0) {
+            final int parent = (i - 1) >>> shift;
+            final Object p = items[parent];
+            if (comparator.compare((T) p, item) <= 0) {
+                break;
+            }
+            items[i] = p;
+            i = parent;
+        }
+        items[i] = item;
+    }
+
+    /**
+     * Moves the hole at {@code i} down until {@code item} can be placed in it. The children of {@code i} are the {@code arity}
+     * consecutive slots starting at {@code (i << shift) + 1}.
+     */
+    @SuppressWarnings("unchecked")
+    private void heapifyDown(int i, T item) {
+        final Object[] items = this.items;
+        final int size = this.size;
+        while (true) {
+            final int first = (i << shift) + 1;
+            if (first >= size || first < 0) {
+                break;
+            }
+            final int end = Math.min(first + arity, size);
+            int best = first;
+            T b = (T) items[first];
+            for (int c = first + 1; c < end; c++) {
+                final T candidate = (T) items[c];
+                if (comparator.compare(candidate, b) < 0) {
+                    best = c;
+                    b = candidate;
+                }
+            }
+            if (comparator.compare(item, b) <= 0) {
+                break;
+            }
+            items[i] = b;
+            i = best;
+        }
+        items[i] = item;
+    }
+}
@@ -0,0 +1,321 @@
+package com.abstractkamen.datastructures.impl.heaps;
+
+import com.abstractkamen.datastructures.api.heaps.*;
+import com.abstractkamen.datastructures.impl.utils.ResizePolicy;
+
+import java.util.*;
+
+/**
+ * A binary heap of primitive {@code double} values backed by a {@code double[]}. The values are ordered by a {@link DoubleComparator}
+ * provided at construction time. Unlike {@code BinaryHeap<Double>} no value is ever boxed, so pushing does not allocate unless the
+ * backing array has to grow. The backing array grows and shrinks according to a {@link ResizePolicy}, see {@link BinaryHeap}.
+ *
+ * @see BinaryHeap
+ */
+public class DoubleBinaryHeap implements DoubleHeap {
+    private final DoubleComparator comparator;
+    private final ResizePolicy resizePolicy;
+    private final int minCapacity;
+    private double[] items;
+    private int size;
+    /**
+     * Size below which {@link #pop()} shrinks {@link #items}, see {@link ResizePolicy#shrinkBelow(int, int)}.
+     */
+    private int shrinkBelow;
+
+    /**
+     * Create an {@code DoubleBinaryHeap} with a custom comparator, capacity and resize policy.
+     *
+     * @param comparator   custom comparator
+     * @param capacity     initial capacity, the heap never shrinks below it on its own
+     * @param resizePolicy how the backing array grows and shrinks
+     */
+    public DoubleBinaryHeap(DoubleComparator comparator, int capacity, ResizePolicy resizePolicy) {
+        if (capacity < 1) {
+            throw new IllegalArgumentException("capacity cannot be below 1");
+        }
+        this.comparator = Objects.requireNonNull(comparator);
+        this.resizePolicy = Objects.requireNonNull(resizePolicy);
+        this.minCapacity = capacity;
+        this.items = new double[capacity];
+    }
+
+    /**
+     * Create an {@code DoubleBinaryHeap} with a custom comparator and capacity.
+     *
+     * @param comparator custom comparator
+     * @param capacity   initial capacity
+     */
+    public DoubleBinaryHeap(DoubleComparator comparator, int capacity) {
+        this(comparator, capacity, ResizePolicy.DEFAULT);
+    }
+
+    /**
+     * Create an {@code DoubleBinaryHeap} with a custom comparator.
+     *
+     * @param comparator custom comparator
+     */
+    public DoubleBinaryHeap(DoubleComparator comparator) {
+        this(comparator, BinaryHeap.DEFAULT_CAPACITY);
+    }
+
+    /**
+     * Create a min {@code DoubleBinaryHeap}.
+     *
+     * @return a min heap with default capacity
+     */
+    public static DoubleBinaryHeap createMin() {
+        return new DoubleBinaryHeap(DoubleComparator.naturalOrder());
+    }
+
+    /**
+     * Create a min {@code DoubleBinaryHeap}.
+     *
+     * @param capacity initial capacity
+     * @return a min heap with given capacity
+     */
+    public static DoubleBinaryHeap createMin(int capacity) {
+        return new DoubleBinaryHeap(DoubleComparator.naturalOrder(), capacity);
+    }
+
+    /**
+     * Create a max {@code DoubleBinaryHeap}.
+     *
+     * @return a max heap with default capacity
+     */
+    public static DoubleBinaryHeap createMax() {
+        return new DoubleBinaryHeap(DoubleComparator.reverseOrder());
+    }
+
+    /**
+     * Create a max {@code DoubleBinaryHeap}.
+     *
+     * @param capacity initial capacity
+     * @return a max heap with given capacity
+     */
+    public static DoubleBinaryHeap createMax(int capacity) {
+        return new DoubleBinaryHeap(DoubleComparator.reverseOrder(), capacity);
+    }
+
+    /**
+     * Create an {@code DoubleBinaryHeap} holding a copy of {@code values}. The heap is built in O(n) with Floyd's method instead of n
+     * pushes.
+     *
+     * @param comparator custom comparator
+     * @param values     initial values
+     * @return a heap of the given values
+     */
+    public static DoubleBinaryHeap heapify(DoubleComparator comparator, double... values) {
+        final DoubleBinaryHeap heap = new DoubleBinaryHeap(comparator);
+        heap.pushAll(values);
+        return heap;
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    @Override
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    @Override
+    public int push(double value) {
+        if (items.length == size) {
+            resize(resizePolicy.grow(items.length, size + 1));
+        }
+        heapifyUp(items, comparator, size, value);
+        ++size;
+        return size;
+    }
+
+    /**
+     * Appends all values with a single array copy. A batch at least as large as the heap is ordered with one pass of Floyd's method
+     * in O(n + k), a smaller batch is sifted up value by value.
+     *
+     * @param values The values to be inserted.
+     * @return The new size of the heap after insertion.
+     */
+    @Override
+    public int pushAll(double... values) {
+        final int prevSize = size;
+        final int newSize = prevSize + values.length;
+        if (items.length < newSize) {
+            resize(resizePolicy.grow(items.length, newSize));
+        }
+        System.arraycopy(values, 0, items, prevSize, values.length);
+        size = newSize;
+        if (values.length >= prevSize) {
+            heapify();
+        } else {
+            for (int i = prevSize; i < newSize; i++) {
+                heapifyUp(items, comparator, i, items[i]);
+            }
+        }
+        return size;
+    }
+
+    @Override
+    public double peek() {
+        if (size == 0) {
+            throw new NoSuchElementException();
+        }
+        return items[0];
+    }
+
+    @Override
+    public double pop() {
+        if (size == 0) {
+            throw new NoSuchElementException();
+        }
+        final double result = items[0];
+        --size;
+        if (size > 0) {
+            heapifyDown(items, comparator, 0, size, items[size]);
+        }
+        if (size < shrinkBelow) {
+            resize(resizePolicy.shrink(size, minCapacity));
+        }
+        return result;
+    }
+
+    @Override
+    public DoubleComparator comparator() {
+        return comparator;
+    }
+
+    /**
+     * Pushes {@code value} and pops the best value with at most one sift down, which is cheaper than {@link #push(double)} followed by
+     * {@link #pop()} and never grows the heap.
+     *
+     * @param value The value to be inserted.
+     * @return {@code value} itself if it is not worse than the best value, otherwise the previous best value.
+     */
+    public double pushPop(double value) {
+        if (size == 0 || comparator.compare(value, items[0]) <= 0) {
+            return value;
+        }
+        final double result = items[0];
+        heapifyDown(items, comparator, 0, size, value);
+        return result;
+    }
+
+    /**
+     * Pops the best value and pushes {@code value} with a single sift down. Unlike {@link #pushPop(double)} the previous best value is
+     * returned even if {@code value} is better.
+     *
+     * @param value The value to be inserted.
+     * @return The previous best value.
+     * @throws NoSuchElementException if the heap is empty.
+     */
+    public double replaceTop(double value) {
+        if (size == 0) {
+            throw new NoSuchElementException();
+        }
+        final double result = items[0];
+        heapifyDown(items, comparator, 0, size, value);
+        return result;
+    }
+
+    /**
+     * Merges this heap with the other using {@code this.}{@link #comparator()}. The heaps will be merged regardless of
+     * {@code other}'s order in O(n + m) time.
+     *
+     * @param other heap
+     * @return {@code this} merged with other
+     * @throws ClassCastException if {@code other} is not an {@code DoubleBinaryHeap}
+     */
+    public DoubleBinaryHeap mergeWith(DoubleHeap other) {
+        if (!(other instanceof DoubleBinaryHeap)) throw new ClassCastException("other must be an instance of DoubleBinaryHeap");
+        final DoubleBinaryHeap cast = (DoubleBinaryHeap) other;
+        final int prevSize = this.size;
+        final int otherSize = cast.size;
+        this.size += otherSize;
+        if (items.length < size) {
+            resize(resizePolicy.grow(items.length, size));
+        }
+        System.arraycopy(cast.items, 0, items, prevSize, otherSize);
+        heapify();
+        return this;
+    }
+
+    @Override
+    public String toString() {
+        return "not in order" + Arrays.toString(Arrays.copyOf(items, size));
+    }
+
+    /**
+     * Shrinks the backing array to the current size of the heap. The next push grows it again according to the resize policy.
+     */
+    public void trimToSize() {
+        resize(Math.max(size, 1));
+    }
+
+    /**
+     * Get the resize policy of this heap.
+     *
+     * @return resize policy
+     */
+    public ResizePolicy resizePolicy() {
+        return resizePolicy;
+    }
+
+    private void resize(int capacity) {
+        items = Arrays.copyOf(items, capacity);
+        shrinkBelow = resizePolicy.shrinkBelow(capacity, minCapacity);
+    }
+
+    protected double[] getItems() {
+        return items;
+    }
+
+    /**
+     * Floyd's method, sifts down every parent from the last one to the root.
+     */
+    private void heapify() {
+        for (int i = (size >>> 1) - 1; i >= 0; i--) {
+            heapifyDown(items, comparator, i, size, items[i]);
+        }
+    }
+
+    /**
+     * Moves the hole at {@code i} up until {@code value} can be placed in it. Values are shifted instead of swapped which halves the
+     * writes compared to {@link BinaryHeap#heapifyUp(Object[], Comparator, int)}.
+     */
+    private static void heapifyUp(double[] items, DoubleComparator comparator, int i, double value) {
+        while (i > 0) {
+            final int parent = (i - 1) >>> 1;
+            final double p = items[parent];
+            if (comparator.compare(p, value) <= 0) {
+                break;
+            }
+            items[i] = p;
+            i = parent;
+        }
+        items[i] = value;
+    }
+
+    /**
+     * Moves the hole at {@code i} down until {@code value} can be placed in it.
+     */
+    private static void heapifyDown(double[] items, DoubleComparator comparator, int i, int size, double value) {
+        final int half = size >>> 1;
+        while (i < half) {
+            int child = (i << 1) + 1;
+            double c = items[child];
+            final int right = child + 1;
+            if (right < size && comparator.compare(c, items[right]) > 0) {
+                child = right;
+                c = items[right];
+            }
+            if (comparator.compare(value, c) <= 0) {
+                break;
+            }
+            items[i] = c;
+            i = child;
+        }
+        items[i] = value;
+    }
+}
@@ -0,0 +1,170 @@
+package com.abstractkamen.datastructures.impl.heaps;
+
+import com.abstractkamen.datastructures.api.heaps.*;
+
+import java.util.*;
+
+/**
+ * A {@link TopKHeap} of primitive {@code double} values. Keeps only the {@code k} greatest values it was offered according to its
+ * {@link DoubleComparator}, pass {@link DoubleComparator#reverseOrder()} or use {@link #createSmallest(int)} to keep the {@code k}
+ * smallest. No value is ever boxed and the backing {@link DoubleBinaryHeap} never grows beyond {@code k}.
+ * <p>
+ * To select from a {@code DoubleStream}:
+ * <pre>
+ *     {@code double[] top = stream.collect(() -> DoubleTopKHeap.createLargest(k), DoubleTopKHeap::offer,}
+ *     {@code                                DoubleTopKHeap::mergeWith).toSortedArray();}
+ * </pre>
+ *
+ * @see TopKHeap
+ * @see DoubleHeap
+ */
+public class DoubleTopKHeap implements DoubleHeap {
+    private final DoubleBinaryHeap heap;
+    private final int k;
+
+    /**
+     * Create a {@code DoubleTopKHeap} with a custom comparator keeping the {@code k} greatest values.
+     *
+     * @param comparator custom comparator
+     * @param k          number of values to keep
+     * @throws IllegalArgumentException if k is below one
+     */
+    public DoubleTopKHeap(DoubleComparator comparator, int k) {
+        if (k < 1) {
+            throw new IllegalArgumentException("k cannot be below 1");
+        }
+        this.heap = new DoubleBinaryHeap(comparator, k);
+        this.k = k;
+    }
+
+    /**
+     * Create a {@code DoubleTopKHeap} keeping the {@code k} largest values.
+     *
+     * @param k number of values to keep
+     * @return a heap keeping the {@code k} largest values
+     */
+    public static DoubleTopKHeap createLargest(int k) {
+        return new DoubleTopKHeap(DoubleComparator.naturalOrder(), k);
+    }
+
+    /**
+     * Create a {@code DoubleTopKHeap} keeping the {@code k} smallest values.
+     *
+     * @param k number of values to keep
+     * @return a heap keeping the {@code k} smallest values
+     */
+    public static DoubleTopKHeap createSmallest(int k) {
+        return new DoubleTopKHeap(DoubleComparator.reverseOrder(), k);
+    }
+
+    /**
+     * Get the maximum number of values this heap keeps.
+     *
+     * @return k
+     */
+    public int capacity() {
+        return k;
+    }
+
+    /**
+     * Offers {@code value} to the heap. While the heap is not full the value is always kept, afterwards it is kept only if it is
+     * greater than {@link #peek()} which is then evicted.
+     *
+     * @param value to be offered
+     * @return true if the value was kept
+     */
+    public boolean offer(double value) {
+        if (heap.size() < k) {
+            heap.push(value);
+            return true;
+        }
+        if (heap.comparator().compare(value, heap.getItems()[0]) <= 0) {
+            return false;
+        }
+        heap.replaceTop(value);
+        return true;
+    }
+
+    /**
+     * Same as {@link #offer(double)}.
+     *
+     * @param value The value to be offered.
+     * @return The size of the heap after the offer.
+     */
+    @Override
+    public int push(double value) {
+        offer(value);
+        return heap.size();
+    }
+
+    /**
+     * Retrieves the smallest kept value, the one the next accepted offer evicts once the heap is full.
+     *
+     * @return the smallest kept value
+     * @throws NoSuchElementException if the heap is empty
+     */
+    @Override
+    public double peek() {
+        return heap.peek();
+    }
+
+    /**
+     * Removes and retrieves the smallest kept value.
+     *
+     * @return the smallest kept value
+     * @throws NoSuchElementException if the heap is empty
+     */
+    @Override
+    public double pop() {
+        return heap.pop();
+    }
+
+    @Override
+    public int size() {
+        return heap.size();
+    }
+
+    @Override
+    public boolean isEmpty() {
+        return heap.isEmpty();
+    }
+
+    @Override
+    public DoubleComparator comparator() {
+        return heap.comparator();
+    }
+
+    /**
+     * Offers every value of {@code other} to this heap in O(m log k), {@code other} is left unchanged.
+     *
+     * @param other heap
+     * @return {@code this} merged with other
+     */
+    public DoubleTopKHeap mergeWith(DoubleTopKHeap other) {
+        final double[] items = other.heap.getItems();
+        for (int i = 0, size = other.heap.size(); i < size; i++) {
+            offer(items[i]);
+        }
+        return this;
+    }
+
+    /**
+     * Get the kept values without removing them.
+     *
+     * @return a new array of the kept values, greatest first
+     */
+    public double[] toSortedArray() {
+        final int size = heap.size();
+        final DoubleBinaryHeap copy = DoubleBinaryHeap.heapify(heap.comparator(), Arrays.copyOf(heap.getItems(), size));
+        final double[] sorted = new double[size];
+        for (int i = size - 1; i >= 0; i--) {
+            sorted[i] = copy.pop();
+        }
+        return sorted;
+    }
+
+    @Override
+    public String toString() {
+        return heap.toString();
+    }
+}
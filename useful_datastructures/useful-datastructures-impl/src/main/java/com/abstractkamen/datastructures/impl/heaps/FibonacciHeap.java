@@ -0,0 +1,441 @@
+package com.abstractkamen.datastructures.impl.heaps;
+
+import com.abstractkamen.datastructures.api.heaps.*;
+
+import java.util.*;
+
+/**
+ * A Fibonacci heap, a circular list of heap-ordered trees which are only consolidated when the minimum is popped. Cutting a node
+ * marks its parent and a second cut from the same parent cuts the parent as well, which keeps the trees bushy enough for the
+ * amortized bounds to hold.
+ * <ul>
+ *     <li>{@link #push(Object)}, {@link #peek()} O(1)</li>
+ *     <li>{@link #pop()} O(log n) amortized</li>
+ *     <li>{@link #decreaseKey(Object, Object)} O(1) amortized</li>
+ *     <li>{@link #increaseKey(Object, Object)} O(log n) amortized</li>
+ *     <li>{@link #mergeWith(Heap)} O(1) for another {@code FibonacciHeap} with the same comparator</li>
+ * </ul>
+ * The constant factors are higher than those of {@link PairingHeap}, which is usually faster in practice. Elements are located for
+ * key adjustment through an identity map like in {@link IndexedAdjustableBinaryHeap}. The map is only built by the first key
+ * adjustment, so heaps which are only pushed, popped and merged never pay for it. Passing the same instance as both arguments of
+ * {@code increaseKey} or {@code decreaseKey} re-positions an element whose key was mutated in place. If the same instance is pushed
+ * more than once which of its copies is adjusted is unspecified. This implementation does not permit null elements.
+ *
+ * @param <T> The type of elements stored in the heap.
+ * @see Heap
+ * @see MergeableHeap
+ * @see AdjustableHeap
+ */
+public class FibonacciHeap<T> implements Heap<T>, MergeableHeap<T>, AdjustableHeap<T> {
+    /**
+     * The degree of any node is below log<sub>φ</sub>(n) + 1, which is 45 for the largest int.
+     */
+    private static final int MAX_DEGREE = 48;
+    private final Comparator<T> comparator;
+    /**
+     * Element to node index, null until the first key adjustment.
+     */
+    private IdentityHashMap<T, Node<T>> index;
+    private final Node<?>[] degrees = new Node<?>[MAX_DEGREE];
+    private Node<?>[] roots = new Node<?>[BinaryHeap.DEFAULT_CAPACITY];
+    private Node<T> min;
+    private int size;
+
+    /**
+     * Create a {@code FibonacciHeap<T>} with a custom comparator.
+     *
+     * @param comparator custom comparator
+     */
+    public FibonacciHeap(Comparator<T> comparator) {
+        this.comparator = comparator;
+    }
+
+    /**
+     * Create a {@code FibonacciHeap<T>} with natural order comparator in a type safe way.
+     *
+     * @param <T> comparable type
+     * @return a comparable heap
+     */
+    public static <T extends Comparable<T>> FibonacciHeap<T> createComparable() {
+        final Comparator<T> c = Comparable::compareTo;
+        return new FibonacciHeap<>(c);
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    @Override
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    @Override
+    public int push(T item) {
+        final Node<T> node = new Node<>(item);
+        if (index != null) {
+            index.put(item, node);
+        }
+        addRoot(node);
+        return ++size;
+    }
+
+    @Override
+    public T peek() {
+        return min == null ? null : min.item;
+    }
+
+    @Override
+    public T pop() {
+        if (min == null) {
+            throw new NoSuchElementException();
+        }
+        final Node<T> popped = min;
+        promoteChildren(popped);
+        if (popped.right == popped) {
+            min = null;
+        } else {
+            min = popped.right;
+            unlink(popped);
+            consolidate();
+        }
+        popped.left = popped.right = null;
+        --size;
+        // a re-pushed instance points to another node which must stay indexed
+        if (index != null && index.get(popped.item) == popped) {
+            index.remove(popped.item);
+        }
+        return popped.item;
+    }
+
+    @Override
+    public Comparator<T> comparator() {
+        return comparator;
+    }
+
+    @Override
+    public boolean increaseKey(T item, T increasedItem) {
+        final int compare = comparator.compare(item, increasedItem);
+        if (compare > 0) return false;
+        final Node<T> node = index().get(item);
+        if (node == null) {
+            push(increasedItem);
+            return true;
+        }
+        if (item != increasedItem) {
+            if (compare == 0) return false;
+            replace(item, increasedItem, node);
+        }
+        // the children may now be smaller than the node, turn the node into a childless root
+        final boolean wasMin = node == min;
+        final Node<T> parent = node.parent;
+        if (parent != null) {
+            cut(node, parent);
+            cascadingCut(parent);
+        }
+        promoteChildren(node);
+        if (wasMin) {
+            consolidate();
+        }
+        return true;
+    }
+
+    @Override
+    public boolean decreaseKey(T item, T decreasedItem) {
+        final int compare = comparator.compare(item, decreasedItem);
+        if (compare < 0) return false;
+        final Node<T> node = index().get(item);
+        if (node == null) {
+            push(decreasedItem);
+            return true;
+        }
+        if (item != decreasedItem) {
+            if (compare == 0) return false;
+            replace(item, decreasedItem, node);
+        }
+        final Node<T> parent = node.parent;
+        if (parent != null && comparator.compare(node.item, parent.item) < 0) {
+            cut(node, parent);
+            cascadingCut(parent);
+        }
+        if (comparator.compare(node.item, min.item) < 0) {
+            min = node;
+        }
+        return true;
+    }
+
+    /**
+     * Merges this heap with the other using {@code this.}{@link #comparator()}. Another {@code FibonacciHeap} with the same
+     * comparator is merged in O(1) by splicing the two root lists, unless one of the heaps has already built its element index which
+     * then has to take in the elements of the other. Any other heap is drained with {@link Heap#pop()} and its elements pushed,
+     * which costs O(m log m) for the pops of a binary or d-ary heap of {@code m} elements. Either way {@code other} is left empty.
+     *
+     * @param other heap
+     * @return {@code this} merged with other
+     */
+    @Override
+    @SuppressWarnings("unchecked")
+    public FibonacciHeap<T> mergeWith(Heap<T> other) {
+        if (other == this) {
+            return this;
+        }
+        if (other instanceof FibonacciHeap && other.comparator() == comparator) {
+            final FibonacciHeap<T> cast = (FibonacciHeap<T>) other;
+            final Node<T> otherMin = cast.min;
+            if (otherMin != null) {
+                mergeIndex(cast);
+                if (min == null) {
+                    min = otherMin;
+                } else {
+                    final Node<T> right = min.right;
+                    final Node<T> otherLeft = otherMin.left;
+                    min.right = otherMin;
+                    otherMin.left = min;
+                    otherLeft.right = right;
+                    right.left = otherLeft;
+                    if (comparator.compare(otherMin.item, min.item) < 0) {
+                        min = otherMin;
+                    }
+                }
+                size += cast.size;
+                cast.min = null;
+                cast.size = 0;
+            }
+        } else {
+            while (!other.isEmpty()) {
+                push(other.pop());
+            }
+        }
+        return this;
+    }
+
+    @Override
+    public String toString() {
+        final List<T> items = new ArrayList<>(size);
+        final Deque<Node<T>> stack = new ArrayDeque<>();
+        if (min != null) {
+            stack.push(min);
+        }
+        while (!stack.isEmpty()) {
+            final Node<T> first = stack.pop();
+            Node<T> node = first;
+            do {
+                items.add(node.item);
+                if (node.child != null) {
+                    stack.push(node.child);
+                }
+                node = node.right;
+            } while (node != first);
+        }
+        return "not in order" + items;
+    }
+
+    private IdentityHashMap<T, Node<T>> index() {
+        if (index == null) {
+            index = new IdentityHashMap<>(size);
+            indexTrees(min);
+        }
+        return index;
+    }
+
+    /**
+     * Moves the index of {@code other} into this heap, called before the root lists are spliced.
+     */
+    private void mergeIndex(FibonacciHeap<T> other) {
+        if (other.index == null) {
+            if (index != null) {
+                indexTrees(other.min);
+            }
+        } else if (index == null) {
+            index = other.index;
+            indexTrees(min);
+        } else {
+            if (other.index.size() > index.size()) {
+                final IdentityHashMap<T, Node<T>> tmp = index;
+                index = other.index;
+                other.index = tmp;
+            }
+            index.putAll(other.index);
+        }
+        other.index = null;
+    }
+
+    /**
+     * Indexes every tree in the circular list starting at {@code first}.
+     */
+    private void indexTrees(Node<T> first) {
+        if (first == null) {
+            return;
+        }
+        final Deque<Node<T>> stack = new ArrayDeque<>();
+        stack.push(first);
+        while (!stack.isEmpty()) {
+            final Node<T> start = stack.pop();
+            Node<T> node = start;
+            do {
+                index.put(node.item, node);
+                if (node.child != null) {
+                    stack.push(node.child);
+                }
+                node = node.right;
+            } while (node != start);
+        }
+    }
+
+    private void replace(T item, T newItem, Node<T> node) {
+        index.remove(item);
+        index.put(newItem, node);
+        node.item = newItem;
+    }
+
+    /**
+     * Adds a detached node to the root list and updates the minimum.
+     */
+    private void addRoot(Node<T> node) {
+        node.parent = null;
+        node.mark = false;
+        if (min == null) {
+            node.left = node.right = node;
+            min = node;
+        } else {
+            node.right = min.right;
+            node.left = min;
+            min.right.left = node;
+            min.right = node;
+            if (comparator.compare(node.item, min.item) < 0) {
+                min = node;
+            }
+        }
+    }
+
+    private static <T> void unlink(Node<T> node) {
+        node.left.right = node.right;
+        node.right.left = node.left;
+    }
+
+    /**
+     * Moves all children of {@code node} to the root list.
+     */
+    private void promoteChildren(Node<T> node) {
+        Node<T> child = node.child;
+        if (child == null) {
+            return;
+        }
+        for (int i = node.degree; i > 0; i--) {
+            final Node<T> next = child.right;
+            addRoot(child);
+            child = next;
+        }
+        node.child = null;
+        node.degree = 0;
+    }
+
+    /**
+     * Moves {@code node} from the child list of {@code parent} to the root list.
+     */
+    private void cut(Node<T> node, Node<T> parent) {
+        if (node.right == node) {
+            parent.child = null;
+        } else {
+            unlink(node);
+            if (parent.child == node) {
+                parent.child = node.right;
+            }
+        }
+        parent.degree--;
+        addRoot(node);
+    }
+
+    /**
+     * Cuts every marked ancestor and marks the first unmarked one.
+     */
+    private void cascadingCut(Node<T> node) {
+        Node<T> parent = node.parent;
+        while (parent != null) {
+            if (!node.mark) {
+                node.mark = true;
+                return;
+            }
+            cut(node, parent);
+            node = parent;
+            parent = node.parent;
+        }
+    }
+
+    /**
+     * Links roots of equal degree until all degrees are distinct and finds the new minimum. {@link #min} must point at any root.
+     */
+    @SuppressWarnings("unchecked")
+    private void consolidate() {
+        int count = 0;
+        Node<T> node = min;
+        do {
+            if (count == roots.length) {
+                roots = Arrays.copyOf(roots, count << 1);
+            }
+            roots[count++] = node;
+            node = node.right;
+        } while (node != min);
+        final Node<T>[] degrees = (Node<T>[]) this.degrees;
+        int maxDegree = 0;
+        for (int i = 0; i < count; i++) {
+            Node<T> x = (Node<T>) roots[i];
+            roots[i] = null;
+            int d = x.degree;
+            while (degrees[d] != null) {
+                Node<T> y = degrees[d];
+                if (comparator.compare(y.item, x.item) < 0) {
+                    final Node<T> tmp = x;
+                    x = y;
+                    y = tmp;
+                }
+                addChild(x, y);
+                degrees[d] = null;
+                d++;
+            }
+            degrees[d] = x;
+            maxDegree = Math.max(maxDegree, d);
+        }
+        min = null;
+        for (int d = 0; d <= maxDegree; d++) {
+            if (degrees[d] != null) {
+                addRoot(degrees[d]);
+                degrees[d] = null;
+            }
+        }
+    }
+
+    private static <T> void addChild(Node<T> parent, Node<T> child) {
+        child.parent = parent;
+        child.mark = false;
+        final Node<T> first = parent.child;
+        if (first == null) {
+            child.left = child.right = child;
+            parent.child = child;
+        } else {
+            child.right = first.right;
+            child.left = first;
+            first.right.left = child;
+            first.right = child;
+        }
+        parent.degree++;
+    }
+
+    private static final class Node<T> {
+        T item;
+        Node<T> parent;
+        Node<T> child;
+        Node<T> left;
+        Node<T> right;
+        int degree;
+        /**
+         * Set when the node lost a child since it became a child itself.
+         */
+        boolean mark;
+
+        Node(T item) {
+            this.item = item;
+        }
+    }
+}
@@ -0,0 +1,226 @@
+package com.abstractkamen.datastructures.impl.heaps;
+
+import com.abstractkamen.datastructures.api.heaps.HeapMetrics;
+
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import javax.management.StandardMBean;
+import java.lang.management.ManagementFactory;
+import java.util.*;
+
+/**
+ * Records the {@link HeapMetrics} of a heap. Pass one to a heap at construction time to enable metrics, a heap created without one
+ * records nothing and pays a single null check per operation. Comparisons are counted by wrapping the comparator, so a heap
+ * without a recorder compares exactly as before.
+ * <p>
+ * Like the heaps themselves a recorder is not thread safe, use one recorder per heap. {@link #registerMBean(String)} exposes the
+ * metrics as an MXBean of the platform MBean server, JMX clients read them without synchronization.
+ *
+ * @see BinaryHeap#BinaryHeap(Comparator, int, com.abstractkamen.datastructures.impl.utils.ResizePolicy, HeapMetricsRecorder)
+ */
+public final class HeapMetricsRecorder implements HeapMetrics {
+    /**
+     * A heap of int size is at most 31 levels high.
+     */
+    private static final int HISTOGRAM_SIZE = Integer.SIZE;
+    private long pushCount;
+    private long popCount;
+    private long mergeCount;
+    private long comparisonCount;
+    private long siftUpCount;
+    private long siftUpDistance;
+    private int maxSiftUpDistance;
+    private long siftDownCount;
+    private long siftDownDistance;
+    private int maxSiftDownDistance;
+    private final long[] siftUpHistogram = new long[HISTOGRAM_SIZE];
+    private final long[] siftDownHistogram = new long[HISTOGRAM_SIZE];
+    private long resizeCount;
+    private int capacity;
+    private int peakCapacity;
+    private ObjectName objectName;
+
+    @Override
+    public long getPushCount() {
+        return pushCount;
+    }
+
+    @Override
+    public long getPopCount() {
+        return popCount;
+    }
+
+    @Override
+    public long getMergeCount() {
+        return mergeCount;
+    }
+
+    @Override
+    public long getComparisonCount() {
+        return comparisonCount;
+    }
+
+    @Override
+    public long getSiftUpCount() {
+        return siftUpCount;
+    }
+
+    @Override
+    public long getSiftUpDistance() {
+        return siftUpDistance;
+    }
+
+    @Override
+    public int getMaxSiftUpDistance() {
+        return maxSiftUpDistance;
+    }
+
+    @Override
+    public long getSiftDownCount() {
+        return siftDownCount;
+    }
+
+    @Override
+    public long getSiftDownDistance() {
+        return siftDownDistance;
+    }
+
+    @Override
+    public int getMaxSiftDownDistance() {
+        return maxSiftDownDistance;
+    }
+
+    @Override
+    public long[] getSiftUpHistogram() {
+        return siftUpHistogram.clone();
+    }
+
+    @Override
+    public long[] getSiftDownHistogram() {
+        return siftDownHistogram.clone();
+    }
+
+    @Override
+    public long getResizeCount() {
+        return resizeCount;
+    }
+
+    @Override
+    public int getCapacity() {
+        return capacity;
+    }
+
+    @Override
+    public int getPeakCapacity() {
+        return peakCapacity;
+    }
+
+    /**
+     * Clears every counter. The current capacity is kept and becomes the peak capacity.
+     */
+    public void reset() {
+        pushCount = 0;
+        popCount = 0;
+        mergeCount = 0;
+        comparisonCount = 0;
+        siftUpCount = 0;
+        siftUpDistance = 0;
+        maxSiftUpDistance = 0;
+        siftDownCount = 0;
+        siftDownDistance = 0;
+        maxSiftDownDistance = 0;
+        Arrays.fill(siftUpHistogram, 0);
+        Arrays.fill(siftDownHistogram, 0);
+        resizeCount = 0;
+        peakCapacity = capacity;
+    }
+
+    /**
+     * Registers this recorder as an MXBean named {@code com.abstractkamen.datastructures:type=HeapMetrics,name=<name>} in the
+     * platform MBean server.
+     *
+     * @param name value of the {@code name} key, quoted if it contains characters JMX does not allow
+     * @return the object name of the registered bean
+     * @throws IllegalStateException if this recorder is already registered or the registration failed
+     */
+    public ObjectName registerMBean(String name) {
+        if (objectName != null) {
+            throw new IllegalStateException("already registered as " + objectName);
+        }
+        try {
+            final ObjectName on = new ObjectName("com.abstractkamen.datastructures:type=HeapMetrics,name=" + ObjectName.quote(name));
+            ManagementFactory.getPlatformMBeanServer().registerMBean(new StandardMBean(this, HeapMetrics.class, true), on);
+            objectName = on;
+            return on;
+        } catch (JMException e) {
+            throw new IllegalStateException("could not register heap metrics " + name, e);
+        }
+    }
+
+    /**
+     * Removes this recorder from the platform MBean server, does nothing if it is not registered.
+     */
+    public void unregisterMBean() {
+        if (objectName == null) {
+            return;
+        }
+        final MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+        try {
+            server.unregisterMBean(objectName);
+        } catch (JMException e) {
+            throw new IllegalStateException("could not unregister " + objectName, e);
+        } finally {
+            objectName = null;
+        }
+    }
+
+    @Override
+    public String toString() {
+        return "HeapMetrics{pushes=" + pushCount + ", pops=" + popCount + ", merges=" + mergeCount + ", comparisons=" +
+               comparisonCount + ", averageSiftUp=" + getAverageSiftUpDistance() + ", maxSiftUp=" + maxSiftUpDistance +
+               ", averageSiftDown=" + getAverageSiftDownDistance() + ", maxSiftDown=" + maxSiftDownDistance + ", resizes=" +
+               resizeCount + ", capacity=" + capacity + ", peakCapacity=" + peakCapacity + '}';
+    }
+
+    <T> Comparator<T> counting(Comparator<T> comparator) {
+        return (a, b) -> {
+            comparisonCount++;
+            return comparator.compare(a, b);
+        };
+    }
+
+    void pushed(int count) {
+        pushCount += count;
+    }
+
+    void popped() {
+        popCount++;
+    }
+
+    void merged() {
+        mergeCount++;
+    }
+
+    void siftedUp(int distance) {
+        siftUpCount++;
+        siftUpDistance += distance;
+        maxSiftUpDistance = Math.max(maxSiftUpDistance, distance);
+        siftUpHistogram[Math.min(distance, HISTOGRAM_SIZE - 1)]++;
+    }
+
+    void siftedDown(int distance) {
+        siftDownCount++;
+        siftDownDistance += distance;
+        maxSiftDownDistance = Math.max(maxSiftDownDistance, distance);
+        siftDownHistogram[Math.min(distance, HISTOGRAM_SIZE - 1)]++;
+    }
+
+    void resized(int newCapacity, boolean initial) {
+        if (!initial) {
+            resizeCount++;
+        }
+        capacity = newCapacity;
+        peakCapacity = Math.max(peakCapacity, newCapacity);
+    }
+}
@@ -0,0 +1,329 @@
+package com.abstractkamen.datastructures.impl.heaps;
+
+import com.abstractkamen.datastructures.api.heaps.*;
+
+import java.util.*;
+
+/**
+ * An adjustable binary heap which tracks the position of every element. {@link AdjustableBinaryHeap} has to find an element with a
+ * linear scan before it can adjust it, this implementation keeps an identity map from element to its slot and updates the slot
+ * every time an element moves, so {@link #increaseKey(Object, Object)}, {@link #decreaseKey(Object, Object)} and
+ * {@link #remove(Object)} are O(log n). Keeping the index costs a map update on every push and pop, so for heaps that never grow
+ * beyond a few dozen elements {@link AdjustableBinaryHeap} is the cheaper choice.
+ * <p>
+ * Elements are identified by reference just like in {@link AdjustableBinaryHeap}. Passing the same instance as both arguments of
+ * {@code increaseKey} or {@code decreaseKey} re-positions an element whose key was mutated in place. If the same instance is pushed
+ * more than once only the most recent push can be adjusted or removed. This implementation does not permit null elements.
+ *
+ * @param <T> The type of elements stored in the heap.
+ * @see Heap
+ * @see MergeableHeap
+ * @see AdjustableHeap
+ */
+public class IndexedAdjustableBinaryHeap<T> implements Heap<T>, MergeableHeap<T>, AdjustableHeap<T> {
+    private final Comparator<T> comparator;
+    private final IdentityHashMap<T, Slot> index;
+    private Object[] items;
+    /**
+     * {@code slots[i]} is the position handle of {@code items[i]}, the two arrays always move together.
+     */
+    private Slot[] slots;
+    private int size;
+
+    /**
+     * Create an {@code IndexedAdjustableBinaryHeap<T>} with a custom comparator and capacity.
+     *
+     * @param comparator custom comparator
+     * @param capacity   initial capacity
+     */
+    public IndexedAdjustableBinaryHeap(Comparator<T> comparator, int capacity) {
+        if (capacity < 1) {
+            throw new IllegalArgumentException("capacity cannot be below 1");
+        }
+        this.comparator = comparator;
+        this.items = new Object[capacity];
+        this.slots = new Slot[capacity];
+        this.index = new IdentityHashMap<>(capacity);
+    }
+
+    /**
+     * Create an {@code IndexedAdjustableBinaryHeap<T>} with a custom comparator.
+     *
+     * @param comparator custom comparator
+     */
+    public IndexedAdjustableBinaryHeap(Comparator<T> comparator) {
+        this(comparator, BinaryHeap.DEFAULT_CAPACITY);
+    }
+
+    /**
+     * Create an {@code IndexedAdjustableBinaryHeap<T>} with natural order comparator in a type safe way.
+     *
+     * @param <T> comparable type
+     * @return a comparable heap with default capacity
+     */
+    public static <T extends Comparable<T>> IndexedAdjustableBinaryHeap<T> createComparable() {
+        final Comparator<T> c = Comparable::compareTo;
+        return new IndexedAdjustableBinaryHeap<>(c);
+    }
+
+    /**
+     * Create an {@code IndexedAdjustableBinaryHeap<T>} with natural order comparator in a type safe way.
+     *
+     * @param capacity initial capacity
+     * @param <T>      comparable type
+     * @return a comparable heap with given capacity
+     */
+    public static <T extends Comparable<T>> IndexedAdjustableBinaryHeap<T> createComparable(int capacity) {
+        final Comparator<T> c = Comparable::compareTo;
+        return new IndexedAdjustableBinaryHeap<>(c, capacity);
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    @Override
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    @Override
+    public int push(T item) {
+        ensureCapacity(size + 1);
+        final Slot slot = new Slot();
+        index.put(item, slot);
+        heapifyUp(size, item, slot);
+        ++size;
+        return size;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public T peek() {
+        return isEmpty() ? null : (T) items[0];
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public T pop() {
+        if (size == 0) {
+            throw new NoSuchElementException();
+        }
+        final T result = (T) items[0];
+        unindex(result, slots[0]);
+        removeAt(0);
+        return result;
+    }
+
+    @Override
+    public Comparator<T> comparator() {
+        return comparator;
+    }
+
+    /**
+     * Checks if {@code item} is present in this heap in O(1).
+     *
+     * @param item to look for
+     * @return true if the item is present
+     */
+    public boolean contains(T item) {
+        return index.containsKey(item);
+    }
+
+    /**
+     * Removes {@code item} from this heap in O(log n).
+     *
+     * @param item to be removed
+     * @return true if the item was present and removed
+     */
+    public boolean remove(T item) {
+        final Slot slot = index.remove(item);
+        if (slot == null) {
+            return false;
+        }
+        removeAt(slot.index);
+        return true;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public boolean increaseKey(T item, T increasedItem) {
+        final int compare = comparator.compare(item, increasedItem);
+        if (compare > 0) return false;
+        final Slot slot = index.get(item);
+        if (slot != null) {
+            if (item != increasedItem) {
+                if (compare == 0) return false;
+                replace(item, increasedItem, slot);
+            }
+            heapifyDown(slot.index, (T) items[slot.index], slot);
+        } else {
+            push(increasedItem);
+        }
+        return true;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public boolean decreaseKey(T item, T decreasedItem) {
+        final int compare = comparator.compare(item, decreasedItem);
+        if (compare < 0) return false;
+        final Slot slot = index.get(item);
+        if (slot != null) {
+            if (item != decreasedItem) {
+                if (compare == 0) return false;
+                replace(item, decreasedItem, slot);
+            }
+            heapifyUp(slot.index, (T) items[slot.index], slot);
+        } else {
+            push(decreasedItem);
+        }
+        return true;
+    }
+
+    /**
+     * Merges this heap with the other using {@code this.}{@link #comparator()} in O(n + m). The elements of {@code other} are
+     * indexed by this heap and {@code other} is left unchanged.
+     *
+     * @param other heap
+     * @return {@code this} merged with other
+     * @throws ClassCastException if {@code other} is not an {@code IndexedAdjustableBinaryHeap}
+     */
+    @Override
+    @SuppressWarnings("unchecked")
+    public IndexedAdjustableBinaryHeap<T> mergeWith(Heap<T> other) {
+        if (!(other instanceof IndexedAdjustableBinaryHeap)) {
+            throw new ClassCastException("other must be an instance of IndexedAdjustableBinaryHeap");
+        }
+        final IndexedAdjustableBinaryHeap<T> cast = (IndexedAdjustableBinaryHeap<T>) other;
+        final int otherSize = cast.size;
+        ensureCapacity(size + otherSize);
+        for (int i = 0; i < otherSize; i++) {
+            final T item = (T) cast.items[i];
+            final Slot slot = new Slot();
+            slot.index = size;
+            items[size] = item;
+            slots[size] = slot;
+            index.put(item, slot);
+            size++;
+        }
+        restoreHeapOrder();
+        return this;
+    }
+
+    /**
+     * Restores the heap property after the keys of some elements were mutated in place. See {@link BinaryHeap#restoreHeapOrder()}.
+     */
+    @SuppressWarnings("unchecked")
+    public void restoreHeapOrder() {
+        for (int i = (size >>> 1) - 1; i >= 0; i--) {
+            heapifyDown(i, (T) items[i], slots[i]);
+        }
+    }
+
+    @Override
+    public String toString() {
+        return "not in order" + Arrays.toString(Arrays.copyOf(items, size));
+    }
+
+    private void ensureCapacity(int capacity) {
+        if (items.length < capacity) {
+            final int newCapacity = Math.max(items.length << 1, capacity);
+            items = Arrays.copyOf(items, newCapacity);
+            slots = Arrays.copyOf(slots, newCapacity);
+        }
+    }
+
+    private void replace(T item, T newItem, Slot slot) {
+        index.remove(item);
+        index.put(newItem, slot);
+        items[slot.index] = newItem;
+    }
+
+    private void unindex(T item, Slot slot) {
+        // a re-pushed instance points to its most recent slot which must stay indexed
+        if (index.get(item) == slot) {
+            index.remove(item);
+        }
+    }
+
+    /**
+     * Fills the hole at {@code i} with the last element and restores its position.
+     */
+    @SuppressWarnings("unchecked")
+    private void removeAt(int i) {
+        final int last = --size;
+        final T lastItem = (T) items[last];
+        final Slot lastSlot = slots[last];
+        items[last] = null;
+        slots[last] = null;
+        if (i != last) {
+            heapifyDown(i, lastItem, lastSlot);
+            if (lastSlot.index == i) {
+                heapifyUp(i, lastItem, lastSlot);
+            }
+        }
+    }
+
+    /**
+     * Moves the hole at {@code i} up until {@code item} can be placed in it, updating the slot of every element on the way.
+     */
+    @SuppressWarnings("unchecked")
+    private void heapifyUp(int i, T item, Slot slot) {
+        while (i > 0) {
+            final int parent = (i - 1) >>> 1;
+            final T p = (T) items[parent];
+            if (comparator.compare(p, item) <= 0) {
+                break;
+            }
+            move(parent, i);
+            i = parent;
+        }
+        place(i, item, slot);
+    }
+
+    /**
+     * Moves the hole at {@code i} down until {@code item} can be placed in it, updating the slot of every element on the way.
+     */
+    @SuppressWarnings("unchecked")
+    private void heapifyDown(int i, T item, Slot slot) {
+        final int half = size >>> 1;
+        while (i < half) {
+            int child = (i << 1) + 1;
+            T c = (T) items[child];
+            final int right = child + 1;
+            if (right < size && comparator.compare(c, (T) items[right]) > 0) {
+                child = right;
+                c = (T) items[right];
+            }
+            if (comparator.compare(item, c) <= 0) {
+                break;
+            }
+            move(child, i);
+            i = child;
+        }
+        place(i, item, slot);
+    }
+
+    private void move(int from, int to) {
+        items[to] = items[from];
+        final Slot slot = slots[from];
+        slots[to] = slot;
+        slot.index = to;
+    }
+
+    private void place(int i, T item, Slot slot) {
+        items[i] = item;
+        slots[i] = slot;
+        slot.index = i;
+    }
+
+    /**
+     * The position of an element in {@link #items}. A mutable holder so that moving an element updates its index entry without
+     * touching the map.
+     */
+    private static final class Slot {
+        int index;
+    }
+}
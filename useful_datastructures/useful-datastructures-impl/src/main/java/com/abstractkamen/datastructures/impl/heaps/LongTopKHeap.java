@@ -0,0 +1,170 @@
+package com.abstractkamen.datastructures.impl.heaps;
+
+import com.abstractkamen.datastructures.api.heaps.*;
+
+import java.util.*;
+
+/**
+ * A {@link TopKHeap} of primitive {@code long} values. Keeps only the {@code k} greatest values it was offered according to its
+ * {@link LongComparator}, pass {@link LongComparator#reverseOrder()} or use {@link #createSmallest(int)} to keep the {@code k}
+ * smallest. No value is ever boxed and the backing {@link LongBinaryHeap} never grows beyond {@code k}.
+ * <p>
+ * To select from a {@code LongStream}:
+ * <pre>
+ *     {@code long[] top = stream.collect(() -> LongTopKHeap.createLargest(k), LongTopKHeap::offer, LongTopKHeap::mergeWith)}
+ *     {@code     .toSortedArray();}
+ * </pre>
+ *
+ * @see TopKHeap
+ * @see LongHeap
+ */
+public class LongTopKHeap implements LongHeap {
+    private final LongBinaryHeap heap;
+    private final int k;
+
+    /**
+     * Create a {@code LongTopKHeap} with a custom comparator keeping the {@code k} greatest values.
+     *
+     * @param comparator custom comparator
+     * @param k          number of values to keep
+     * @throws IllegalArgumentException if k is below one
+     */
+    public LongTopKHeap(LongComparator comparator, int k) {
+        if (k < 1) {
+            throw new IllegalArgumentException("k cannot be below 1");
+        }
+        this.heap = new LongBinaryHeap(comparator, k);
+        this.k = k;
+    }
+
+    /**
+     * Create a {@code LongTopKHeap} keeping the {@code k} largest values.
+     *
+     * @param k number of values to keep
+     * @return a heap keeping the {@code k} largest values
+     */
+    public static LongTopKHeap createLargest(int k) {
+        return new LongTopKHeap(LongComparator.naturalOrder(), k);
+    }
+
+    /**
+     * Create a {@code LongTopKHeap} keeping the {@code k} smallest values.
+     *
+     * @param k number of values to keep
+     * @return a heap keeping the {@code k} smallest values
+     */
+    public static LongTopKHeap createSmallest(int k) {
+        return new LongTopKHeap(LongComparator.reverseOrder(), k);
+    }
+
+    /**
+     * Get the maximum number of values this heap keeps.
+     *
+     * @return k
+     */
+    public int capacity() {
+        return k;
+    }
+
+    /**
+     * Offers {@code value} to the heap. While the heap is not full the value is always kept, afterwards it is kept only if it is
+     * greater than {@link #peek()} which is then evicted.
+     *
+     * @param value to be offered
+     * @return true if the value was kept
+     */
+    public boolean offer(long value) {
+        if (heap.size() < k) {
+            heap.push(value);
+            return true;
+        }
+        if (heap.comparator().compare(value, heap.getItems()[0]) <= 0) {
+            return false;
+        }
+        heap.replaceTop(value);
+        return true;
+    }
+
+    /**
+     * Same as {@link #offer(long)}.
+     *
+     * @param value The value to be offered.
+     * @return The size of the heap after the offer.
+     */
+    @Override
+    public int push(long value) {
+        offer(value);
+        return heap.size();
+    }
+
+    /**
+     * Retrieves the smallest kept value, the one the next accepted offer evicts once the heap is full.
+     *
+     * @return the smallest kept value
+     * @throws NoSuchElementException if the heap is empty
+     */
+    @Override
+    public long peek() {
+        return heap.peek();
+    }
+
+    /**
+     * Removes and retrieves the smallest kept value.
+     *
+     * @return the smallest kept value
+     * @throws NoSuchElementException if the heap is empty
+     */
+    @Override
+    public long pop() {
+        return heap.pop();
+    }
+
+    @Override
+    public int size() {
+        return heap.size();
+    }
+
+    @Override
+    public boolean isEmpty() {
+        return heap.isEmpty();
+    }
+
+    @Override
+    public LongComparator comparator() {
+        return heap.comparator();
+    }
+
+    /**
+     * Offers every value of {@code other} to this heap in O(m log k), {@code other} is left unchanged.
+     *
+     * @param other heap
+     * @return {@code this} merged with other
+     */
+    public LongTopKHeap mergeWith(LongTopKHeap other) {
+        final long[] items = other.heap.getItems();
+        for (int i = 0, size = other.heap.size(); i < size; i++) {
+            offer(items[i]);
+        }
+        return this;
+    }
+
+    /**
+     * Get the kept values without removing them.
+     *
+     * @return a new array of the kept values, greatest first
+     */
+    public long[] toSortedArray() {
+        final int size = heap.size();
+        final LongBinaryHeap copy = LongBinaryHeap.heapify(heap.comparator(), Arrays.copyOf(heap.getItems(), size));
+        final long[] sorted = new long[size];
+        for (int i = size - 1; i >= 0; i--) {
+            sorted[i] = copy.pop();
+        }
+        return sorted;
+    }
+
+    @Override
+    public String toString() {
+        return heap.toString();
+    }
+}
@@ -0,0 +1,274 @@
+package com.abstractkamen.datastructures.impl.heaps;
+
+import com.abstractkamen.datastructures.api.heaps.Heap;
+
+import java.util.*;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Consumer;
+
+/**
+ * A thread safe, relaxed heap made of several {@link BinaryHeap} shards each guarded by its own lock, also known as a MultiQueue.
+ * <ul>
+ *     <li>{@link #push(Object)} puts the item into a random shard whose lock could be taken without waiting.</li>
+ *     <li>{@link #pop()} samples two random shards, compares their best items without locking and pops from the better one, again
+ *     only if its lock is free. Otherwise it samples again.</li>
+ * </ul>
+ * A thread only blocks on a shard after as many failed attempts as there are shards, so unlike a single locked heap the throughput
+ * keeps growing with the number of threads.
+ * <p>
+ * <b>Relaxation.</b> {@code pop} does not necessarily return the best element of the whole heap. With {@code s} shards the rank
+ * of the returned element among all elements is O(s) in expectation and O(s log s) with high probability, which is the usual
+ * trade for a scheduler. With a single shard {@code pop} is exact. {@link #peek()} returns the best of the shard tops observed
+ * without locking and may be stale by the time it returns. {@link #size()}, {@link #isEmpty()} and the value returned by
+ * {@link #push(Object)} are exact only when no other thread is modifying the heap.
+ * <p>
+ * {@code pop} throws {@link NoSuchElementException} only after it has locked every shard in turn and found each of them empty,
+ * items pushed concurrently behind that scan may be missed. {@link #popN(int, Consumer)} and {@link #drainTo(Collection)} stop
+ * at that point instead of throwing and return how many items they took. This implementation does not permit null elements.
+ *
+ * @param <T> The type of elements stored in the heap.
+ * @see Heap
+ */
+public class MultiQueueHeap<T> implements Heap<T> {
+    /**
+     * Shards per available processor used by {@link #MultiQueueHeap(Comparator)}.
+     */
+    private static final int SHARDS_PER_PROCESSOR = 2;
+    private final Comparator<T> comparator;
+    private final Shard<T>[] shards;
+    private final LongAdder size = new LongAdder();
+
+    /**
+     * Create a {@code MultiQueueHeap<T>} with a custom comparator and number of shards.
+     *
+     * @param comparator custom comparator
+     * @param shards     number of shards, more shards mean less contention and a weaker order
+     * @throws IllegalArgumentException if shards is below one
+     */
+    @SuppressWarnings("unchecked")
+    public MultiQueueHeap(Comparator<T> comparator, int shards) {
+        if (shards < 1) {
+            throw new IllegalArgumentException("shards cannot be below 1");
+        }
+        this.comparator = comparator;
+        this.shards = (Shard<T>[]) new Shard<?>[shards];
+        for (int i = 0; i < shards; i++) {
+            this.shards[i] = new Shard<>(new BinaryHeap<>(comparator));
+        }
+    }
+
+    /**
+     * Create a {@code MultiQueueHeap<T>} with a custom comparator and two shards per available processor.
+     *
+     * @param comparator custom comparator
+     */
+    public MultiQueueHeap(Comparator<T> comparator) {
+        this(comparator, SHARDS_PER_PROCESSOR * Runtime.getRuntime().availableProcessors());
+    }
+
+    /**
+     * Create a {@code MultiQueueHeap<T>} with natural order comparator in a type safe way.
+     *
+     * @param <T> comparable type
+     * @return a comparable heap with two shards per available processor
+     */
+    public static <T extends Comparable<T>> MultiQueueHeap<T> createComparable() {
+        final Comparator<T> c = Comparable::compareTo;
+        return new MultiQueueHeap<>(c);
+    }
+
+    /**
+     * Create a {@code MultiQueueHeap<T>} with natural order comparator in a type safe way.
+     *
+     * @param shards number of shards
+     * @param <T>    comparable type
+     * @return a comparable heap with the given number of shards
+     */
+    public static <T extends Comparable<T>> MultiQueueHeap<T> createComparable(int shards) {
+        final Comparator<T> c = Comparable::compareTo;
+        return new MultiQueueHeap<>(c, shards);
+    }
+
+    /**
+     * Get the number of shards.
+     *
+     * @return number of shards
+     */
+    public int shards() {
+        return shards.length;
+    }
+
+    @Override
+    public int size() {
+        return (int) size.sum();
+    }
+
+    @Override
+    public boolean isEmpty() {
+        return size.sum() == 0;
+    }
+
+    @Override
+    public int push(T item) {
+        Objects.requireNonNull(item);
+        final ThreadLocalRandom random = ThreadLocalRandom.current();
+        Shard<T> shard = shards[random.nextInt(shards.length)];
+        for (int failures = 1; !shard.lock.tryLock(); failures++) {
+            if (failures == shards.length) {
+                shard.lock.lock();
+                break;
+            }
+            shard = shards[random.nextInt(shards.length)];
+        }
+        try {
+            shard.heap.push(item);
+            shard.top = shard.heap.peek();
+            // counted before the item can be popped, so the size never goes negative
+            size.increment();
+        } finally {
+            shard.lock.unlock();
+        }
+        return size();
+    }
+
+    @Override
+    public T peek() {
+        T best = null;
+        for (Shard<T> shard : shards) {
+            final T top = shard.top;
+            if (top != null && (best == null || comparator.compare(top, best) < 0)) {
+                best = top;
+            }
+        }
+        return best;
+    }
+
+    @Override
+    public T pop() {
+        final T result = poll();
+        if (result == null) {
+            throw new NoSuchElementException();
+        }
+        return result;
+    }
+
+    /**
+     * Pops until {@code n} items are taken or every shard was found empty, so unlike the default it does not trust {@link #size()}
+     * and never throws because other threads took the items first.
+     *
+     * @param n      The maximum number of elements to remove.
+     * @param action Receives the removed elements in the order they were popped.
+     * @return The number of removed elements.
+     * @throws IllegalArgumentException if {@code n} is negative.
+     */
+    @Override
+    public int popN(int n, Consumer<? super T> action) {
+        if (n < 0) {
+            throw new IllegalArgumentException("n cannot be negative");
+        }
+        int count = 0;
+        for (T item; count < n && (item = poll()) != null; count++) {
+            action.accept(item);
+        }
+        return count;
+    }
+
+    /**
+     * Pops until every shard was found empty, see {@link #popN(int, Consumer)}.
+     *
+     * @param target The collection receiving the elements.
+     * @return The number of removed elements.
+     */
+    @Override
+    public int drainTo(Collection<? super T> target) {
+        return popN(Integer.MAX_VALUE, target::add);
+    }
+
+    @Override
+    public Comparator<T> comparator() {
+        return comparator;
+    }
+
+    @Override
+    public String toString() {
+        final List<Object> items = new ArrayList<>();
+        for (Shard<T> shard : shards) {
+            shard.lock.lock();
+            try {
+                items.addAll(Arrays.asList(shard.heap.getItems()).subList(0, shard.heap.size()));
+            } finally {
+                shard.lock.unlock();
+            }
+        }
+        return "not in order" + items;
+    }
+
+    /**
+     * The pop described in the class doc, returning null instead of throwing when every shard is empty.
+     */
+    private T poll() {
+        final ThreadLocalRandom random = ThreadLocalRandom.current();
+        int emptyProbes = 0;
+        int failures = 0;
+        while (emptyProbes < shards.length) {
+            final Shard<T> a = shards[random.nextInt(shards.length)];
+            final Shard<T> b = shards[random.nextInt(shards.length)];
+            final T topA = a.top;
+            final T topB = b.top;
+            if (topA == null && topB == null) {
+                emptyProbes++;
+                continue;
+            }
+            final Shard<T> best = topA == null ? b : topB == null || comparator.compare(topA, topB) <= 0 ? a : b;
+            if (failures < shards.length) {
+                if (!best.lock.tryLock()) {
+                    failures++;
+                    continue;
+                }
+            } else {
+                best.lock.lock();
+            }
+            try {
+                if (!best.heap.isEmpty()) {
+                    return popLocked(best);
+                }
+            } finally {
+                best.lock.unlock();
+            }
+        }
+        // the samples kept hitting empty shards, visit every shard before giving up
+        for (Shard<T> shard : shards) {
+            shard.lock.lock();
+            try {
+                if (!shard.heap.isEmpty()) {
+                    return popLocked(shard);
+                }
+            } finally {
+                shard.lock.unlock();
+            }
+        }
+        return null;
+    }
+
+    private T popLocked(Shard<T> shard) {
+        final T result = shard.heap.pop();
+        shard.top = shard.heap.peek();
+        size.decrement();
+        return result;
+    }
+
+    /**
+     * A heap and its lock. {@link #top} mirrors {@code heap.peek()} so that other threads can compare shards without locking.
+     */
+    private static final class Shard<T> {
+        final ReentrantLock lock = new ReentrantLock();
+        final BinaryHeap<T> heap;
+        volatile T top;
+
+        Shard(BinaryHeap<T> heap) {
+            this.heap = heap;
+        }
+    }
+}
@@ -0,0 +1,330 @@
+package com.abstractkamen.datastructures.impl.heaps;
+
+import com.abstractkamen.datastructures.api.heaps.*;
+import com.abstractkamen.datastructures.impl.utils.DirectBuffers;
+
+import java.nio.ByteBuffer;
+import java.nio.LongBuffer;
+import java.util.*;
+
+/**
+ * A binary heap of {@code long} keys, each optionally carrying a {@code long} payload, stored outside of the Java heap. The entries
+ * live in direct {@link ByteBuffer} chunks of {@code chunkSize} entries, so tens of millions of entries cost the garbage collector
+ * nothing but the chunk objects themselves. {@link #push(long)}, {@link #peek()} and {@link #pop()} never allocate except for a new
+ * chunk when the last one is full.
+ * <p>
+ * Growing appends a chunk instead of copying the whole heap. When the heap shrinks by more than a chunk the last chunk is released
+ * again, one spare chunk is kept so that a heap oscillating around a chunk boundary does not allocate and release on every
+ * operation. {@link #close()} releases all native memory right away, the heap cannot be used afterwards. An unclosed heap is
+ * released whenever the garbage collector gets to its chunks.
+ * <p>
+ * The payload of the best entry is read with {@link #peekPayload()} before popping it. This class is not thread safe.
+ *
+ * @see LongBinaryHeap
+ */
+public class OffHeapLongHeap implements LongHeap, AutoCloseable {
+    /**
+     * The default number of entries in a chunk.
+     */
+    public static final int DEFAULT_CHUNK_SIZE = 1 << 16;
+    private final LongComparator comparator;
+    private final boolean hasPayload;
+    private final int strideShift;
+    private final int chunkShift;
+    private final int chunkMask;
+    private ByteBuffer[] chunks = new ByteBuffer[4];
+    /**
+     * {@code long} views of {@link #chunks}.
+     */
+    private LongBuffer[] views = new LongBuffer[4];
+    private int chunkCount;
+    private int size;
+    private boolean closed;
+
+    /**
+     * Create an {@code OffHeapLongHeap} with a custom comparator and chunk size.
+     *
+     * @param comparator custom comparator
+     * @param hasPayload whether every key carries a {@code long} payload
+     * @param chunkSize  number of entries in a chunk, a power of two
+     * @throws IllegalArgumentException if chunkSize is not a power of two or a chunk would not fit in a buffer
+     */
+    public OffHeapLongHeap(LongComparator comparator, boolean hasPayload, int chunkSize) {
+        this.strideShift = hasPayload ? 4 : 3;
+        if (chunkSize < 1 || Integer.bitCount(chunkSize) != 1 || (long) chunkSize << strideShift > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("chunkSize must be a power of two of at most " + (Integer.MAX_VALUE >>> strideShift));
+        }
+        this.comparator = Objects.requireNonNull(comparator);
+        this.hasPayload = hasPayload;
+        this.chunkShift = Integer.numberOfTrailingZeros(chunkSize);
+        this.chunkMask = chunkSize - 1;
+    }
+
+    /**
+     * Create an {@code OffHeapLongHeap} with a custom comparator and {@link #DEFAULT_CHUNK_SIZE}.
+     *
+     * @param comparator custom comparator
+     * @param hasPayload whether every key carries a {@code long} payload
+     */
+    public OffHeapLongHeap(LongComparator comparator, boolean hasPayload) {
+        this(comparator, hasPayload, DEFAULT_CHUNK_SIZE);
+    }
+
+    /**
+     * Create an {@code OffHeapLongHeap} without payloads with a custom comparator.
+     *
+     * @param comparator custom comparator
+     */
+    public OffHeapLongHeap(LongComparator comparator) {
+        this(comparator, false);
+    }
+
+    /**
+     * Create a min {@code OffHeapLongHeap} without payloads.
+     *
+     * @return a min heap
+     */
+    public static OffHeapLongHeap createMin() {
+        return new OffHeapLongHeap(LongComparator.naturalOrder());
+    }
+
+    /**
+     * Create a max {@code OffHeapLongHeap} without payloads.
+     *
+     * @return a max heap
+     */
+    public static OffHeapLongHeap createMax() {
+        return new OffHeapLongHeap(LongComparator.reverseOrder());
+    }
+
+    /**
+     * Checks if every key carries a payload.
+     *
+     * @return {@code true} if the heap was created with payloads
+     */
+    public boolean hasPayload() {
+        return hasPayload;
+    }
+
+    /**
+     * Get the number of entries the allocated chunks can hold.
+     *
+     * @return capacity in entries
+     */
+    public long capacity() {
+        return (long) chunkCount << chunkShift;
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    @Override
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    /**
+     * Inserts {@code value} with a zero payload if this heap has payloads.
+     *
+     * @param value The value to be inserted.
+     * @return The new size of the heap after insertion.
+     * @throws IllegalStateException if the heap is closed
+     */
+    @Override
+    public int push(long value) {
+        return push(value, 0L);
+    }
+
+    /**
+     * Inserts {@code key} together with its payload.
+     *
+     * @param key     The key to be inserted.
+     * @param payload The payload carried by the key, ignored if this heap has no payloads.
+     * @return The new size of the heap after insertion.
+     * @throws IllegalStateException if the heap is closed
+     */
+    public int push(long key, long payload) {
+        ensureOpen();
+        if (size == Integer.MAX_VALUE) {
+            throw new IllegalStateException("heap is full");
+        }
+        if ((size & chunkMask) == 0 && size >>> chunkShift == chunkCount) {
+            addChunk();
+        }
+        heapifyUp(size, key, payload);
+        ++size;
+        return size;
+    }
+
+    /**
+     * @throws IllegalStateException if the heap is closed
+     */
+    @Override
+    public long peek() {
+        ensureOpen();
+        if (size == 0) {
+            throw new NoSuchElementException();
+        }
+        return key(0);
+    }
+
+    /**
+     * Retrieves the payload of the best key without removing it.
+     *
+     * @return The payload of the best key, zero if this heap has no payloads.
+     * @throws NoSuchElementException if the heap is empty.
+     * @throws IllegalStateException  if the heap is closed
+     */
+    public long peekPayload() {
+        ensureOpen();
+        if (size == 0) {
+            throw new NoSuchElementException();
+        }
+        return hasPayload ? payload(0) : 0L;
+    }
+
+    /**
+     * @throws IllegalStateException if the heap is closed
+     */
+    @Override
+    public long pop() {
+        ensureOpen();
+        if (size == 0) {
+            throw new NoSuchElementException();
+        }
+        final long result = key(0);
+        --size;
+        if (size > 0) {
+            heapifyDown(0, key(size), hasPayload ? payload(size) : 0L);
+        }
+        // keep one spare chunk
+        if (chunkCount > 1 && size <= (chunkCount - 2) << chunkShift) {
+            DirectBuffers.free(chunks[--chunkCount]);
+            chunks[chunkCount] = null;
+            views[chunkCount] = null;
+        }
+        return result;
+    }
+
+    @Override
+    public LongComparator comparator() {
+        return comparator;
+    }
+
+    /**
+     * Releases the native memory of this heap. Any further operation but {@link #size()}, {@link #isEmpty()} and {@code close()}
+     * throws {@link IllegalStateException}. Closing a closed heap has no effect.
+     */
+    @Override
+    public void close() {
+        if (closed) {
+            return;
+        }
+        closed = true;
+        for (int i = 0; i < chunkCount; i++) {
+            DirectBuffers.free(chunks[i]);
+            chunks[i] = null;
+            views[i] = null;
+        }
+        chunkCount = 0;
+        size = 0;
+    }
+
+    @Override
+    public String toString() {
+        if (closed) {
+            return "closed";
+        }
+        final StringBuilder sb = new StringBuilder("not in order[");
+        for (int i = 0; i < size; i++) {
+            if (i > 0) {
+                sb.append(", ");
+            }
+            sb.append(key(i));
+            if (hasPayload) {
+                sb.append('=').append(payload(i));
+            }
+        }
+        return sb.append(']').toString();
+    }
+
+    private void ensureOpen() {
+        if (closed) {
+            throw new IllegalStateException("heap is closed");
+        }
+    }
+
+    private void addChunk() {
+        if (chunkCount == chunks.length) {
+            chunks = Arrays.copyOf(chunks, chunks.length << 1);
+            views = Arrays.copyOf(views, views.length << 1);
+        }
+        final ByteBuffer chunk = DirectBuffers.allocate((chunkMask + 1) << strideShift);
+        chunks[chunkCount] = chunk;
+        views[chunkCount++] = chunk.asLongBuffer();
+    }
+
+    private long key(int i) {
+        return views[i >>> chunkShift].get((i & chunkMask) << strideShift - 3);
+    }
+
+    private long payload(int i) {
+        return views[i >>> chunkShift].get(((i & chunkMask) << strideShift - 3) + 1);
+    }
+
+    private void set(int i, long key, long payload) {
+        final LongBuffer chunk = views[i >>> chunkShift];
+        final int index = (i & chunkMask) << strideShift - 3;
+        chunk.put(index, key);
+        if (hasPayload) {
+            chunk.put(index + 1, payload);
+        }
+    }
+
+    private void move(int from, int to, long key) {
+        set(to, key, hasPayload ? payload(from) : 0L);
+    }
+
+    /**
+     * Moves the hole at {@code i} up until the entry can be placed in it.
+     */
+    private void heapifyUp(int i, long key, long payload) {
+        while (i > 0) {
+            final int parent = (i - 1) >>> 1;
+            final long p = key(parent);
+            if (comparator.compare(p, key) <= 0) {
+                break;
+            }
+            move(parent, i, p);
+            i = parent;
+        }
+        set(i, key, payload);
+    }
+
+    /**
+     * Moves the hole at {@code i} down until the entry can be placed in it.
+     */
+    private void heapifyDown(int i, long key, long payload) {
+        final int half = size >>> 1;
+        while (i < half) {
+            int child = (i << 1) + 1;
+            long c = key(child);
+            final int right = child + 1;
+            if (right < size) {
+                final long r = key(right);
+                if (comparator.compare(c, r) > 0) {
+                    child = right;
+                    c = r;
+                }
+            }
+            if (comparator.compare(key, c) <= 0) {
+                break;
+            }
+            move(child, i, c);
+            i = child;
+        }
+        set(i, key, payload);
+    }
+}
@@ -0,0 +1,57 @@
+package com.abstractkamen.datastructures.impl.heaps;
+
+import java.util.*;
+
+/**
+ * Walks an array backed heap best first without modifying it. The frontier is a small {@link IntBinaryHeap} of positions ordered
+ * by the elements at them, it starts with the root and every returned position is replaced by its children. The frontier never
+ * holds more than {@code k * (arity - 1) + 1} positions after {@code k} elements, so the first {@code k} elements cost O(k log k).
+ *
+ * @param <T> The type of elements stored in the heap.
+ */
+abstract class OrderedHeapIterator<T> implements Iterator<T> {
+    private final Object[] items;
+    private final IntBinaryHeap frontier;
+
+    /**
+     * @param items      backing array of the heap
+     * @param comparator comparator of the heap
+     * @param root       position of the root, ignored if the heap is empty
+     * @param empty      whether the heap is empty
+     */
+    @SuppressWarnings("unchecked")
+    OrderedHeapIterator(Object[] items, Comparator<T> comparator, int root, boolean empty) {
+        this.items = items;
+        this.frontier = new IntBinaryHeap((a, b) -> comparator.compare((T) items[a], (T) items[b]));
+        if (!empty) {
+            frontier.push(root);
+        }
+    }
+
+    @Override
+    public boolean hasNext() {
+        return !frontier.isEmpty();
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public T next() {
+        if (frontier.isEmpty()) {
+            throw new NoSuchElementException();
+        }
+        final int i = frontier.pop();
+        pushChildren(i);
+        return (T) items[i];
+    }
+
+    /**
+     * Passes every existing child position of {@code i} to {@link #offer(int)}.
+     *
+     * @param i position of a returned element
+     */
+    protected abstract void pushChildren(int i);
+
+    protected final void offer(int child) {
+        frontier.push(child);
+    }
+}
@@ -0,0 +1,344 @@
+package com.abstractkamen.datastructures.impl.heaps;
+
+import com.abstractkamen.datastructures.api.heaps.*;
+
+import java.util.*;
+
+/**
+ * A pairing heap, a heap-ordered multiway tree where every node keeps its leftmost child and its right sibling. Pushing and
+ * merging link two trees with a single comparison, popping combines the children of the root in two passes.
+ * <ul>
+ *     <li>{@link #push(Object)}, {@link #peek()} O(1)</li>
+ *     <li>{@link #pop()} O(log n) amortized</li>
+ *     <li>{@link #decreaseKey(Object, Object)} o(log n) amortized, O(1) in practice</li>
+ *     <li>{@link #increaseKey(Object, Object)} O(log n) amortized</li>
+ *     <li>{@link #mergeWith(Heap)} O(1) for another {@code PairingHeap} with the same comparator</li>
+ * </ul>
+ * Elements are located for key adjustment through an identity map like in {@link IndexedAdjustableBinaryHeap}. The map is only
+ * built by the first key adjustment, so heaps which are only pushed, popped and merged never pay for it. Passing the same instance
+ * as both arguments of {@code increaseKey} or {@code decreaseKey} re-positions an element whose key was mutated in place. If the
+ * same instance is pushed more than once which of its copies is adjusted is unspecified. This implementation does not permit null
+ * elements.
+ *
+ * @param <T> The type of elements stored in the heap.
+ * @see Heap
+ * @see MergeableHeap
+ * @see AdjustableHeap
+ */
+public class PairingHeap<T> implements Heap<T>, MergeableHeap<T>, AdjustableHeap<T> {
+    private final Comparator<T> comparator;
+    /**
+     * Element to node index, null until the first key adjustment.
+     */
+    private IdentityHashMap<T, Node<T>> index;
+    private Node<T> root;
+    private int size;
+
+    /**
+     * Create a {@code PairingHeap<T>} with a custom comparator.
+     *
+     * @param comparator custom comparator
+     */
+    public PairingHeap(Comparator<T> comparator) {
+        this.comparator = comparator;
+    }
+
+    /**
+     * Create a {@code PairingHeap<T>} with natural order comparator in a type safe way.
+     *
+     * @param <T> comparable type
+     * @return a comparable heap
+     */
+    public static <T extends Comparable<T>> PairingHeap<T> createComparable() {
+        final Comparator<T> c = Comparable::compareTo;
+        return new PairingHeap<>(c);
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    @Override
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    @Override
+    public int push(T item) {
+        final Node<T> node = new Node<>(item);
+        if (index != null) {
+            index.put(item, node);
+        }
+        root = root == null ? node : link(root, node);
+        return ++size;
+    }
+
+    @Override
+    public T peek() {
+        return root == null ? null : root.item;
+    }
+
+    @Override
+    public T pop() {
+        if (root == null) {
+            throw new NoSuchElementException();
+        }
+        final Node<T> popped = root;
+        root = combineSiblings(popped.child);
+        popped.child = null;
+        --size;
+        // a re-pushed instance points to another node which must stay indexed
+        if (index != null && index.get(popped.item) == popped) {
+            index.remove(popped.item);
+        }
+        return popped.item;
+    }
+
+    @Override
+    public Comparator<T> comparator() {
+        return comparator;
+    }
+
+    @Override
+    public boolean increaseKey(T item, T increasedItem) {
+        final int compare = comparator.compare(item, increasedItem);
+        if (compare > 0) return false;
+        final Node<T> node = index().get(item);
+        if (node == null) {
+            push(increasedItem);
+            return true;
+        }
+        if (item != increasedItem) {
+            if (compare == 0) return false;
+            replace(item, increasedItem, node);
+        }
+        // the children may now be smaller than the node, detach them and re-insert the node as a single element tree
+        if (node == root) {
+            root = combineSiblings(node.child);
+        } else {
+            cut(node);
+            final Node<T> children = combineSiblings(node.child);
+            if (children != null) {
+                root = link(root, children);
+            }
+        }
+        node.child = null;
+        root = root == null ? node : link(root, node);
+        return true;
+    }
+
+    @Override
+    public boolean decreaseKey(T item, T decreasedItem) {
+        final int compare = comparator.compare(item, decreasedItem);
+        if (compare < 0) return false;
+        final Node<T> node = index().get(item);
+        if (node == null) {
+            push(decreasedItem);
+            return true;
+        }
+        if (item != decreasedItem) {
+            if (compare == 0) return false;
+            replace(item, decreasedItem, node);
+        }
+        if (node != root) {
+            cut(node);
+            root = link(root, node);
+        }
+        return true;
+    }
+
+    /**
+     * Merges this heap with the other using {@code this.}{@link #comparator()}. Another {@code PairingHeap} with the same comparator
+     * is merged in O(1) by linking the two roots, unless one of the heaps has already built its element index which then has to take
+     * in the elements of the other. Any other heap is drained with {@link Heap#pop()} and its elements pushed, which costs
+     * O(m log m) for the pops of a binary or d-ary heap of {@code m} elements. Either way {@code other} is left empty.
+     *
+     * @param other heap
+     * @return {@code this} merged with other
+     */
+    @Override
+    @SuppressWarnings("unchecked")
+    public PairingHeap<T> mergeWith(Heap<T> other) {
+        if (other == this) {
+            return this;
+        }
+        if (other instanceof PairingHeap && other.comparator() == comparator) {
+            final PairingHeap<T> cast = (PairingHeap<T>) other;
+            if (cast.root != null) {
+                mergeIndex(cast);
+                root = root == null ? cast.root : link(root, cast.root);
+                size += cast.size;
+                cast.root = null;
+                cast.size = 0;
+            }
+        } else {
+            while (!other.isEmpty()) {
+                push(other.pop());
+            }
+        }
+        return this;
+    }
+
+    @Override
+    public String toString() {
+        final List<T> items = new ArrayList<>(size);
+        final Deque<Node<T>> stack = new ArrayDeque<>();
+        if (root != null) {
+            stack.push(root);
+        }
+        while (!stack.isEmpty()) {
+            final Node<T> node = stack.pop();
+            items.add(node.item);
+            for (Node<T> c = node.child; c != null; c = c.sibling) {
+                stack.push(c);
+            }
+        }
+        return "not in order" + items;
+    }
+
+    private IdentityHashMap<T, Node<T>> index() {
+        if (index == null) {
+            index = new IdentityHashMap<>(size);
+            indexTree(root);
+        }
+        return index;
+    }
+
+    /**
+     * Moves the index of {@code other} into this heap, called before the trees are linked.
+     */
+    private void mergeIndex(PairingHeap<T> other) {
+        if (other.index == null) {
+            if (index != null) {
+                indexTree(other.root);
+            }
+        } else if (index == null) {
+            index = other.index;
+            indexTree(root);
+        } else {
+            if (other.index.size() > index.size()) {
+                final IdentityHashMap<T, Node<T>> tmp = index;
+                index = other.index;
+                other.index = tmp;
+            }
+            index.putAll(other.index);
+        }
+        other.index = null;
+    }
+
+    private void indexTree(Node<T> tree) {
+        if (tree == null) {
+            return;
+        }
+        final Deque<Node<T>> stack = new ArrayDeque<>();
+        stack.push(tree);
+        while (!stack.isEmpty()) {
+            final Node<T> node = stack.pop();
+            index.put(node.item, node);
+            for (Node<T> c = node.child; c != null; c = c.sibling) {
+                stack.push(c);
+            }
+        }
+    }
+
+    private void replace(T item, T newItem, Node<T> node) {
+        index.remove(item);
+        index.put(newItem, node);
+        node.item = newItem;
+    }
+
+    /**
+     * Links two detached trees, the one with the larger root becomes the leftmost child of the other.
+     *
+     * @return the new root
+     */
+    private Node<T> link(Node<T> a, Node<T> b) {
+        final Node<T> parent;
+        final Node<T> child;
+        if (comparator.compare(b.item, a.item) < 0) {
+            parent = b;
+            child = a;
+        } else {
+            parent = a;
+            child = b;
+        }
+        child.prev = parent;
+        child.sibling = parent.child;
+        if (parent.child != null) {
+            parent.child.prev = child;
+        }
+        parent.child = child;
+        parent.prev = null;
+        parent.sibling = null;
+        return parent;
+    }
+
+    /**
+     * Detaches a non-root node together with its subtree.
+     */
+    private static <T> void cut(Node<T> node) {
+        if (node.prev.child == node) {
+            node.prev.child = node.sibling;
+        } else {
+            node.prev.sibling = node.sibling;
+        }
+        if (node.sibling != null) {
+            node.sibling.prev = node.prev;
+        }
+        node.prev = null;
+        node.sibling = null;
+    }
+
+    /**
+     * The two pass combine. The first pass links pairs from left to right and chains the results in reverse through
+     * {@link Node#sibling}, the second pass links the chain into a single tree from right to left.
+     *
+     * @param first leftmost sibling, may be null
+     * @return the root of the combined tree or null
+     */
+    private Node<T> combineSiblings(Node<T> first) {
+        if (first == null) {
+            return null;
+        }
+        Node<T> reversed = null;
+        Node<T> a = first;
+        while (a != null) {
+            final Node<T> b = a.sibling;
+            if (b == null) {
+                a.sibling = reversed;
+                reversed = a;
+                break;
+            }
+            final Node<T> next = b.sibling;
+            final Node<T> linked = link(a, b);
+            linked.sibling = reversed;
+            reversed = linked;
+            a = next;
+        }
+        Node<T> result = reversed;
+        reversed = reversed.sibling;
+        result.sibling = null;
+        while (reversed != null) {
+            final Node<T> next = reversed.sibling;
+            result = link(result, reversed);
+            reversed = next;
+        }
+        result.prev = null;
+        return result;
+    }
+
+    /**
+     * {@code prev} is the parent of a leftmost child and the left sibling of any other child.
+     */
+    private static final class Node<T> {
+        T item;
+        Node<T> child;
+        Node<T> sibling;
+        Node<T> prev;
+
+        Node(T item) {
+            this.item = item;
+        }
+    }
+}
@@ -0,0 +1,255 @@
+package com.abstractkamen.datastructures.impl.heaps;
+
+import com.abstractkamen.datastructures.api.heaps.*;
+
+import java.util.*;
+
+/**
+ * A monotone min heap of {@code long} keys, each optionally carrying a {@code long} payload. Once a key was popped no smaller key
+ * may be pushed, which is exactly how event simulations and Dijkstra's algorithm with non-negative weights use their queues. In
+ * exchange push is O(1) and pop is amortized O(log C) where C is the spread of the keys, and hardly any key comparisons are made.
+ * <p>
+ * The keys live in 65 buckets relative to the last popped key {@code last}. Bucket 0 holds the keys equal to {@code last} and
+ * bucket {@code i} the keys whose highest bit differing from {@code last} is bit {@code i - 1}, so every bucket holds larger keys
+ * than the ones before it. {@link #pop()} takes a key from bucket 0, when bucket 0 is empty it first makes the minimum of the first
+ * non-empty bucket the new {@code last} and redistributes that bucket into lower ones. A key only ever moves to a lower bucket,
+ * so it is moved at most 64 times.
+ * <p>
+ * Keys are ordered as signed longs. {@link #peek()} may have to scan the first non-empty bucket when the next pop would
+ * redistribute, it does not redistribute itself so that keys between the last popped key and the current minimum can still be
+ * pushed. The payload of the entry returned by the latest pop is read with {@link #lastPayload()}.
+ *
+ * @see LongHeap
+ */
+public class RadixHeap implements LongHeap {
+    private static final int BUCKETS = Long.SIZE + 1;
+    private final boolean hasPayload;
+    private final long[][] keys = new long[BUCKETS][];
+    private final long[][] payloads;
+    private final int[] sizes = new int[BUCKETS];
+    /**
+     * The last popped key with its sign bit flipped, so that unsigned bucket arithmetic orders keys as signed longs.
+     */
+    private long last;
+    private long lastPayload;
+    private int size;
+    /**
+     * Minimum key if {@link #minKnown}, saves {@link #peek()} from scanning a bucket more than once.
+     */
+    private long min;
+    private boolean minKnown;
+
+    /**
+     * Create a {@code RadixHeap}.
+     *
+     * @param hasPayload whether every key carries a {@code long} payload
+     */
+    public RadixHeap(boolean hasPayload) {
+        this.hasPayload = hasPayload;
+        this.payloads = hasPayload ? new long[BUCKETS][] : null;
+        for (int i = 0; i < BUCKETS; i++) {
+            keys[i] = new long[4];
+            if (hasPayload) {
+                payloads[i] = new long[4];
+            }
+        }
+        this.last = flip(Long.MIN_VALUE);
+    }
+
+    /**
+     * Create a {@code RadixHeap} without payloads.
+     */
+    public RadixHeap() {
+        this(false);
+    }
+
+    /**
+     * Checks if every key carries a payload.
+     *
+     * @return {@code true} if the heap was created with payloads
+     */
+    public boolean hasPayload() {
+        return hasPayload;
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    @Override
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    /**
+     * Inserts {@code value} with a zero payload if this heap has payloads.
+     *
+     * @param value The value to be inserted.
+     * @return The new size of the heap after insertion.
+     * @throws IllegalArgumentException if value is below the last popped key
+     */
+    @Override
+    public int push(long value) {
+        return push(value, 0L);
+    }
+
+    /**
+     * Inserts {@code key} together with its payload in O(1).
+     *
+     * @param key     The key to be inserted.
+     * @param payload The payload carried by the key, ignored if this heap has no payloads.
+     * @return The new size of the heap after insertion.
+     * @throws IllegalArgumentException if key is below the last popped key
+     */
+    public int push(long key, long payload) {
+        final long k = flip(key);
+        if (Long.compareUnsigned(k, last) < 0) {
+            throw new IllegalArgumentException("key " + key + " is below the last popped key " + flip(last));
+        }
+        add(bucket(k), k, payload);
+        if (size == 0 || minKnown && Long.compareUnsigned(k, min) < 0) {
+            min = k;
+            minKnown = true;
+        }
+        ++size;
+        return size;
+    }
+
+    @Override
+    public long peek() {
+        if (size == 0) {
+            throw new NoSuchElementException();
+        }
+        if (!minKnown) {
+            min = minOf(firstNonEmptyBucket());
+            minKnown = true;
+        }
+        return flip(min);
+    }
+
+    /**
+     * Removes and retrieves the minimum key, its payload is available from {@link #lastPayload()} afterwards. No key smaller than
+     * the returned one may be pushed from now on.
+     *
+     * @return The minimum key.
+     * @throws NoSuchElementException if the heap is empty.
+     */
+    @Override
+    public long pop() {
+        if (size == 0) {
+            throw new NoSuchElementException();
+        }
+        if (sizes[0] == 0) {
+            redistribute(firstNonEmptyBucket());
+        }
+        final int i = --sizes[0];
+        if (hasPayload) {
+            lastPayload = payloads[0][i];
+        }
+        --size;
+        // the remaining keys of bucket 0 are all equal to last
+        minKnown = i > 0;
+        min = last;
+        return flip(last);
+    }
+
+    /**
+     * Get the payload of the entry returned by the latest {@link #pop()}.
+     *
+     * @return The payload of the last popped key, zero if this heap has no payloads or nothing was popped yet.
+     */
+    public long lastPayload() {
+        return lastPayload;
+    }
+
+    /**
+     * Radix heaps order keys by their natural order only.
+     *
+     * @return {@link LongComparator#naturalOrder()}
+     */
+    @Override
+    public LongComparator comparator() {
+        return LongComparator.naturalOrder();
+    }
+
+    @Override
+    public String toString() {
+        final StringBuilder sb = new StringBuilder("not in order[");
+        boolean first = true;
+        for (int b = 0; b < BUCKETS; b++) {
+            for (int i = 0; i < sizes[b]; i++) {
+                if (!first) {
+                    sb.append(", ");
+                }
+                first = false;
+                sb.append(flip(keys[b][i]));
+                if (hasPayload) {
+                    sb.append('=').append(payloads[b][i]);
+                }
+            }
+        }
+        return sb.append(']').toString();
+    }
+
+    /**
+     * Makes the minimum of bucket {@code b} the new {@link #last} and moves every key of the bucket to a lower bucket relative to
+     * it. The minimum itself lands in bucket 0.
+     */
+    private void redistribute(int b) {
+        last = minOf(b);
+        final long[] bucketKeys = keys[b];
+        final long[] bucketPayloads = hasPayload ? payloads[b] : null;
+        final int n = sizes[b];
+        sizes[b] = 0;
+        for (int i = 0; i < n; i++) {
+            final long k = bucketKeys[i];
+            add(bucket(k), k, hasPayload ? bucketPayloads[i] : 0L);
+        }
+    }
+
+    private long minOf(int b) {
+        final long[] bucketKeys = keys[b];
+        long m = bucketKeys[0];
+        for (int i = 1, n = sizes[b]; i < n; i++) {
+            if (Long.compareUnsigned(bucketKeys[i], m) < 0) {
+                m = bucketKeys[i];
+            }
+        }
+        return m;
+    }
+
+    private int firstNonEmptyBucket() {
+        int b = 0;
+        while (sizes[b] == 0) {
+            b++;
+        }
+        return b;
+    }
+
+    private void add(int b, long k, long payload) {
+        final int n = sizes[b];
+        if (n == keys[b].length) {
+            keys[b] = Arrays.copyOf(keys[b], n << 1);
+            if (hasPayload) {
+                payloads[b] = Arrays.copyOf(payloads[b], n << 1);
+            }
+        }
+        keys[b][n] = k;
+        if (hasPayload) {
+            payloads[b][n] = payload;
+        }
+        sizes[b] = n + 1;
+    }
+
+    private int bucket(long k) {
+        return Long.SIZE - Long.numberOfLeadingZeros(k ^ last);
+    }
+
+    /**
+     * Maps signed order to unsigned order and back.
+     */
+    private static long flip(long key) {
+        return key ^ Long.MIN_VALUE;
+    }
+}
@@ -0,0 +1,190 @@
+package com.abstractkamen.datastructures.impl.heaps;
+
+import com.abstractkamen.datastructures.api.heaps.*;
+
+import java.util.*;
+import java.util.stream.Collector;
+
+/**
+ * A fixed capacity heap which keeps only the {@code k} greatest elements it was offered according to its comparator, pass a
+ * reversed comparator to keep the {@code k} smallest. Selecting the top {@code k} of a stream of n elements takes O(n log k) time
+ * and O(k) memory instead of O(n log n) and O(n) for pushing everything into a {@link BinaryHeap} and popping {@code k} times.
+ * <p>
+ * The elements are kept in a {@link BinaryHeap} with the smallest kept element at the root, so {@link #peek()} is the admission
+ * threshold and {@link #pop()} removes the smallest of the kept elements. Once the heap is full an offered element which is not
+ * greater than the threshold is rejected with a single comparison, a greater one replaces the threshold with a single sift via
+ * {@link BinaryHeap#replaceTop(Object)}. This implementation does not permit null elements.
+ *
+ * @param <T> The type of elements stored in the heap.
+ * @see Heap
+ * @see MergeableHeap
+ */
+public class TopKHeap<T> implements Heap<T>, MergeableHeap<T> {
+    private final BinaryHeap<T> heap;
+    private final int k;
+
+    /**
+     * Create a {@code TopKHeap<T>} with a custom comparator keeping the {@code k} greatest elements.
+     *
+     * @param comparator custom comparator
+     * @param k          number of elements to keep
+     * @throws IllegalArgumentException if k is below one
+     */
+    public TopKHeap(Comparator<T> comparator, int k) {
+        if (k < 1) {
+            throw new IllegalArgumentException("k cannot be below 1");
+        }
+        // one extra slot because BinaryHeap grows when its last slot is taken
+        this.heap = new BinaryHeap<>(comparator, k + 1);
+        this.k = k;
+    }
+
+    /**
+     * Create a {@code TopKHeap<T>} with natural order comparator in a type safe way.
+     *
+     * @param k   number of elements to keep
+     * @param <T> comparable type
+     * @return a heap keeping the {@code k} greatest elements
+     */
+    public static <T extends Comparable<T>> TopKHeap<T> createComparable(int k) {
+        final Comparator<T> c = Comparable::compareTo;
+        return new TopKHeap<>(c, k);
+    }
+
+    /**
+     * A collector which selects the {@code k} greatest elements of a stream.
+     *
+     * @param comparator custom comparator
+     * @param k          number of elements to keep
+     * @param <T>        value type
+     * @return a collector producing the {@code k} greatest elements, greatest first
+     */
+    public static <T> Collector<T, ?, List<T>> collector(Comparator<T> comparator, int k) {
+        return Collector.of(() -> new TopKHeap<>(comparator, k), TopKHeap::offer, TopKHeap::mergeWith, TopKHeap::toSortedList);
+    }
+
+    /**
+     * A collector which selects the {@code k} greatest elements of a stream by their natural order.
+     *
+     * @param k   number of elements to keep
+     * @param <T> comparable type
+     * @return a collector producing the {@code k} greatest elements, greatest first
+     */
+    public static <T extends Comparable<T>> Collector<T, ?, List<T>> collector(int k) {
+        final Comparator<T> c = Comparable::compareTo;
+        return collector(c, k);
+    }
+
+    /**
+     * Get the maximum number of elements this heap keeps.
+     *
+     * @return k
+     */
+    public int capacity() {
+        return k;
+    }
+
+    /**
+     * Offers {@code item} to the heap. While the heap is not full the item is always kept, afterwards it is kept only if it is
+     * greater than {@link #peek()} which is then evicted.
+     *
+     * @param item to be offered
+     * @return true if the item was kept
+     */
+    @SuppressWarnings("unchecked")
+    public boolean offer(T item) {
+        if (heap.size() < k) {
+            heap.push(item);
+            return true;
+        }
+        if (heap.comparator().compare(item, (T) heap.getItems()[0]) <= 0) {
+            return false;
+        }
+        heap.replaceTop(item);
+        return true;
+    }
+
+    /**
+     * Same as {@link #offer(Object)}.
+     *
+     * @param item The element to be offered.
+     * @return The size of the heap after the offer.
+     */
+    @Override
+    public int push(T item) {
+        offer(item);
+        return heap.size();
+    }
+
+    /**
+     * Retrieves the smallest kept element, the one the next accepted offer evicts once the heap is full.
+     *
+     * @return the smallest kept element or {@code null} if the heap is empty
+     */
+    @Override
+    public T peek() {
+        return heap.peek();
+    }
+
+    /**
+     * Removes and retrieves the smallest kept element.
+     *
+     * @return the smallest kept element
+     * @throws NoSuchElementException if the heap is empty
+     */
+    @Override
+    public T pop() {
+        return heap.pop();
+    }
+
+    @Override
+    public int size() {
+        return heap.size();
+    }
+
+    @Override
+    public boolean isEmpty() {
+        return heap.isEmpty();
+    }
+
+    @Override
+    public Comparator<T> comparator() {
+        return heap.comparator();
+    }
+
+    /**
+     * Offers every element of {@code other} to this heap in O(m log k), {@code other} is left unchanged.
+     *
+     * @param other heap
+     * @return {@code this} merged with other
+     * @throws ClassCastException if {@code other} is not a {@code TopKHeap}
+     */
+    @Override
+    @SuppressWarnings("unchecked")
+    public TopKHeap<T> mergeWith(Heap<T> other) {
+        if (!(other instanceof TopKHeap)) throw new ClassCastException("other must be an instance of TopKHeap");
+        final TopKHeap<T> cast = (TopKHeap<T>) other;
+        final Object[] items = cast.heap.getItems();
+        for (int i = 0, size = cast.heap.size(); i < size; i++) {
+            offer((T) items[i]);
+        }
+        return this;
+    }
+
+    /**
+     * Get the kept elements without removing them.
+     *
+     * @return a new list of the kept elements, greatest first
+     */
+    @SuppressWarnings("unchecked")
+    public List<T> toSortedList() {
+        final List<T> list = new ArrayList<>((List<T>) Arrays.asList(heap.getItems()).subList(0, heap.size()));
+        list.sort(heap.comparator().reversed());
+        return list;
+    }
+
+    @Override
+    public String toString() {
+        return "not in order" + Arrays.asList(heap.getItems()).subList(0, heap.size());
+    }
+}
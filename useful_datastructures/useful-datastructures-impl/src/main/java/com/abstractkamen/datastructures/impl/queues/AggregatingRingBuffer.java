@@ -0,0 +1,294 @@
+package com.abstractkamen.datastructures.impl.queues;
+
+import com.abstractkamen.datastructures.api.queues.LongRingBuffer;
+import com.abstractkamen.datastructures.impl.utils.QuantileSketch;
+
+import java.util.NoSuchElementException;
+import java.util.PrimitiveIterator;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.StringJoiner;
+import java.util.function.LongConsumer;
+import java.util.stream.LongStream;
+import java.util.stream.StreamSupport;
+
+/**
+ * A sliding window of {@code long} samples which overwrites the oldest sample when full, like
+ * {@link LongOverwritingRingBuffer}, and keeps the statistics of the window up to date on every change instead of computing them
+ * per query.
+ * <ul>
+ *     <li>{@link #sum()} and {@link #mean()} come from a running sum</li>
+ *     <li>{@link #min()} and {@link #max()} come from the fronts of two monotonic deques of slots. A new sample removes every slot
+ *     from the back of the min deque whose sample is not smaller than it, since those can never be the minimum again, and the
+ *     oldest slot leaves the front when it is evicted. Every slot enters and leaves a deque once, so updates are amortized O(1)</li>
+ *     <li>{@link #quantile(double)} comes from an optional {@link QuantileSketch} which requires non-negative samples</li>
+ * </ul>
+ * {@link #enqueue(long)} and {@link #dequeue()} update all of them, including the eviction of an overwritten sample. The sum is
+ * kept in a {@code long} and overflows silently like any {@code long} addition.
+ *
+ * @see LongOverwritingRingBuffer
+ * @see QuantileSketch
+ */
+public class AggregatingRingBuffer implements LongRingBuffer {
+    private final long[] items;
+    private final int mask;
+    private final int[] minSlots;
+    private final int[] maxSlots;
+    private final QuantileSketch sketch;
+    private int start;
+    private int count;
+    private long sum;
+    private int minHead;
+    private int minSize;
+    private int maxHead;
+    private int maxSize;
+
+    /**
+     * Constructs a new {@code AggregatingRingBuffer} with the specified capacity and an optional quantile sketch.
+     *
+     * @param capacity          the capacity of the ring buffer, a power of two.
+     * @param quantilePrecision precision of the quantile sketch, see {@link QuantileSketch#QuantileSketch(int)}, or 0 for no
+     *                          quantiles
+     * @throws IllegalArgumentException if the capacity is lesser than one or not a power of two or the precision is out of range.
+     */
+    public AggregatingRingBuffer(int capacity, int quantilePrecision) {
+        if (capacity < 1) {
+            throw new IllegalArgumentException("Capacity cannot be lesser than one");
+        }
+        if (Integer.bitCount(capacity) != 1) {
+            throw new IllegalArgumentException("Capacity must be a power of two");
+        }
+        this.items = new long[capacity];
+        this.mask = capacity - 1;
+        this.minSlots = new int[capacity];
+        this.maxSlots = new int[capacity];
+        this.sketch = quantilePrecision == 0 ? null : new QuantileSketch(quantilePrecision);
+    }
+
+    /**
+     * Constructs a new {@code AggregatingRingBuffer} with the specified capacity and no quantile sketch.
+     *
+     * @param capacity the capacity of the ring buffer, a power of two.
+     * @throws IllegalArgumentException if the capacity is lesser than one or not a power of two.
+     */
+    public AggregatingRingBuffer(int capacity) {
+        this(capacity, 0);
+    }
+
+    @Override
+    public boolean isEmpty() {
+        return count == 0;
+    }
+
+    @Override
+    public int size() {
+        return count;
+    }
+
+    @Override
+    public int capacity() {
+        return items.length;
+    }
+
+    /**
+     * Enqueues the specified sample into the buffer, overwriting and evicting the oldest sample if the buffer is full.
+     *
+     * @param value the sample to be enqueued.
+     * @return {@code true} always.
+     * @throws IllegalArgumentException if the buffer keeps quantiles and value is negative.
+     */
+    @Override
+    public boolean enqueue(long value) {
+        if (sketch != null) {
+            sketch.add(value);
+        }
+        if (count == items.length) {
+            evictOldest();
+        }
+        final int slot = (start + count) & mask;
+        items[slot] = value;
+        count++;
+        sum += value;
+        while (minSize > 0 && items[minSlots[(minHead + minSize - 1) & mask]] >= value) {
+            minSize--;
+        }
+        minSlots[(minHead + minSize++) & mask] = slot;
+        while (maxSize > 0 && items[maxSlots[(maxHead + maxSize - 1) & mask]] <= value) {
+            maxSize--;
+        }
+        maxSlots[(maxHead + maxSize++) & mask] = slot;
+        return true;
+    }
+
+    @Override
+    public long dequeue() {
+        if (count == 0) {
+            throw new NoSuchElementException("Buffer is empty");
+        }
+        final long result = items[start];
+        evictOldest();
+        return result;
+    }
+
+    /**
+     * Returns the sample at {@code index} without removing it, 0 is the oldest.
+     *
+     * @param index position from the oldest sample
+     * @return the sample at index.
+     * @throws IndexOutOfBoundsException if index is not below {@link #size()}.
+     */
+    public long get(int index) {
+        if (index < 0 || index >= count) {
+            throw new IndexOutOfBoundsException("Index " + index + " out of bounds for size " + count);
+        }
+        return items[(start + index) & mask];
+    }
+
+    /**
+     * Get the sum of the samples in O(1).
+     *
+     * @return the sum of the window, 0 if it is empty.
+     */
+    public long sum() {
+        return sum;
+    }
+
+    /**
+     * Get the mean of the samples in O(1).
+     *
+     * @return the mean of the window.
+     * @throws NoSuchElementException if the buffer is empty.
+     */
+    public double mean() {
+        if (count == 0) {
+            throw new NoSuchElementException("Buffer is empty");
+        }
+        return (double) sum / count;
+    }
+
+    /**
+     * Get the smallest sample in O(1).
+     *
+     * @return the minimum of the window.
+     * @throws NoSuchElementException if the buffer is empty.
+     */
+    public long min() {
+        if (count == 0) {
+            throw new NoSuchElementException("Buffer is empty");
+        }
+        return items[minSlots[minHead]];
+    }
+
+    /**
+     * Get the largest sample in O(1).
+     *
+     * @return the maximum of the window.
+     * @throws NoSuchElementException if the buffer is empty.
+     */
+    public long max() {
+        if (count == 0) {
+            throw new NoSuchElementException("Buffer is empty");
+        }
+        return items[maxSlots[maxHead]];
+    }
+
+    /**
+     * Checks if this buffer keeps quantiles.
+     *
+     * @return {@code true} if the buffer was created with a quantile precision.
+     */
+    public boolean hasQuantiles() {
+        return sketch != null;
+    }
+
+    /**
+     * Estimates a quantile of the window with the relative error of the {@link QuantileSketch}, clamped to {@link #min()} and
+     * {@link #max()}. The cost depends on the sketch precision, not on the window size.
+     *
+     * @param q fraction between 0 and 1, 0.99 for the 99th percentile
+     * @return the estimated quantile
+     * @throws IllegalStateException    if the buffer keeps no quantiles.
+     * @throws IllegalArgumentException if q is not between 0 and 1
+     * @throws NoSuchElementException   if the buffer is empty.
+     */
+    public long quantile(double q) {
+        if (sketch == null) {
+            throw new IllegalStateException("Buffer keeps no quantiles");
+        }
+        if (count == 0) {
+            throw new NoSuchElementException("Buffer is empty");
+        }
+        return Math.max(min(), Math.min(max(), sketch.quantile(q)));
+    }
+
+    /**
+     * Removes all samples and resets the statistics.
+     */
+    public void clear() {
+        start = 0;
+        count = 0;
+        sum = 0;
+        minSize = 0;
+        maxSize = 0;
+        if (sketch != null) {
+            sketch.clear();
+        }
+    }
+
+    @Override
+    public LongStream stream() {
+        return StreamSupport.longStream(Spliterators.spliterator(iterator(), count, Spliterator.ORDERED), false);
+    }
+
+    @Override
+    public PrimitiveIterator.OfLong iterator() {
+        return new PrimitiveIterator.OfLong() {
+            private int i = 0;
+
+            @Override
+            public boolean hasNext() {
+                return i < count;
+            }
+
+            @Override
+            public long nextLong() {
+                if (i >= count) {
+                    throw new NoSuchElementException();
+                }
+                return items[(start + i++) & mask];
+            }
+        };
+    }
+
+    @Override
+    public void forEach(LongConsumer action) {
+        for (int i = 0; i < count; i++) {
+            action.accept(items[(start + i) & mask]);
+        }
+    }
+
+    @Override
+    public String toString() {
+        final StringJoiner sj = new StringJoiner(", ", "[", "]");
+        forEach(value -> sj.add(String.valueOf(value)));
+        return sj.toString();
+    }
+
+    private void evictOldest() {
+        final long value = items[start];
+        sum -= value;
+        if (sketch != null) {
+            sketch.remove(value);
+        }
+        if (minSlots[minHead] == start) {
+            minHead = (minHead + 1) & mask;
+            minSize--;
+        }
+        if (maxSlots[maxHead] == start) {
+            maxHead = (maxHead + 1) & mask;
+            maxSize--;
+        }
+        start = (start + 1) & mask;
+        count--;
+    }
+}
@@ -0,0 +1,504 @@
+package com.abstractkamen.datastructures.impl.queues;
+
+import com.abstractkamen.datastructures.api.queues.RingBuffer;
+
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.Objects;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.StringJoiner;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.LockSupport;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/**
+ * A bounded ring buffer shared by any number of producer and consumer threads, which lets the caller choose what happens when it
+ * is full and how a thread waits for it.
+ * <ul>
+ *     <li>The {@link FullBufferPolicy} decides whether an item enqueued into a full buffer overwrites the oldest item, is rejected or
+ *     waits for space</li>
+ *     <li>The {@link WaitStrategy} decides how {@link #take()} and a waiting {@link #put(Object)} wait, from spinning, which reacts
+ *     fastest and burns a core, to blocking on a condition, which costs a wake up and no CPU</li>
+ * </ul>
+ * The state is guarded by a {@link ReentrantLock} held only to move a single item. Spinning threads check the size before taking
+ * the lock, so they do not hammer it while the buffer stays empty or full. Nothing here uses {@code synchronized}, so waiting
+ * virtual threads release their carrier thread with {@link WaitStrategy#YIELD}, {@link WaitStrategy#PARK} and
+ * {@link WaitStrategy#BLOCKING}. {@link WaitStrategy#BUSY_SPIN} never unmounts and pins the carrier for the whole wait.
+ * <p>
+ * Unlike {@link OverwritingRingBuffer} this buffer does not accept {@code null}, so that {@link #poll()} can return {@code null}
+ * for an empty buffer. {@link #dequeue()} still throws on an empty buffer like every {@link RingBuffer}, {@link #take()} waits.
+ *
+ * @param <T> the type of elements stored in the buffer.
+ * @see OverwritingRingBuffer
+ */
+public class BlockingRingBuffer<T> implements RingBuffer<T> {
+    private final Object[] items;
+    private final int mask;
+    private final FullBufferPolicy policy;
+    private final WaitStrategy waitStrategy;
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition notEmpty = lock.newCondition();
+    private final Condition notFull = lock.newCondition();
+    private int start;
+    /**
+     * Written under the lock, read without it by {@link #size()} and by spinning threads.
+     */
+    private volatile int count;
+
+    /**
+     * What happens to an item enqueued into a full buffer.
+     */
+    public enum FullBufferPolicy {
+        /**
+         * The item overwrites the oldest item, producers never wait.
+         */
+        OVERWRITE,
+        /**
+         * The item is rejected, the enqueue returns {@code false} right away.
+         */
+        REJECT,
+        /**
+         * The producer waits with the {@link WaitStrategy} until a consumer makes space.
+         */
+        BLOCK
+    }
+
+    /**
+     * How a thread waits for an item or for space.
+     */
+    public enum WaitStrategy {
+        /**
+         * Retries in a loop with {@link Thread#onSpinWait()}. The lowest latency, but it keeps a core busy for as long as it waits,
+         * only for threads pinned to their own cores. A virtual thread never unmounts while spinning and holds its carrier thread
+         * for the whole wait, use one of the other strategies for virtual threads.
+         */
+        BUSY_SPIN {
+            @Override
+            void idle(int attempt) {
+                Thread.onSpinWait();
+            }
+        },
+        /**
+         * Spins shortly and then retries after {@link Thread#yield()}, letting other runnable threads go first.
+         */
+        YIELD {
+            @Override
+            void idle(int attempt) {
+                if (attempt < SPIN_TRIES) {
+                    Thread.onSpinWait();
+                } else {
+                    Thread.yield();
+                }
+            }
+        },
+        /**
+         * Spins, yields and then retries every {@value #PARK_NANOS} nanoseconds with {@link LockSupport#parkNanos(long)}. Nearly
+         * no CPU once parked at the price of up to the park time of latency.
+         */
+        PARK {
+            @Override
+            void idle(int attempt) {
+                if (attempt < SPIN_TRIES) {
+                    Thread.onSpinWait();
+                } else if (attempt < 2 * SPIN_TRIES) {
+                    Thread.yield();
+                } else {
+                    LockSupport.parkNanos(PARK_NANOS);
+                }
+            }
+        },
+        /**
+         * Waits on a {@link Condition} which the other side signals, no CPU and no polling while waiting. Every enqueue and dequeue
+         * pays for the signal.
+         */
+        BLOCKING {
+            @Override
+            void idle(int attempt) {
+                PARK.idle(attempt);
+            }
+        };
+
+        private static final int SPIN_TRIES = 100;
+        private static final long PARK_NANOS = 50_000;
+
+        abstract void idle(int attempt);
+    }
+
+    /**
+     * Constructs a new {@code BlockingRingBuffer} with the specified capacity, policy and wait strategy.
+     *
+     * @param capacity     the capacity of the ring buffer, a power of two.
+     * @param policy       what happens to an item enqueued into a full buffer
+     * @param waitStrategy how threads wait for items and space
+     * @throws IllegalArgumentException if the capacity is lesser than one or not a power of two.
+     */
+    public BlockingRingBuffer(int capacity, FullBufferPolicy policy, WaitStrategy waitStrategy) {
+        if (capacity < 1) {
+            throw new IllegalArgumentException("Capacity cannot be lesser than one");
+        }
+        if (Integer.bitCount(capacity) != 1) {
+            throw new IllegalArgumentException("Capacity must be a power of two");
+        }
+        this.items = new Object[capacity];
+        this.mask = capacity - 1;
+        this.policy = Objects.requireNonNull(policy);
+        this.waitStrategy = Objects.requireNonNull(waitStrategy);
+    }
+
+    /**
+     * Constructs a new {@code BlockingRingBuffer} which blocks producers of a full buffer and consumers of an empty one on a
+     * condition.
+     *
+     * @param capacity the capacity of the ring buffer, a power of two.
+     * @throws IllegalArgumentException if the capacity is lesser than one or not a power of two.
+     */
+    public BlockingRingBuffer(int capacity) {
+        this(capacity, FullBufferPolicy.BLOCK, WaitStrategy.BLOCKING);
+    }
+
+    /**
+     * Returns the policy for full buffers.
+     *
+     * @return the full buffer policy.
+     */
+    public FullBufferPolicy policy() {
+        return policy;
+    }
+
+    /**
+     * Returns the wait strategy.
+     *
+     * @return the wait strategy.
+     */
+    public WaitStrategy waitStrategy() {
+        return waitStrategy;
+    }
+
+    @Override
+    public boolean isEmpty() {
+        return count == 0;
+    }
+
+    @Override
+    public int size() {
+        return count;
+    }
+
+    @Override
+    public int capacity() {
+        return items.length;
+    }
+
+    /**
+     * Enqueues the specified item according to the {@link FullBufferPolicy}. A waiting producer which is interrupted gives up, keeps
+     * its interrupt status and returns {@code false}, use {@link #put(Object)} to get the {@link InterruptedException} instead.
+     *
+     * @param item the item to be enqueued.
+     * @return {@code true} if item is enqueued, {@code false} if it was rejected or the waiting thread was interrupted.
+     * @throws NullPointerException if item is null
+     */
+    @Override
+    public boolean enqueue(T item) {
+        try {
+            return put(item);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+
+    /**
+     * Enqueues the specified item according to the {@link FullBufferPolicy}, waiting for space with the {@link WaitStrategy} if the
+     * policy is {@link FullBufferPolicy#BLOCK}.
+     *
+     * @param item the item to be enqueued.
+     * @return {@code true} if item is enqueued, {@code false} if the buffer is full and the policy is
+     * {@link FullBufferPolicy#REJECT}.
+     * @throws InterruptedException if interrupted while waiting
+     * @throws NullPointerException if item is null
+     */
+    public boolean put(T item) throws InterruptedException {
+        return insert(item, false, 0);
+    }
+
+    /**
+     * Enqueues the specified item without waiting, overwriting the oldest item of a full buffer only if the policy is
+     * {@link FullBufferPolicy#OVERWRITE}.
+     *
+     * @param item the item to be enqueued.
+     * @return {@code true} if item is enqueued, {@code false} if the buffer is full.
+     * @throws NullPointerException if item is null
+     */
+    @Override
+    public boolean offer(T item) {
+        Objects.requireNonNull(item);
+        lock.lock();
+        try {
+            return tryInsert(item);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Like {@link #put(Object)} but waits at most {@code timeout} for space.
+     *
+     * @param item    the item to be enqueued.
+     * @param timeout how long to wait
+     * @param unit    the unit of timeout
+     * @return {@code true} if item is enqueued, {@code false} if it was rejected or the buffer stayed full for the whole timeout.
+     * @throws InterruptedException if interrupted while waiting
+     * @throws NullPointerException if item is null
+     */
+    public boolean offer(T item, long timeout, TimeUnit unit) throws InterruptedException {
+        return insert(item, true, unit.toNanos(timeout));
+    }
+
+    /**
+     * Dequeues and returns the oldest item without waiting.
+     *
+     * @return the oldest item in the buffer.
+     * @throws NoSuchElementException if the buffer is empty.
+     */
+    @Override
+    public T dequeue() {
+        final T result = poll();
+        if (result == null) {
+            throw new NoSuchElementException("Buffer is empty");
+        }
+        return result;
+    }
+
+    /**
+     * Dequeues and returns the oldest item without waiting.
+     *
+     * @return the oldest item in the buffer, or {@code null} if the buffer is empty.
+     */
+    @Override
+    public T poll() {
+        lock.lock();
+        try {
+            return count == 0 ? null : extract();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Dequeues and returns the oldest item, waiting with the {@link WaitStrategy} until there is one.
+     *
+     * @return the oldest item in the buffer.
+     * @throws InterruptedException if interrupted while waiting
+     */
+    public T take() throws InterruptedException {
+        return remove(false, 0);
+    }
+
+    /**
+     * Like {@link #take()} but waits at most {@code timeout} for an item.
+     *
+     * @param timeout how long to wait
+     * @param unit    the unit of timeout
+     * @return the oldest item in the buffer, or {@code null} if the buffer stayed empty for the whole timeout.
+     * @throws InterruptedException if interrupted while waiting
+     */
+    public T poll(long timeout, TimeUnit unit) throws InterruptedException {
+        return remove(true, unit.toNanos(timeout));
+    }
+
+    /**
+     * Removes all items.
+     */
+    public void clear() {
+        lock.lock();
+        try {
+            Arrays.fill(items, null);
+            start = 0;
+            count = 0;
+            notFull.signalAll();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Returns a stream over a snapshot of the items, see {@link #iterator()}.
+     *
+     * @return a sequential stream of the items in the buffer.
+     */
+    @Override
+    public Stream<T> stream() {
+        final Object[] snapshot = toArray();
+        return StreamSupport.stream(Spliterators.spliterator(new SnapshotIterator(snapshot), snapshot.length, Spliterator.ORDERED),
+                                    false);
+    }
+
+    /**
+     * Returns an iterator over a snapshot of the items taken under the lock, oldest first. Later changes of the buffer do not show.
+     *
+     * @return an iterator over the items in the buffer.
+     */
+    @Override
+    public Iterator<T> iterator() {
+        return new SnapshotIterator(toArray());
+    }
+
+    @Override
+    public String toString() {
+        final StringJoiner sj = new StringJoiner(", ", "[", "]");
+        for (Object item : toArray()) {
+            sj.add(String.valueOf(item));
+        }
+        return sj.toString();
+    }
+
+    private Object[] toArray() {
+        lock.lock();
+        try {
+            final Object[] result = new Object[count];
+            for (int i = 0; i < result.length; i++) {
+                result[i] = items[(start + i) & mask];
+            }
+            return result;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private boolean insert(T item, boolean timed, long nanos) throws InterruptedException {
+        Objects.requireNonNull(item);
+        if (policy != FullBufferPolicy.BLOCK) {
+            return offer(item);
+        }
+        if (waitStrategy == WaitStrategy.BLOCKING) {
+            lock.lockInterruptibly();
+            try {
+                while (count == items.length) {
+                    if (!timed) {
+                        notFull.await();
+                    } else if (nanos <= 0) {
+                        return false;
+                    } else {
+                        nanos = notFull.awaitNanos(nanos);
+                    }
+                }
+                return tryInsert(item);
+            } finally {
+                lock.unlock();
+            }
+        }
+        final long deadline = System.nanoTime() + nanos;
+        for (int attempt = 0; ; attempt++) {
+            if (count < items.length && offer(item)) {
+                return true;
+            }
+            if (Thread.interrupted()) {
+                throw new InterruptedException();
+            }
+            if (timed && System.nanoTime() - deadline >= 0) {
+                return false;
+            }
+            waitStrategy.idle(attempt);
+        }
+    }
+
+    private T remove(boolean timed, long nanos) throws InterruptedException {
+        if (waitStrategy == WaitStrategy.BLOCKING) {
+            lock.lockInterruptibly();
+            try {
+                while (count == 0) {
+                    if (!timed) {
+                        notEmpty.await();
+                    } else if (nanos <= 0) {
+                        return null;
+                    } else {
+                        nanos = notEmpty.awaitNanos(nanos);
+                    }
+                }
+                return extract();
+            } finally {
+                lock.unlock();
+            }
+        }
+        final long deadline = System.nanoTime() + nanos;
+        for (int attempt = 0; ; attempt++) {
+            if (count > 0) {
+                final T result = poll();
+                if (result != null) {
+                    return result;
+                }
+            }
+            if (Thread.interrupted()) {
+                throw new InterruptedException();
+            }
+            if (timed && System.nanoTime() - deadline >= 0) {
+                return null;
+            }
+            waitStrategy.idle(attempt);
+        }
+    }
+
+    /**
+     * Must hold the lock.
+     */
+    private boolean tryInsert(T item) {
+        final int n = count;
+        if (n == items.length) {
+            if (policy != FullBufferPolicy.OVERWRITE) {
+                return false;
+            }
+            items[start] = item;
+            start = (start + 1) & mask;
+        } else {
+            items[(start + n) & mask] = item;
+            count = n + 1;
+        }
+        if (waitStrategy == WaitStrategy.BLOCKING) {
+            notEmpty.signal();
+        }
+        return true;
+    }
+
+    /**
+     * Must hold the lock and the buffer must not be empty.
+     */
+    @SuppressWarnings("unchecked")
+    private T extract() {
+        final T result = (T) items[start];
+        items[start] = null;
+        start = (start + 1) & mask;
+        count--;
+        if (waitStrategy == WaitStrategy.BLOCKING) {
+            notFull.signal();
+        }
+        return result;
+    }
+
+    private final class SnapshotIterator implements Iterator<T> {
+        private final Object[] snapshot;
+        private int i = 0;
+
+        private SnapshotIterator(Object[] snapshot) {
+            this.snapshot = snapshot;
+        }
+
+        @Override
+        public boolean hasNext() {
+            return i < snapshot.length;
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        public T next() {
+            if (i >= snapshot.length) {
+                throw new NoSuchElementException();
+            }
+            return (T) snapshot[i++];
+        }
+    }
+}
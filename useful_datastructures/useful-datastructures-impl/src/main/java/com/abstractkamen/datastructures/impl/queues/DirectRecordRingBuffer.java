@@ -0,0 +1,231 @@
+package com.abstractkamen.datastructures.impl.queues;
+
+import com.abstractkamen.datastructures.impl.utils.DirectBuffers;
+
+import java.nio.ByteBuffer;
+import java.util.NoSuchElementException;
+
+/**
+ * A ring buffer of fixed size records stored outside of the Java heap, which overwrites the oldest record when full. A record is
+ * any {@code recordSize} bytes, for example a timestamp, a latency and a status code of a request, and is copied in and out of
+ * a single direct {@link ByteBuffer}, so keeping millions of records costs the garbage collector nothing.
+ * <p>
+ * Records are laid out at a stride of {@code recordSize} rounded up to a multiple of 8 bytes, so a {@code long} field at an offset
+ * divisible by 8 is aligned. Fields of the retained records are read in place with {@link #getLong(int, int)},
+ * {@link #getInt(int, int)} and {@link #getDouble(int, int)}, where index 0 is the oldest record.
+ * <p>
+ * {@link #close()} releases the native memory right away, the buffer cannot be used afterwards. This class is not thread safe.
+ *
+ * @see OverwritingRingBuffer
+ */
+public class DirectRecordRingBuffer implements AutoCloseable {
+    private final int recordSize;
+    private final int stride;
+    private final int mask;
+    private final int capacity;
+    private ByteBuffer buffer;
+    private int start;
+    private int count;
+
+    /**
+     * Constructs a new {@code DirectRecordRingBuffer} for {@code capacity} records of {@code recordSize} bytes.
+     *
+     * @param recordSize the size of a record in bytes
+     * @param capacity   the number of records, a power of two
+     * @throws IllegalArgumentException if recordSize or capacity is lesser than one, capacity is not a power of two or the records
+     *                                  do not fit in a single buffer
+     */
+    public DirectRecordRingBuffer(int recordSize, int capacity) {
+        if (recordSize < 1) {
+            throw new IllegalArgumentException("Record size cannot be lesser than one");
+        }
+        if (capacity < 1) {
+            throw new IllegalArgumentException("Capacity cannot be lesser than one");
+        }
+        if (Integer.bitCount(capacity) != 1) {
+            throw new IllegalArgumentException("Capacity must be a power of two");
+        }
+        final long stride = (recordSize + 7L) & ~7L;
+        if (stride * capacity > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("Records do not fit in a single buffer");
+        }
+        this.recordSize = recordSize;
+        this.stride = (int) stride;
+        this.capacity = capacity;
+        this.mask = capacity - 1;
+        this.buffer = DirectBuffers.allocate((int) stride * capacity);
+    }
+
+    /**
+     * Returns the size of a record.
+     *
+     * @return the size of a record in bytes.
+     */
+    public int recordSize() {
+        return recordSize;
+    }
+
+    /**
+     * True if buffer is empty.
+     *
+     * @return true if buffer is empty
+     */
+    public boolean isEmpty() {
+        return count == 0;
+    }
+
+    /**
+     * Returns the number of records currently stored in the buffer.
+     *
+     * @return the number of records in the buffer.
+     */
+    public int size() {
+        return count;
+    }
+
+    /**
+     * Returns the total capacity of the buffer.
+     *
+     * @return the capacity of the buffer in records.
+     */
+    public int capacity() {
+        return capacity;
+    }
+
+    /**
+     * Copies the next {@link #recordSize()} bytes of {@code record} into the buffer, overwriting the oldest record if the buffer is
+     * full. The position of {@code record} advances by the record size.
+     *
+     * @param record the record to be enqueued
+     * @throws IllegalArgumentException if fewer than {@link #recordSize()} bytes remain in record
+     * @throws IllegalStateException    if the buffer is closed
+     */
+    public void enqueue(ByteBuffer record) {
+        ensureOpen();
+        if (record.remaining() < recordSize) {
+            throw new IllegalArgumentException("Record has " + record.remaining() + " bytes, expected " + recordSize);
+        }
+        final int position = record.position();
+        buffer.put(offset((start + count) & mask), record, position, recordSize);
+        record.position(position + recordSize);
+        if (count == capacity) {
+            start = (start + 1) & mask;
+        } else {
+            count++;
+        }
+    }
+
+    /**
+     * Copies the oldest record into {@code target} and removes it. The position of {@code target} advances by the record size.
+     *
+     * @param target receives the record
+     * @throws NoSuchElementException   if the buffer is empty
+     * @throws IllegalArgumentException if fewer than {@link #recordSize()} bytes remain in target
+     * @throws IllegalStateException    if the buffer is closed
+     */
+    public void dequeue(ByteBuffer target) {
+        ensureOpen();
+        if (count == 0) {
+            throw new NoSuchElementException("Buffer is empty");
+        }
+        if (target.remaining() < recordSize) {
+            throw new IllegalArgumentException("Target has " + target.remaining() + " bytes, expected " + recordSize);
+        }
+        final int position = target.position();
+        target.put(position, buffer, offset(start), recordSize);
+        target.position(position + recordSize);
+        start = (start + 1) & mask;
+        count--;
+    }
+
+    /**
+     * Reads a {@code long} field of a retained record in native byte order.
+     *
+     * @param index  position from the oldest record
+     * @param offset offset of the field within the record
+     * @return the field value
+     * @throws IndexOutOfBoundsException if index is not below {@link #size()} or the field is not within the record
+     * @throws IllegalStateException     if the buffer is closed
+     */
+    public long getLong(int index, int offset) {
+        final int position = field(index, offset, Long.BYTES);
+        return buffer.getLong(position);
+    }
+
+    /**
+     * Reads an {@code int} field of a retained record in native byte order.
+     *
+     * @param index  position from the oldest record
+     * @param offset offset of the field within the record
+     * @return the field value
+     * @throws IndexOutOfBoundsException if index is not below {@link #size()} or the field is not within the record
+     * @throws IllegalStateException     if the buffer is closed
+     */
+    public int getInt(int index, int offset) {
+        final int position = field(index, offset, Integer.BYTES);
+        return buffer.getInt(position);
+    }
+
+    /**
+     * Reads a {@code double} field of a retained record in native byte order.
+     *
+     * @param index  position from the oldest record
+     * @param offset offset of the field within the record
+     * @return the field value
+     * @throws IndexOutOfBoundsException if index is not below {@link #size()} or the field is not within the record
+     * @throws IllegalStateException     if the buffer is closed
+     */
+    public double getDouble(int index, int offset) {
+        final int position = field(index, offset, Double.BYTES);
+        return buffer.getDouble(position);
+    }
+
+    /**
+     * Removes all records.
+     */
+    public void clear() {
+        start = 0;
+        count = 0;
+    }
+
+    /**
+     * Releases the native memory of this buffer. Any further operation but {@link #size()}, {@link #isEmpty()} and {@code close()}
+     * throws {@link IllegalStateException}. Closing a closed buffer has no effect.
+     */
+    @Override
+    public void close() {
+        if (buffer == null) {
+            return;
+        }
+        DirectBuffers.free(buffer);
+        buffer = null;
+        clear();
+    }
+
+    @Override
+    public String toString() {
+        return "DirectRecordRingBuffer{recordSize=" + recordSize + ", size=" + count + ", capacity=" + capacity +
+               (buffer == null ? ", closed}" : "}");
+    }
+
+    private int field(int index, int offset, int size) {
+        ensureOpen();
+        if (index < 0 || index >= count) {
+            throw new IndexOutOfBoundsException("Index " + index + " out of bounds for size " + count);
+        }
+        if (offset < 0 || offset > recordSize - size) {
+            throw new IndexOutOfBoundsException("Field at " + offset + " of " + size + " bytes is not within " + recordSize + " bytes");
+        }
+        return offset((start + index) & mask) + offset;
+    }
+
+    private int offset(int slot) {
+        return slot * stride;
+    }
+
+    private void ensureOpen() {
+        if (buffer == null) {
+            throw new IllegalStateException("buffer is closed");
+        }
+    }
+}
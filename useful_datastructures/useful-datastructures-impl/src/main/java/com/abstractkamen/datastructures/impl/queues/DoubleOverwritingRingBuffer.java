@@ -0,0 +1,208 @@
+package com.abstractkamen.datastructures.impl.queues;
+
+import com.abstractkamen.datastructures.api.queues.DoubleRingBuffer;
+
+import java.util.NoSuchElementException;
+import java.util.PrimitiveIterator;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.StringJoiner;
+import java.util.function.DoubleConsumer;
+import java.util.stream.DoubleStream;
+import java.util.stream.StreamSupport;
+
+/**
+ * A ring buffer of {@code double} values which overwrites the oldest value when full, {@link OverwritingRingBuffer} without boxing.
+ * A window of the last N samples costs 8 bytes per sample instead of a reference plus a {@link Double} of 16 bytes or more.
+ * <p>
+ * {@link #enqueueAll(double...)}, {@link #drainTo(double[])} and {@link #toArray()} copy the at most two contiguous segments of the
+ * backing array with {@link System#arraycopy(Object, int, Object, int, int)}.
+ *
+ * @see OverwritingRingBuffer
+ * @see LongOverwritingRingBuffer
+ */
+public class DoubleOverwritingRingBuffer implements DoubleRingBuffer {
+    private final double[] items;
+    private int start;
+    private int count;
+    private final int mask;
+
+    /**
+     * Constructs a new {@code DoubleOverwritingRingBuffer} with the specified capacity.
+     *
+     * @param capacity the capacity of the ring buffer, a power of two.
+     * @throws IllegalArgumentException if the capacity is lesser than one or not a power of two.
+     */
+    public DoubleOverwritingRingBuffer(int capacity) {
+        if (capacity < 1) {
+            throw new IllegalArgumentException("Capacity cannot be lesser than one");
+        }
+        if (Integer.bitCount(capacity) != 1) {
+            throw new IllegalArgumentException("Capacity must be a power of two");
+        }
+        this.items = new double[capacity];
+        this.mask = capacity - 1;
+    }
+
+    @Override
+    public boolean isEmpty() {
+        return count == 0;
+    }
+
+    @Override
+    public int size() {
+        return count;
+    }
+
+    @Override
+    public int capacity() {
+        return items.length;
+    }
+
+    /**
+     * Enqueues the specified value into the buffer, overwriting the oldest value if the buffer is full.
+     *
+     * @param value the value to be enqueued.
+     * @return {@code true} always.
+     */
+    @Override
+    public boolean enqueue(double value) {
+        items[(start + count) & mask] = value;
+        if (count == items.length) {
+            start = (start + 1) & mask;
+        } else {
+            count++;
+        }
+        return true;
+    }
+
+    @Override
+    public double dequeue() {
+        if (count == 0) {
+            throw new NoSuchElementException("Buffer is empty");
+        }
+        final double res = items[start];
+        start = (start + 1) & mask;
+        count--;
+        return res;
+    }
+
+    /**
+     * Returns the value at {@code index} without removing it, 0 is the oldest.
+     *
+     * @param index position from the oldest value
+     * @return the value at index.
+     * @throws IndexOutOfBoundsException if index is not below {@link #size()}.
+     */
+    public double get(int index) {
+        if (index < 0 || index >= count) {
+            throw new IndexOutOfBoundsException("Index " + index + " out of bounds for size " + count);
+        }
+        return items[(start + index) & mask];
+    }
+
+    /**
+     * Enqueues all values in order, overwriting the oldest values if they do not fit. Only the last {@link #capacity()} values are
+     * copied when there are more.
+     *
+     * @param values the values to be enqueued.
+     * @return the new size of the buffer.
+     */
+    @Override
+    public int enqueueAll(double... values) {
+        final int capacity = items.length;
+        int from = 0;
+        int n = values.length;
+        if (n >= capacity) {
+            from = n - capacity;
+            n = capacity;
+            start = 0;
+            count = 0;
+        }
+        final int tail = (start + count) & mask;
+        final int first = Math.min(n, capacity - tail);
+        System.arraycopy(values, from, items, tail, first);
+        System.arraycopy(values, from + first, items, 0, n - first);
+        final int overflow = count + n - capacity;
+        if (overflow > 0) {
+            start = (start + overflow) & mask;
+            count = capacity;
+        } else {
+            count += n;
+        }
+        return count;
+    }
+
+    @Override
+    public int drainTo(double[] target) {
+        final int n = copyTo(target, Math.min(count, target.length));
+        start = (start + n) & mask;
+        count -= n;
+        return n;
+    }
+
+    /**
+     * Copies the values into a new array without removing them.
+     *
+     * @return the values of the buffer, oldest first.
+     */
+    public double[] toArray() {
+        final double[] result = new double[count];
+        copyTo(result, count);
+        return result;
+    }
+
+    /**
+     * Removes all values.
+     */
+    public void clear() {
+        start = 0;
+        count = 0;
+    }
+
+    @Override
+    public DoubleStream stream() {
+        return StreamSupport.doubleStream(Spliterators.spliterator(iterator(), count, Spliterator.ORDERED), false);
+    }
+
+    @Override
+    public PrimitiveIterator.OfDouble iterator() {
+        return new PrimitiveIterator.OfDouble() {
+            private int i = 0;
+
+            @Override
+            public boolean hasNext() {
+                return i < count;
+            }
+
+            @Override
+            public double nextDouble() {
+                if (i >= count) {
+                    throw new NoSuchElementException();
+                }
+                return items[(start + i++) & mask];
+            }
+        };
+    }
+
+    @Override
+    public void forEach(DoubleConsumer action) {
+        for (int i = 0; i < count; i++) {
+            action.accept(items[(start + i) & mask]);
+        }
+    }
+
+    @Override
+    public String toString() {
+        final StringJoiner sj = new StringJoiner(", ", "[", "]");
+        forEach(value -> sj.add(String.valueOf(value)));
+        return sj.toString();
+    }
+
+    private int copyTo(double[] target, int n) {
+        final int first = Math.min(n, items.length - start);
+        System.arraycopy(items, start, target, 0, first);
+        System.arraycopy(items, 0, target, first, n - first);
+        return n;
+    }
+}
@@ -0,0 +1,139 @@
+package com.abstractkamen.datastructures.impl.queues;
+
+import com.abstractkamen.datastructures.api.queues.ImmutableDeque;
+import com.abstractkamen.datastructures.api.stacks.ImmutableStack;
+import com.abstractkamen.datastructures.impl.stacks.ImmutableStackImpl;
+
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.StringJoiner;
+
+/**
+ * A double ended banker's queue made of two {@link ImmutableStackImpl}s, the front stack holds the front element on top and the
+ * back stack the back element. Pushes and pops at either end touch only the top of one stack.
+ * <p>
+ * Neither stack may run empty while the other one holds more than one element, otherwise a peek at the empty end would have to
+ * reach the bottom of the other stack. When a pop breaks this, the remaining stack is split in halves, one for each end. A split of
+ * {@code n} elements costs O(n) and leaves {@code n / 2} pops on either end before the next one, so a sequence of operations on the
+ * latest version costs amortized O(1) per operation and every peek is O(1).
+ * <p>
+ * Versions share their stacks and are never changed, any of them can be read by any thread. Like {@link ImmutableQueueImpl} the
+ * amortized bound holds for a single line of versions, popping repeatedly from an old version right before a split repeats the
+ * split.
+ *
+ * @param <T> type of elements
+ * @see ImmutableQueueImpl
+ */
+public class ImmutableDequeImpl<T> implements ImmutableDeque<T> {
+    private final ImmutableStack<T> front;
+    private final ImmutableStack<T> back;
+
+    /**
+     * Create an empty deque.
+     */
+    public ImmutableDequeImpl() {
+        this(new ImmutableStackImpl<>(), new ImmutableStackImpl<>());
+    }
+
+    private ImmutableDequeImpl(ImmutableStack<T> front, ImmutableStack<T> back) {
+        this.front = front;
+        this.back = back;
+    }
+
+    @Override
+    public ImmutableDeque<T> pushFront(T element) {
+        return balanced(front.push(element), back);
+    }
+
+    @Override
+    public ImmutableDeque<T> pushBack(T element) {
+        return balanced(front, back.push(element));
+    }
+
+    @Override
+    public ImmutableDeque<T> popFront() {
+        if (front.isEmpty()) {
+            if (back.isEmpty()) {
+                throw new NoSuchElementException();
+            }
+            return new ImmutableDequeImpl<>(front, back.pop());
+        }
+        return balanced(front.pop(), back);
+    }
+
+    @Override
+    public ImmutableDeque<T> popBack() {
+        if (back.isEmpty()) {
+            if (front.isEmpty()) {
+                throw new NoSuchElementException();
+            }
+            return new ImmutableDequeImpl<>(front.pop(), back);
+        }
+        return balanced(front, back.pop());
+    }
+
+    @Override
+    public T peekFront() {
+        return front.isEmpty() ? back.peek() : front.peek();
+    }
+
+    @Override
+    public T peekBack() {
+        return back.isEmpty() ? front.peek() : back.peek();
+    }
+
+    @Override
+    public int size() {
+        return front.depth() + back.depth();
+    }
+
+    @Override
+    public boolean isEmpty() {
+        return front.isEmpty() && back.isEmpty();
+    }
+
+    /**
+     * Iterates from the front of the deque to the back. The back stack is copied into an array when the iteration reaches it.
+     *
+     * @return an iterator over the elements of this version
+     */
+    @Override
+    public Iterator<T> iterator() {
+        return new ImmutableQueueImpl.FrontToBackIterator<>(front, back);
+    }
+
+    @Override
+    public String toString() {
+        final StringJoiner sj = new StringJoiner(", ", "[", "]");
+        for (T element : this) {
+            sj.add(String.valueOf(element));
+        }
+        return sj.toString();
+    }
+
+    private static <T> ImmutableDeque<T> balanced(ImmutableStack<T> front, ImmutableStack<T> back) {
+        if ((front.isEmpty() && back.depth() > 1) || (back.isEmpty() && front.depth() > 1)) {
+            return split(front, back);
+        }
+        return new ImmutableDequeImpl<>(front, back);
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <T> ImmutableDeque<T> split(ImmutableStack<T> front, ImmutableStack<T> back) {
+        final Object[] elements = new Object[front.depth() + back.depth()];
+        int i = 0;
+        for (Iterator<T> it = new ImmutableQueueImpl.FrontToBackIterator<>(front, back); it.hasNext(); ) {
+            elements[i++] = it.next();
+        }
+        final int half = elements.length / 2;
+        ImmutableStack<T> newFront = new ImmutableStackImpl<>();
+        for (int j = half - 1; j >= 0; j--) {
+            newFront = newFront.push((T) elements[j]);
+        }
+        ImmutableStack<T> newBack = new ImmutableStackImpl<>();
+        for (int j = half; j < elements.length; j++) {
+            newBack = newBack.push((T) elements[j]);
+        }
+        return new ImmutableDequeImpl<>(newFront, newBack);
+    }
+}
@@ -0,0 +1,139 @@
+package com.abstractkamen.datastructures.impl.queues;
+
+import com.abstractkamen.datastructures.api.queues.ImmutableQueue;
+import com.abstractkamen.datastructures.api.stacks.ImmutableStack;
+import com.abstractkamen.datastructures.impl.stacks.ImmutableStackImpl;
+
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.StringJoiner;
+
+/**
+ * A banker's queue made of two {@link ImmutableStackImpl}s. Elements are enqueued onto the back stack and dequeued from the front
+ * stack, when the front stack runs empty the back stack is reversed into it. Every element is pushed onto the back, moved to the
+ * front and popped once, so a sequence of operations on the latest version costs amortized O(1) per operation.
+ * <p>
+ * The queue keeps the front stack non-empty unless the whole queue is empty, so {@link #peek()} is O(1). Versions share their
+ * stacks and are never changed, any of them can be read by any thread. Dequeuing repeatedly from the same old version whose front
+ * stack is about to run empty repeats its reversal, the amortized bound holds for a single line of versions.
+ *
+ * @param <T> type of elements
+ * @see ImmutableStackImpl
+ */
+public class ImmutableQueueImpl<T> implements ImmutableQueue<T> {
+    private final ImmutableStack<T> front;
+    private final ImmutableStack<T> back;
+
+    /**
+     * Create an empty queue.
+     */
+    public ImmutableQueueImpl() {
+        this(new ImmutableStackImpl<>(), new ImmutableStackImpl<>());
+    }
+
+    private ImmutableQueueImpl(ImmutableStack<T> front, ImmutableStack<T> back) {
+        this.front = front;
+        this.back = back;
+    }
+
+    @Override
+    public ImmutableQueue<T> enqueue(T element) {
+        if (front.isEmpty()) {
+            return new ImmutableQueueImpl<>(front.push(element), back);
+        }
+        return new ImmutableQueueImpl<>(front, back.push(element));
+    }
+
+    @Override
+    public ImmutableQueue<T> dequeue() {
+        if (front.isEmpty()) {
+            throw new NoSuchElementException();
+        }
+        final ImmutableStack<T> rest = front.pop();
+        if (rest.isEmpty()) {
+            return new ImmutableQueueImpl<>(reverse(back), rest);
+        }
+        return new ImmutableQueueImpl<>(rest, back);
+    }
+
+    @Override
+    public T peek() {
+        return front.peek();
+    }
+
+    @Override
+    public int size() {
+        return front.depth() + back.depth();
+    }
+
+    @Override
+    public boolean isEmpty() {
+        return front.isEmpty();
+    }
+
+    /**
+     * Iterates from the front of the queue to the back. The back stack is copied into an array when the iteration reaches it.
+     *
+     * @return an iterator over the elements of this version
+     */
+    @Override
+    public Iterator<T> iterator() {
+        return new FrontToBackIterator<>(front, back);
+    }
+
+    @Override
+    public String toString() {
+        final StringJoiner sj = new StringJoiner(", ", "[", "]");
+        for (T element : this) {
+            sj.add(String.valueOf(element));
+        }
+        return sj.toString();
+    }
+
+    private static <T> ImmutableStack<T> reverse(ImmutableStack<T> stack) {
+        ImmutableStack<T> reversed = new ImmutableStackImpl<>();
+        for (T element : stack) {
+            reversed = reversed.push(element);
+        }
+        return reversed;
+    }
+
+    /**
+     * Iterates a front stack top first and then a back stack bottom first, shared with {@link ImmutableDequeImpl}.
+     */
+    static final class FrontToBackIterator<T> implements Iterator<T> {
+        private final Iterator<T> front;
+        private ImmutableStack<T> back;
+        private Object[] backElements;
+        private int i;
+
+        FrontToBackIterator(ImmutableStack<T> front, ImmutableStack<T> back) {
+            this.front = front.iterator();
+            this.back = back;
+        }
+
+        @Override
+        public boolean hasNext() {
+            return front.hasNext() || (backElements == null ? !back.isEmpty() : i > 0);
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        public T next() {
+            if (front.hasNext()) {
+                return front.next();
+            }
+            if (backElements == null) {
+                backElements = new Object[back.depth()];
+                for (T element : back) {
+                    backElements[i++] = element;
+                }
+                back = null;
+            }
+            if (i == 0) {
+                throw new NoSuchElementException();
+            }
+            return (T) backElements[--i];
+        }
+    }
+}
@@ -0,0 +1,360 @@
+package com.abstractkamen.datastructures.impl.queues;
+
+import com.abstractkamen.datastructures.api.queues.RingBuffer;
+import com.abstractkamen.datastructures.impl.utils.DirectBuffers;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.StringJoiner;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/**
+ * A ring buffer of byte records kept in a memory-mapped file, which overwrites the oldest record when full like
+ * {@link OverwritingRingBuffer} and survives a restart of the process. Opening the same file again with the same record size and
+ * capacity continues where the previous buffer stopped.
+ * <p>
+ * A record is any {@code 0..maxRecordSize} bytes. Every record occupies a slot of a 4 byte length and {@code maxRecordSize} bytes
+ * rounded up to a multiple of 8, so the position of a record is computed like in {@link DirectRecordRingBuffer} and nothing has to
+ * be scanned on reopen. The file starts with a 32 byte header of a magic number, a version, the record size, the capacity and
+ * {@code start} and {@code count} packed into one {@code long}, which is written with a single store after the record itself, so
+ * a process which dies in the middle of {@link #enqueue(ByteBuffer)} leaves the previous state behind. When the buffer is full the
+ * slot being written holds the oldest record, so the state dropping that record is stored before the slot is touched, and a process
+ * which dies in between reopens without the oldest record instead of with a torn one. Everything is little-endian.
+ * <p>
+ * Writes go to the page cache and survive a crash of the process but not of the machine, {@link #force()} flushes them to the
+ * storage device. {@link #get(int)}, {@link #iterator()} and {@link #stream()} return read-only views of the mapped records
+ * without copying them, a view shows the slot and not the record, so it changes once the record is overwritten. {@link #dequeue()}
+ * returns a copy because its slot is free for the next record right away.
+ * <p>
+ * {@link #close()} unmaps the file right away, views must not be used after that. This class is not thread safe.
+ *
+ * @see DirectRecordRingBuffer
+ */
+public class MappedRingBuffer implements RingBuffer<ByteBuffer>, AutoCloseable {
+    private static final long MAGIC = 0x4D52494E47425546L; // "MRINGBUF"
+    private static final int VERSION = 1;
+    private static final int MAGIC_OFFSET = 0;
+    private static final int VERSION_OFFSET = 8;
+    private static final int RECORD_SIZE_OFFSET = 12;
+    private static final int CAPACITY_OFFSET = 16;
+    private static final int STATE_OFFSET = 24;
+    private static final int HEADER_SIZE = 32;
+    private final Path file;
+    private final int maxRecordSize;
+    private final int stride;
+    private final int mask;
+    private final int capacity;
+    private MappedByteBuffer buffer;
+    private int start;
+    private int count;
+
+    /**
+     * Opens the ring buffer stored in {@code file}, creating the file if it does not exist or is empty.
+     *
+     * @param file          the file which holds the buffer
+     * @param maxRecordSize the maximum size of a record in bytes
+     * @param capacity      the number of records, a power of two
+     * @throws IllegalArgumentException if maxRecordSize or capacity is lesser than one, capacity is not a power of two, the records
+     *                                  do not fit in a single mapping or the file was created with another record size or capacity
+     * @throws IOException              if the file cannot be opened or mapped or is not a ring buffer file
+     */
+    public MappedRingBuffer(Path file, int maxRecordSize, int capacity) throws IOException {
+        if (maxRecordSize < 1) {
+            throw new IllegalArgumentException("Record size cannot be lesser than one");
+        }
+        if (capacity < 1) {
+            throw new IllegalArgumentException("Capacity cannot be lesser than one");
+        }
+        if (Integer.bitCount(capacity) != 1) {
+            throw new IllegalArgumentException("Capacity must be a power of two");
+        }
+        final long stride = (Integer.BYTES + maxRecordSize + 7L) & ~7L;
+        final long size = HEADER_SIZE + stride * capacity;
+        if (size > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("Records do not fit in a single mapping");
+        }
+        this.file = file;
+        this.maxRecordSize = maxRecordSize;
+        this.stride = (int) stride;
+        this.capacity = capacity;
+        this.mask = capacity - 1;
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.READ,
+                                                    StandardOpenOption.WRITE)) {
+            final boolean created = channel.size() == 0;
+            if (!created && channel.size() != size) {
+                throw new IllegalArgumentException(
+                    "File " + file + " has " + channel.size() + " bytes, expected " + size + " for record size " + maxRecordSize +
+                    " and capacity " + capacity);
+            }
+            this.buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, size);
+        }
+        buffer.order(ByteOrder.LITTLE_ENDIAN);
+        if (buffer.getLong(MAGIC_OFFSET) == 0 && buffer.getInt(VERSION_OFFSET) == 0) {
+            writeHeader();
+        } else {
+            try {
+                readHeader();
+            } catch (IOException | RuntimeException e) {
+                DirectBuffers.free(buffer);
+                throw e;
+            }
+        }
+    }
+
+    /**
+     * Returns the file which holds this buffer.
+     *
+     * @return the file of the buffer.
+     */
+    public Path file() {
+        return file;
+    }
+
+    /**
+     * Returns the maximum size of a record.
+     *
+     * @return the maximum size of a record in bytes.
+     */
+    public int maxRecordSize() {
+        return maxRecordSize;
+    }
+
+    @Override
+    public boolean isEmpty() {
+        return count == 0;
+    }
+
+    @Override
+    public int size() {
+        return count;
+    }
+
+    @Override
+    public int capacity() {
+        return capacity;
+    }
+
+    /**
+     * Copies the remaining bytes of {@code record} into the file, overwriting the oldest record if the buffer is full. The position
+     * of {@code record} does not change.
+     *
+     * @param record the record to be enqueued
+     * @return {@code true} always.
+     * @throws IllegalArgumentException if more than {@link #maxRecordSize()} bytes remain in record
+     * @throws IllegalStateException    if the buffer is closed
+     */
+    @Override
+    public boolean enqueue(ByteBuffer record) {
+        ensureOpen();
+        final int length = record.remaining();
+        if (length > maxRecordSize) {
+            throw new IllegalArgumentException("Record has " + length + " bytes, expected at most " + maxRecordSize);
+        }
+        final int slot = offset((start + count) & mask);
+        if (count == capacity) {
+            // the slot holds the oldest record, drop it before overwriting it
+            start = (start + 1) & mask;
+            count--;
+            writeState();
+        }
+        buffer.putInt(slot, length);
+        buffer.put(slot + Integer.BYTES, record, record.position(), length);
+        count++;
+        writeState();
+        return true;
+    }
+
+    /**
+     * Enqueues {@code record}, see {@link #enqueue(ByteBuffer)}.
+     *
+     * @param record the record to be enqueued
+     * @return {@code true} always.
+     * @throws IllegalArgumentException if record is longer than {@link #maxRecordSize()}
+     * @throws IllegalStateException    if the buffer is closed
+     */
+    public boolean enqueue(byte[] record) {
+        return enqueue(ByteBuffer.wrap(record));
+    }
+
+    /**
+     * Removes the oldest record and returns a copy of it.
+     *
+     * @return the oldest record in a new heap buffer.
+     * @throws NoSuchElementException if the buffer is empty
+     * @throws IllegalStateException  if the buffer is closed
+     */
+    @Override
+    public ByteBuffer dequeue() {
+        ensureOpen();
+        if (count == 0) {
+            throw new NoSuchElementException("Buffer is empty");
+        }
+        final ByteBuffer view = view(start);
+        final ByteBuffer result = ByteBuffer.allocate(view.remaining()).put(view).flip();
+        start = (start + 1) & mask;
+        count--;
+        writeState();
+        return result;
+    }
+
+    /**
+     * Returns a read-only view of the record at {@code index} without copying or removing it, 0 is the oldest.
+     *
+     * @param index position from the oldest record
+     * @return a view of the record, valid until the record is overwritten or the buffer is closed.
+     * @throws IndexOutOfBoundsException if index is not below {@link #size()}
+     * @throws IllegalStateException     if the buffer is closed
+     */
+    public ByteBuffer get(int index) {
+        ensureOpen();
+        if (index < 0 || index >= count) {
+            throw new IndexOutOfBoundsException("Index " + index + " out of bounds for size " + count);
+        }
+        return view((start + index) & mask);
+    }
+
+    /**
+     * Removes all records.
+     *
+     * @throws IllegalStateException if the buffer is closed
+     */
+    public void clear() {
+        ensureOpen();
+        start = 0;
+        count = 0;
+        writeState();
+    }
+
+    /**
+     * Writes the changes of this buffer to the storage device.
+     *
+     * @throws IllegalStateException if the buffer is closed
+     */
+    public void force() {
+        ensureOpen();
+        buffer.force();
+    }
+
+    /**
+     * Flushes and unmaps the file. Any further operation but {@link #size()}, {@link #isEmpty()} and {@code close()} throws
+     * {@link IllegalStateException}, the views returned before must not be used. Closing a closed buffer has no effect.
+     */
+    @Override
+    public void close() {
+        if (buffer == null) {
+            return;
+        }
+        buffer.force();
+        DirectBuffers.free(buffer);
+        buffer = null;
+    }
+
+    @Override
+    public Stream<ByteBuffer> stream() {
+        return StreamSupport.stream(Spliterators.spliterator(iterator(), count, Spliterator.ORDERED), false);
+    }
+
+    /**
+     * Returns an iterator over read-only views of the records, oldest first, see {@link #get(int)}.
+     *
+     * @return an iterator over the records in the buffer.
+     * @throws IllegalStateException if the buffer is closed
+     */
+    @Override
+    public Iterator<ByteBuffer> iterator() {
+        ensureOpen();
+        return new Iterator<>() {
+            private int i = 0;
+
+            @Override
+            public boolean hasNext() {
+                return i < count;
+            }
+
+            @Override
+            public ByteBuffer next() {
+                if (i >= count) {
+                    throw new NoSuchElementException();
+                }
+                return get(i++);
+            }
+        };
+    }
+
+    @Override
+    public String toString() {
+        final StringJoiner sj = new StringJoiner(", ", "MappedRingBuffer{", "}");
+        sj.add("file=" + file).add("maxRecordSize=" + maxRecordSize).add("size=" + count).add("capacity=" + capacity);
+        if (buffer == null) {
+            sj.add("closed");
+        }
+        return sj.toString();
+    }
+
+    private ByteBuffer view(int slot) {
+        final int offset = offset(slot);
+        final int length = buffer.getInt(offset);
+        return buffer.slice(offset + Integer.BYTES, length).asReadOnlyBuffer();
+    }
+
+    private int offset(int slot) {
+        return HEADER_SIZE + slot * stride;
+    }
+
+    private void writeHeader() {
+        buffer.putLong(MAGIC_OFFSET, MAGIC);
+        buffer.putInt(VERSION_OFFSET, VERSION);
+        buffer.putInt(RECORD_SIZE_OFFSET, maxRecordSize);
+        buffer.putInt(CAPACITY_OFFSET, capacity);
+        writeState();
+    }
+
+    private void readHeader() throws IOException {
+        if (buffer.getLong(MAGIC_OFFSET) != MAGIC) {
+            throw new IOException("File " + file + " is not a ring buffer file");
+        }
+        if (buffer.getInt(VERSION_OFFSET) != VERSION) {
+            throw new IOException("File " + file + " has unsupported version " + buffer.getInt(VERSION_OFFSET));
+        }
+        // the sizes match, but the same bytes can be split into records differently
+        if (buffer.getInt(RECORD_SIZE_OFFSET) != maxRecordSize || buffer.getInt(CAPACITY_OFFSET) != capacity) {
+            throw new IllegalArgumentException(
+                "File " + file + " was created with record size " + buffer.getInt(RECORD_SIZE_OFFSET) + " and capacity " +
+                buffer.getInt(CAPACITY_OFFSET));
+        }
+        final long state = buffer.getLong(STATE_OFFSET);
+        final int start = (int) (state >>> 32);
+        final int count = (int) state;
+        if (start < 0 || start >= capacity || count < 0 || count > capacity) {
+            throw new IOException("File " + file + " has corrupt start " + start + " and count " + count);
+        }
+        for (int i = 0; i < count; i++) {
+            final int length = buffer.getInt(offset((start + i) & mask));
+            if (length < 0 || length > maxRecordSize) {
+                throw new IOException("File " + file + " has corrupt record of " + length + " bytes at index " + i);
+            }
+        }
+        this.start = start;
+        this.count = count;
+    }
+
+    private void writeState() {
+        buffer.putLong(STATE_OFFSET, (long) start << 32 | count);
+    }
+
+    private void ensureOpen() {
+        if (buffer == null) {
+            throw new IllegalStateException("buffer is closed");
+        }
+    }
+}
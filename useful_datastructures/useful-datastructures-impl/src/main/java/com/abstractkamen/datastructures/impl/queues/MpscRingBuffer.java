@@ -0,0 +1,218 @@
+package com.abstractkamen.datastructures.impl.queues;
+
+import com.abstractkamen.datastructures.api.queues.RingBuffer;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.Objects;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.StringJoiner;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/**
+ * A bounded lock-free ring buffer for any number of producer threads and exactly one consumer thread, for example many threads
+ * handing log records to a single writer. Like {@link SpscRingBuffer} it never overwrites, {@link #offer(Object)} returns
+ * {@code false} when the buffer is full and {@link #poll()} returns {@code null} when it is empty.
+ * <p>
+ * A producer claims a position by a compare and set of the {@code tail} sequence and then publishes its item with a release store
+ * into the claimed slot, so the consumer tells a published slot from a claimed one by the slot not being null. The producers share
+ * a cached limit of {@code head + capacity} and read the consumer's {@code head} only when the limit says the buffer is full. The
+ * consumer frees a slot and hands it back by a release store of {@code head}.
+ * <p>
+ * When a producer was descheduled between claiming and publishing, {@link #poll()} spins until the item appears, as the items
+ * behind it must not be returned before it. {@link #size()} and {@link #isEmpty()} may be called from any thread and are exact only
+ * while the buffer is not modified. Iteration must be done by the consumer thread or while no thread modifies the buffer. This
+ * implementation does not permit null elements.
+ *
+ * @param <T> the type of elements stored in the buffer.
+ * @see SpscRingBuffer
+ */
+public class MpscRingBuffer<T> implements RingBuffer<T> {
+    private static final VarHandle ITEMS = MethodHandles.arrayElementVarHandle(Object[].class);
+    private final Object[] items;
+    private final int mask;
+    /**
+     * Next position to claim, shared by the producers.
+     */
+    private final Sequence tail = new Sequence(0);
+    /**
+     * A position below which every producer may claim, {@code head + capacity} as last read by some producer.
+     */
+    private final Sequence producerLimit;
+    /**
+     * Next position to read, owned by the consumer.
+     */
+    private final Sequence head = new Sequence(0);
+
+    /**
+     * Constructs a new {@code MpscRingBuffer} with the specified capacity.
+     *
+     * @param capacity the capacity of the ring buffer, a power of two.
+     * @throws IllegalArgumentException if the capacity is lesser than one or not a power of two.
+     */
+    public MpscRingBuffer(int capacity) {
+        if (capacity < 1) {
+            throw new IllegalArgumentException("Capacity cannot be lesser than one");
+        }
+        if (Integer.bitCount(capacity) != 1) {
+            throw new IllegalArgumentException("Capacity must be a power of two");
+        }
+        this.items = new Object[capacity];
+        this.mask = capacity - 1;
+        this.producerLimit = new Sequence(capacity);
+    }
+
+    @Override
+    public boolean isEmpty() {
+        return size() == 0;
+    }
+
+    @Override
+    public int size() {
+        final long h = head.getAcquire();
+        final long t = tail.getAcquire();
+        return (int) Math.max(0, Math.min(t - h, items.length));
+    }
+
+    @Override
+    public int capacity() {
+        return items.length;
+    }
+
+    /**
+     * Same as {@link #offer(Object)}, the buffer never overwrites.
+     *
+     * @param item the item to be enqueued.
+     * @return {@code true} if item is successfully enqueued, {@code false} if the buffer is full.
+     * @throws NullPointerException if item is null.
+     */
+    @Override
+    public boolean enqueue(T item) {
+        return offer(item);
+    }
+
+    /**
+     * Dequeues and returns the oldest item from the buffer. Must be called by the consumer thread.
+     *
+     * @return the oldest item in the buffer.
+     * @throws NoSuchElementException if the buffer is empty.
+     */
+    @Override
+    public T dequeue() {
+        final T item = poll();
+        if (item == null) {
+            throw new NoSuchElementException("Buffer is empty");
+        }
+        return item;
+    }
+
+    /**
+     * Enqueues the specified item unless the buffer is full. May be called by any thread.
+     *
+     * @param item the item to be enqueued.
+     * @return {@code true} if item is successfully enqueued, {@code false} if the buffer is full.
+     * @throws NullPointerException if item is null.
+     */
+    @Override
+    public boolean offer(T item) {
+        Objects.requireNonNull(item);
+        long limit = producerLimit.getAcquire();
+        long t;
+        do {
+            t = tail.getVolatile();
+            if (t >= limit) {
+                limit = head.getAcquire() + items.length;
+                if (t >= limit) {
+                    return false;
+                }
+                // a racing producer may store an older limit, which is merely conservative
+                producerLimit.setRelease(limit);
+            }
+        } while (!tail.compareAndSet(t, t + 1));
+        ITEMS.setRelease(items, (int) t & mask, item);
+        return true;
+    }
+
+    /**
+     * Dequeues the oldest item unless the buffer is empty. Must be called by the consumer thread.
+     *
+     * @return the oldest item in the buffer, or {@code null} if the buffer is empty.
+     */
+    @Override
+    @SuppressWarnings("unchecked")
+    public T poll() {
+        final long h = head.getPlain();
+        final int i = (int) h & mask;
+        T item = (T) ITEMS.getAcquire(items, i);
+        if (item == null) {
+            if (h >= tail.getVolatile()) {
+                return null;
+            }
+            // claimed but not published yet
+            do {
+                Thread.onSpinWait();
+                item = (T) ITEMS.getAcquire(items, i);
+            } while (item == null);
+        }
+        items[i] = null;
+        head.setRelease(h + 1);
+        return item;
+    }
+
+    /**
+     * Returns a sequential {@link java.util.stream.Stream} of items in the buffer, see {@link #iterator()}.
+     *
+     * @return a sequential stream of items in the buffer.
+     */
+    @Override
+    public Stream<T> stream() {
+        return StreamSupport.stream(spliterator(), false);
+    }
+
+    @Override
+    public Spliterator<T> spliterator() {
+        return Spliterators.spliterator(iterator(), size(), Spliterator.ORDERED | Spliterator.NONNULL);
+    }
+
+    /**
+     * Iterates from the oldest item up to the newest published one present when the iterator was created, stopping early at a
+     * claimed but unpublished slot. Must be used by the consumer thread or while no thread modifies the buffer.
+     *
+     * @return an iterator over the items in the buffer.
+     */
+    @Override
+    @SuppressWarnings("unchecked")
+    public Iterator<T> iterator() {
+        final long h = head.getAcquire();
+        final long t = tail.getAcquire();
+        return new Iterator<>() {
+            private long i = h;
+
+            @Override
+            public boolean hasNext() {
+                return i < t && ITEMS.getAcquire(items, (int) i & mask) != null;
+            }
+
+            @Override
+            public T next() {
+                if (!hasNext()) {
+                    throw new NoSuchElementException();
+                }
+                return (T) items[(int) i++ & mask];
+            }
+        };
+    }
+
+    @Override
+    public String toString() {
+        final StringJoiner sj = new StringJoiner(", ", "[", "]");
+        for (T item : this) {
+            sj.add(String.valueOf(item));
+        }
+        return sj.toString();
+    }
+}
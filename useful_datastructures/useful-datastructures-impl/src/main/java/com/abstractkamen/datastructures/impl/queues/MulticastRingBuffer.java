@@ -0,0 +1,327 @@
+package com.abstractkamen.datastructures.impl.queues;
+
+import java.util.Arrays;
+import java.util.Objects;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+
+/**
+ * A ring of pre-allocated events which one producer thread publishes to and every {@link Reader} reads, in the style of the LMAX
+ * Disruptor. Publishing fills an existing event in place, so nothing is allocated per event, and every reader sees every event.
+ * <p>
+ * Events are numbered by a {@code long} sequence, the event of sequence {@code s} lives at index {@code s & mask} like in
+ * {@link OverwritingRingBuffer}. The producer claims the next sequence with {@link #next()}, fills {@link #get(long)} and makes it
+ * visible with {@link #publish(long)}, or does all three with {@link #publish(Consumer)}. A sequence is claimed only once every
+ * reader is done with the event which was at its index one lap before, so a slow reader holds the producer back instead of
+ * missing events. Without readers the producer never waits.
+ * <p>
+ * Each reader tracks its own padded {@link Sequence} and is polled by its own thread. {@link Reader#poll(EventHandler)} hands
+ * everything published since the previous poll to the handler as one batch and releases the whole batch with a single store, so a
+ * reader which fell behind catches up with one cross thread handshake per batch instead of one per event.
+ * <p>
+ * Readers should be created before the producer starts, a reader created later receives the events published after it was
+ * created.
+ *
+ * @param <E> the type of the events.
+ * @see SpscRingBuffer
+ */
+public class MulticastRingBuffer<E> {
+    private static final Reader<?>[] NO_READERS = new Reader<?>[0];
+    private final Object[] events;
+    private final int mask;
+    /**
+     * Last published sequence, its cache is the producer's last read of the slowest reader.
+     */
+    private final Sequence cursor = new Sequence(-1);
+    /**
+     * Next sequence to claim, only touched by the producer.
+     */
+    private long nextSequence;
+    private volatile Reader<?>[] readers = NO_READERS;
+
+    /**
+     * Handles the events of a batch, see {@link Reader#poll(EventHandler)}.
+     *
+     * @param <E> the type of the events.
+     */
+    @FunctionalInterface
+    public interface EventHandler<E> {
+        /**
+         * Called for every event of a batch in sequence order. The event must not be retained, the producer reuses it one lap later.
+         *
+         * @param event      the event
+         * @param sequence   the sequence of the event
+         * @param endOfBatch {@code true} for the last event of the batch, a good moment to flush
+         */
+        void onEvent(E event, long sequence, boolean endOfBatch);
+    }
+
+    /**
+     * Constructs a new {@code MulticastRingBuffer} filled with {@code capacity} events from {@code eventFactory}.
+     *
+     * @param eventFactory creates the reusable events
+     * @param capacity     the number of events, a power of two
+     * @throws IllegalArgumentException if the capacity is lesser than one or not a power of two.
+     */
+    public MulticastRingBuffer(Supplier<? extends E> eventFactory, int capacity) {
+        if (capacity < 1) {
+            throw new IllegalArgumentException("Capacity cannot be lesser than one");
+        }
+        if (Integer.bitCount(capacity) != 1) {
+            throw new IllegalArgumentException("Capacity must be a power of two");
+        }
+        this.events = new Object[capacity];
+        this.mask = capacity - 1;
+        for (int i = 0; i < capacity; i++) {
+            events[i] = Objects.requireNonNull(eventFactory.get());
+        }
+    }
+
+    /**
+     * Returns the number of events in the ring.
+     *
+     * @return the capacity of the ring.
+     */
+    public int capacity() {
+        return events.length;
+    }
+
+    /**
+     * Returns the last published sequence.
+     *
+     * @return the last published sequence, -1 if nothing was published yet.
+     */
+    public long cursor() {
+        return cursor.getAcquire();
+    }
+
+    /**
+     * Claims the next sequence, waiting until every reader is done with the event one lap before it. Must be called by the
+     * producer thread and followed by {@link #publish(long)}.
+     *
+     * @return the claimed sequence.
+     */
+    public long next() {
+        final long n = nextSequence;
+        final long wrapPoint = n - events.length;
+        if (wrapPoint > cursor.cache) {
+            long min;
+            while (wrapPoint > (min = minimumReaderSequence(n - 1))) {
+                Thread.onSpinWait();
+            }
+            cursor.cache = min;
+        }
+        nextSequence = n + 1;
+        return n;
+    }
+
+    /**
+     * Claims the next sequence unless a reader is still using the event one lap before it. Must be called by the producer thread
+     * and, if successful, followed by {@link #publish(long)}.
+     *
+     * @return the claimed sequence, or -1 if the ring is full.
+     */
+    public long tryNext() {
+        final long n = nextSequence;
+        final long wrapPoint = n - events.length;
+        if (wrapPoint > cursor.cache) {
+            final long min = minimumReaderSequence(n - 1);
+            if (wrapPoint > min) {
+                return -1;
+            }
+            cursor.cache = min;
+        }
+        nextSequence = n + 1;
+        return n;
+    }
+
+    /**
+     * Returns the event of a claimed sequence so that the producer can fill it.
+     *
+     * @param sequence a claimed or published sequence
+     * @return the event at the index of the sequence.
+     */
+    @SuppressWarnings("unchecked")
+    public E get(long sequence) {
+        return (E) events[(int) sequence & mask];
+    }
+
+    /**
+     * Makes the event of {@code sequence} and everything written to it visible to the readers. Must be called by the producer thread
+     * in claim order.
+     *
+     * @param sequence the sequence returned by {@link #next()} or {@link #tryNext()}
+     */
+    public void publish(long sequence) {
+        cursor.setRelease(sequence);
+    }
+
+    /**
+     * Claims the next sequence, lets {@code translator} fill its event and publishes it. Must be called by the producer thread.
+     *
+     * @param translator fills the event
+     * @return the published sequence.
+     */
+    public long publish(Consumer<? super E> translator) {
+        final long sequence = next();
+        translator.accept(get(sequence));
+        publish(sequence);
+        return sequence;
+    }
+
+    /**
+     * Like {@link #publish(Consumer)} but returns right away if the ring is full.
+     *
+     * @param translator fills the event
+     * @return {@code true} if an event was published, {@code false} if the ring is full.
+     */
+    public boolean tryPublish(Consumer<? super E> translator) {
+        final long sequence = tryNext();
+        if (sequence < 0) {
+            return false;
+        }
+        translator.accept(get(sequence));
+        publish(sequence);
+        return true;
+    }
+
+    /**
+     * Creates a reader which receives every event published from now on. The producer waits for it until it is
+     * {@link Reader#close() closed}.
+     *
+     * @return a new reader.
+     */
+    public synchronized Reader<E> newReader() {
+        final Reader<E> reader = new Reader<>(this, cursor.getAcquire());
+        final Reader<?>[] current = readers;
+        final Reader<?>[] updated = Arrays.copyOf(current, current.length + 1);
+        updated[current.length] = reader;
+        readers = updated;
+        // events published while the reader was added are skipped rather than half seen
+        reader.sequence.setRelease(cursor.getAcquire());
+        return reader;
+    }
+
+    /**
+     * Returns the number of open readers.
+     *
+     * @return the number of readers.
+     */
+    public int readerCount() {
+        return readers.length;
+    }
+
+    private synchronized void remove(Reader<?> reader) {
+        final Reader<?>[] current = readers;
+        for (int i = 0; i < current.length; i++) {
+            if (current[i] == reader) {
+                final Reader<?>[] updated = new Reader<?>[current.length - 1];
+                System.arraycopy(current, 0, updated, 0, i);
+                System.arraycopy(current, i + 1, updated, i, updated.length - i);
+                readers = updated;
+                return;
+            }
+        }
+    }
+
+    private long minimumReaderSequence(long max) {
+        long min = max;
+        for (Reader<?> reader : readers) {
+            min = Math.min(min, reader.sequence.getAcquire());
+        }
+        return min;
+    }
+
+    @Override
+    public String toString() {
+        return "MulticastRingBuffer{capacity=" + events.length + ", cursor=" + cursor + ", readers=" + readers.length + '}';
+    }
+
+    /**
+     * Reads the events of a {@link MulticastRingBuffer}. A reader belongs to a single thread.
+     *
+     * @param <E> the type of the events.
+     */
+    public static final class Reader<E> implements AutoCloseable {
+        private final MulticastRingBuffer<E> ring;
+        /**
+         * Last handled sequence, its cache is the reader's last read of the cursor.
+         */
+        private final Sequence sequence;
+
+        private Reader(MulticastRingBuffer<E> ring, long start) {
+            this.ring = ring;
+            this.sequence = new Sequence(start);
+        }
+
+        /**
+         * Hands every event published since the previous poll to {@code handler} as one batch.
+         *
+         * @param handler receives the events in sequence order
+         * @return the number of handled events, 0 if nothing new was published.
+         */
+        public int poll(EventHandler<? super E> handler) {
+            return poll(handler, Integer.MAX_VALUE);
+        }
+
+        /**
+         * Hands up to {@code maxBatch} events published since the previous poll to {@code handler} as one batch. If the handler
+         * throws, the events before the failed one count as handled and the failed one is handed over again by the next poll.
+         *
+         * @param handler  receives the events in sequence order
+         * @param maxBatch the maximum number of events to handle
+         * @return the number of handled events, 0 if nothing new was published.
+         * @throws IllegalArgumentException if maxBatch is lesser than one.
+         */
+        public int poll(EventHandler<? super E> handler, int maxBatch) {
+            if (maxBatch < 1) {
+                throw new IllegalArgumentException("maxBatch cannot be lesser than one");
+            }
+            final long first = sequence.getPlain() + 1;
+            long available = sequence.cache;
+            if (first > available) {
+                available = ring.cursor.getAcquire();
+                sequence.cache = available;
+                if (first > available) {
+                    return 0;
+                }
+            }
+            final long last = Math.min(available, first + maxBatch - 1);
+            long s = first;
+            try {
+                for (; s <= last; s++) {
+                    handler.onEvent(ring.get(s), s, s == last);
+                }
+            } finally {
+                sequence.setRelease(s - 1);
+            }
+            return (int) (last - first + 1);
+        }
+
+        /**
+         * Returns how far this reader is behind the producer.
+         *
+         * @return the number of published events this reader has not handled yet.
+         */
+        public long lag() {
+            return ring.cursor.getAcquire() - sequence.getAcquire();
+        }
+
+        /**
+         * Returns the last handled sequence.
+         *
+         * @return the last handled sequence.
+         */
+        public long sequence() {
+            return sequence.getAcquire();
+        }
+
+        /**
+         * Stops the producer from waiting for this reader. Closing a closed reader has no effect.
+         */
+        @Override
+        public void close() {
+            ring.remove(this);
+        }
+    }
+}
@@ -5,13 +5,17 @@ import com.abstractkamen.datastructures.api.queues.RingBuffer;
 import java.util.Iterator;
 import java.util.NoSuchElementException;
 import java.util.Spliterator;
-import java.util.Spliterators;
-import java.util.StringJoiner;
+import java.util.function.Consumer;
 import java.util.stream.Stream;
 import java.util.stream.StreamSupport;
 
 /**
  * Represents a ring buffer that overwrites the oldest element when full.
+ * <p>
+ * The items occupy at most two contiguous segments of the backing array, from {@code start} to the end of the array and from the
+ * beginning of the array up to the newest item. {@link #forEach(Consumer)} and {@link #drainTo(Object[], int)} walk and copy the
+ * segments directly without an iterator, and the {@link #spliterator()} splits by index so that a parallel stream divides the
+ * items evenly.
  *
  * @param <T> the type of elements stored in the buffer.
  */
@@ -98,13 +102,52 @@ public class OverwritingRingBuffer<T> implements RingBuffer<T> {
     }
 
     /**
-     * Returns a sequential {@link java.util.Spliterator} of items in the buffer.
+     * Returns a {@link java.util.Spliterator} of items in the buffer which splits in halves by index. It is bound to the items of the
+     * buffer when it is created.
      *
-     * @return a sequential spliterator of items in the buffer.
+     * @return a sized and splittable spliterator of items in the buffer.
      */
     @Override
     public Spliterator<T> spliterator() {
-        return Spliterators.spliterator(iterator(), size(), Spliterator.ORDERED);
+        return new RingSpliterator(start, 0, count);
+    }
+
+    /**
+     * Performs the action for every item, oldest first, walking the backing array without an iterator.
+     *
+     * @param action the action to be performed for each item
+     */
+    @Override
+    @SuppressWarnings("unchecked")
+    public void forEach(Consumer<? super T> action) {
+        final int first = Math.min(count, items.length - start);
+        for (int i = start, end = start + first; i < end; i++) {
+            action.accept((T) items[i]);
+        }
+        for (int i = 0, end = count - first; i < end; i++) {
+            action.accept((T) items[i]);
+        }
+    }
+
+    /**
+     * Removes up to {@code max} oldest items and copies them into {@code target} from index 0, oldest first.
+     *
+     * @param target receives the items
+     * @param max    the maximum number of items to drain
+     * @return the number of drained items, the smallest of {@code max}, {@link #size()} and the length of target.
+     * @throws IllegalArgumentException if max is negative
+     */
+    public int drainTo(T[] target, int max) {
+        if (max < 0) {
+            throw new IllegalArgumentException("max cannot be negative");
+        }
+        final int n = Math.min(Math.min(max, count), target.length);
+        final int first = Math.min(n, items.length - start);
+        System.arraycopy(items, start, target, 0, first);
+        System.arraycopy(items, 0, target, first, n - first);
+        start = (start + n) & mask;
+        count -= n;
+        return n;
     }
 
     @Override
@@ -137,10 +180,67 @@ public class OverwritingRingBuffer<T> implements RingBuffer<T> {
 
     @Override
     public String toString() {
-        final StringJoiner sj = new StringJoiner(", ", "[", "]");
-        for (T item : this) {
-            sj.add(String.valueOf(item));
+        if (count == 0) {
+            return "[]";
+        }
+        final StringBuilder sb = new StringBuilder(count * 4 + 2).append('[');
+        forEach(item -> sb.append(item).append(", "));
+        sb.setLength(sb.length() - 2);
+        return sb.append(']').toString();
+    }
+
+    /**
+     * Covers the items at indexes {@code [index, fence)} from {@code start}, which are fixed when the spliterator is created.
+     */
+    private final class RingSpliterator implements Spliterator<T> {
+        private final int start;
+        private int index;
+        private final int fence;
+
+        private RingSpliterator(int start, int index, int fence) {
+            this.start = start;
+            this.index = index;
+            this.fence = fence;
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        public boolean tryAdvance(Consumer<? super T> action) {
+            if (index >= fence) {
+                return false;
+            }
+            action.accept((T) items[(start + index++) & mask]);
+            return true;
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        public void forEachRemaining(Consumer<? super T> action) {
+            for (int i = index; i < fence; i++) {
+                action.accept((T) items[(start + i) & mask]);
+            }
+            index = fence;
+        }
+
+        @Override
+        public Spliterator<T> trySplit() {
+            final int mid = (index + fence) >>> 1;
+            if (mid <= index) {
+                return null;
+            }
+            final Spliterator<T> prefix = new RingSpliterator(start, index, mid);
+            index = mid;
+            return prefix;
+        }
+
+        @Override
+        public long estimateSize() {
+            return fence - index;
+        }
+
+        @Override
+        public int characteristics() {
+            return Spliterator.ORDERED | Spliterator.SIZED | Spliterator.SUBSIZED;
         }
-        return sj.toString();
     }
 }
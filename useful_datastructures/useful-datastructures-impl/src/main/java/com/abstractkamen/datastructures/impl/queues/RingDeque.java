@@ -0,0 +1,441 @@
+package com.abstractkamen.datastructures.impl.queues;
+
+import com.abstractkamen.datastructures.api.queues.RingBuffer;
+import com.abstractkamen.datastructures.impl.utils.ResizePolicy;
+
+import java.util.AbstractList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.Objects;
+import java.util.RandomAccess;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.StringJoiner;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/**
+ * A growable double ended queue on a ring of masked indices like {@link OverwritingRingBuffer}. Items are pushed and popped at both
+ * ends in O(1) and read by index in O(1), the item at index {@code i} lives at {@code (start + i) & mask}.
+ * <p>
+ * The backing array grows and shrinks with a {@link ResizePolicy}, a capacity computed by the policy is rounded up to the next
+ * power of two to keep the mask. {@link #addAll(Collection)}, {@link #removeFirst(int)}, {@link #removeLast(int)} and
+ * {@link #toArray()} work on the at most two contiguous segments of the ring with {@link System#arraycopy(Object, int, Object, int,
+ * int)} and {@link Arrays#fill(Object[], int, int, Object)}. {@link #asList()} gives indexed reads to code which expects a
+ * {@link List} without copying the items.
+ * <p>
+ * As a {@link RingBuffer} it enqueues at the back and dequeues from the front and never overwrites. The deque does not accept
+ * {@code null}, so that {@link #peekFirst()} and {@link #peekLast()} can return {@code null} for an empty deque. Removed items are
+ * not referenced by the deque anymore. This class is not thread safe.
+ *
+ * @param <T> the type of elements stored in the deque.
+ * @see OverwritingRingBuffer
+ */
+public class RingDeque<T> implements RingBuffer<T> {
+    private static final int MAX_CAPACITY = 1 << 30;
+    private final ResizePolicy resizePolicy;
+    private final int minCapacity;
+    private Object[] items;
+    private int mask;
+    private int start;
+    private int count;
+    private int shrinkBelow;
+
+    /**
+     * Constructs a new {@code RingDeque} with the specified initial capacity and resize policy.
+     *
+     * @param capacity     the initial capacity, rounded up to a power of two. The deque never shrinks below it on its own.
+     * @param resizePolicy how the backing array grows and shrinks
+     * @throws IllegalArgumentException if the capacity is lesser than one or greater than {@code 2^30}.
+     */
+    public RingDeque(int capacity, ResizePolicy resizePolicy) {
+        if (capacity < 1) {
+            throw new IllegalArgumentException("Capacity cannot be lesser than one");
+        }
+        if (capacity > MAX_CAPACITY) {
+            throw new IllegalArgumentException("Capacity cannot be greater than " + MAX_CAPACITY);
+        }
+        this.resizePolicy = Objects.requireNonNull(resizePolicy);
+        this.minCapacity = powerOfTwo(capacity);
+        this.items = new Object[minCapacity];
+        this.mask = minCapacity - 1;
+    }
+
+    /**
+     * Constructs a new {@code RingDeque} with the specified initial capacity and {@link ResizePolicy#DEFAULT}.
+     *
+     * @param capacity the initial capacity, rounded up to a power of two.
+     * @throws IllegalArgumentException if the capacity is lesser than one or greater than {@code 2^30}.
+     */
+    public RingDeque(int capacity) {
+        this(capacity, ResizePolicy.DEFAULT);
+    }
+
+    /**
+     * Constructs a new {@code RingDeque} with an initial capacity of 16 and {@link ResizePolicy#DEFAULT}.
+     */
+    public RingDeque() {
+        this(16);
+    }
+
+    @Override
+    public boolean isEmpty() {
+        return count == 0;
+    }
+
+    @Override
+    public int size() {
+        return count;
+    }
+
+    /**
+     * Returns the current length of the backing array, which changes as the deque grows and shrinks.
+     *
+     * @return the current capacity of the deque.
+     */
+    @Override
+    public int capacity() {
+        return items.length;
+    }
+
+    /**
+     * Get the resize policy of this deque.
+     *
+     * @return the resize policy
+     */
+    public ResizePolicy resizePolicy() {
+        return resizePolicy;
+    }
+
+    /**
+     * Adds the item to the back, same as {@link #addLast(Object)}.
+     *
+     * @param item the item to be enqueued.
+     * @return {@code true} always.
+     * @throws NullPointerException if item is null
+     */
+    @Override
+    public boolean enqueue(T item) {
+        addLast(item);
+        return true;
+    }
+
+    /**
+     * Removes the item at the front, same as {@link #removeFirst()}.
+     *
+     * @return the oldest item in the deque.
+     * @throws NoSuchElementException if the deque is empty.
+     */
+    @Override
+    public T dequeue() {
+        return removeFirst();
+    }
+
+    /**
+     * Adds the item to the front, it becomes index 0.
+     *
+     * @param item the item to be added
+     * @throws NullPointerException if item is null
+     */
+    public void addFirst(T item) {
+        Objects.requireNonNull(item);
+        ensureCapacity(count + 1);
+        start = (start - 1) & mask;
+        items[start] = item;
+        count++;
+    }
+
+    /**
+     * Adds the item to the back, it becomes index {@code size() - 1}.
+     *
+     * @param item the item to be added
+     * @throws NullPointerException if item is null
+     */
+    public void addLast(T item) {
+        Objects.requireNonNull(item);
+        ensureCapacity(count + 1);
+        items[(start + count) & mask] = item;
+        count++;
+    }
+
+    /**
+     * Adds all items of the collection to the back in iteration order.
+     *
+     * @param collection the items to be added
+     * @return the new size of the deque.
+     * @throws NullPointerException if the collection contains null, the deque is left unchanged then
+     */
+    public int addAll(Collection<? extends T> collection) {
+        final Object[] batch = collection.toArray();
+        for (Object item : batch) {
+            Objects.requireNonNull(item);
+        }
+        ensureCapacity(count + batch.length);
+        final int tail = (start + count) & mask;
+        final int first = Math.min(batch.length, items.length - tail);
+        System.arraycopy(batch, 0, items, tail, first);
+        System.arraycopy(batch, first, items, 0, batch.length - first);
+        count += batch.length;
+        return count;
+    }
+
+    /**
+     * Removes the item at the front.
+     *
+     * @return the removed item.
+     * @throws NoSuchElementException if the deque is empty.
+     */
+    public T removeFirst() {
+        if (count == 0) {
+            throw new NoSuchElementException("Deque is empty");
+        }
+        final T result = item(start);
+        items[start] = null;
+        start = (start + 1) & mask;
+        count--;
+        shrinkIfSparse();
+        return result;
+    }
+
+    /**
+     * Removes the item at the back.
+     *
+     * @return the removed item.
+     * @throws NoSuchElementException if the deque is empty.
+     */
+    public T removeLast() {
+        if (count == 0) {
+            throw new NoSuchElementException("Deque is empty");
+        }
+        final int last = (start + count - 1) & mask;
+        final T result = item(last);
+        items[last] = null;
+        count--;
+        shrinkIfSparse();
+        return result;
+    }
+
+    /**
+     * Removes the first {@code n} items.
+     *
+     * @param n the number of items to remove
+     * @throws IllegalArgumentException if n is negative or greater than {@link #size()}
+     */
+    public void removeFirst(int n) {
+        checkRemoveCount(n);
+        clearRange(start, n);
+        start = (start + n) & mask;
+        count -= n;
+        shrinkIfSparse();
+    }
+
+    /**
+     * Removes the last {@code n} items.
+     *
+     * @param n the number of items to remove
+     * @throws IllegalArgumentException if n is negative or greater than {@link #size()}
+     */
+    public void removeLast(int n) {
+        checkRemoveCount(n);
+        clearRange((start + count - n) & mask, n);
+        count -= n;
+        shrinkIfSparse();
+    }
+
+    /**
+     * Returns the item at the front without removing it.
+     *
+     * @return the first item, or {@code null} if the deque is empty.
+     */
+    public T peekFirst() {
+        return count == 0 ? null : item(start);
+    }
+
+    /**
+     * Returns the item at the back without removing it.
+     *
+     * @return the last item, or {@code null} if the deque is empty.
+     */
+    public T peekLast() {
+        return count == 0 ? null : item((start + count - 1) & mask);
+    }
+
+    /**
+     * Returns the item at {@code index} in O(1), 0 is the front.
+     *
+     * @param index position from the front
+     * @return the item at index.
+     * @throws IndexOutOfBoundsException if index is not below {@link #size()}.
+     */
+    public T get(int index) {
+        Objects.checkIndex(index, count);
+        return item((start + index) & mask);
+    }
+
+    /**
+     * Replaces the item at {@code index} in O(1), 0 is the front.
+     *
+     * @param index position from the front
+     * @param item  the new item
+     * @return the replaced item.
+     * @throws IndexOutOfBoundsException if index is not below {@link #size()}.
+     * @throws NullPointerException      if item is null
+     */
+    public T set(int index, T item) {
+        Objects.requireNonNull(item);
+        Objects.checkIndex(index, count);
+        final int slot = (start + index) & mask;
+        final T result = item(slot);
+        items[slot] = item;
+        return result;
+    }
+
+    /**
+     * Copies the items into a new array, front first.
+     *
+     * @return the items of the deque.
+     */
+    public Object[] toArray() {
+        final Object[] result = new Object[count];
+        copyTo(result);
+        return result;
+    }
+
+    /**
+     * Returns an unmodifiable {@link RandomAccess} list view of this deque, changes of the deque show in the view.
+     *
+     * @return a list view of the deque.
+     */
+    public List<T> asList() {
+        return new ListView();
+    }
+
+    /**
+     * Removes all items. The capacity does not change.
+     */
+    public void clear() {
+        clearRange(start, count);
+        start = 0;
+        count = 0;
+    }
+
+    /**
+     * Shrinks the backing array to the smallest power of two holding the items.
+     */
+    public void trimToSize() {
+        resize(powerOfTwo(Math.max(count, 1)));
+    }
+
+    @Override
+    public Stream<T> stream() {
+        return StreamSupport.stream(Spliterators.spliterator(iterator(), count, Spliterator.ORDERED | Spliterator.NONNULL), false);
+    }
+
+    @Override
+    public Iterator<T> iterator() {
+        return new Iterator<>() {
+            private int i = 0;
+
+            @Override
+            public boolean hasNext() {
+                return i < count;
+            }
+
+            @Override
+            public T next() {
+                if (i >= count) {
+                    throw new NoSuchElementException();
+                }
+                return item((start + i++) & mask);
+            }
+        };
+    }
+
+    @Override
+    public void forEach(Consumer<? super T> action) {
+        for (int i = 0; i < count; i++) {
+            action.accept(item((start + i) & mask));
+        }
+    }
+
+    @Override
+    public String toString() {
+        final StringJoiner sj = new StringJoiner(", ", "[", "]");
+        forEach(item -> sj.add(String.valueOf(item)));
+        return sj.toString();
+    }
+
+    @SuppressWarnings("unchecked")
+    private T item(int slot) {
+        return (T) items[slot];
+    }
+
+    private void ensureCapacity(int required) {
+        if (required > items.length) {
+            if (required > MAX_CAPACITY) {
+                throw new OutOfMemoryError("Deque cannot hold more than " + MAX_CAPACITY + " items");
+            }
+            resize(powerOfTwo(resizePolicy.grow(items.length, required)));
+        }
+    }
+
+    private void shrinkIfSparse() {
+        if (count < shrinkBelow) {
+            // rounding up may give back the current capacity for policies which shrink by less than half
+            final int capacity = powerOfTwo(resizePolicy.shrink(count, minCapacity));
+            if (capacity < items.length) {
+                resize(capacity);
+            }
+        }
+    }
+
+    private void resize(int capacity) {
+        final Object[] resized = new Object[capacity];
+        copyTo(resized);
+        items = resized;
+        mask = capacity - 1;
+        start = 0;
+        shrinkBelow = resizePolicy.shrinkBelow(capacity, minCapacity);
+    }
+
+    private void copyTo(Object[] target) {
+        final int first = Math.min(count, items.length - start);
+        System.arraycopy(items, start, target, 0, first);
+        System.arraycopy(items, 0, target, first, count - first);
+    }
+
+    private void clearRange(int from, int n) {
+        final int first = Math.min(n, items.length - from);
+        Arrays.fill(items, from, from + first, null);
+        Arrays.fill(items, 0, n - first, null);
+    }
+
+    private void checkRemoveCount(int n) {
+        if (n < 0 || n > count) {
+            throw new IllegalArgumentException("Cannot remove " + n + " items of " + count);
+        }
+    }
+
+    private static int powerOfTwo(int capacity) {
+        if (capacity >= MAX_CAPACITY) {
+            return MAX_CAPACITY;
+        }
+        return capacity <= 1 ? 1 : Integer.highestOneBit(capacity - 1) << 1;
+    }
+
+    private final class ListView extends AbstractList<T> implements RandomAccess {
+        @Override
+        public T get(int index) {
+            return RingDeque.this.get(index);
+        }
+
+        @Override
+        public int size() {
+            return count;
+        }
+    }
+}
@@ -0,0 +1,77 @@
+package com.abstractkamen.datastructures.impl.queues;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+
+/**
+ * A {@code long} counter on a cache line of its own, the producer and consumer counters of a ring buffer are written by different
+ * threads and would otherwise slow each other down by false sharing. The JVM lays out superclass fields before subclass fields, so
+ * the padding lives in the classes around {@link SequenceValue}.
+ * <p>
+ * Besides the shared {@link #getAcquire() value} a sequence holds a plain {@link #cache} owned by the thread writing the sequence,
+ * typically its last read of the opposite counter. It shares the line with the value, which only the owner writes anyway.
+ */
+final class Sequence extends SequenceRhsPadding {
+    private static final VarHandle VALUE;
+
+    static {
+        try {
+            VALUE = MethodHandles.lookup().findVarHandle(SequenceValue.class, "value", long.class);
+        } catch (ReflectiveOperationException e) {
+            throw new ExceptionInInitializerError(e);
+        }
+    }
+
+    Sequence(long initial) {
+        value = initial;
+        cache = initial;
+    }
+
+    /**
+     * Read by the owner thread, which needs no ordering against its own writes.
+     */
+    long getPlain() {
+        return value;
+    }
+
+    long getAcquire() {
+        return (long) VALUE.getAcquire(this);
+    }
+
+    long getVolatile() {
+        return (long) VALUE.getVolatile(this);
+    }
+
+    /**
+     * Publishes every write made before it to threads reading the value with {@link #getAcquire()}.
+     */
+    void setRelease(long v) {
+        VALUE.setRelease(this, v);
+    }
+
+    boolean compareAndSet(long expected, long v) {
+        return VALUE.compareAndSet(this, expected, v);
+    }
+
+    @Override
+    public String toString() {
+        return Long.toString(getVolatile());
+    }
+}
+
+@SuppressWarnings("unused")
+abstract class SequenceLhsPadding {
+    private long p01, p02, p03, p04, p05, p06, p07;
+    private long p10, p11, p12, p13, p14, p15, p16, p17;
+}
+
+abstract class SequenceValue extends SequenceLhsPadding {
+    protected long value;
+    protected long cache;
+}
+
+@SuppressWarnings("unused")
+abstract class SequenceRhsPadding extends SequenceValue {
+    private long p01, p02, p03, p04, p05, p06, p07;
+    private long p10, p11, p12, p13, p14, p15, p16, p17;
+}
@@ -0,0 +1,200 @@
+package com.abstractkamen.datastructures.impl.queues;
+
+import com.abstractkamen.datastructures.api.queues.RingBuffer;
+
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.Objects;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.StringJoiner;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/**
+ * A bounded lock-free ring buffer for exactly one producer thread and one consumer thread. Unlike {@link OverwritingRingBuffer} it
+ * never overwrites, {@link #offer(Object)} returns {@code false} when the buffer is full and {@link #poll()} returns {@code null}
+ * when it is empty.
+ * <p>
+ * The producer owns the {@code tail} sequence and the consumer the {@code head} sequence, each on a cache line of its own. An item
+ * is written with a plain store and published by a release store of {@code tail}, the consumer frees its slot and hands it back by
+ * a release store of {@code head}. Each side caches the last value it read of the other side's sequence and only reads it again
+ * when the cached value says the buffer is full or empty, so in the steady state the threads do not touch each other's cache lines.
+ * <p>
+ * {@link #size()} and {@link #isEmpty()} may be called from any thread and are exact only while the buffer is not modified.
+ * Iteration walks from the head to the tail as they were when the iterator was created and must be done by the consumer thread or
+ * while no thread modifies the buffer. This implementation does not permit null elements.
+ *
+ * @param <T> the type of elements stored in the buffer.
+ * @see MpscRingBuffer
+ */
+public class SpscRingBuffer<T> implements RingBuffer<T> {
+    private final Object[] items;
+    private final int mask;
+    /**
+     * Next position to write, its cache is the producer's last read of {@link #head}.
+     */
+    private final Sequence tail = new Sequence(0);
+    /**
+     * Next position to read, its cache is the consumer's last read of {@link #tail}.
+     */
+    private final Sequence head = new Sequence(0);
+
+    /**
+     * Constructs a new {@code SpscRingBuffer} with the specified capacity.
+     *
+     * @param capacity the capacity of the ring buffer, a power of two.
+     * @throws IllegalArgumentException if the capacity is lesser than one or not a power of two.
+     */
+    public SpscRingBuffer(int capacity) {
+        if (capacity < 1) {
+            throw new IllegalArgumentException("Capacity cannot be lesser than one");
+        }
+        if (Integer.bitCount(capacity) != 1) {
+            throw new IllegalArgumentException("Capacity must be a power of two");
+        }
+        this.items = new Object[capacity];
+        this.mask = capacity - 1;
+    }
+
+    @Override
+    public boolean isEmpty() {
+        return size() == 0;
+    }
+
+    @Override
+    public int size() {
+        final long h = head.getAcquire();
+        final long t = tail.getAcquire();
+        return (int) Math.max(0, Math.min(t - h, items.length));
+    }
+
+    @Override
+    public int capacity() {
+        return items.length;
+    }
+
+    /**
+     * Same as {@link #offer(Object)}, the buffer never overwrites.
+     *
+     * @param item the item to be enqueued.
+     * @return {@code true} if item is successfully enqueued, {@code false} if the buffer is full.
+     * @throws NullPointerException if item is null.
+     */
+    @Override
+    public boolean enqueue(T item) {
+        return offer(item);
+    }
+
+    /**
+     * Dequeues and returns the oldest item from the buffer. Must be called by the consumer thread.
+     *
+     * @return the oldest item in the buffer.
+     * @throws NoSuchElementException if the buffer is empty.
+     */
+    @Override
+    public T dequeue() {
+        final T item = poll();
+        if (item == null) {
+            throw new NoSuchElementException("Buffer is empty");
+        }
+        return item;
+    }
+
+    /**
+     * Enqueues the specified item unless the buffer is full. Must be called by the producer thread.
+     *
+     * @param item the item to be enqueued.
+     * @return {@code true} if item is successfully enqueued, {@code false} if the buffer is full.
+     * @throws NullPointerException if item is null.
+     */
+    @Override
+    public boolean offer(T item) {
+        Objects.requireNonNull(item);
+        final long t = tail.getPlain();
+        if (t - tail.cache >= items.length) {
+            tail.cache = head.getAcquire();
+            if (t - tail.cache >= items.length) {
+                return false;
+            }
+        }
+        items[(int) t & mask] = item;
+        tail.setRelease(t + 1);
+        return true;
+    }
+
+    /**
+     * Dequeues the oldest item unless the buffer is empty. Must be called by the consumer thread.
+     *
+     * @return the oldest item in the buffer, or {@code null} if the buffer is empty.
+     */
+    @Override
+    @SuppressWarnings("unchecked")
+    public T poll() {
+        final long h = head.getPlain();
+        if (h >= head.cache) {
+            head.cache = tail.getAcquire();
+            if (h >= head.cache) {
+                return null;
+            }
+        }
+        final int i = (int) h & mask;
+        final T item = (T) items[i];
+        items[i] = null;
+        head.setRelease(h + 1);
+        return item;
+    }
+
+    /**
+     * Returns a sequential {@link java.util.stream.Stream} of items in the buffer, see {@link #iterator()}.
+     *
+     * @return a sequential stream of items in the buffer.
+     */
+    @Override
+    public Stream<T> stream() {
+        return StreamSupport.stream(spliterator(), false);
+    }
+
+    @Override
+    public Spliterator<T> spliterator() {
+        return Spliterators.spliterator(iterator(), size(), Spliterator.ORDERED | Spliterator.NONNULL);
+    }
+
+    /**
+     * Iterates from the oldest to the newest item present when the iterator was created. Must be used by the consumer thread or
+     * while no thread modifies the buffer.
+     *
+     * @return an iterator over the items in the buffer.
+     */
+    @Override
+    @SuppressWarnings("unchecked")
+    public Iterator<T> iterator() {
+        final long h = head.getAcquire();
+        final long t = tail.getAcquire();
+        return new Iterator<>() {
+            private long i = h;
+
+            @Override
+            public boolean hasNext() {
+                return i < t;
+            }
+
+            @Override
+            public T next() {
+                if (i >= t) {
+                    throw new NoSuchElementException();
+                }
+                return (T) items[(int) i++ & mask];
+            }
+        };
+    }
+
+    @Override
+    public String toString() {
+        final StringJoiner sj = new StringJoiner(", ", "[", "]");
+        for (T item : this) {
+            sj.add(String.valueOf(item));
+        }
+        return sj.toString();
+    }
+}
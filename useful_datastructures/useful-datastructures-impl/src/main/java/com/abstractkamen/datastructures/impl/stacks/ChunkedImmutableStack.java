@@ -0,0 +1,212 @@
+package com.abstractkamen.datastructures.impl.stacks;
+
+import com.abstractkamen.datastructures.api.stacks.ImmutableStack;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.function.Consumer;
+
+/**
+ * An unrolled {@link ImmutableStack} which keeps its elements in array chunks instead of one node per element.
+ * <p>
+ * A push writes into the next free slot of the top chunk and shares the chunk with the previous version, every chunk slot is
+ * claimed only once, so versions which share a chunk never see each other's writes. Pushing onto a version whose next slot was
+ * already claimed by another push, for example after a pop, copies the at most {@code chunkSize - 1} elements of the version's
+ * chunk. A full chunk starts a new one. Pop returns a view of the same chunk and copies nothing.
+ * <p>
+ * A version is the chunk and how many of its elements it sees, the chunk knows the full version below it and that one's depth, so
+ * {@link #depth()} is O(1). A stack of {@code n} elements keeps {@code n / chunkSize} chunks and one version per chunk alive, about
+ * 6 bytes per element with the default chunk size of 32 against a node of 24 bytes per element of {@link ImmutableStackImpl}, and
+ * iteration walks each chunk as an array. Every push and pop still allocates a version like a node of {@link ImmutableStackImpl}
+ * does, it is the retained memory which shrinks.
+ * <p>
+ * Like {@link ImmutableStackImpl}, {@link #peek()} of the empty stack returns {@code null} and {@link #pop()} of the empty stack
+ * throws {@link NoSuchElementException}. Versions can be shared between threads.
+ *
+ * @param <T> type of elements
+ * @see ImmutableStackImpl
+ */
+public final class ChunkedImmutableStack<T> implements ImmutableStack<T> {
+    /**
+     * The default number of elements in a chunk.
+     */
+    public static final int DEFAULT_CHUNK_SIZE = 32;
+    private final Chunk<T> chunk;
+    /**
+     * Number of elements of {@link #chunk} in this version, 0 only for the empty stack.
+     */
+    private final int top;
+
+    /**
+     * Create an empty stack with {@link #DEFAULT_CHUNK_SIZE}.
+     */
+    public ChunkedImmutableStack() {
+        this(DEFAULT_CHUNK_SIZE);
+    }
+
+    /**
+     * Create an empty stack.
+     *
+     * @param chunkSize number of elements in a chunk
+     * @throws IllegalArgumentException if chunkSize is lesser than one
+     */
+    public ChunkedImmutableStack(int chunkSize) {
+        if (chunkSize < 1) {
+            throw new IllegalArgumentException("chunkSize cannot be lesser than one");
+        }
+        this.chunk = new Chunk<>(chunkSize, null, 0);
+        this.top = 0;
+    }
+
+    private ChunkedImmutableStack(Chunk<T> chunk, int top) {
+        this.chunk = chunk;
+        this.top = top;
+    }
+
+    @Override
+    public ChunkedImmutableStack<T> push(T element) {
+        final Object[] elements = chunk.elements;
+        if (top == elements.length) {
+            final Chunk<T> started = new Chunk<>(elements.length, this, depth());
+            started.elements[0] = element;
+            started.claimed = 1;
+            return new ChunkedImmutableStack<>(started, 1);
+        }
+        if (chunk.claim(top)) {
+            elements[top] = element;
+            return new ChunkedImmutableStack<>(chunk, top + 1);
+        }
+        // another version owns the next slot
+        final Chunk<T> copy = new Chunk<>(elements.length, chunk.below, chunk.base);
+        System.arraycopy(elements, 0, copy.elements, 0, top);
+        copy.elements[top] = element;
+        copy.claimed = top + 1;
+        return new ChunkedImmutableStack<>(copy, top + 1);
+    }
+
+    @Override
+    public ChunkedImmutableStack<T> pop() {
+        if (top == 0) {
+            throw new NoSuchElementException();
+        }
+        if (top == 1 && chunk.below != null) {
+            return chunk.below;
+        }
+        return new ChunkedImmutableStack<>(chunk, top - 1);
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public T peek() {
+        return top == 0 ? null : (T) chunk.elements[top - 1];
+    }
+
+    @Override
+    public int depth() {
+        return chunk.base + top;
+    }
+
+    @Override
+    public boolean isEmpty() {
+        return top == 0;
+    }
+
+    /**
+     * Get the number of elements in a chunk of this stack.
+     *
+     * @return the chunk size
+     */
+    public int chunkSize() {
+        return chunk.elements.length;
+    }
+
+    /**
+     * Iterates from the top of the stack to the bottom.
+     *
+     * @return an iterator over the elements of this version
+     */
+    @Override
+    public Iterator<T> iterator() {
+        return new Iterator<>() {
+            private Chunk<T> current = chunk;
+            private int i = top;
+
+            @Override
+            public boolean hasNext() {
+                return i > 0;
+            }
+
+            @Override
+            @SuppressWarnings("unchecked")
+            public T next() {
+                if (i == 0) {
+                    throw new NoSuchElementException();
+                }
+                final T next = (T) current.elements[--i];
+                if (i == 0 && current.below != null) {
+                    i = current.below.top;
+                    current = current.below.chunk;
+                }
+                return next;
+            }
+        };
+    }
+
+    /**
+     * Performs the action for every element from the top of the stack to the bottom, walking each chunk as an array.
+     *
+     * @param action the action to be performed for each element
+     */
+    @Override
+    @SuppressWarnings("unchecked")
+    public void forEach(Consumer<? super T> action) {
+        for (ChunkedImmutableStack<T> s = this; s != null; s = s.chunk.below) {
+            final Object[] elements = s.chunk.elements;
+            for (int i = s.top - 1; i >= 0; i--) {
+                action.accept((T) elements[i]);
+            }
+        }
+    }
+
+    /**
+     * Elements shared by the versions of a stack, every slot is written once by the push which claimed it. All versions of a chunk
+     * stand on the same version below it.
+     */
+    private static final class Chunk<T> {
+        private static final VarHandle CLAIMED;
+
+        static {
+            try {
+                CLAIMED = MethodHandles.lookup().findVarHandle(Chunk.class, "claimed", int.class);
+            } catch (ReflectiveOperationException e) {
+                throw new ExceptionInInitializerError(e);
+            }
+        }
+
+        private final Object[] elements;
+        /**
+         * The full version below this chunk, null for the bottom chunk.
+         */
+        private final ChunkedImmutableStack<T> below;
+        /**
+         * Depth of {@link #below}.
+         */
+        private final int base;
+        /**
+         * Number of claimed slots.
+         */
+        private int claimed;
+
+        private Chunk(int size, ChunkedImmutableStack<T> below, int base) {
+            this.elements = new Object[size];
+            this.below = below;
+            this.base = base;
+        }
+
+        private boolean claim(int slot) {
+            return CLAIMED.compareAndSet(this, slot, slot + 1);
+        }
+    }
+}
@@ -0,0 +1,210 @@
+package com.abstractkamen.datastructures.impl.stacks;
+
+import com.abstractkamen.datastructures.api.stacks.LongImmutableStack;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.util.NoSuchElementException;
+import java.util.PrimitiveIterator;
+import java.util.function.LongConsumer;
+
+/**
+ * A {@link LongImmutableStack} which keeps its values in {@code long[]} chunks shared between versions, {@link ChunkedImmutableStack}
+ * without boxing. A stack of {@code n} values keeps about {@code 8 * n} bytes of chunks alive instead of a node and a
+ * {@link Long} per value.
+ * <p>
+ * A push claims the next slot of the top chunk once. Pushing onto a version whose next slot another push already claimed reuses
+ * the slot if it holds the same value, values have no identity so the versions cannot tell, and otherwise copies the at most
+ * {@code chunkSize - 1} values of the version's chunk. Going back down the same path after a pop copies nothing, branching from a
+ * version to another value, as a backtracking search does, copies at most one chunk prefix per branch.
+ * <p>
+ * Unlike {@link ChunkedImmutableStack}, {@link #peek()} of the empty stack throws {@link NoSuchElementException}, there is no
+ * {@code null} to return. Versions can be shared between threads.
+ *
+ * @see ChunkedImmutableStack
+ * @see ChunkedIntImmutableStack
+ */
+public final class ChunkedLongImmutableStack implements LongImmutableStack {
+    private final Chunk chunk;
+    /**
+     * Number of values of {@link #chunk} in this version, 0 only for the empty stack.
+     */
+    private final int top;
+
+    /**
+     * Create an empty stack with {@link ChunkedImmutableStack#DEFAULT_CHUNK_SIZE}.
+     */
+    public ChunkedLongImmutableStack() {
+        this(ChunkedImmutableStack.DEFAULT_CHUNK_SIZE);
+    }
+
+    /**
+     * Create an empty stack.
+     *
+     * @param chunkSize number of values in a chunk
+     * @throws IllegalArgumentException if chunkSize is lesser than one
+     */
+    public ChunkedLongImmutableStack(int chunkSize) {
+        if (chunkSize < 1) {
+            throw new IllegalArgumentException("chunkSize cannot be lesser than one");
+        }
+        this.chunk = new Chunk(chunkSize, null, 0);
+        this.top = 0;
+    }
+
+    private ChunkedLongImmutableStack(Chunk chunk, int top) {
+        this.chunk = chunk;
+        this.top = top;
+    }
+
+    @Override
+    public ChunkedLongImmutableStack push(long value) {
+        final long[] values = chunk.values;
+        if (top == values.length) {
+            final Chunk started = new Chunk(values.length, this, depth());
+            started.values[0] = value;
+            started.state = 2;
+            return new ChunkedLongImmutableStack(started, 1);
+        }
+        if (chunk.claim(top)) {
+            values[top] = value;
+            chunk.publish(top);
+            return new ChunkedLongImmutableStack(chunk, top + 1);
+        }
+        if (chunk.isPublished(top) && values[top] == value) {
+            return new ChunkedLongImmutableStack(chunk, top + 1);
+        }
+        final Chunk copy = new Chunk(values.length, chunk.below, chunk.base);
+        System.arraycopy(values, 0, copy.values, 0, top);
+        copy.values[top] = value;
+        copy.state = 2 * (top + 1);
+        return new ChunkedLongImmutableStack(copy, top + 1);
+    }
+
+    @Override
+    public ChunkedLongImmutableStack pop() {
+        if (top == 0) {
+            throw new NoSuchElementException();
+        }
+        if (top == 1 && chunk.below != null) {
+            return chunk.below;
+        }
+        return new ChunkedLongImmutableStack(chunk, top - 1);
+    }
+
+    @Override
+    public long peek() {
+        if (top == 0) {
+            throw new NoSuchElementException();
+        }
+        return chunk.values[top - 1];
+    }
+
+    @Override
+    public int depth() {
+        return chunk.base + top;
+    }
+
+    @Override
+    public boolean isEmpty() {
+        return top == 0;
+    }
+
+    /**
+     * Get the number of values in a chunk of this stack.
+     *
+     * @return the chunk size
+     */
+    public int chunkSize() {
+        return chunk.values.length;
+    }
+
+    @Override
+    public PrimitiveIterator.OfLong iterator() {
+        return new PrimitiveIterator.OfLong() {
+            private Chunk current = chunk;
+            private int i = top;
+
+            @Override
+            public boolean hasNext() {
+                return i > 0;
+            }
+
+            @Override
+            public long nextLong() {
+                if (i == 0) {
+                    throw new NoSuchElementException();
+                }
+                final long next = current.values[--i];
+                if (i == 0 && current.below != null) {
+                    i = current.below.top;
+                    current = current.below.chunk;
+                }
+                return next;
+            }
+        };
+    }
+
+    /**
+     * Performs the action for every value from the top of the stack to the bottom, walking each chunk as an array.
+     *
+     * @param action the action to be performed for each value
+     */
+    @Override
+    public void forEach(LongConsumer action) {
+        for (ChunkedLongImmutableStack s = this; s != null; s = s.chunk.below) {
+            final long[] values = s.chunk.values;
+            for (int i = s.top - 1; i >= 0; i--) {
+                action.accept(values[i]);
+            }
+        }
+    }
+
+    /**
+     * Values shared by the versions of a stack, every slot is written once by the push which claimed it. All versions of a chunk
+     * stand on the same version below it.
+     * <p>
+     * The state is twice the number of published slots, plus one while the next slot is claimed and not written yet, so a push
+     * which lost the claim can tell whether the value it compares with is final.
+     */
+    private static final class Chunk {
+        private static final VarHandle STATE;
+
+        static {
+            try {
+                STATE = MethodHandles.lookup().findVarHandle(Chunk.class, "state", int.class);
+            } catch (ReflectiveOperationException e) {
+                throw new ExceptionInInitializerError(e);
+            }
+        }
+
+        private final long[] values;
+        /**
+         * The full version below this chunk, null for the bottom chunk.
+         */
+        private final ChunkedLongImmutableStack below;
+        /**
+         * Depth of {@link #below}.
+         */
+        private final int base;
+        private int state;
+
+        private Chunk(int size, ChunkedLongImmutableStack below, int base) {
+            this.values = new long[size];
+            this.below = below;
+            this.base = base;
+        }
+
+        private boolean claim(int slot) {
+            return STATE.compareAndSet(this, 2 * slot, 2 * slot + 1);
+        }
+
+        private void publish(int slot) {
+            STATE.setRelease(this, 2 * slot + 2);
+        }
+
+        private boolean isPublished(int slot) {
+            return (int) STATE.getAcquire(this) >= 2 * slot + 2;
+        }
+    }
+}
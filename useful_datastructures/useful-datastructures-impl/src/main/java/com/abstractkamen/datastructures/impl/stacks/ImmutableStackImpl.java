@@ -54,10 +54,12 @@ public class ImmutableStackImpl<T> implements ImmutableStack<T> {
     private static class NotEmptyStack<T> implements ImmutableStack<T> {
         private final T val;
         private final ImmutableStack<T> tail;
+        private final int depth;
 
         NotEmptyStack(T val, ImmutableStack<T> tail) {
             this.val = val;
             this.tail = tail;
+            this.depth = 1 + tail.depth();
         }
 
         @Override
@@ -77,12 +79,12 @@ public class ImmutableStackImpl<T> implements ImmutableStack<T> {
 
         @Override
         public int depth() {
-            return 1 + tail.depth();
+            return depth;
         }
 
         @Override
         public boolean isEmpty() {
-            return depth() > 0;
+            return false;
         }
 
         @Override
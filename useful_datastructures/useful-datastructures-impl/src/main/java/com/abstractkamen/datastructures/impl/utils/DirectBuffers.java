@@ -0,0 +1,77 @@
+package com.abstractkamen.datastructures.impl.utils;
+
+import java.lang.reflect.Field;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+
+/**
+ * Allocation and explicit release of direct {@link ByteBuffer}s.
+ * <p>
+ * The native memory of a direct buffer is normally released only after the buffer object is garbage collected, which for a
+ * long lived structure may be never. {@link #free(ByteBuffer)} releases it right away through {@code sun.misc.Unsafe#invokeCleaner},
+ * looked up reflectively so that nothing here depends on internal classes at compile time. When the method is not available the
+ * memory is left to the garbage collector.
+ */
+public final class DirectBuffers {
+    private static final Object UNSAFE;
+    private static final Method INVOKE_CLEANER;
+
+    static {
+        Object unsafe = null;
+        Method invokeCleaner = null;
+        try {
+            final Class<?> unsafeClass = Class.forName("sun.misc.Unsafe");
+            final Field theUnsafe = unsafeClass.getDeclaredField("theUnsafe");
+            theUnsafe.setAccessible(true);
+            unsafe = theUnsafe.get(null);
+            invokeCleaner = unsafeClass.getMethod("invokeCleaner", ByteBuffer.class);
+        } catch (ReflectiveOperationException | RuntimeException e) {
+            unsafe = null;
+            invokeCleaner = null;
+        }
+        UNSAFE = unsafe;
+        INVOKE_CLEANER = invokeCleaner;
+    }
+
+    private DirectBuffers() {
+    }
+
+    /**
+     * Allocates a direct buffer in native byte order.
+     *
+     * @param capacity capacity in bytes
+     * @return a new direct buffer
+     */
+    public static ByteBuffer allocate(int capacity) {
+        return ByteBuffer.allocateDirect(capacity).order(ByteOrder.nativeOrder());
+    }
+
+    /**
+     * Releases the native memory of {@code buffer}. The buffer and every view of it must not be used afterwards.
+     *
+     * @param buffer a direct buffer returned by {@link ByteBuffer#allocateDirect(int)}, not a slice or duplicate
+     * @return {@code true} if the memory was released, {@code false} if it is left to the garbage collector
+     * @throws IllegalArgumentException if buffer is not direct or is a slice or duplicate
+     */
+    public static boolean free(ByteBuffer buffer) {
+        if (!buffer.isDirect()) {
+            throw new IllegalArgumentException("buffer is not direct");
+        }
+        if (INVOKE_CLEANER == null) {
+            return false;
+        }
+        try {
+            INVOKE_CLEANER.invoke(UNSAFE, buffer);
+            return true;
+        } catch (InvocationTargetException e) {
+            if (e.getCause() instanceof IllegalArgumentException) {
+                throw (IllegalArgumentException) e.getCause();
+            }
+            return false;
+        } catch (IllegalAccessException e) {
+            return false;
+        }
+    }
+}
@@ -0,0 +1,148 @@
+package com.abstractkamen.datastructures.impl.utils;
+
+import java.util.Arrays;
+import java.util.NoSuchElementException;
+
+/**
+ * A log-linear histogram of non-negative {@code long} values answering quantile queries with a bounded relative error, the bucket
+ * layout of an HdrHistogram. Values below {@code 2^precision} get a bucket each, above that every power of two range is split into
+ * {@code 2^(precision - 1)} buckets of equal width, so a reported quantile is at most {@code 2^-(precision - 1)} of its value off.
+ * <p>
+ * Unlike most streaming sketches it supports {@link #remove(long)}, so it can follow a sliding window. Adding and removing are O(1),
+ * a quantile query scans the buckets and costs O(bucket count) no matter how many values were added. The default precision of 7
+ * keeps the error below 1.6% with 3712 buckets.
+ */
+public final class QuantileSketch {
+    /**
+     * The default precision in bits.
+     */
+    public static final int DEFAULT_PRECISION = 7;
+    private final int precision;
+    private final int half;
+    private final long[] counts;
+    private long count;
+
+    /**
+     * Create a {@code QuantileSketch} with a custom precision.
+     *
+     * @param precision number of significant bits kept of every value, between 1 and 16
+     * @throws IllegalArgumentException if precision is out of range
+     */
+    public QuantileSketch(int precision) {
+        if (precision < 1 || precision > 16) {
+            throw new IllegalArgumentException("precision must be between 1 and 16");
+        }
+        this.precision = precision;
+        this.half = 1 << (precision - 1);
+        this.counts = new long[(1 << precision) + (Long.SIZE - 1 - precision) * half];
+    }
+
+    /**
+     * Create a {@code QuantileSketch} with {@link #DEFAULT_PRECISION}.
+     */
+    public QuantileSketch() {
+        this(DEFAULT_PRECISION);
+    }
+
+    /**
+     * Get the precision of this sketch.
+     *
+     * @return number of significant bits kept of every value
+     */
+    public int precision() {
+        return precision;
+    }
+
+    /**
+     * Get the number of values in this sketch.
+     *
+     * @return number of added and not removed values
+     */
+    public long count() {
+        return count;
+    }
+
+    /**
+     * Adds a value.
+     *
+     * @param value a non-negative value
+     * @throws IllegalArgumentException if value is negative
+     */
+    public void add(long value) {
+        counts[bucket(value)]++;
+        count++;
+    }
+
+    /**
+     * Removes a value added before. Removing a value which was not added corrupts the sketch.
+     *
+     * @param value a previously added value
+     * @throws IllegalArgumentException if value is negative
+     */
+    public void remove(long value) {
+        counts[bucket(value)]--;
+        count--;
+    }
+
+    /**
+     * Get the value below or at which a fraction {@code q} of the values lie. The result is the largest value of the bucket holding
+     * the value of rank {@code ceil(q * count())}, which overestimates the exact quantile by at most the bucket width.
+     *
+     * @param q fraction between 0 and 1, 0.5 for the median
+     * @return the estimated quantile
+     * @throws IllegalArgumentException if q is not between 0 and 1
+     * @throws NoSuchElementException   if the sketch is empty
+     */
+    public long quantile(double q) {
+        if (!(q >= 0 && q <= 1)) {
+            throw new IllegalArgumentException("q must be between 0 and 1");
+        }
+        if (count == 0) {
+            throw new NoSuchElementException();
+        }
+        final long rank = Math.max(1, (long) Math.ceil(q * count));
+        long seen = 0;
+        for (int i = 0; i < counts.length; i++) {
+            seen += counts[i];
+            if (seen >= rank) {
+                return highestValue(i);
+            }
+        }
+        throw new IllegalStateException("counts do not add up to " + count);
+    }
+
+    /**
+     * Removes all values.
+     */
+    public void clear() {
+        Arrays.fill(counts, 0);
+        count = 0;
+    }
+
+    private int bucket(long value) {
+        if (value < 0) {
+            throw new IllegalArgumentException("value cannot be negative");
+        }
+        if (value < 1L << precision) {
+            return (int) value;
+        }
+        // number of dropped low bits, at least one
+        final int shift = Long.SIZE - Long.numberOfLeadingZeros(value) - precision;
+        return (1 << precision) + (shift - 1) * half + (int) (value >>> shift) - half;
+    }
+
+    private long highestValue(int bucket) {
+        if (bucket < 1 << precision) {
+            return bucket;
+        }
+        final int i = bucket - (1 << precision);
+        final int shift = i / half + 1;
+        final long lowest = (long) (i % half + half) << shift;
+        return lowest + (1L << shift) - 1;
+    }
+
+    @Override
+    public String toString() {
+        return "QuantileSketch{precision=" + precision + ", count=" + count + '}';
+    }
+}
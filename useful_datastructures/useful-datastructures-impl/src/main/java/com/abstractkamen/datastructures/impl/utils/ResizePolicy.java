@@ -0,0 +1,112 @@
+package com.abstractkamen.datastructures.impl.utils;
+
+/**
+ * Decides how an array backed structure grows and shrinks its backing array.
+ * <p>
+ * The array grows by {@link #growthFactor()} when it is full and shrinks once the size drops below
+ * {@link #shrinkThreshold()} of the capacity. A shrunk array is sized {@code size * growthFactor}, so the structure has to lose
+ * another large fraction of its elements before the next shrink and has to grow by the whole growth factor before the next
+ * grow. This hysteresis keeps a structure which oscillates around a boundary from copying its array on every operation.
+ * A policy never shrinks below the minimum capacity passed to it, usually the initial capacity of the structure.
+ */
+public final class ResizePolicy {
+    /**
+     * Doubles when full and halves once less than a quarter is used.
+     */
+    public static final ResizePolicy DEFAULT = new ResizePolicy(2.0, 0.25);
+    /**
+     * Doubles when full and never shrinks, only {@code trimToSize()} gives memory back.
+     */
+    public static final ResizePolicy GROW_ONLY = new ResizePolicy(2.0, 0.0);
+    /**
+     * Some VMs reserve header words in an array.
+     */
+    private static final int MAX_CAPACITY = Integer.MAX_VALUE - 8;
+    private final double growthFactor;
+    private final double shrinkThreshold;
+
+    /**
+     * Create a {@code ResizePolicy}.
+     *
+     * @param growthFactor    factor the capacity is multiplied by when the array is full, greater than one
+     * @param shrinkThreshold fraction of the capacity below which the array shrinks, zero to never shrink. Must be below
+     *                        {@code 1 / growthFactor} so that a shrunk array is not immediately shrunk again.
+     * @throws IllegalArgumentException if growthFactor is not greater than one or shrinkThreshold is out of range
+     */
+    public ResizePolicy(double growthFactor, double shrinkThreshold) {
+        if (!(growthFactor > 1.0) || Double.isInfinite(growthFactor)) {
+            throw new IllegalArgumentException("growthFactor must be greater than 1");
+        }
+        if (!(shrinkThreshold >= 0.0) || shrinkThreshold * growthFactor >= 1.0) {
+            throw new IllegalArgumentException("shrinkThreshold must be in [0, 1 / growthFactor)");
+        }
+        this.growthFactor = growthFactor;
+        this.shrinkThreshold = shrinkThreshold;
+    }
+
+    /**
+     * Get the factor the capacity is multiplied by when the array is full.
+     *
+     * @return growth factor
+     */
+    public double growthFactor() {
+        return growthFactor;
+    }
+
+    /**
+     * Get the fraction of the capacity below which the array shrinks.
+     *
+     * @return shrink threshold, zero if this policy never shrinks
+     */
+    public double shrinkThreshold() {
+        return shrinkThreshold;
+    }
+
+    /**
+     * Computes the capacity of a full array.
+     *
+     * @param capacity         current capacity
+     * @param requiredCapacity capacity needed by the pending operation
+     * @return new capacity, at least {@code requiredCapacity}
+     * @throws OutOfMemoryError if requiredCapacity cannot be held by an array
+     */
+    public int grow(int capacity, int requiredCapacity) {
+        if (requiredCapacity < 0 || requiredCapacity > MAX_CAPACITY) {
+            throw new OutOfMemoryError("required array capacity " + Integer.toUnsignedString(requiredCapacity) + " is too large");
+        }
+        final long grown = Math.max((long) (capacity * growthFactor), capacity + 1L);
+        return (int) Math.min(Math.max(grown, requiredCapacity), MAX_CAPACITY);
+    }
+
+    /**
+     * Computes the size below which an array of the given capacity should shrink. Callers compute this once per resize so that
+     * removing an element costs a single int comparison.
+     *
+     * @param capacity    current capacity
+     * @param minCapacity capacity the array never shrinks below
+     * @return size below which {@link #shrink(int, int)} should be called, zero if the array should never shrink
+     */
+    public int shrinkBelow(int capacity, int minCapacity) {
+        if (shrinkThreshold == 0.0 || capacity <= minCapacity) {
+            return 0;
+        }
+        return (int) (capacity * shrinkThreshold);
+    }
+
+    /**
+     * Computes the capacity of an array which dropped below {@link #shrinkBelow(int, int)}.
+     *
+     * @param size        current size
+     * @param minCapacity capacity the array never shrinks below
+     * @return new capacity, greater than size and at least minCapacity
+     */
+    public int shrink(int size, int minCapacity) {
+        final long shrunk = (long) Math.ceil(size * growthFactor) + 1;
+        return (int) Math.min(Math.max(shrunk, minCapacity), MAX_CAPACITY);
+    }
+
+    @Override
+    public String toString() {
+        return "ResizePolicy{growthFactor=" + growthFactor + ", shrinkThreshold=" + shrinkThreshold + '}';
+    }
+}
@@ -0,0 +1,280 @@
+package com.abstractkamen.datastructures.impl.heaps;
+
+import com.abstractkamen.datastructures.impl.utils.ResizePolicy;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.Parameterized;
+
+import java.util.*;
+import java.util.stream.Collectors;
+
+import static org.junit.Assert.*;
+
+@RunWith(Parameterized.class)
+public class BHeapTest {
+    private final int pageSize;
+
+    public BHeapTest(int pageSize) {
+        this.pageSize = pageSize;
+    }
+
+    @Parameterized.Parameters(name = "{index}: pageSize={0}")
+    public static Iterable<Object[]> data() {
+        return Arrays.asList(new Object[][]{{2}, {4}, {16}, {1024}});
+    }
+
+    @Test
+    public void push_pop_size_randomTest() {
+        for (int j = 0; j < 10; j++) {
+            // arrange
+            final BHeap<Integer> heap = BHeap.createComparable(pageSize, 1);
+            final List<Integer> expected = new ArrayList<>();
+            // act
+            new Random().ints(5000, -10000, 10000).forEach(i -> {
+                heap.push(i);
+                expected.add(i);
+            });
+            assertEquals(expected.size(), heap.size());
+            // assert
+            expected.sort(Integer::compare);
+            assertEquals(expected, popAll(heap));
+        }
+    }
+
+    @Test
+    public void pop_shouldReturnExpected_whenPushAndPopAreInterleaved() {
+        // arrange
+        final BHeap<Integer> heap = BHeap.createComparable(pageSize);
+        final PriorityQueue<Integer> expected = new PriorityQueue<>();
+        final Random r = new Random();
+        // act & assert
+        for (int i = 0; i < 20000; i++) {
+            if (expected.isEmpty() || r.nextInt(3) > 0) {
+                final int value = r.nextInt(1000);
+                heap.push(value);
+                expected.add(value);
+            } else {
+                assertEquals(expected.poll(), heap.pop());
+            }
+            assertEquals(expected.size(), heap.size());
+            assertEquals(expected.peek(), heap.peek());
+        }
+    }
+
+    @Test
+    public void pushAll_shouldReturnExpected_whenBatchIsLargerAndSmallerThanHeap() {
+        for (int batch : new int[]{1, 10, 100, 1000, 5000}) {
+            // arrange
+            final BHeap<Integer> heap = BHeap.createComparable(pageSize, 1);
+            final List<Integer> expected = new ArrayList<>();
+            final Random r = new Random();
+            heap.pushAll(r.ints(1000, 0, 10000).boxed().peek(expected::add).collect(Collectors.toList()));
+            final List<Integer> values = r.ints(batch, -10000, 10000).boxed().collect(Collectors.toList());
+            expected.addAll(values);
+            // act
+            final int size = heap.pushAll(values);
+            // assert
+            assertEquals(expected.size(), size);
+            expected.sort(Integer::compare);
+            final List<Integer> actual = new ArrayList<>();
+            assertEquals(expected.size(), heap.drainTo(actual));
+            assertEquals(expected, actual);
+        }
+    }
+
+    @Test
+    public void pushAll_shouldRestoreHeapOrderOnce_whenBatchIsAsLargeAsHeap() {
+        // arrange, every value of the batch would be sifted up to the root
+        final int n = 1000;
+        final int[] comparisons = {0};
+        final BHeap<Integer> heap = new BHeap<>((a, b) -> {
+            comparisons[0]++;
+            return Integer.compare(a, b);
+        }, pageSize);
+        final List<Integer> expected = new ArrayList<>();
+        for (int i = 0; i < n; i++) {
+            heap.push(n + i);
+            expected.add(n + i);
+        }
+        final List<Integer> batch = new ArrayList<>();
+        for (int i = n - 1; i >= 0; i--) {
+            batch.add(i);
+        }
+        expected.addAll(batch);
+        comparisons[0] = 0;
+        // act
+        heap.pushAll(batch);
+        // assert
+        assertTrue("comparisons " + comparisons[0], comparisons[0] < 4 * expected.size());
+        expected.sort(Integer::compare);
+        final List<Integer> actual = new ArrayList<>();
+        heap.drainTo(actual);
+        assertEquals(expected, actual);
+    }
+
+    @Test
+    public void restoreHeapOrder_shouldReturnExpected_whenKeysAreMutated() {
+        // arrange
+        final BHeap<int[]> heap = new BHeap<>(Comparator.comparingInt(a -> a[0]), pageSize);
+        final Random r = new Random();
+        final List<int[]> keys = new ArrayList<>();
+        for (int i = 0; i < 3000; i++) {
+            final int[] key = {r.nextInt(10000)};
+            keys.add(key);
+            heap.push(key);
+        }
+        // act
+        keys.forEach(key -> key[0] = r.nextInt(10000));
+        heap.restoreHeapOrder();
+        // assert
+        final List<Integer> expected = keys.stream().map(key -> key[0]).sorted().collect(Collectors.toList());
+        final List<Integer> actual = popAll(heap).stream().map(key -> key[0]).collect(Collectors.toList());
+        assertEquals(expected, actual);
+    }
+
+    @Test
+    public void mergeWith_shouldReturnExpected_whenOtherHeapHasDifferentPageSizeAndOrder() {
+        // arrange
+        final BHeap<Integer> left = BHeap.createComparable(pageSize);
+        final BHeap<Integer> right = new BHeap<>(((Comparator<Integer>) Integer::compare).reversed(), 8);
+        final List<Integer> expected = new ArrayList<>();
+        final Random r = new Random();
+        for (int i = 0; i < 1000; i++) {
+            final int a = r.nextInt(100000);
+            final int b = r.nextInt(100000);
+            left.push(a);
+            right.push(b);
+            expected.add(a);
+            expected.add(b);
+        }
+        // act
+        final BHeap<Integer> actual = left.mergeWith(right);
+        // assert
+        assertSame(left, actual);
+        assertEquals(expected.size(), actual.size());
+        assertEquals(1000, right.size());
+        expected.sort(Integer::compare);
+        assertEquals(expected, popAll(actual));
+    }
+
+    @Test
+    public void pop_shouldShrinkAndClearVacatedSlots_whenMostlyPopped() {
+        // arrange
+        final BHeap<Integer> heap = BHeap.createComparable(pageSize, 1);
+        final List<Integer> expected = new Random().ints(50000, -10000, 10000).boxed().collect(Collectors.toList());
+        heap.pushAll(expected);
+        final int grown = heap.getItems().length;
+        // act
+        final List<Integer> actual = new ArrayList<>();
+        heap.popN(49990, actual::add);
+        // assert
+        expected.sort(Integer::compare);
+        assertEquals(expected.subList(0, 49990), actual);
+        final Object[] items = heap.getItems();
+        assertTrue(items.length < grown / 16);
+        assertEquals(0, items.length % pageSize);
+        assertEquals(10, Arrays.stream(items).filter(Objects::nonNull).count());
+        assertEquals(expected.subList(49990, 50000), popAll(heap));
+    }
+
+    @Test
+    public void trimToSize_shouldKeepWholePagesInUse() {
+        // arrange
+        final BHeap<Integer> heap = new BHeap<>(Integer::compare, pageSize, 1, ResizePolicy.GROW_ONLY);
+        for (int i = 0; i < 5000; i++) {
+            heap.push(i);
+        }
+        heap.popN(4000, x -> {});
+        // act
+        heap.trimToSize();
+        // assert
+        final int pages = (1000 + pageSize - 2) / (pageSize - 1);
+        assertEquals(pages * pageSize, heap.getItems().length);
+        heap.push(-1);
+        assertEquals(Integer.valueOf(-1), heap.pop());
+        for (int i = 4000; i < 5000; i++) {
+            assertEquals(Integer.valueOf(i), heap.pop());
+        }
+    }
+
+    @Test(expected = ClassCastException.class)
+    public void mergeWith_shouldThrow_whenOtherIsNotBHeap() {
+        BHeap.<Integer>createComparable(pageSize).mergeWith(BinaryHeap.createComparable());
+    }
+
+    @Test(expected = NoSuchElementException.class)
+    public void pop_shouldThrow_whenEmpty() {
+        BHeap.createComparable(pageSize).pop();
+    }
+
+    @Test
+    public void peek_shouldReturnNull_whenEmpty() {
+        assertNull(BHeap.createComparable(pageSize).peek());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void constructor_shouldThrow_whenPageSizeIsNotPowerOfTwo() {
+        BHeap.createComparable(pageSize + 1);
+    }
+
+    @Test
+    public void orderedIterator_shouldReturnSortedElements_withoutModifyingHeap() {
+        // arrange
+        final BHeap<Integer> heap = BHeap.createComparable(pageSize);
+        final List<Integer> expected = new ArrayList<>();
+        new Random().ints(3000, -1000, 1000).forEach(i -> {
+            heap.push(i);
+            expected.add(i);
+        });
+        expected.sort(Integer::compare);
+        // act
+        final List<Integer> actual = new ArrayList<>();
+        heap.orderedIterator().forEachRemaining(actual::add);
+        // assert
+        assertEquals(expected, actual);
+        assertEquals(expected.subList(0, 10), heap.peekN(10));
+        assertEquals(expected.size(), heap.size());
+        assertEquals(expected, popAll(heap));
+    }
+
+    @Test
+    public void iterator_forEach_stream_shouldVisitEveryElement() {
+        // arrange
+        final BHeap<Integer> heap = BHeap.createComparable(pageSize);
+        final Map<Integer, Long> expected = new HashMap<>();
+        new Random().ints(3000, -1000, 1000).forEach(i -> {
+            heap.push(i);
+            expected.merge(i, 1L, Long::sum);
+        });
+        // act
+        final Map<Integer, Long> iterated = new HashMap<>();
+        for (Integer i : heap) {
+            iterated.merge(i, 1L, Long::sum);
+        }
+        final Map<Integer, Long> visited = new HashMap<>();
+        heap.forEach(i -> visited.merge(i, 1L, Long::sum));
+        final Map<Integer, Long> streamed = heap.stream().parallel().collect(Collectors.groupingBy(i -> i, Collectors.counting()));
+        // assert
+        assertEquals(expected, iterated);
+        assertEquals(expected, visited);
+        assertEquals(expected, streamed);
+        assertEquals(heap.size(), heap.spliterator().getExactSizeIfKnown());
+    }
+
+    @Test(expected = NoSuchElementException.class)
+    public void orderedIterator_shouldThrow_whenEmpty() {
+        final BHeap<Integer> heap = BHeap.<Integer>createComparable(pageSize);
+        assertFalse(heap.orderedIterator().hasNext());
+        assertFalse(heap.iterator().hasNext());
+        assertEquals(0, heap.peekN(3).size());
+        heap.orderedIterator().next();
+    }
+
+    private static <T> List<T> popAll(BHeap<T> heap) {
+        final List<T> result = new ArrayList<>();
+        while (!heap.isEmpty()) {
+            result.add(heap.pop());
+        }
+        return result;
+    }
+}
@@ -1,17 +1,24 @@
 package com.abstractkamen.datastructures.impl.heaps;
 
+import com.abstractkamen.datastructures.impl.utils.ResizePolicy;
 import org.junit.Test;
 
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Comparator;
 import java.util.List;
 import java.util.NoSuchElementException;
+import java.util.PriorityQueue;
 import java.util.Random;
+import java.util.stream.Collectors;
 import java.util.stream.IntStream;
 
+import static org.junit.Assert.assertArrayEquals;
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertNull;
 import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
 
 public class BinaryHeapTest {
 
@@ -319,6 +326,273 @@ public class BinaryHeapTest {
         BinaryHeap.createComparable().pop();
     }
 
+    @Test
+    public void pushAll_shouldReturnExpected_whenBatchIsLargerAndSmallerThanHeap() {
+        for (int batch : new int[]{1, 10, 100, 1000, 5000}) {
+            // arrange
+            final BinaryHeap<Integer> binaryHeap = BinaryHeap.createComparable();
+            final Random r = new Random();
+            final List<Integer> expected = new ArrayList<>();
+            for (int i = 0; i < 1000; i++) {
+                final int value = r.nextInt(10000);
+                binaryHeap.push(value);
+                expected.add(value);
+            }
+            final List<Integer> values = r.ints(batch, -10000, 10000).boxed().collect(Collectors.toList());
+            expected.addAll(values);
+            // act
+            final int size = binaryHeap.pushAll(values);
+            // assert
+            assertEquals(expected.size(), size);
+            expected.sort(Integer::compare);
+            final List<Integer> actual = new ArrayList<>();
+            assertEquals(expected.size(), binaryHeap.drainTo(actual));
+            assertEquals(expected, actual);
+            assertTrue(binaryHeap.isEmpty());
+        }
+    }
+
+    @Test
+    public void pushAll_shouldHeapifyOnce_whenBatchIsAsLargeAsHeap() {
+        // arrange, every value of the batch would be sifted up to the root
+        final int n = 1000;
+        final int[] comparisons = {0};
+        final BinaryHeap<Integer> heap = new BinaryHeap<>((a, b) -> {
+            comparisons[0]++;
+            return Integer.compare(a, b);
+        });
+        final List<Integer> expected = new ArrayList<>();
+        for (int i = 0; i < n; i++) {
+            heap.push(n + i);
+            expected.add(n + i);
+        }
+        final List<Integer> batch = new ArrayList<>();
+        for (int i = n - 1; i >= 0; i--) {
+            batch.add(i);
+        }
+        expected.addAll(batch);
+        comparisons[0] = 0;
+        // act
+        heap.pushAll(batch);
+        // assert
+        assertTrue("comparisons " + comparisons[0], comparisons[0] < 4 * expected.size());
+        expected.sort(Integer::compare);
+        final List<Integer> actual = new ArrayList<>();
+        heap.drainTo(actual);
+        assertEquals(expected, actual);
+    }
+
+    @Test
+    public void heapify_shouldReturnExpected_whenCreatedFromArrayAndCollection() {
+        // arrange
+        final Integer[] values = new Random().ints(1000, -10000, 10000).boxed().toArray(Integer[]::new);
+        final List<Integer> expected = new ArrayList<>(Arrays.asList(values));
+        expected.sort(Integer::compare);
+        // act
+        final BinaryHeap<Integer> fromArray = BinaryHeap.heapify(Integer::compare, values);
+        final BinaryHeap<Integer> fromCollection = BinaryHeap.heapify(Integer::compare, Arrays.asList(values));
+        values[0] = Integer.MIN_VALUE;
+        // assert
+        final List<Integer> actualFromArray = new ArrayList<>();
+        final List<Integer> actualFromCollection = new ArrayList<>();
+        fromArray.drainTo(actualFromArray);
+        fromCollection.drainTo(actualFromCollection);
+        assertEquals(expected, actualFromArray);
+        assertEquals(expected, actualFromCollection);
+        // the heap keeps growing after being created from an exactly sized batch
+        final BinaryHeap<Integer> small = BinaryHeap.heapify(Integer::compare, new Integer[]{3, 1, 2});
+        IntStream.range(4, 100).forEach(small::push);
+        assertEquals(99, small.size());
+        assertEquals(Integer.valueOf(1), small.peek());
+    }
+
+    @Test
+    public void popN_shouldPopInOrder_andStopAtSize() {
+        // arrange
+        final BinaryHeap<Integer> binaryHeap = BinaryHeap.createComparable();
+        binaryHeap.pushAll(Arrays.asList(5, 3, 9, 1, 7));
+        final List<Integer> actual = new ArrayList<>();
+        // act & assert
+        assertEquals(2, binaryHeap.popN(2, actual::add));
+        assertEquals(Arrays.asList(1, 3), actual);
+        assertEquals(3, binaryHeap.popN(10, actual::add));
+        assertEquals(Arrays.asList(1, 3, 5, 7, 9), actual);
+        assertEquals(0, binaryHeap.popN(1, actual::add));
+    }
+
+    @Test
+    public void pushPop_replaceTop_shouldMatchPushThenPop_randomTest() {
+        // arrange
+        final BinaryHeap<Integer> binaryHeap = BinaryHeap.createComparable();
+        final PriorityQueue<Integer> expected = new PriorityQueue<>();
+        final Random r = new Random();
+        for (int i = 0; i < 100; i++) {
+            final int value = r.nextInt(1000);
+            binaryHeap.push(value);
+            expected.add(value);
+        }
+        // act & assert
+        for (int i = 0; i < 10000; i++) {
+            final Integer value = r.nextInt(1000);
+            if (r.nextBoolean()) {
+                expected.add(value);
+                final Integer popped = binaryHeap.pushPop(value);
+                assertEquals(expected.poll(), popped);
+            } else {
+                assertEquals(expected.poll(), binaryHeap.replaceTop(value));
+                expected.add(value);
+            }
+            assertEquals(expected.size(), binaryHeap.size());
+            assertEquals(expected.peek(), binaryHeap.peek());
+        }
+    }
+
+    @Test
+    public void pushPop_shouldReturnItem_whenEmptyOrBest() {
+        final BinaryHeap<Integer> binaryHeap = BinaryHeap.createComparable();
+        final Integer one = 1;
+        assertSame(one, binaryHeap.pushPop(one));
+        assertTrue(binaryHeap.isEmpty());
+        binaryHeap.push(5);
+        assertSame(one, binaryHeap.pushPop(one));
+        assertEquals(Integer.valueOf(5), binaryHeap.pushPop(7));
+        assertEquals(Integer.valueOf(7), binaryHeap.peek());
+    }
+
+    @Test(expected = NoSuchElementException.class)
+    public void replaceTop_shouldThrow_whenEmpty() {
+        BinaryHeap.<Integer>createComparable().replaceTop(1);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void popN_shouldThrow_whenNegative() {
+        BinaryHeap.createComparable().popN(-1, x -> {});
+    }
+
+    @Test
+    public void pop_shouldClearVacatedSlots() {
+        // arrange
+        final BinaryHeap<Integer> binaryHeap = BinaryHeap.createComparable(64);
+        new Random().ints(50, -100, 100).forEach(binaryHeap::push);
+        // act
+        binaryHeap.popN(50, x -> {});
+        // assert
+        for (Object item : binaryHeap.getItems()) {
+            assertNull(item);
+        }
+    }
+
+    @Test
+    public void pop_shouldShrinkWithHysteresis_whenMostlyPopped() {
+        // arrange
+        final BinaryHeap<Integer> binaryHeap = BinaryHeap.createComparable();
+        final PriorityQueue<Integer> expected = new PriorityQueue<>();
+        new Random().ints(10000, -10000, 10000).forEach(i -> {
+            binaryHeap.push(i);
+            expected.add(i);
+        });
+        final int grown = binaryHeap.getItems().length;
+        // act & assert
+        while (binaryHeap.size() > 10) {
+            assertEquals(expected.poll(), binaryHeap.pop());
+        }
+        assertTrue(binaryHeap.getItems().length < grown / 64);
+        assertTrue(binaryHeap.getItems().length >= BinaryHeap.DEFAULT_CAPACITY);
+        final int shrunk = binaryHeap.getItems().length;
+        binaryHeap.push(expected.peek());
+        binaryHeap.pop();
+        assertEquals(shrunk, binaryHeap.getItems().length);
+        while (!expected.isEmpty()) {
+            assertEquals(expected.poll(), binaryHeap.pop());
+        }
+    }
+
+    @Test
+    public void pop_shouldNotShrink_whenGrowOnly() {
+        // arrange
+        final BinaryHeap<Integer> binaryHeap = new BinaryHeap<>(Integer::compare, 1, ResizePolicy.GROW_ONLY);
+        IntStream.range(0, 1000).forEach(binaryHeap::push);
+        final int grown = binaryHeap.getItems().length;
+        // act
+        binaryHeap.popN(999, x -> {});
+        // assert
+        assertEquals(grown, binaryHeap.getItems().length);
+    }
+
+    @Test
+    public void trimToSize_shouldReleaseSpareSlots() {
+        // arrange
+        final BinaryHeap<Integer> binaryHeap = new BinaryHeap<>(Integer::compare, 1, ResizePolicy.GROW_ONLY);
+        final List<Integer> expected = new Random().ints(1000, -1000, 1000).boxed().collect(Collectors.toList());
+        expected.forEach(binaryHeap::push);
+        binaryHeap.popN(900, x -> {});
+        // act
+        binaryHeap.trimToSize();
+        // assert
+        assertEquals(100, binaryHeap.getItems().length);
+        binaryHeap.push(5000);
+        expected.sort(Integer::compare);
+        final List<Integer> actual = new ArrayList<>();
+        binaryHeap.drainTo(actual);
+        assertEquals(expected.subList(900, 1000), actual.subList(0, 100));
+        assertEquals(Integer.valueOf(5000), actual.get(100));
+    }
+
+    @Test
+    public void orderedIterator_shouldReturnSortedElements_withoutModifyingHeap() {
+        // arrange
+        final BinaryHeap<Integer> heap = BinaryHeap.createComparable();
+        final List<Integer> expected = new ArrayList<>();
+        new Random().ints(3000, -1000, 1000).forEach(i -> {
+            heap.push(i);
+            expected.add(i);
+        });
+        expected.sort(Integer::compare);
+        final Object[] before = Arrays.copyOf(heap.getItems(), heap.size());
+        // act
+        final List<Integer> actual = new ArrayList<>();
+        heap.orderedIterator().forEachRemaining(actual::add);
+        // assert
+        assertEquals(expected, actual);
+        assertEquals(expected.subList(0, 10), heap.peekN(10));
+        assertArrayEquals(before, Arrays.copyOf(heap.getItems(), heap.size()));
+    }
+
+    @Test
+    public void iterator_forEach_stream_shouldVisitEveryElementInArrayOrder() {
+        // arrange
+        final BinaryHeap<Integer> heap = BinaryHeap.createComparable();
+        new Random().ints(3000, -1000, 1000).forEach(heap::push);
+        final List<Object> expected = Arrays.asList(Arrays.copyOf(heap.getItems(), heap.size()));
+        // act
+        final List<Object> iterated = new ArrayList<>();
+        for (Integer i : heap) {
+            iterated.add(i);
+        }
+        final List<Object> visited = new ArrayList<>();
+        heap.forEach(visited::add);
+        final List<Object> streamed = heap.stream().parallel().collect(Collectors.toList());
+        // assert
+        assertEquals(expected, iterated);
+        assertEquals(expected, visited);
+        assertEquals(expected, streamed);
+        assertEquals(heap.size(), heap.spliterator().getExactSizeIfKnown());
+    }
+
+    @Test(expected = NoSuchElementException.class)
+    public void orderedIterator_shouldThrow_whenEmpty() {
+        final BinaryHeap<Integer> heap = BinaryHeap.createComparable();
+        assertFalse(heap.orderedIterator().hasNext());
+        assertFalse(heap.iterator().hasNext());
+        assertEquals(0, heap.peekN(3).size());
+        heap.orderedIterator().next();
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void peekN_shouldThrow_whenNegative() {
+        BinaryHeap.createComparable().peekN(-1);
+    }
+
     private static class Mutable {
         int m;
 
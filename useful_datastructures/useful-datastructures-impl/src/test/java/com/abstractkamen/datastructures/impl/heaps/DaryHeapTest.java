@@ -0,0 +1,327 @@
+package com.abstractkamen.datastructures.impl.heaps;
+
+import com.abstractkamen.datastructures.impl.utils.ResizePolicy;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.Parameterized;
+
+import java.util.*;
+import java.util.stream.Collectors;
+
+import static org.junit.Assert.*;
+
+@RunWith(Parameterized.class)
+public class DaryHeapTest {
+    private final int arity;
+
+    public DaryHeapTest(int arity) {
+        this.arity = arity;
+    }
+
+    @Parameterized.Parameters(name = "{index}: arity={0}")
+    public static Iterable<Object[]> data() {
+        return Arrays.asList(new Object[][]{{2}, {4}, {8}, {16}});
+    }
+
+    @Test
+    public void push_pop_size_randomTest() {
+        for (int j = 0; j < 10; j++) {
+            // arrange
+            final DaryHeap<Integer> heap = DaryHeap.createComparable(arity, 1);
+            final List<Integer> expected = new ArrayList<>();
+            // act
+            new Random().ints(1000, -10000, 10000).forEach(i -> {
+                heap.push(i);
+                expected.add(i);
+            });
+            assertEquals(expected.size(), heap.size());
+            // assert
+            expected.sort(Integer::compare);
+            assertEquals(expected, popAll(heap));
+        }
+    }
+
+    @Test
+    public void pop_shouldReturnExpected_whenPushAndPopAreInterleaved() {
+        // arrange
+        final DaryHeap<Integer> heap = DaryHeap.createComparable(arity);
+        final PriorityQueue<Integer> expected = new PriorityQueue<>();
+        final Random r = new Random();
+        // act & assert
+        for (int i = 0; i < 10000; i++) {
+            if (expected.isEmpty() || r.nextInt(3) > 0) {
+                final int value = r.nextInt(1000);
+                heap.push(value);
+                expected.add(value);
+            } else {
+                assertEquals(expected.poll(), heap.pop());
+            }
+            assertEquals(expected.size(), heap.size());
+            assertEquals(expected.peek(), heap.peek());
+        }
+    }
+
+    @Test
+    public void pushAll_shouldReturnExpected_whenBatchIsLargerAndSmallerThanHeap() {
+        for (int batch : new int[]{1, 10, 100, 1000, 5000}) {
+            // arrange
+            final DaryHeap<Integer> heap = DaryHeap.createComparable(arity, 1);
+            final List<Integer> expected = new ArrayList<>();
+            final Random r = new Random();
+            heap.pushAll(r.ints(1000, 0, 10000).boxed().peek(expected::add).collect(Collectors.toList()));
+            final List<Integer> values = r.ints(batch, -10000, 10000).boxed().collect(Collectors.toList());
+            expected.addAll(values);
+            // act
+            final int size = heap.pushAll(values);
+            // assert
+            assertEquals(expected.size(), size);
+            expected.sort(Integer::compare);
+            final List<Integer> actual = new ArrayList<>();
+            assertEquals(expected.size(), heap.drainTo(actual));
+            assertEquals(expected, actual);
+        }
+    }
+
+    @Test
+    public void pushAll_shouldHeapifyOnce_whenBatchIsAsLargeAsHeap() {
+        // arrange, every value of the batch would be sifted up to the root
+        final int n = 1000;
+        final int[] comparisons = {0};
+        final DaryHeap<Integer> heap = new DaryHeap<>((a, b) -> {
+            comparisons[0]++;
+            return Integer.compare(a, b);
+        }, arity);
+        final List<Integer> expected = new ArrayList<>();
+        for (int i = 0; i < n; i++) {
+            heap.push(n + i);
+            expected.add(n + i);
+        }
+        final List<Integer> batch = new ArrayList<>();
+        for (int i = n - 1; i >= 0; i--) {
+            batch.add(i);
+        }
+        expected.addAll(batch);
+        comparisons[0] = 0;
+        // act
+        heap.pushAll(batch);
+        // assert
+        assertTrue("comparisons " + comparisons[0], comparisons[0] < 4 * expected.size());
+        expected.sort(Integer::compare);
+        final List<Integer> actual = new ArrayList<>();
+        heap.drainTo(actual);
+        assertEquals(expected, actual);
+    }
+
+    @Test
+    public void decreaseKey_increaseKey_shouldKeepOrder_whenRandomKeysAreReplaced() {
+        for (int j = 0; j < 10; j++) {
+            // arrange
+            final Random r = new Random();
+            final DaryHeap<Key> heap = new DaryHeap<>(Key.COMPARATOR, arity, 1);
+            final Key[] keys = new Key[500];
+            for (int i = 0; i < keys.length; i++) {
+                keys[i] = new Key(r.nextInt(10000));
+                heap.push(keys[i]);
+            }
+            // act
+            for (int k = 0; k < 2000; k++) {
+                final int i = r.nextInt(keys.length);
+                final Key adjusted = new Key(r.nextInt(10000));
+                final int compare = Key.COMPARATOR.compare(keys[i], adjusted);
+                if (compare > 0) {
+                    assertTrue(heap.decreaseKey(keys[i], adjusted));
+                    keys[i] = adjusted;
+                } else if (compare < 0) {
+                    assertTrue(heap.increaseKey(keys[i], adjusted));
+                    keys[i] = adjusted;
+                }
+            }
+            // assert
+            assertEquals(keys.length, heap.size());
+            final List<Key> expected = new ArrayList<>(Arrays.asList(keys));
+            expected.sort(Key.COMPARATOR);
+            final List<Key> actual = popAll(heap);
+            for (int i = 0; i < expected.size(); i++) {
+                assertEquals(expected.get(i).value, actual.get(i).value);
+            }
+        }
+    }
+
+    @Test
+    public void decreaseKey_increaseKey_shouldReturnFalse_whenWrongDirection() {
+        final DaryHeap<Key> heap = new DaryHeap<>(Key.COMPARATOR, arity);
+        final Key five = new Key(5);
+        heap.push(five);
+        assertFalse(heap.decreaseKey(five, new Key(6)));
+        assertFalse(heap.increaseKey(five, new Key(4)));
+        assertSame(five, heap.peek());
+    }
+
+    @Test
+    public void decreaseKey_shouldPush_whenItemIsNotPresent() {
+        final DaryHeap<Key> heap = new DaryHeap<>(Key.COMPARATOR, arity);
+        heap.push(new Key(5));
+        final Key decreased = new Key(1);
+        assertTrue(heap.decreaseKey(new Key(10), decreased));
+        assertEquals(2, heap.size());
+        assertSame(decreased, heap.peek());
+    }
+
+    @Test
+    public void mergeWith_shouldReturnExpected_whenOtherHeapHasDifferentArityAndOrder() {
+        // arrange
+        final DaryHeap<Integer> left = DaryHeap.createComparable(arity);
+        final DaryHeap<Integer> right = new DaryHeap<>(((Comparator<Integer>) Integer::compare).reversed(), 2);
+        final List<Integer> expected = new ArrayList<>();
+        final Random r = new Random();
+        for (int i = 0; i < 1000; i++) {
+            final int a = r.nextInt(100000);
+            final int b = r.nextInt(100000);
+            left.push(a);
+            right.push(b);
+            expected.add(a);
+            expected.add(b);
+        }
+        // act
+        final DaryHeap<Integer> actual = left.mergeWith(right);
+        // assert
+        assertSame(left, actual);
+        assertEquals(expected.size(), actual.size());
+        expected.sort(Integer::compare);
+        assertEquals(expected, popAll(actual));
+    }
+
+    @Test(expected = ClassCastException.class)
+    public void mergeWith_shouldThrow_whenOtherIsNotDaryHeap() {
+        DaryHeap.<Integer>createComparable(arity).mergeWith(BinaryHeap.createComparable());
+    }
+
+    @Test(expected = NoSuchElementException.class)
+    public void pop_shouldThrow_whenEmpty() {
+        DaryHeap.createComparable(arity).pop();
+    }
+
+    @Test
+    public void peek_shouldReturnNull_whenEmpty() {
+        assertNull(DaryHeap.createComparable(arity).peek());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void constructor_shouldThrow_whenArityIsNotPowerOfTwo() {
+        DaryHeap.createComparable(arity + 1);
+    }
+
+    @Test
+    public void pop_shouldShrinkAndClearVacatedSlots_whenMostlyPopped() {
+        // arrange
+        final DaryHeap<Integer> heap = DaryHeap.createComparable(arity);
+        final List<Integer> expected = new Random().ints(10000, -10000, 10000).boxed().collect(Collectors.toList());
+        heap.pushAll(expected);
+        final int grown = heap.getItems().length;
+        // act
+        final List<Integer> actual = new ArrayList<>();
+        heap.popN(9990, actual::add);
+        // assert
+        expected.sort(Integer::compare);
+        assertEquals(expected.subList(0, 9990), actual);
+        final Object[] items = heap.getItems();
+        assertTrue(items.length < grown / 64);
+        for (int i = heap.size(); i < items.length; i++) {
+            assertNull(items[i]);
+        }
+        assertEquals(expected.subList(9990, 10000), popAll(heap));
+    }
+
+    @Test
+    public void trimToSize_shouldReleaseSpareSlots() {
+        // arrange
+        final DaryHeap<Integer> heap = new DaryHeap<>(Integer::compare, arity, 1, ResizePolicy.GROW_ONLY);
+        for (int i = 0; i < 1000; i++) {
+            heap.push(i);
+        }
+        heap.popN(900, x -> {});
+        // act
+        heap.trimToSize();
+        // assert
+        assertEquals(100, heap.getItems().length);
+        heap.push(-1);
+        assertEquals(Integer.valueOf(-1), heap.pop());
+        assertEquals(Integer.valueOf(900), heap.peek());
+        assertEquals(100, heap.size());
+    }
+
+    private static <T> List<T> popAll(DaryHeap<T> heap) {
+        final List<T> popped = new ArrayList<>();
+        while (!heap.isEmpty()) {
+            popped.add(heap.pop());
+        }
+        return popped;
+    }
+
+    @Test
+    public void orderedIterator_shouldReturnSortedElements_withoutModifyingHeap() {
+        // arrange
+        final DaryHeap<Integer> heap = DaryHeap.createComparable(arity);
+        final List<Integer> expected = new ArrayList<>();
+        new Random().ints(3000, -1000, 1000).forEach(i -> {
+            heap.push(i);
+            expected.add(i);
+        });
+        expected.sort(Integer::compare);
+        // act
+        final List<Integer> actual = new ArrayList<>();
+        heap.orderedIterator().forEachRemaining(actual::add);
+        // assert
+        assertEquals(expected, actual);
+        assertEquals(expected.subList(0, 10), heap.peekN(10));
+        assertEquals(expected.size(), heap.size());
+        assertEquals(expected, popAll(heap));
+    }
+
+    @Test
+    public void iterator_forEach_stream_shouldVisitEveryElement() {
+        // arrange
+        final DaryHeap<Integer> heap = DaryHeap.createComparable(arity);
+        final Map<Integer, Long> expected = new HashMap<>();
+        new Random().ints(3000, -1000, 1000).forEach(i -> {
+            heap.push(i);
+            expected.merge(i, 1L, Long::sum);
+        });
+        // act
+        final Map<Integer, Long> iterated = new HashMap<>();
+        for (Integer i : heap) {
+            iterated.merge(i, 1L, Long::sum);
+        }
+        final Map<Integer, Long> visited = new HashMap<>();
+        heap.forEach(i -> visited.merge(i, 1L, Long::sum));
+        final Map<Integer, Long> streamed = heap.stream().parallel().collect(Collectors.groupingBy(i -> i, Collectors.counting()));
+        // assert
+        assertEquals(expected, iterated);
+        assertEquals(expected, visited);
+        assertEquals(expected, streamed);
+        assertEquals(heap.size(), heap.spliterator().getExactSizeIfKnown());
+    }
+
+    @Test(expected = NoSuchElementException.class)
+    public void orderedIterator_shouldThrow_whenEmpty() {
+        final DaryHeap<Integer> heap = DaryHeap.<Integer>createComparable(arity);
+        assertFalse(heap.orderedIterator().hasNext());
+        assertFalse(heap.iterator().hasNext());
+        assertEquals(0, heap.peekN(3).size());
+        heap.orderedIterator().next();
+    }
+
+    private static class Key {
+        static final Comparator<Key> COMPARATOR = Comparator.comparingInt(k -> k.value);
+        final int value;
+
+        Key(int value) {
+            this.value = value;
+        }
+
+        @Override
+        public String toString() {
+            return "" + value;
+        }
+    }
+}
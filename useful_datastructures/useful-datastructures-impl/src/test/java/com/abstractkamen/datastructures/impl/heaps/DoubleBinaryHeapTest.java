@@ -0,0 +1,277 @@
+package com.abstractkamen.datastructures.impl.heaps;
+
+import com.abstractkamen.datastructures.api.heaps.DoubleComparator;
+import com.abstractkamen.datastructures.impl.utils.ResizePolicy;
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.NoSuchElementException;
+import java.util.PriorityQueue;
+import java.util.Random;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+public class DoubleBinaryHeapTest {
+
+    @Test
+    public void push_pop_size_randomTest() {
+        for (int j = 0; j < 10; j++) {
+            // arrange
+            final DoubleBinaryHeap heap = DoubleBinaryHeap.createMin();
+            final double[] values = new Random().doubles(1000, -10000, 10000).toArray();
+            // act
+            for (double value : values) {
+                heap.push(value);
+            }
+            assertEquals(values.length, heap.size());
+            final double[] actual = new double[values.length];
+            for (int i = 0; !heap.isEmpty(); i++) {
+                actual[i] = heap.pop();
+            }
+            // assert
+            Arrays.sort(values);
+            assertArrayEquals(values, actual, 0);
+        }
+    }
+
+    @Test
+    public void push_pop_shouldReturnDescending_whenMaxHeap() {
+        // arrange
+        final DoubleBinaryHeap heap = DoubleBinaryHeap.createMax(1);
+        final double[] values = new Random().doubles(1000, -1e300, 1e300).toArray();
+        // act
+        for (double value : values) {
+            heap.push(value);
+        }
+        // assert
+        double prev = Double.POSITIVE_INFINITY;
+        while (!heap.isEmpty()) {
+            final double max = heap.pop();
+            assertTrue(max <= prev);
+            prev = max;
+        }
+    }
+
+    @Test
+    public void push_pop_shouldRespectCustomComparator() {
+        // arrange - order by absolute value
+        final DoubleComparator byAbs = (a, b) -> Double.compare(Math.abs(a), Math.abs(b));
+        final DoubleBinaryHeap heap = new DoubleBinaryHeap(byAbs);
+        // act
+        heap.push(-5);
+        heap.push(3);
+        heap.push(-1);
+        heap.push(4);
+        // assert
+        assertSame(byAbs, heap.comparator());
+        assertEquals(-1, heap.pop(), 0);
+        assertEquals(3, heap.pop(), 0);
+        assertEquals(4, heap.pop(), 0);
+        assertEquals(-5, heap.pop(), 0);
+    }
+
+    @Test
+    public void push_sizeTest() {
+        final DoubleBinaryHeap heap = DoubleBinaryHeap.createMin(1);
+        for (int i = 0; i < 10; i++) {
+            assertEquals(i + 1, heap.push(i));
+        }
+    }
+
+    @Test
+    public void peekTest() {
+        final DoubleBinaryHeap heap = DoubleBinaryHeap.createMin();
+        heap.push(0);
+        assertEquals(0, heap.peek(), 0);
+        heap.push(1);
+        assertEquals(0, heap.peek(), 0);
+        heap.push(-1);
+        assertEquals(-1, heap.peek(), 0);
+        assertEquals(3, heap.size());
+    }
+
+    @Test
+    public void mergeWith_shouldReturnExpected_whenSecondHeapHasReversedOrder() {
+        // arrange
+        final DoubleBinaryHeap left = DoubleBinaryHeap.createMin();
+        final DoubleBinaryHeap right = DoubleBinaryHeap.createMax();
+        final Random r = new Random();
+        final double[] leftValues = r.doubles(1000, -10000, 10000).toArray();
+        final double[] rightValues = r.doubles(500, -10000, 10000).toArray();
+        Arrays.stream(leftValues).forEach(left::push);
+        Arrays.stream(rightValues).forEach(right::push);
+        // act
+        final DoubleBinaryHeap actual = left.mergeWith(right);
+        // assert
+        assertSame(left, actual);
+        assertEquals(leftValues.length + rightValues.length, actual.size());
+        final double[] expected = new double[actual.size()];
+        System.arraycopy(leftValues, 0, expected, 0, leftValues.length);
+        System.arraycopy(rightValues, 0, expected, leftValues.length, rightValues.length);
+        Arrays.sort(expected);
+        final double[] merged = new double[actual.size()];
+        for (int i = 0; !actual.isEmpty(); i++) {
+            merged[i] = actual.pop();
+        }
+        assertArrayEquals(expected, merged, 0);
+    }
+
+    @Test
+    public void pushAll_shouldReturnExpected_whenBatchIsLargerAndSmallerThanHeap() {
+        for (int batch : new int[]{1, 10, 100, 1000, 5000}) {
+            // arrange
+            final DoubleBinaryHeap heap = DoubleBinaryHeap.createMin();
+            final double[] initial = new Random().doubles(1000, -10000, 10000).toArray();
+            heap.pushAll(initial);
+            final double[] values = new Random().doubles(batch, -10000, 10000).toArray();
+            // act
+            final int size = heap.pushAll(values);
+            // assert
+            assertEquals(initial.length + batch, size);
+            final double[] expected = new double[size];
+            System.arraycopy(initial, 0, expected, 0, initial.length);
+            System.arraycopy(values, 0, expected, initial.length, batch);
+            Arrays.sort(expected);
+            final double[] actual = new double[size];
+            final int[] i = {0};
+            assertEquals(size, heap.popN(size, v -> actual[i[0]++] = v));
+            assertArrayEquals(expected, actual, 0);
+        }
+    }
+
+    @Test
+    public void pushAll_shouldHeapifyOnce_whenBatchIsAsLargeAsHeap() {
+        // arrange, every value of the batch would be sifted up to the root
+        final int n = 1000;
+        final int[] comparisons = {0};
+        final DoubleBinaryHeap heap = new DoubleBinaryHeap((a, b) -> {
+            comparisons[0]++;
+            return Double.compare(a, b);
+        });
+        for (int i = 0; i < n; i++) {
+            heap.push(n + i);
+        }
+        final double[] batch = new double[n];
+        for (int i = 0; i < n; i++) {
+            batch[i] = n - 1 - i;
+        }
+        comparisons[0] = 0;
+        // act
+        heap.pushAll(batch);
+        // assert
+        assertTrue("comparisons " + comparisons[0], comparisons[0] < 4 * 2 * n);
+        for (int i = 0; i < 2 * n; i++) {
+            assertEquals(i, heap.pop(), 0.0);
+        }
+        assertTrue(heap.isEmpty());
+    }
+
+    @Test
+    public void heapify_shouldReturnExpected_andCopyValues() {
+        // arrange
+        final double[] values = new Random().doubles(1000, -10000, 10000).toArray();
+        final double[] expected = values.clone();
+        Arrays.sort(expected);
+        // act
+        final DoubleBinaryHeap heap = DoubleBinaryHeap.heapify(DoubleComparator.naturalOrder(), values);
+        values[0] = -20000;
+        // assert
+        final double[] actual = new double[values.length];
+        final int[] i = {0};
+        assertEquals(3, heap.popN(3, v -> actual[i[0]++] = v));
+        heap.popN(Integer.MAX_VALUE, v -> actual[i[0]++] = v);
+        assertArrayEquals(expected, actual, 0);
+        assertTrue(heap.isEmpty());
+    }
+
+    @Test
+    public void pushPop_replaceTop_shouldMatchPushThenPop_randomTest() {
+        // arrange
+        final DoubleBinaryHeap heap = DoubleBinaryHeap.createMin();
+        final PriorityQueue<Double> expected = new PriorityQueue<>();
+        final Random r = new Random();
+        for (int i = 0; i < 100; i++) {
+            final double value = r.nextInt(1000);
+            heap.push(value);
+            expected.add(value);
+        }
+        // act & assert
+        for (int i = 0; i < 10000; i++) {
+            final double value = r.nextInt(1000);
+            if (r.nextBoolean()) {
+                expected.add(value);
+                assertEquals(expected.poll().doubleValue(), heap.pushPop(value), 0);
+            } else {
+                assertEquals(expected.poll().doubleValue(), heap.replaceTop(value), 0);
+                expected.add(value);
+            }
+            assertEquals(expected.size(), heap.size());
+            assertEquals(expected.peek().doubleValue(), heap.peek(), 0);
+        }
+    }
+
+    @Test
+    public void pop_shouldShrinkAndKeepOrder_whenMostlyPopped() {
+        // arrange
+        final DoubleBinaryHeap heap = DoubleBinaryHeap.createMin();
+        final PriorityQueue<Double> expected = new PriorityQueue<>();
+        final Random r = new Random();
+        for (int i = 0; i < 10000; i++) {
+            final double value = r.nextDouble();
+            heap.push(value);
+            expected.add(value);
+        }
+        final int grown = heap.getItems().length;
+        // act & assert
+        while (heap.size() > 10) {
+            assertEquals(expected.poll(), heap.pop(), 0);
+        }
+        assertTrue(heap.getItems().length < grown / 64);
+        assertTrue(heap.getItems().length >= BinaryHeap.DEFAULT_CAPACITY);
+        while (!expected.isEmpty()) {
+            assertEquals(expected.poll(), heap.pop(), 0);
+        }
+    }
+
+    @Test
+    public void trimToSize_shouldReleaseSpareSlots() {
+        // arrange
+        final DoubleBinaryHeap heap = new DoubleBinaryHeap(DoubleComparator.naturalOrder(), 1, ResizePolicy.GROW_ONLY);
+        for (int i = 0; i < 1000; i++) {
+            heap.push(i);
+        }
+        heap.popN(900, x -> {});
+        // act
+        heap.trimToSize();
+        // assert
+        assertEquals(100, heap.getItems().length);
+        heap.push(-1);
+        assertEquals(-1, heap.pop(), 0);
+        for (int i = 900; i < 1000; i++) {
+            assertEquals(i, heap.pop(), 0);
+        }
+    }
+
+    @Test(expected = NoSuchElementException.class)
+    public void replaceTop_shouldThrow_whenEmpty() {
+        DoubleBinaryHeap.createMin().replaceTop(1);
+    }
+
+    @Test(expected = NoSuchElementException.class)
+    public void pop_shouldThrow_whenEmpty() {
+        DoubleBinaryHeap.createMin().pop();
+    }
+
+    @Test(expected = NoSuchElementException.class)
+    public void peek_shouldThrow_whenEmpty() {
+        DoubleBinaryHeap.createMin().peek();
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void test_heapCapacity_shouldThrow_whenZero() {
+        DoubleBinaryHeap.createMin(0);
+    }
+}
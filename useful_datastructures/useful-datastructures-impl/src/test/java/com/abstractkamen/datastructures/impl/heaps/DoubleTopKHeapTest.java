@@ -0,0 +1,80 @@
+package com.abstractkamen.datastructures.impl.heaps;
+
+import com.abstractkamen.datastructures.api.heaps.DoubleComparator;
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.NoSuchElementException;
+import java.util.Random;
+
+import static org.junit.Assert.*;
+
+public class DoubleTopKHeapTest {
+
+    @Test
+    public void offer_shouldKeepLargest_randomTest() {
+        for (int k : new int[]{1, 10, 100, 1000, 5000}) {
+            // arrange
+            final DoubleTopKHeap heap = DoubleTopKHeap.createLargest(k);
+            final double[] values = new Random().doubles(2000, -10000, 10000).toArray();
+            // act
+            for (double value : values) {
+                heap.offer(value);
+            }
+            // assert
+            Arrays.sort(values);
+            final int n = Math.min(k, values.length);
+            final double[] expected = new double[n];
+            for (int i = 0; i < n; i++) {
+                expected[i] = values[values.length - 1 - i];
+            }
+            assertEquals(n, heap.size());
+            assertArrayEquals(expected, heap.toSortedArray(), 0);
+            assertEquals(expected[n - 1], heap.peek(), 0);
+        }
+    }
+
+    @Test
+    public void offer_shouldKeepSmallest_whenCreatedSmallest() {
+        // arrange
+        final DoubleTopKHeap heap = DoubleTopKHeap.createSmallest(3);
+        // act & assert
+        for (double value : new double[]{7, 3, 9, 1}) {
+            assertTrue(heap.offer(value));
+        }
+        assertFalse(heap.offer(8));
+        assertEquals(3, heap.push(2));
+        assertArrayEquals(new double[]{1, 2, 3}, heap.toSortedArray(), 0);
+        assertEquals(3, heap.pop(), 0);
+    }
+
+    @Test
+    public void collect_shouldSelectLargest_whenParallelStream() {
+        // arrange
+        final double[] values = new Random().doubles(100000, -1000000, 1000000).toArray();
+        // act
+        final double[] actual = Arrays.stream(values).parallel()
+            .collect(() -> DoubleTopKHeap.createLargest(10), DoubleTopKHeap::offer, DoubleTopKHeap::mergeWith)
+            .toSortedArray();
+        // assert
+        final double[] expected = Arrays.stream(values).boxed().sorted((a, b) -> Double.compare(b, a)).limit(10)
+            .mapToDouble(Double::doubleValue).toArray();
+        assertArrayEquals(expected, actual, 0);
+    }
+
+    @Test
+    public void comparator_shouldReturnGivenComparator() {
+        final DoubleComparator comparator = DoubleComparator.naturalOrder();
+        assertSame(comparator, new DoubleTopKHeap(comparator, 1).comparator());
+    }
+
+    @Test(expected = NoSuchElementException.class)
+    public void pop_shouldThrow_whenEmpty() {
+        DoubleTopKHeap.createLargest(1).pop();
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void constructor_shouldThrow_whenKIsZero() {
+        DoubleTopKHeap.createLargest(0);
+    }
+}
@@ -0,0 +1,70 @@
+package com.abstractkamen.datastructures.impl.heaps;
+
+import com.abstractkamen.datastructures.api.heaps.Heap;
+import org.junit.Test;
+
+import java.util.*;
+
+import static org.junit.Assert.*;
+
+public class FibonacciHeapTest extends MergeableAdjustableHeapTest {
+
+    @Override
+    protected <T> Heap<T> create(Comparator<T> comparator) {
+        return new FibonacciHeap<>(comparator);
+    }
+
+    @Test
+    public void decreaseKey_shouldKeepOrder_whenCutsCascadeInConsolidatedTree() {
+        for (int k = 2; k <= 8; k++) {
+            // arrange, popping the first of 2^k + 1 keys consolidates the rest into a single tree of degree k
+            final FibonacciHeap<Key> heap = new FibonacciHeap<>(Key.COMPARATOR);
+            final List<Key> keys = new ArrayList<>();
+            for (int i = 0; i <= 1 << k; i++) {
+                final Key key = new Key(i);
+                keys.add(key);
+                heap.push(key);
+            }
+            heap.pop();
+            keys.remove(0);
+            // act, cutting the deepest nodes first cuts second children of marked parents
+            for (int i = keys.size() - 1, value = -1; i >= keys.size() / 2; i--, value--) {
+                final Key key = keys.get(i);
+                key.value = value;
+                assertTrue(heap.decreaseKey(key, key));
+                assertSame(key, heap.peek());
+            }
+            // assert
+            keys.sort(Key.COMPARATOR);
+            final List<Key> popped = popAll(heap);
+            for (int i = 0; i < keys.size(); i++) {
+                assertSame(keys.get(i), popped.get(i));
+            }
+        }
+    }
+
+    @Test
+    public void increaseKey_shouldPromoteChildren_whenMinimumHasChildren() {
+        // arrange
+        final FibonacciHeap<Key> heap = new FibonacciHeap<>(Key.COMPARATOR);
+        final List<Key> keys = new ArrayList<>();
+        for (int i = 0; i <= 16; i++) {
+            final Key key = new Key(i);
+            keys.add(key);
+            heap.push(key);
+        }
+        heap.pop();
+        keys.remove(0);
+        final Key min = heap.peek();
+        // act
+        min.value = 100;
+        assertTrue(heap.increaseKey(min, min));
+        // assert
+        assertEquals(2, heap.peek().value);
+        keys.sort(Key.COMPARATOR);
+        final List<Key> popped = popAll(heap);
+        for (int i = 0; i < keys.size(); i++) {
+            assertSame(keys.get(i), popped.get(i));
+        }
+    }
+}
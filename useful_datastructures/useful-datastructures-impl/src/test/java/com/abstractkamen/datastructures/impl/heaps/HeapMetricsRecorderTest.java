@@ -0,0 +1,178 @@
+package com.abstractkamen.datastructures.impl.heaps;
+
+import com.abstractkamen.datastructures.impl.utils.ResizePolicy;
+import org.junit.Test;
+
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import java.lang.management.ManagementFactory;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+public class HeapMetricsRecorderTest {
+
+    @Test
+    public void metrics_shouldCountOperations() {
+        // arrange
+        final HeapMetricsRecorder metrics = new HeapMetricsRecorder();
+        final BinaryHeap<Integer> heap = create(16, metrics);
+        final BinaryHeap<Integer> other = BinaryHeap.createComparable();
+        other.pushAll(Arrays.asList(7, 8, 9));
+        // act
+        for (int i = 0; i < 10; i++) {
+            heap.push(i);
+        }
+        heap.pop();
+        heap.pop();
+        heap.pushPop(100);
+        heap.replaceTop(-1);
+        heap.mergeWith(other);
+        // assert
+        assertSame(metrics, heap.metrics());
+        assertEquals(12, metrics.getPushCount());
+        assertEquals(4, metrics.getPopCount());
+        assertEquals(1, metrics.getMergeCount());
+        assertEquals(11, heap.size());
+    }
+
+    @Test
+    public void metrics_shouldRecordSiftDistances() {
+        // arrange
+        final HeapMetricsRecorder metrics = new HeapMetricsRecorder();
+        final BinaryHeap<Integer> heap = create(16, metrics);
+        // act, every push of a descending sequence moves the new element all the way to the root
+        for (int i = 6; i >= 0; i--) {
+            heap.push(i);
+        }
+        // assert
+        assertEquals(7, metrics.getSiftUpCount());
+        assertEquals(0 + 1 + 1 + 2 + 2 + 2 + 2, metrics.getSiftUpDistance());
+        assertEquals(2, metrics.getMaxSiftUpDistance());
+        assertEquals(10 / 7.0, metrics.getAverageSiftUpDistance(), 1e-9);
+        final long[] histogram = metrics.getSiftUpHistogram();
+        assertEquals(1, histogram[0]);
+        assertEquals(2, histogram[1]);
+        assertEquals(4, histogram[2]);
+        assertEquals(7, Arrays.stream(histogram).sum());
+        // act
+        heap.pop();
+        // assert, heap is [0, 3, 1, 6, 4, 5, 2] so the last element 2 replaces the root and swaps with 1 only
+        assertEquals(1, metrics.getSiftDownCount());
+        assertEquals(1, metrics.getMaxSiftDownDistance());
+    }
+
+    @Test
+    public void metrics_shouldCountComparisons() {
+        // arrange
+        final int[] actual = new int[1];
+        final Comparator<Integer> comparator = (a, b) -> {
+            actual[0]++;
+            return Integer.compare(a, b);
+        };
+        final HeapMetricsRecorder metrics = new HeapMetricsRecorder();
+        final BinaryHeap<Integer> heap = new BinaryHeap<Integer>(comparator, 16, ResizePolicy.DEFAULT, metrics);
+        final Random r = new Random();
+        // act
+        for (int i = 0; i < 1000; i++) {
+            heap.push(r.nextInt());
+        }
+        while (!heap.isEmpty()) {
+            heap.pop();
+        }
+        // assert
+        assertTrue(actual[0] > 0);
+        assertEquals(actual[0], metrics.getComparisonCount());
+        assertSame(comparator, heap.comparator());
+    }
+
+    @Test
+    public void metrics_shouldRecordResizesAndPeakCapacity() {
+        // arrange
+        final HeapMetricsRecorder metrics = new HeapMetricsRecorder();
+        final BinaryHeap<Integer> heap = create(4, metrics);
+        assertEquals(4, metrics.getCapacity());
+        assertEquals(0, metrics.getResizeCount());
+        // act
+        for (int i = 0; i < 100; i++) {
+            heap.push(i);
+        }
+        final int peak = metrics.getCapacity();
+        while (!heap.isEmpty()) {
+            heap.pop();
+        }
+        // assert
+        assertTrue(peak >= 100);
+        assertEquals(peak, metrics.getPeakCapacity());
+        assertTrue(metrics.getCapacity() < peak);
+        assertEquals(heap.getItems().length, metrics.getCapacity());
+        assertTrue(metrics.getResizeCount() > 5);
+    }
+
+    @Test
+    public void reset_shouldClearCounters() {
+        // arrange
+        final HeapMetricsRecorder metrics = new HeapMetricsRecorder();
+        final BinaryHeap<Integer> heap = create(4, metrics);
+        for (int i = 0; i < 100; i++) {
+            heap.push(-i);
+        }
+        // act
+        metrics.reset();
+        // assert
+        assertEquals(0, metrics.getPushCount());
+        assertEquals(0, metrics.getComparisonCount());
+        assertEquals(0, metrics.getSiftUpCount());
+        assertEquals(0, metrics.getMaxSiftUpDistance());
+        assertEquals(0, Arrays.stream(metrics.getSiftUpHistogram()).sum());
+        assertEquals(0, metrics.getResizeCount());
+        assertEquals(metrics.getCapacity(), metrics.getPeakCapacity());
+    }
+
+    @Test
+    public void metrics_shouldBeNull_whenDisabled() {
+        assertNull(BinaryHeap.createComparable().metrics());
+    }
+
+    @Test
+    public void registerMBean_shouldExposeMetrics() throws Exception {
+        // arrange
+        final HeapMetricsRecorder metrics = new HeapMetricsRecorder();
+        final BinaryHeap<Integer> heap = create(16, metrics);
+        heap.push(1);
+        heap.push(2);
+        final MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+        // act
+        final ObjectName name = metrics.registerMBean("test heap");
+        try {
+            // assert
+            assertTrue(server.isRegistered(name));
+            assertEquals(2L, server.getAttribute(name, "PushCount"));
+            assertEquals(16, server.getAttribute(name, "Capacity"));
+        } finally {
+            metrics.unregisterMBean();
+        }
+        assertFalse(server.isRegistered(name));
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void registerMBean_shouldThrow_whenAlreadyRegistered() {
+        final HeapMetricsRecorder metrics = new HeapMetricsRecorder();
+        metrics.registerMBean("twice");
+        try {
+            metrics.registerMBean("twice");
+        } finally {
+            metrics.unregisterMBean();
+        }
+    }
+
+    private static BinaryHeap<Integer> create(int capacity, HeapMetricsRecorder metrics) {
+        return new BinaryHeap<>(Comparator.<Integer>naturalOrder(), capacity, ResizePolicy.DEFAULT, metrics);
+    }
+}
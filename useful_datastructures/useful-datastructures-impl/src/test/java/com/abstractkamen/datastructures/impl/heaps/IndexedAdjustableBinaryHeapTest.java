@@ -0,0 +1,220 @@
+package com.abstractkamen.datastructures.impl.heaps;
+
+import org.junit.Test;
+
+import java.util.*;
+
+import static org.junit.Assert.*;
+
+public class IndexedAdjustableBinaryHeapTest {
+
+    @Test
+    public void push_pop_size_randomTest() {
+        for (int j = 0; j < 10; j++) {
+            // arrange
+            final IndexedAdjustableBinaryHeap<Integer> heap = IndexedAdjustableBinaryHeap.createComparable();
+            final List<Integer> expected = new ArrayList<>();
+            // act
+            new Random().ints(1000, -10000, 10000).forEach(i -> {
+                heap.push(i);
+                expected.add(i);
+            });
+            assertEquals(expected.size(), heap.size());
+            // assert
+            expected.sort(Integer::compare);
+            assertEquals(expected, popAll(heap));
+        }
+    }
+
+    @Test
+    public void decreaseKey_increaseKey_shouldKeepOrder_whenRandomKeysAreReplaced() {
+        for (int j = 0; j < 10; j++) {
+            // arrange
+            final Random r = new Random();
+            final IndexedAdjustableBinaryHeap<Key> heap = new IndexedAdjustableBinaryHeap<>(Key.COMPARATOR, 1);
+            final Key[] keys = new Key[1000];
+            for (int i = 0; i < keys.length; i++) {
+                keys[i] = new Key(r.nextInt(10000));
+                heap.push(keys[i]);
+            }
+            // act
+            for (int k = 0; k < 5000; k++) {
+                final int i = r.nextInt(keys.length);
+                final Key adjusted = new Key(r.nextInt(10000));
+                final int compare = Key.COMPARATOR.compare(keys[i], adjusted);
+                if (compare > 0) {
+                    assertTrue(heap.decreaseKey(keys[i], adjusted));
+                    keys[i] = adjusted;
+                } else if (compare < 0) {
+                    assertTrue(heap.increaseKey(keys[i], adjusted));
+                    keys[i] = adjusted;
+                }
+            }
+            // assert
+            assertEquals(keys.length, heap.size());
+            final List<Key> expected = new ArrayList<>(Arrays.asList(keys));
+            expected.sort(Key.COMPARATOR);
+            final List<Key> actual = popAll(heap);
+            for (int i = 0; i < expected.size(); i++) {
+                assertEquals(expected.get(i).value, actual.get(i).value);
+            }
+        }
+    }
+
+    @Test
+    public void decreaseKey_increaseKey_shouldReturnFalse_whenWrongDirection() {
+        final IndexedAdjustableBinaryHeap<Key> heap = new IndexedAdjustableBinaryHeap<>(Key.COMPARATOR);
+        final Key five = new Key(5);
+        heap.push(five);
+        assertFalse(heap.decreaseKey(five, new Key(6)));
+        assertFalse(heap.increaseKey(five, new Key(4)));
+        assertFalse(heap.increaseKey(five, new Key(5)));
+        assertSame(five, heap.peek());
+    }
+
+    @Test
+    public void decreaseKey_shouldPush_whenItemIsNotPresent() {
+        final IndexedAdjustableBinaryHeap<Key> heap = new IndexedAdjustableBinaryHeap<>(Key.COMPARATOR);
+        heap.push(new Key(5));
+        final Key absent = new Key(10);
+        final Key decreased = new Key(1);
+        assertTrue(heap.decreaseKey(absent, decreased));
+        assertEquals(2, heap.size());
+        assertSame(decreased, heap.peek());
+    }
+
+    @Test
+    public void decreaseKey_shouldRestorePosition_whenKeyIsMutatedInPlace() {
+        // arrange
+        final IndexedAdjustableBinaryHeap<Key> heap = new IndexedAdjustableBinaryHeap<>(Key.COMPARATOR);
+        final List<Key> keys = new ArrayList<>();
+        for (int i = 0; i < 100; i++) {
+            final Key key = new Key(i + 100);
+            keys.add(key);
+            heap.push(key);
+        }
+        final Key last = keys.get(keys.size() - 1);
+        final Key first = keys.get(0);
+        // act
+        last.value = 0;
+        assertTrue(heap.decreaseKey(last, last));
+        // assert
+        assertSame(last, heap.peek());
+        // act
+        last.value = 1000;
+        first.value = 999;
+        assertTrue(heap.increaseKey(last, last));
+        assertTrue(heap.increaseKey(first, first));
+        // assert
+        final List<Key> popped = popAll(heap);
+        assertSame(first, popped.get(popped.size() - 2));
+        assertSame(last, popped.get(popped.size() - 1));
+    }
+
+    @Test
+    public void remove_contains_shouldRemoveArbitraryItems() {
+        for (int j = 0; j < 10; j++) {
+            // arrange
+            final Random r = new Random();
+            final IndexedAdjustableBinaryHeap<Key> heap = new IndexedAdjustableBinaryHeap<>(Key.COMPARATOR);
+            final List<Key> keys = new ArrayList<>();
+            for (int i = 0; i < 1000; i++) {
+                final Key key = new Key(r.nextInt(10000));
+                keys.add(key);
+                heap.push(key);
+            }
+            // act
+            Collections.shuffle(keys, r);
+            final List<Key> removed = keys.subList(0, 500);
+            for (Key key : removed) {
+                assertTrue(heap.remove(key));
+                assertFalse(heap.contains(key));
+                assertFalse(heap.remove(key));
+            }
+            // assert
+            final List<Key> remaining = new ArrayList<>(keys.subList(500, keys.size()));
+            remaining.forEach(k -> assertTrue(heap.contains(k)));
+            remaining.sort(Key.COMPARATOR);
+            final List<Key> actual = popAll(heap);
+            assertEquals(remaining.size(), actual.size());
+            for (int i = 0; i < remaining.size(); i++) {
+                assertEquals(remaining.get(i).value, actual.get(i).value);
+            }
+        }
+    }
+
+    @Test
+    public void pop_shouldUnindexItems() {
+        final IndexedAdjustableBinaryHeap<Key> heap = new IndexedAdjustableBinaryHeap<>(Key.COMPARATOR);
+        final Key key = new Key(1);
+        heap.push(key);
+        assertTrue(heap.contains(key));
+        assertSame(key, heap.pop());
+        assertFalse(heap.contains(key));
+        assertFalse(heap.remove(key));
+    }
+
+    @Test
+    public void mergeWith_shouldReturnExpected_whenSecondHeapHasReversedOrder() {
+        // arrange
+        final IndexedAdjustableBinaryHeap<Integer> left = IndexedAdjustableBinaryHeap.createComparable();
+        final IndexedAdjustableBinaryHeap<Integer> right =
+            new IndexedAdjustableBinaryHeap<>(((Comparator<Integer>) Integer::compare).reversed());
+        final List<Integer> expected = new ArrayList<>();
+        final Random r = new Random();
+        for (int i = 0; i < 1000; i++) {
+            final Integer a = r.nextInt(100000) + 1000;
+            final Integer b = r.nextInt(100000) + 1000;
+            left.push(a);
+            right.push(b);
+            expected.add(a);
+            expected.add(b);
+        }
+        final Integer fromRight = right.peek();
+        // act
+        final IndexedAdjustableBinaryHeap<Integer> actual = left.mergeWith(right);
+        // assert
+        assertSame(left, actual);
+        assertEquals(expected.size(), actual.size());
+        assertTrue(actual.contains(fromRight));
+        expected.sort(Integer::compare);
+        assertEquals(expected, popAll(actual));
+    }
+
+    @Test(expected = ClassCastException.class)
+    public void mergeWith_shouldThrow_whenOtherIsNotIndexed() {
+        IndexedAdjustableBinaryHeap.<Integer>createComparable().mergeWith(BinaryHeap.createComparable());
+    }
+
+    @Test(expected = NoSuchElementException.class)
+    public void pop_shouldThrow_whenEmpty() {
+        IndexedAdjustableBinaryHeap.createComparable().pop();
+    }
+
+    @Test
+    public void peek_shouldReturnNull_whenEmpty() {
+        assertNull(IndexedAdjustableBinaryHeap.createComparable().peek());
+    }
+
+    private static <T> List<T> popAll(IndexedAdjustableBinaryHeap<T> heap) {
+        final List<T> popped = new ArrayList<>();
+        while (!heap.isEmpty()) {
+            popped.add(heap.pop());
+        }
+        return popped;
+    }
+
+    private static class Key {
+        static final Comparator<Key> COMPARATOR = Comparator.comparingInt(k -> k.value);
+        int value;
+
+        Key(int value) {
+            this.value = value;
+        }
+
+        @Override
+        public String toString() {
+            return "" + value;
+        }
+    }
+}
@@ -0,0 +1,277 @@
+package com.abstractkamen.datastructures.impl.heaps;
+
+import com.abstractkamen.datastructures.api.heaps.IntComparator;
+import com.abstractkamen.datastructures.impl.utils.ResizePolicy;
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.NoSuchElementException;
+import java.util.PriorityQueue;
+import java.util.Random;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+public class IntBinaryHeapTest {
+
+    @Test
+    public void push_pop_size_randomTest() {
+        for (int j = 0; j < 10; j++) {
+            // arrange
+            final IntBinaryHeap heap = IntBinaryHeap.createMin();
+            final int[] values = new Random().ints(1000, -10000, 10000).toArray();
+            // act
+            for (int value : values) {
+                heap.push(value);
+            }
+            assertEquals(values.length, heap.size());
+            final int[] actual = new int[values.length];
+            for (int i = 0; !heap.isEmpty(); i++) {
+                actual[i] = heap.pop();
+            }
+            // assert
+            Arrays.sort(values);
+            assertArrayEquals(values, actual);
+        }
+    }
+
+    @Test
+    public void push_pop_shouldReturnDescending_whenMaxHeap() {
+        // arrange
+        final IntBinaryHeap heap = IntBinaryHeap.createMax(1);
+        final int[] values = new Random().ints(1000, Integer.MIN_VALUE, Integer.MAX_VALUE).toArray();
+        // act
+        for (int value : values) {
+            heap.push(value);
+        }
+        // assert
+        int prev = Integer.MAX_VALUE;
+        while (!heap.isEmpty()) {
+            final int max = heap.pop();
+            assertTrue(max <= prev);
+            prev = max;
+        }
+    }
+
+    @Test
+    public void push_pop_shouldRespectCustomComparator() {
+        // arrange - order by absolute value
+        final IntComparator byAbs = (a, b) -> Integer.compare(Math.abs(a), Math.abs(b));
+        final IntBinaryHeap heap = new IntBinaryHeap(byAbs);
+        // act
+        heap.push(-5);
+        heap.push(3);
+        heap.push(-1);
+        heap.push(4);
+        // assert
+        assertSame(byAbs, heap.comparator());
+        assertEquals(-1, heap.pop());
+        assertEquals(3, heap.pop());
+        assertEquals(4, heap.pop());
+        assertEquals(-5, heap.pop());
+    }
+
+    @Test
+    public void push_sizeTest() {
+        final IntBinaryHeap heap = IntBinaryHeap.createMin(1);
+        for (int i = 0; i < 10; i++) {
+            assertEquals(i + 1, heap.push(i));
+        }
+    }
+
+    @Test
+    public void peekTest() {
+        final IntBinaryHeap heap = IntBinaryHeap.createMin();
+        heap.push(0);
+        assertEquals(0, heap.peek());
+        heap.push(1);
+        assertEquals(0, heap.peek());
+        heap.push(-1);
+        assertEquals(-1, heap.peek());
+        assertEquals(3, heap.size());
+    }
+
+    @Test
+    public void mergeWith_shouldReturnExpected_whenSecondHeapHasReversedOrder() {
+        // arrange
+        final IntBinaryHeap left = IntBinaryHeap.createMin();
+        final IntBinaryHeap right = IntBinaryHeap.createMax();
+        final Random r = new Random();
+        final int[] leftValues = r.ints(1000, -10000, 10000).toArray();
+        final int[] rightValues = r.ints(500, -10000, 10000).toArray();
+        Arrays.stream(leftValues).forEach(left::push);
+        Arrays.stream(rightValues).forEach(right::push);
+        // act
+        final IntBinaryHeap actual = left.mergeWith(right);
+        // assert
+        assertSame(left, actual);
+        assertEquals(leftValues.length + rightValues.length, actual.size());
+        final int[] expected = new int[actual.size()];
+        System.arraycopy(leftValues, 0, expected, 0, leftValues.length);
+        System.arraycopy(rightValues, 0, expected, leftValues.length, rightValues.length);
+        Arrays.sort(expected);
+        final int[] merged = new int[actual.size()];
+        for (int i = 0; !actual.isEmpty(); i++) {
+            merged[i] = actual.pop();
+        }
+        assertArrayEquals(expected, merged);
+    }
+
+    @Test
+    public void pushAll_shouldReturnExpected_whenBatchIsLargerAndSmallerThanHeap() {
+        for (int batch : new int[]{1, 10, 100, 1000, 5000}) {
+            // arrange
+            final IntBinaryHeap heap = IntBinaryHeap.createMin();
+            final int[] initial = new Random().ints(1000, -10000, 10000).toArray();
+            heap.pushAll(initial);
+            final int[] values = new Random().ints(batch, -10000, 10000).toArray();
+            // act
+            final int size = heap.pushAll(values);
+            // assert
+            assertEquals(initial.length + batch, size);
+            final int[] expected = new int[size];
+            System.arraycopy(initial, 0, expected, 0, initial.length);
+            System.arraycopy(values, 0, expected, initial.length, batch);
+            Arrays.sort(expected);
+            final int[] actual = new int[size];
+            final int[] i = {0};
+            assertEquals(size, heap.popN(size, v -> actual[i[0]++] = v));
+            assertArrayEquals(expected, actual);
+        }
+    }
+
+    @Test
+    public void pushAll_shouldHeapifyOnce_whenBatchIsAsLargeAsHeap() {
+        // arrange, every value of the batch would be sifted up to the root
+        final int n = 1000;
+        final int[] comparisons = {0};
+        final IntBinaryHeap heap = new IntBinaryHeap((a, b) -> {
+            comparisons[0]++;
+            return Integer.compare(a, b);
+        });
+        for (int i = 0; i < n; i++) {
+            heap.push(n + i);
+        }
+        final int[] batch = new int[n];
+        for (int i = 0; i < n; i++) {
+            batch[i] = n - 1 - i;
+        }
+        comparisons[0] = 0;
+        // act
+        heap.pushAll(batch);
+        // assert
+        assertTrue("comparisons " + comparisons[0], comparisons[0] < 4 * 2 * n);
+        for (int i = 0; i < 2 * n; i++) {
+            assertEquals(i, heap.pop());
+        }
+        assertTrue(heap.isEmpty());
+    }
+
+    @Test
+    public void heapify_shouldReturnExpected_andCopyValues() {
+        // arrange
+        final int[] values = new Random().ints(1000, -10000, 10000).toArray();
+        final int[] expected = values.clone();
+        Arrays.sort(expected);
+        // act
+        final IntBinaryHeap heap = IntBinaryHeap.heapify(IntComparator.naturalOrder(), values);
+        values[0] = -20000;
+        // assert
+        final int[] actual = new int[values.length];
+        final int[] i = {0};
+        assertEquals(3, heap.popN(3, v -> actual[i[0]++] = v));
+        heap.popN(Integer.MAX_VALUE, v -> actual[i[0]++] = v);
+        assertArrayEquals(expected, actual);
+        assertTrue(heap.isEmpty());
+    }
+
+    @Test
+    public void pushPop_replaceTop_shouldMatchPushThenPop_randomTest() {
+        // arrange
+        final IntBinaryHeap heap = IntBinaryHeap.createMin();
+        final PriorityQueue<Integer> expected = new PriorityQueue<>();
+        final Random r = new Random();
+        for (int i = 0; i < 100; i++) {
+            final int value = r.nextInt(1000);
+            heap.push(value);
+            expected.add(value);
+        }
+        // act & assert
+        for (int i = 0; i < 10000; i++) {
+            final int value = r.nextInt(1000);
+            if (r.nextBoolean()) {
+                expected.add(value);
+                assertEquals(expected.poll().intValue(), heap.pushPop(value));
+            } else {
+                assertEquals(expected.poll().intValue(), heap.replaceTop(value));
+                expected.add(value);
+            }
+            assertEquals(expected.size(), heap.size());
+            assertEquals(expected.peek().intValue(), heap.peek());
+        }
+    }
+
+    @Test
+    public void pop_shouldShrinkAndKeepOrder_whenMostlyPopped() {
+        // arrange
+        final IntBinaryHeap heap = IntBinaryHeap.createMin();
+        final PriorityQueue<Integer> expected = new PriorityQueue<>();
+        final Random r = new Random();
+        for (int i = 0; i < 10000; i++) {
+            final int value = r.nextInt(10000);
+            heap.push(value);
+            expected.add(value);
+        }
+        final int grown = heap.getItems().length;
+        // act & assert
+        while (heap.size() > 10) {
+            assertEquals(expected.poll().intValue(), heap.pop());
+        }
+        assertTrue(heap.getItems().length < grown / 64);
+        assertTrue(heap.getItems().length >= BinaryHeap.DEFAULT_CAPACITY);
+        while (!expected.isEmpty()) {
+            assertEquals(expected.poll().intValue(), heap.pop());
+        }
+    }
+
+    @Test
+    public void trimToSize_shouldReleaseSpareSlots() {
+        // arrange
+        final IntBinaryHeap heap = new IntBinaryHeap(IntComparator.naturalOrder(), 1, ResizePolicy.GROW_ONLY);
+        for (int i = 0; i < 1000; i++) {
+            heap.push(i);
+        }
+        heap.popN(900, x -> {});
+        // act
+        heap.trimToSize();
+        // assert
+        assertEquals(100, heap.getItems().length);
+        heap.push(-1);
+        assertEquals(-1, heap.pop());
+        for (int i = 900; i < 1000; i++) {
+            assertEquals(i, heap.pop());
+        }
+    }
+
+    @Test(expected = NoSuchElementException.class)
+    public void replaceTop_shouldThrow_whenEmpty() {
+        IntBinaryHeap.createMin().replaceTop(1);
+    }
+
+    @Test(expected = NoSuchElementException.class)
+    public void pop_shouldThrow_whenEmpty() {
+        IntBinaryHeap.createMin().pop();
+    }
+
+    @Test(expected = NoSuchElementException.class)
+    public void peek_shouldThrow_whenEmpty() {
+        IntBinaryHeap.createMin().peek();
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void test_heapCapacity_shouldThrow_whenZero() {
+        IntBinaryHeap.createMin(0);
+    }
+}
@@ -0,0 +1,80 @@
+package com.abstractkamen.datastructures.impl.heaps;
+
+import com.abstractkamen.datastructures.api.heaps.IntComparator;
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.NoSuchElementException;
+import java.util.Random;
+
+import static org.junit.Assert.*;
+
+public class IntTopKHeapTest {
+
+    @Test
+    public void offer_shouldKeepLargest_randomTest() {
+        for (int k : new int[]{1, 10, 100, 1000, 5000}) {
+            // arrange
+            final IntTopKHeap heap = IntTopKHeap.createLargest(k);
+            final int[] values = new Random().ints(2000, -10000, 10000).toArray();
+            // act
+            for (int value : values) {
+                heap.offer(value);
+            }
+            // assert
+            Arrays.sort(values);
+            final int n = Math.min(k, values.length);
+            final int[] expected = new int[n];
+            for (int i = 0; i < n; i++) {
+                expected[i] = values[values.length - 1 - i];
+            }
+            assertEquals(n, heap.size());
+            assertArrayEquals(expected, heap.toSortedArray());
+            assertEquals(expected[n - 1], heap.peek());
+        }
+    }
+
+    @Test
+    public void offer_shouldKeepSmallest_whenCreatedSmallest() {
+        // arrange
+        final IntTopKHeap heap = IntTopKHeap.createSmallest(3);
+        // act & assert
+        for (int value : new int[]{7, 3, 9, 1}) {
+            assertTrue(heap.offer(value));
+        }
+        assertFalse(heap.offer(8));
+        assertEquals(3, heap.push(2));
+        assertArrayEquals(new int[]{1, 2, 3}, heap.toSortedArray());
+        assertEquals(3, heap.pop());
+    }
+
+    @Test
+    public void collect_shouldSelectLargest_whenParallelStream() {
+        // arrange
+        final int[] values = new Random().ints(100000, -1000000, 1000000).toArray();
+        // act
+        final int[] actual = Arrays.stream(values).parallel()
+            .collect(() -> IntTopKHeap.createLargest(10), IntTopKHeap::offer, IntTopKHeap::mergeWith)
+            .toSortedArray();
+        // assert
+        final int[] expected = Arrays.stream(values).boxed().sorted((a, b) -> Integer.compare(b, a)).limit(10)
+            .mapToInt(Integer::intValue).toArray();
+        assertArrayEquals(expected, actual);
+    }
+
+    @Test
+    public void comparator_shouldReturnGivenComparator() {
+        final IntComparator comparator = IntComparator.naturalOrder();
+        assertSame(comparator, new IntTopKHeap(comparator, 1).comparator());
+    }
+
+    @Test(expected = NoSuchElementException.class)
+    public void pop_shouldThrow_whenEmpty() {
+        IntTopKHeap.createLargest(1).pop();
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void constructor_shouldThrow_whenKIsZero() {
+        IntTopKHeap.createLargest(0);
+    }
+}
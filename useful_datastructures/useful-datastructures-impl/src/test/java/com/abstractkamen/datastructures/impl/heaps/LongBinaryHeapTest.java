@@ -0,0 +1,277 @@
+package com.abstractkamen.datastructures.impl.heaps;
+
+import com.abstractkamen.datastructures.api.heaps.LongComparator;
+import com.abstractkamen.datastructures.impl.utils.ResizePolicy;
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.NoSuchElementException;
+import java.util.PriorityQueue;
+import java.util.Random;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+public class LongBinaryHeapTest {
+
+    @Test
+    public void push_pop_size_randomTest() {
+        for (int j = 0; j < 10; j++) {
+            // arrange
+            final LongBinaryHeap heap = LongBinaryHeap.createMin();
+            final long[] values = new Random().longs(1000, -10000, 10000).toArray();
+            // act
+            for (long value : values) {
+                heap.push(value);
+            }
+            assertEquals(values.length, heap.size());
+            final long[] actual = new long[values.length];
+            for (int i = 0; !heap.isEmpty(); i++) {
+                actual[i] = heap.pop();
+            }
+            // assert
+            Arrays.sort(values);
+            assertArrayEquals(values, actual);
+        }
+    }
+
+    @Test
+    public void push_pop_shouldReturnDescending_whenMaxHeap() {
+        // arrange
+        final LongBinaryHeap heap = LongBinaryHeap.createMax(1);
+        final long[] values = new Random().longs(1000, Long.MIN_VALUE, Long.MAX_VALUE).toArray();
+        // act
+        for (long value : values) {
+            heap.push(value);
+        }
+        // assert
+        long prev = Long.MAX_VALUE;
+        while (!heap.isEmpty()) {
+            final long max = heap.pop();
+            assertTrue(max <= prev);
+            prev = max;
+        }
+    }
+
+    @Test
+    public void push_pop_shouldRespectCustomComparator() {
+        // arrange - order by absolute value
+        final LongComparator byAbs = (a, b) -> Long.compare(Math.abs(a), Math.abs(b));
+        final LongBinaryHeap heap = new LongBinaryHeap(byAbs);
+        // act
+        heap.push(-5);
+        heap.push(3);
+        heap.push(-1);
+        heap.push(4);
+        // assert
+        assertSame(byAbs, heap.comparator());
+        assertEquals(-1L, heap.pop());
+        assertEquals(3L, heap.pop());
+        assertEquals(4L, heap.pop());
+        assertEquals(-5L, heap.pop());
+    }
+
+    @Test
+    public void push_sizeTest() {
+        final LongBinaryHeap heap = LongBinaryHeap.createMin(1);
+        for (int i = 0; i < 10; i++) {
+            assertEquals(i + 1, heap.push(i));
+        }
+    }
+
+    @Test
+    public void peekTest() {
+        final LongBinaryHeap heap = LongBinaryHeap.createMin();
+        heap.push(0);
+        assertEquals(0L, heap.peek());
+        heap.push(1);
+        assertEquals(0L, heap.peek());
+        heap.push(-1);
+        assertEquals(-1L, heap.peek());
+        assertEquals(3L, heap.size());
+    }
+
+    @Test
+    public void mergeWith_shouldReturnExpected_whenSecondHeapHasReversedOrder() {
+        // arrange
+        final LongBinaryHeap left = LongBinaryHeap.createMin();
+        final LongBinaryHeap right = LongBinaryHeap.createMax();
+        final Random r = new Random();
+        final long[] leftValues = r.longs(1000, -10000, 10000).toArray();
+        final long[] rightValues = r.longs(500, -10000, 10000).toArray();
+        Arrays.stream(leftValues).forEach(left::push);
+        Arrays.stream(rightValues).forEach(right::push);
+        // act
+        final LongBinaryHeap actual = left.mergeWith(right);
+        // assert
+        assertSame(left, actual);
+        assertEquals(leftValues.length + rightValues.length, actual.size());
+        final long[] expected = new long[actual.size()];
+        System.arraycopy(leftValues, 0, expected, 0, leftValues.length);
+        System.arraycopy(rightValues, 0, expected, leftValues.length, rightValues.length);
+        Arrays.sort(expected);
+        final long[] merged = new long[actual.size()];
+        for (int i = 0; !actual.isEmpty(); i++) {
+            merged[i] = actual.pop();
+        }
+        assertArrayEquals(expected, merged);
+    }
+
+    @Test
+    public void pushAll_shouldReturnExpected_whenBatchIsLargerAndSmallerThanHeap() {
+        for (int batch : new int[]{1, 10, 100, 1000, 5000}) {
+            // arrange
+            final LongBinaryHeap heap = LongBinaryHeap.createMin();
+            final long[] initial = new Random().longs(1000, -10000, 10000).toArray();
+            heap.pushAll(initial);
+            final long[] values = new Random().longs(batch, -10000, 10000).toArray();
+            // act
+            final int size = heap.pushAll(values);
+            // assert
+            assertEquals(initial.length + batch, size);
+            final long[] expected = new long[size];
+            System.arraycopy(initial, 0, expected, 0, initial.length);
+            System.arraycopy(values, 0, expected, initial.length, batch);
+            Arrays.sort(expected);
+            final long[] actual = new long[size];
+            final int[] i = {0};
+            assertEquals(size, heap.popN(size, v -> actual[i[0]++] = v));
+            assertArrayEquals(expected, actual);
+        }
+    }
+
+    @Test
+    public void pushAll_shouldHeapifyOnce_whenBatchIsAsLargeAsHeap() {
+        // arrange, every value of the batch would be sifted up to the root
+        final int n = 1000;
+        final int[] comparisons = {0};
+        final LongBinaryHeap heap = new LongBinaryHeap((a, b) -> {
+            comparisons[0]++;
+            return Long.compare(a, b);
+        });
+        for (int i = 0; i < n; i++) {
+            heap.push(n + i);
+        }
+        final long[] batch = new long[n];
+        for (int i = 0; i < n; i++) {
+            batch[i] = n - 1 - i;
+        }
+        comparisons[0] = 0;
+        // act
+        heap.pushAll(batch);
+        // assert
+        assertTrue("comparisons " + comparisons[0], comparisons[0] < 4 * 2 * n);
+        for (int i = 0; i < 2 * n; i++) {
+            assertEquals(i, heap.pop());
+        }
+        assertTrue(heap.isEmpty());
+    }
+
+    @Test
+    public void heapify_shouldReturnExpected_andCopyValues() {
+        // arrange
+        final long[] values = new Random().longs(1000, -10000, 10000).toArray();
+        final long[] expected = values.clone();
+        Arrays.sort(expected);
+        // act
+        final LongBinaryHeap heap = LongBinaryHeap.heapify(LongComparator.naturalOrder(), values);
+        values[0] = -20000;
+        // assert
+        final long[] actual = new long[values.length];
+        final int[] i = {0};
+        assertEquals(3, heap.popN(3, v -> actual[i[0]++] = v));
+        heap.popN(Integer.MAX_VALUE, v -> actual[i[0]++] = v);
+        assertArrayEquals(expected, actual);
+        assertTrue(heap.isEmpty());
+    }
+
+    @Test
+    public void pushPop_replaceTop_shouldMatchPushThenPop_randomTest() {
+        // arrange
+        final LongBinaryHeap heap = LongBinaryHeap.createMin();
+        final PriorityQueue<Long> expected = new PriorityQueue<>();
+        final Random r = new Random();
+        for (int i = 0; i < 100; i++) {
+            final long value = r.nextInt(1000);
+            heap.push(value);
+            expected.add(value);
+        }
+        // act & assert
+        for (int i = 0; i < 10000; i++) {
+            final long value = r.nextInt(1000);
+            if (r.nextBoolean()) {
+                expected.add(value);
+                assertEquals(expected.poll().longValue(), heap.pushPop(value));
+            } else {
+                assertEquals(expected.poll().longValue(), heap.replaceTop(value));
+                expected.add(value);
+            }
+            assertEquals(expected.size(), heap.size());
+            assertEquals(expected.peek().longValue(), heap.peek());
+        }
+    }
+
+    @Test
+    public void pop_shouldShrinkAndKeepOrder_whenMostlyPopped() {
+        // arrange
+        final LongBinaryHeap heap = LongBinaryHeap.createMin();
+        final PriorityQueue<Long> expected = new PriorityQueue<>();
+        final Random r = new Random();
+        for (int i = 0; i < 10000; i++) {
+            final long value = r.nextLong();
+            heap.push(value);
+            expected.add(value);
+        }
+        final int grown = heap.getItems().length;
+        // act & assert
+        while (heap.size() > 10) {
+            assertEquals(expected.poll().longValue(), heap.pop());
+        }
+        assertTrue(heap.getItems().length < grown / 64);
+        assertTrue(heap.getItems().length >= BinaryHeap.DEFAULT_CAPACITY);
+        while (!expected.isEmpty()) {
+            assertEquals(expected.poll().longValue(), heap.pop());
+        }
+    }
+
+    @Test
+    public void trimToSize_shouldReleaseSpareSlots() {
+        // arrange
+        final LongBinaryHeap heap = new LongBinaryHeap(LongComparator.naturalOrder(), 1, ResizePolicy.GROW_ONLY);
+        for (int i = 0; i < 1000; i++) {
+            heap.push(i);
+        }
+        heap.popN(900, x -> {});
+        // act
+        heap.trimToSize();
+        // assert
+        assertEquals(100, heap.getItems().length);
+        heap.push(-1);
+        assertEquals(-1, heap.pop());
+        for (int i = 900; i < 1000; i++) {
+            assertEquals(i, heap.pop());
+        }
+    }
+
+    @Test(expected = NoSuchElementException.class)
+    public void replaceTop_shouldThrow_whenEmpty() {
+        LongBinaryHeap.createMin().replaceTop(1);
+    }
+
+    @Test(expected = NoSuchElementException.class)
+    public void pop_shouldThrow_whenEmpty() {
+        LongBinaryHeap.createMin().pop();
+    }
+
+    @Test(expected = NoSuchElementException.class)
+    public void peek_shouldThrow_whenEmpty() {
+        LongBinaryHeap.createMin().peek();
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void test_heapCapacity_shouldThrow_whenZero() {
+        LongBinaryHeap.createMin(0);
+    }
+}
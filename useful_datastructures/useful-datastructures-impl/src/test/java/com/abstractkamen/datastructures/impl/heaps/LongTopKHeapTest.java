@@ -0,0 +1,80 @@
+package com.abstractkamen.datastructures.impl.heaps;
+
+import com.abstractkamen.datastructures.api.heaps.LongComparator;
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.NoSuchElementException;
+import java.util.Random;
+
+import static org.junit.Assert.*;
+
+public class LongTopKHeapTest {
+
+    @Test
+    public void offer_shouldKeepLargest_randomTest() {
+        for (int k : new int[]{1, 10, 100, 1000, 5000}) {
+            // arrange
+            final LongTopKHeap heap = LongTopKHeap.createLargest(k);
+            final long[] values = new Random().longs(2000, -10000, 10000).toArray();
+            // act
+            for (long value : values) {
+                heap.offer(value);
+            }
+            // assert
+            Arrays.sort(values);
+            final int n = Math.min(k, values.length);
+            final long[] expected = new long[n];
+            for (int i = 0; i < n; i++) {
+                expected[i] = values[values.length - 1 - i];
+            }
+            assertEquals(n, heap.size());
+            assertArrayEquals(expected, heap.toSortedArray());
+            assertEquals(expected[n - 1], heap.peek());
+        }
+    }
+
+    @Test
+    public void offer_shouldKeepSmallest_whenCreatedSmallest() {
+        // arrange
+        final LongTopKHeap heap = LongTopKHeap.createSmallest(3);
+        // act & assert
+        for (long value : new long[]{7, 3, 9, 1}) {
+            assertTrue(heap.offer(value));
+        }
+        assertFalse(heap.offer(8));
+        assertEquals(3, heap.push(2));
+        assertArrayEquals(new long[]{1, 2, 3}, heap.toSortedArray());
+        assertEquals(3, heap.pop());
+    }
+
+    @Test
+    public void collect_shouldSelectLargest_whenParallelStream() {
+        // arrange
+        final long[] values = new Random().longs(100000, -1000000, 1000000).toArray();
+        // act
+        final long[] actual = Arrays.stream(values).parallel()
+            .collect(() -> LongTopKHeap.createLargest(10), LongTopKHeap::offer, LongTopKHeap::mergeWith)
+            .toSortedArray();
+        // assert
+        final long[] expected = Arrays.stream(values).boxed().sorted((a, b) -> Long.compare(b, a)).limit(10)
+            .mapToLong(Long::longValue).toArray();
+        assertArrayEquals(expected, actual);
+    }
+
+    @Test
+    public void comparator_shouldReturnGivenComparator() {
+        final LongComparator comparator = LongComparator.naturalOrder();
+        assertSame(comparator, new LongTopKHeap(comparator, 1).comparator());
+    }
+
+    @Test(expected = NoSuchElementException.class)
+    public void pop_shouldThrow_whenEmpty() {
+        LongTopKHeap.createLargest(1).pop();
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void constructor_shouldThrow_whenKIsZero() {
+        LongTopKHeap.createLargest(0);
+    }
+}
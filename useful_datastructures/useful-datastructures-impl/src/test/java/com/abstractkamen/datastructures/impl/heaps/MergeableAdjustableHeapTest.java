@@ -0,0 +1,275 @@
+package com.abstractkamen.datastructures.impl.heaps;
+
+import com.abstractkamen.datastructures.api.heaps.AdjustableHeap;
+import com.abstractkamen.datastructures.api.heaps.Heap;
+import com.abstractkamen.datastructures.api.heaps.MergeableHeap;
+import org.junit.Test;
+
+import java.util.*;
+import java.util.stream.Collectors;
+
+import static org.junit.Assert.*;
+
+/**
+ * Cases shared by the heaps which are both {@link MergeableHeap} and {@link AdjustableHeap}, a subclass provides the heap with
+ * {@link #create(Comparator)} and adds the cases specific to its implementation.
+ */
+public abstract class MergeableAdjustableHeapTest {
+
+    /**
+     * Create an empty heap which implements {@link MergeableHeap} and {@link AdjustableHeap}.
+     *
+     * @param comparator heap order
+     * @param <T>        type of elements
+     * @return an empty heap
+     */
+    protected abstract <T> Heap<T> create(Comparator<T> comparator);
+
+    @Test
+    public void push_pop_size_randomTest() {
+        for (int j = 0; j < 10; j++) {
+            // arrange
+            final Heap<Integer> heap = create(Integer::compare);
+            final List<Integer> expected = new ArrayList<>();
+            // act
+            new Random().ints(1000, -10000, 10000).forEach(i -> {
+                heap.push(i);
+                expected.add(i);
+            });
+            assertEquals(expected.size(), heap.size());
+            // assert
+            expected.sort(Integer::compare);
+            assertEquals(expected, popAll(heap));
+        }
+    }
+
+    @Test
+    public void pop_shouldReturnExpected_whenPushAndPopAreInterleaved() {
+        // arrange
+        final Heap<Integer> heap = create(Integer::compare);
+        final PriorityQueue<Integer> expected = new PriorityQueue<>();
+        final Random r = new Random();
+        // act & assert
+        for (int i = 0; i < 10000; i++) {
+            if (expected.isEmpty() || r.nextInt(3) > 0) {
+                final int value = r.nextInt(1000);
+                heap.push(value);
+                expected.add(value);
+            } else {
+                assertEquals(expected.poll(), heap.pop());
+            }
+            assertEquals(expected.size(), heap.size());
+            assertEquals(expected.peek(), heap.peek());
+        }
+    }
+
+    @Test
+    public void decreaseKey_increaseKey_shouldKeepOrder_whenKeysAreReplacedBetweenPops() {
+        for (int j = 0; j < 10; j++) {
+            // arrange
+            final Random r = new Random();
+            final Heap<Key> heap = create(Key.COMPARATOR);
+            final List<Key> keys = new ArrayList<>();
+            for (int i = 0; i < 1000; i++) {
+                final Key key = new Key(r.nextInt(10000));
+                keys.add(key);
+                heap.push(key);
+            }
+            // act & assert
+            for (int k = 0; k < 5000; k++) {
+                final int i = r.nextInt(keys.size());
+                final Key adjusted = new Key(r.nextInt(10000));
+                final int compare = Key.COMPARATOR.compare(keys.get(i), adjusted);
+                if (compare > 0) {
+                    assertTrue(adjustable(heap).decreaseKey(keys.get(i), adjusted));
+                    keys.set(i, adjusted);
+                } else if (compare < 0) {
+                    assertTrue(adjustable(heap).increaseKey(keys.get(i), adjusted));
+                    keys.set(i, adjusted);
+                }
+                if (k % 10 == 0) {
+                    final Key popped = heap.pop();
+                    assertEquals(Collections.min(keys, Key.COMPARATOR).value, popped.value);
+                    assertTrue(keys.remove(popped));
+                }
+            }
+            assertEquals(keys.size(), heap.size());
+            keys.sort(Key.COMPARATOR);
+            final List<Key> actual = popAll(heap);
+            for (int i = 0; i < keys.size(); i++) {
+                assertEquals(keys.get(i).value, actual.get(i).value);
+            }
+        }
+    }
+
+    @Test
+    public void decreaseKey_increaseKey_shouldReturnFalse_whenWrongDirection() {
+        final Heap<Key> heap = create(Key.COMPARATOR);
+        final Key five = new Key(5);
+        heap.push(five);
+        assertFalse(adjustable(heap).decreaseKey(five, new Key(6)));
+        assertFalse(adjustable(heap).increaseKey(five, new Key(4)));
+        assertFalse(adjustable(heap).increaseKey(five, new Key(5)));
+        assertSame(five, heap.peek());
+    }
+
+    @Test
+    public void decreaseKey_shouldPush_whenItemIsNotPresent() {
+        final Heap<Key> heap = create(Key.COMPARATOR);
+        heap.push(new Key(5));
+        final Key decreased = new Key(1);
+        assertTrue(adjustable(heap).decreaseKey(new Key(10), decreased));
+        assertEquals(2, heap.size());
+        assertSame(decreased, heap.peek());
+    }
+
+    @Test
+    public void decreaseKey_increaseKey_shouldRestorePosition_whenKeyIsMutatedInPlace() {
+        // arrange
+        final Heap<Key> heap = create(Key.COMPARATOR);
+        final List<Key> keys = new ArrayList<>();
+        for (int i = 0; i < 100; i++) {
+            final Key key = new Key(i + 100);
+            keys.add(key);
+            heap.push(key);
+        }
+        heap.push(heap.pop());
+        final Key last = keys.get(keys.size() - 1);
+        final Key first = keys.get(0);
+        // act
+        last.value = 0;
+        assertTrue(adjustable(heap).decreaseKey(last, last));
+        // assert
+        assertSame(last, heap.peek());
+        // act
+        last.value = 1000;
+        first.value = 999;
+        assertTrue(adjustable(heap).increaseKey(last, last));
+        assertTrue(adjustable(heap).increaseKey(first, first));
+        // assert
+        final List<Key> popped = popAll(heap);
+        assertSame(first, popped.get(popped.size() - 2));
+        assertSame(last, popped.get(popped.size() - 1));
+    }
+
+    @Test
+    public void mergeWith_shouldStealNodes_whenOtherIsSameHeapWithSameComparator() {
+        // arrange
+        final Comparator<Key> comparator = Key.COMPARATOR;
+        final Heap<Key> left = create(comparator);
+        final Heap<Key> right = create(comparator);
+        final List<Key> expected = new ArrayList<>();
+        final Random r = new Random();
+        for (int i = 0; i < 1000; i++) {
+            final Key a = new Key(r.nextInt(100000));
+            final Key b = new Key(r.nextInt(100000));
+            left.push(a);
+            right.push(b);
+            expected.add(a);
+            expected.add(b);
+        }
+        final Key fromRight = right.peek();
+        // act
+        final Heap<Key> actual = mergeable(left).mergeWith(right);
+        // assert
+        assertSame(left, actual);
+        assertEquals(expected.size(), actual.size());
+        assertTrue(right.isEmpty());
+        assertNull(right.peek());
+        assertTrue(adjustable(actual).decreaseKey(fromRight, new Key(-1)));
+        assertEquals(expected.size(), actual.size());
+        assertEquals(-1, actual.pop().value);
+        expected.remove(fromRight);
+        expected.sort(comparator);
+        final List<Key> popped = popAll(actual);
+        for (int i = 0; i < expected.size(); i++) {
+            assertEquals(expected.get(i).value, popped.get(i).value);
+        }
+    }
+
+    @Test
+    public void mergeWith_shouldKeepAdjustableElements_whenOnlyOneHeapWasAdjusted() {
+        // arrange
+        final Heap<Key> left = create(Key.COMPARATOR);
+        final Heap<Key> right = create(Key.COMPARATOR);
+        final Key fromLeft = new Key(100);
+        final Key fromRight = new Key(200);
+        left.push(fromLeft);
+        left.push(new Key(150));
+        right.push(fromRight);
+        right.push(new Key(250));
+        assertTrue(adjustable(right).decreaseKey(fromRight, fromRight));
+        // act
+        mergeable(left).mergeWith(right);
+        fromLeft.value = 300;
+        fromRight.value = 1;
+        // assert
+        assertTrue(adjustable(left).increaseKey(fromLeft, fromLeft));
+        assertTrue(adjustable(left).decreaseKey(fromRight, fromRight));
+        assertEquals(Arrays.asList(1, 150, 250, 300), popAll(left).stream().map(k -> k.value).collect(Collectors.toList()));
+    }
+
+    @Test
+    public void mergeWith_shouldReturnExpected_whenOtherIsBinaryHeapWithReversedOrder() {
+        // arrange
+        final Heap<Integer> left = create(Integer::compare);
+        final BinaryHeap<Integer> right = new BinaryHeap<>(((Comparator<Integer>) Integer::compare).reversed());
+        final List<Integer> expected = new ArrayList<>();
+        final Random r = new Random();
+        for (int i = 0; i < 1000; i++) {
+            final int a = r.nextInt(100000);
+            final int b = r.nextInt(100000);
+            left.push(a);
+            right.push(b);
+            expected.add(a);
+            expected.add(b);
+        }
+        // act
+        final Heap<Integer> actual = mergeable(left).mergeWith(right);
+        // assert
+        assertSame(left, actual);
+        assertTrue(right.isEmpty());
+        expected.sort(Integer::compare);
+        assertEquals(expected, popAll(actual));
+    }
+
+    @Test(expected = NoSuchElementException.class)
+    public void pop_shouldThrow_whenEmpty() {
+        create(Integer::compare).pop();
+    }
+
+    @Test
+    public void peek_shouldReturnNull_whenEmpty() {
+        assertNull(create(Integer::compare).peek());
+    }
+
+    protected static <T> AdjustableHeap<T> adjustable(Heap<T> heap) {
+        return (AdjustableHeap<T>) heap;
+    }
+
+    protected static <T> MergeableHeap<T> mergeable(Heap<T> heap) {
+        return (MergeableHeap<T>) heap;
+    }
+
+    protected static <T> List<T> popAll(Heap<T> heap) {
+        final List<T> popped = new ArrayList<>();
+        while (!heap.isEmpty()) {
+            popped.add(heap.pop());
+        }
+        return popped;
+    }
+
+    protected static class Key {
+        static final Comparator<Key> COMPARATOR = Comparator.comparingInt(k -> k.value);
+        int value;
+
+        Key(int value) {
+            this.value = value;
+        }
+
+        @Override
+        public String toString() {
+            return "" + value;
+        }
+    }
+}
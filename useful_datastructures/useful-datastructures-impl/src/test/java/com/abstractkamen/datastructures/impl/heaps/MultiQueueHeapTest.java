@@ -0,0 +1,192 @@
+package com.abstractkamen.datastructures.impl.heaps;
+
+import org.junit.Test;
+
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.*;
+
+public class MultiQueueHeapTest {
+
+    @Test
+    public void push_pop_size_shouldBeExact_whenSingleShard() {
+        for (int j = 0; j < 10; j++) {
+            // arrange
+            final MultiQueueHeap<Integer> heap = MultiQueueHeap.createComparable(1);
+            final List<Integer> expected = new ArrayList<>();
+            // act
+            new Random().ints(1000, -10000, 10000).forEach(i -> {
+                heap.push(i);
+                expected.add(i);
+            });
+            assertEquals(expected.size(), heap.size());
+            // assert
+            expected.sort(Integer::compare);
+            final List<Integer> actual = new ArrayList<>();
+            heap.drainTo(actual);
+            assertEquals(expected, actual);
+            assertTrue(heap.isEmpty());
+        }
+    }
+
+    @Test
+    public void pop_shouldReturnEveryItem_whenManyShards() {
+        // arrange
+        final MultiQueueHeap<Integer> heap = MultiQueueHeap.createComparable(16);
+        final List<Integer> expected = new ArrayList<>();
+        new Random().ints(10000, -10000, 10000).forEach(i -> {
+            assertEquals(expected.size() + 1, heap.push(i));
+            expected.add(i);
+        });
+        // act
+        final List<Integer> actual = new ArrayList<>();
+        while (!heap.isEmpty()) {
+            actual.add(heap.pop());
+        }
+        // assert
+        expected.sort(Integer::compare);
+        actual.sort(Integer::compare);
+        assertEquals(expected, actual);
+    }
+
+    @Test
+    public void pop_shouldReturnLowRankItems_whenManyShards() {
+        // arrange
+        final int shards = 8;
+        final int n = 100000;
+        final MultiQueueHeap<Integer> heap = MultiQueueHeap.createComparable(shards);
+        final List<Integer> values = new ArrayList<>();
+        for (int i = 0; i < n; i++) {
+            values.add(i);
+        }
+        Collections.shuffle(values);
+        values.forEach(heap::push);
+        // act
+        long rankSum = 0;
+        final TreeSet<Integer> remaining = new TreeSet<>(values);
+        for (int i = 0; i < n / 2; i++) {
+            final Integer popped = heap.pop();
+            rankSum += remaining.headSet(popped).size();
+            remaining.remove(popped);
+        }
+        // assert
+        final double meanRank = rankSum / (n / 2.0);
+        assertTrue("mean rank " + meanRank, meanRank < 4 * shards);
+    }
+
+    @Test
+    public void push_pop_shouldNotLoseItems_whenUsedConcurrently() throws Exception {
+        // arrange
+        final int threads = 8;
+        final int perThread = 20000;
+        final MultiQueueHeap<Integer> heap = MultiQueueHeap.createComparable(threads * 2);
+        final ExecutorService executor = Executors.newFixedThreadPool(threads);
+        final ConcurrentLinkedQueue<Integer> popped = new ConcurrentLinkedQueue<>();
+        final AtomicInteger pushed = new AtomicInteger();
+        final CountDownLatch start = new CountDownLatch(1);
+        final List<Future<?>> futures = new ArrayList<>();
+        // act
+        for (int t = 0; t < threads; t++) {
+            final int offset = t * perThread;
+            futures.add(executor.submit(() -> {
+                start.await();
+                for (int i = 0; i < perThread; i++) {
+                    heap.push(offset + i);
+                    pushed.incrementAndGet();
+                    if ((i & 1) == 1) {
+                        popped.add(heap.pop());
+                    }
+                }
+                return null;
+            }));
+        }
+        start.countDown();
+        for (Future<?> future : futures) {
+            future.get(30, TimeUnit.SECONDS);
+        }
+        executor.shutdown();
+        while (!heap.isEmpty()) {
+            popped.add(heap.pop());
+        }
+        // assert
+        assertEquals(threads * perThread, pushed.get());
+        final List<Integer> actual = new ArrayList<>(popped);
+        actual.sort(Integer::compare);
+        assertEquals(threads * perThread, actual.size());
+        for (int i = 0; i < actual.size(); i++) {
+            assertEquals(i, actual.get(i).intValue());
+        }
+    }
+
+    @Test
+    public void drainTo_shouldNotThrow_whenDrainedConcurrently() throws Exception {
+        // arrange
+        final int threads = 8;
+        final int n = 100000;
+        final MultiQueueHeap<Integer> heap = MultiQueueHeap.createComparable(threads * 2);
+        for (int i = 0; i < n; i++) {
+            heap.push(i);
+        }
+        final ExecutorService executor = Executors.newFixedThreadPool(threads);
+        final CountDownLatch start = new CountDownLatch(1);
+        final List<Future<List<Integer>>> futures = new ArrayList<>();
+        // act
+        for (int t = 0; t < threads; t++) {
+            final boolean bounded = (t & 1) == 0;
+            futures.add(executor.submit(() -> {
+                start.await();
+                final List<Integer> drained = new ArrayList<>();
+                if (bounded) {
+                    int taken;
+                    do {
+                        taken = heap.popN(100, drained::add);
+                    } while (taken == 100);
+                } else {
+                    final int taken = heap.drainTo(drained);
+                    assertEquals(taken, drained.size());
+                }
+                return drained;
+            }));
+        }
+        start.countDown();
+        final List<Integer> actual = new ArrayList<>();
+        for (Future<List<Integer>> future : futures) {
+            actual.addAll(future.get(30, TimeUnit.SECONDS));
+        }
+        executor.shutdown();
+        // assert
+        assertTrue(heap.isEmpty());
+        actual.sort(Integer::compare);
+        assertEquals(n, actual.size());
+        for (int i = 0; i < n; i++) {
+            assertEquals(i, actual.get(i).intValue());
+        }
+    }
+
+    @Test
+    public void peek_shouldReturnBestOfAllShards() {
+        final MultiQueueHeap<Integer> heap = MultiQueueHeap.createComparable(8);
+        assertNull(heap.peek());
+        for (int i = 100; i > 0; i--) {
+            heap.push(i);
+        }
+        assertEquals(Integer.valueOf(1), heap.peek());
+    }
+
+    @Test(expected = NoSuchElementException.class)
+    public void pop_shouldThrow_whenEmpty() {
+        MultiQueueHeap.createComparable().pop();
+    }
+
+    @Test(expected = NullPointerException.class)
+    public void push_shouldThrow_whenNull() {
+        MultiQueueHeap.<Integer>createComparable().push(null);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void constructor_shouldThrow_whenNoShards() {
+        MultiQueueHeap.createComparable(0);
+    }
+}
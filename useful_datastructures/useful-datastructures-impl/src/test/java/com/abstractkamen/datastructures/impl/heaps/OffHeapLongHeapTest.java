@@ -0,0 +1,154 @@
+package com.abstractkamen.datastructures.impl.heaps;
+
+import com.abstractkamen.datastructures.api.heaps.LongComparator;
+import org.junit.Test;
+
+import java.util.NoSuchElementException;
+import java.util.PriorityQueue;
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class OffHeapLongHeapTest {
+
+    @Test
+    public void push_pop_shouldReturnExpected_whenPushAndPopAreInterleaved() {
+        for (int chunkSize : new int[]{1, 16, 1024}) {
+            // arrange
+            try (OffHeapLongHeap heap = new OffHeapLongHeap(LongComparator.naturalOrder(), false, chunkSize)) {
+                final PriorityQueue<Long> expected = new PriorityQueue<>();
+                final Random r = new Random();
+                // act & assert
+                for (int i = 0; i < 20000; i++) {
+                    if (expected.isEmpty() || r.nextInt(3) > 0) {
+                        final long value = r.nextLong();
+                        heap.push(value);
+                        expected.add(value);
+                    } else {
+                        assertEquals(expected.poll().longValue(), heap.pop());
+                    }
+                    assertEquals(expected.size(), heap.size());
+                    if (!expected.isEmpty()) {
+                        assertEquals(expected.peek().longValue(), heap.peek());
+                    }
+                }
+                while (!expected.isEmpty()) {
+                    assertEquals(expected.poll().longValue(), heap.pop());
+                }
+                assertTrue(heap.isEmpty());
+            }
+        }
+    }
+
+    @Test
+    public void pop_shouldReturnMaximum_whenMaxHeap() {
+        try (OffHeapLongHeap heap = OffHeapLongHeap.createMax()) {
+            heap.pushAll(3, -7, 42, 0, 42, Long.MIN_VALUE, Long.MAX_VALUE);
+            assertEquals(Long.MAX_VALUE, heap.pop());
+            assertEquals(42, heap.pop());
+            assertEquals(42, heap.pop());
+            assertEquals(3, heap.pop());
+            assertEquals(0, heap.pop());
+            assertEquals(-7, heap.pop());
+            assertEquals(Long.MIN_VALUE, heap.pop());
+        }
+    }
+
+    @Test
+    public void peekPayload_shouldFollowItsKey() {
+        // arrange
+        try (OffHeapLongHeap heap = new OffHeapLongHeap(LongComparator.naturalOrder(), true, 64)) {
+            final Random r = new Random();
+            for (int i = 0; i < 5000; i++) {
+                final long key = r.nextInt(100000);
+                heap.push(key, ~key);
+            }
+            // act & assert
+            long previous = Long.MIN_VALUE;
+            while (!heap.isEmpty()) {
+                final long payload = heap.peekPayload();
+                final long key = heap.pop();
+                assertEquals(~key, payload);
+                assertTrue(previous <= key);
+                previous = key;
+            }
+        }
+    }
+
+    @Test
+    public void peekPayload_shouldBeZero_whenNoPayloads() {
+        try (OffHeapLongHeap heap = OffHeapLongHeap.createMin()) {
+            heap.push(5, 10);
+            assertFalse(heap.hasPayload());
+            assertEquals(0, heap.peekPayload());
+        }
+    }
+
+    @Test
+    public void pop_shouldReleaseChunks_whenHeapShrinks() {
+        try (OffHeapLongHeap heap = new OffHeapLongHeap(LongComparator.naturalOrder(), false, 16)) {
+            for (int i = 0; i < 160; i++) {
+                heap.push(i);
+            }
+            assertEquals(160, heap.capacity());
+            // one spare chunk is kept
+            heap.popN(144, x -> {});
+            assertEquals(32, heap.capacity());
+            heap.popN(16, x -> {});
+            assertEquals(16, heap.capacity());
+            heap.push(1);
+            assertEquals(16, heap.capacity());
+        }
+    }
+
+    @Test
+    public void close_shouldReleaseMemory_andRejectFurtherUse() {
+        // arrange
+        final OffHeapLongHeap heap = OffHeapLongHeap.createMin();
+        heap.pushAll(1, 2, 3);
+        // act
+        heap.close();
+        heap.close();
+        // assert
+        assertEquals(0, heap.size());
+        assertEquals(0, heap.capacity());
+        assertThrows(() -> heap.push(1));
+        assertThrows(heap::peek);
+        assertThrows(heap::pop);
+    }
+
+    @Test(expected = NoSuchElementException.class)
+    public void pop_shouldThrow_whenEmpty() {
+        try (OffHeapLongHeap heap = OffHeapLongHeap.createMin()) {
+            heap.pop();
+        }
+    }
+
+    @Test(expected = NoSuchElementException.class)
+    public void peek_shouldThrow_whenEmpty() {
+        try (OffHeapLongHeap heap = OffHeapLongHeap.createMin()) {
+            heap.peek();
+        }
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void constructor_shouldThrow_whenChunkSizeIsNotPowerOfTwo() {
+        new OffHeapLongHeap(LongComparator.naturalOrder(), false, 1000);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void constructor_shouldThrow_whenChunkDoesNotFitInBuffer() {
+        new OffHeapLongHeap(LongComparator.naturalOrder(), true, 1 << 27);
+    }
+
+    private static void assertThrows(Runnable runnable) {
+        try {
+            runnable.run();
+        } catch (IllegalStateException expected) {
+            return;
+        }
+        throw new AssertionError("expected IllegalStateException");
+    }
+}
@@ -0,0 +1,63 @@
+package com.abstractkamen.datastructures.impl.heaps;
+
+import com.abstractkamen.datastructures.api.heaps.Heap;
+import org.junit.Test;
+
+import java.util.*;
+
+import static org.junit.Assert.*;
+
+public class PairingHeapTest extends MergeableAdjustableHeapTest {
+
+    @Override
+    protected <T> Heap<T> create(Comparator<T> comparator) {
+        return new PairingHeap<>(comparator);
+    }
+
+    @Test
+    public void pop_shouldCombineChildren_whenRootHasOddOrEvenNumberOfChildren() {
+        for (int children : new int[]{1, 2, 3, 4, 5, 100, 101}) {
+            // arrange, every value pushed after the smallest one becomes a child of the root
+            final PairingHeap<Integer> heap = PairingHeap.createComparable();
+            final List<Integer> values = new ArrayList<>();
+            for (int i = 1; i <= children; i++) {
+                values.add(i);
+            }
+            Collections.shuffle(values);
+            heap.push(0);
+            values.forEach(heap::push);
+            // act
+            assertEquals(Integer.valueOf(0), heap.pop());
+            // assert
+            values.sort(Integer::compare);
+            assertEquals(values, popAll(heap));
+        }
+    }
+
+    @Test
+    public void decreaseKey_shouldMoveSubtree_whenNodeWasLinkedByTwoPassCombine() {
+        // arrange
+        final PairingHeap<Key> heap = new PairingHeap<>(Key.COMPARATOR);
+        final List<Key> keys = new ArrayList<>();
+        for (int i = 0; i < 64; i++) {
+            final Key key = new Key(i);
+            keys.add(key);
+            heap.push(key);
+        }
+        heap.pop();
+        keys.remove(0);
+        // act, every pair and every chain link of the combine is cut once
+        for (int i = keys.size() - 1; i >= 0; i -= 2) {
+            final Key key = keys.get(i);
+            key.value -= 100;
+            assertTrue(heap.decreaseKey(key, key));
+            assertSame(key, heap.peek());
+        }
+        // assert
+        keys.sort(Key.COMPARATOR);
+        final List<Key> popped = popAll(heap);
+        for (int i = 0; i < keys.size(); i++) {
+            assertSame(keys.get(i), popped.get(i));
+        }
+    }
+}
@@ -0,0 +1,110 @@
+package com.abstractkamen.datastructures.impl.heaps;
+
+import org.junit.Test;
+
+import java.util.NoSuchElementException;
+import java.util.PriorityQueue;
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class RadixHeapTest {
+
+    @Test
+    public void pop_shouldReturnExpected_whenEventsAreScheduledAfterNow() {
+        for (int j = 0; j < 10; j++) {
+            // arrange
+            final RadixHeap heap = new RadixHeap();
+            final PriorityQueue<Long> expected = new PriorityQueue<>();
+            final Random r = new Random();
+            long now = r.nextLong() >> 2;
+            for (int i = 0; i < 100; i++) {
+                final long t = now + r.nextInt(1000);
+                heap.push(t);
+                expected.add(t);
+            }
+            // act & assert
+            for (int i = 0; i < 20000 && !expected.isEmpty(); i++) {
+                assertEquals(expected.peek().longValue(), heap.peek());
+                now = heap.pop();
+                assertEquals(expected.poll().longValue(), now);
+                for (int k = r.nextInt(3); k > 0; k--) {
+                    final long t = now + (r.nextBoolean() ? r.nextInt(10) : r.nextInt(1 << 20));
+                    heap.push(t);
+                    expected.add(t);
+                }
+                assertEquals(expected.size(), heap.size());
+            }
+        }
+    }
+
+    @Test
+    public void pop_shouldOrderAsSignedLongs() {
+        final RadixHeap heap = new RadixHeap();
+        heap.pushAll(3, -5, Long.MAX_VALUE, 0, Long.MIN_VALUE, -5, 1L << 40);
+        assertEquals(Long.MIN_VALUE, heap.pop());
+        assertEquals(-5, heap.pop());
+        assertEquals(-5, heap.pop());
+        assertEquals(0, heap.pop());
+        assertEquals(3, heap.pop());
+        assertEquals(1L << 40, heap.pop());
+        assertEquals(Long.MAX_VALUE, heap.pop());
+        assertTrue(heap.isEmpty());
+    }
+
+    @Test
+    public void push_shouldAcceptKeysBelowPeekedMinimum_whenNotBelowLastPopped() {
+        // arrange
+        final RadixHeap heap = new RadixHeap();
+        heap.pushAll(10, 100, 1000);
+        assertEquals(10, heap.pop());
+        assertEquals(100, heap.peek());
+        // act
+        heap.push(10);
+        heap.push(50);
+        // assert
+        assertEquals(10, heap.peek());
+        assertEquals(10, heap.pop());
+        assertEquals(50, heap.pop());
+        assertEquals(100, heap.pop());
+        assertEquals(1000, heap.pop());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void push_shouldThrow_whenKeyIsBelowLastPopped() {
+        final RadixHeap heap = new RadixHeap();
+        heap.pushAll(10, 20);
+        heap.pop();
+        heap.push(9);
+    }
+
+    @Test
+    public void lastPayload_shouldFollowItsKey() {
+        // arrange
+        final RadixHeap heap = new RadixHeap(true);
+        final Random r = new Random();
+        for (int i = 0; i < 5000; i++) {
+            final long key = r.nextInt(100000);
+            heap.push(key, ~key);
+        }
+        // act & assert
+        long previous = Long.MIN_VALUE;
+        while (!heap.isEmpty()) {
+            final long key = heap.pop();
+            assertEquals(~key, heap.lastPayload());
+            assertTrue(previous <= key);
+            previous = key;
+        }
+    }
+
+    @Test(expected = NoSuchElementException.class)
+    public void pop_shouldThrow_whenEmpty() {
+        new RadixHeap().pop();
+    }
+
+    @Test(expected = NoSuchElementException.class)
+    public void peek_shouldThrow_whenEmpty() {
+        new RadixHeap().peek();
+    }
+}
@@ -0,0 +1,97 @@
+package com.abstractkamen.datastructures.impl.heaps;
+
+import org.junit.Test;
+
+import java.util.*;
+import java.util.stream.Collectors;
+
+import static org.junit.Assert.*;
+
+public class TopKHeapTest {
+
+    @Test
+    public void offer_shouldKeepGreatest_randomTest() {
+        for (int k : new int[]{1, 10, 100, 1000, 5000}) {
+            // arrange
+            final TopKHeap<Integer> heap = TopKHeap.createComparable(k);
+            final List<Integer> values = new Random().ints(2000, -10000, 10000).boxed().collect(Collectors.toList());
+            // act
+            values.forEach(heap::offer);
+            // assert
+            values.sort(Comparator.reverseOrder());
+            final List<Integer> expected = values.subList(0, Math.min(k, values.size()));
+            assertEquals(expected.size(), heap.size());
+            assertEquals(expected, heap.toSortedList());
+            assertEquals(expected.get(expected.size() - 1), heap.peek());
+        }
+    }
+
+    @Test
+    public void offer_shouldReject_whenNotGreaterThanThreshold() {
+        // arrange
+        final TopKHeap<Integer> heap = TopKHeap.createComparable(3);
+        // act & assert
+        assertTrue(heap.offer(5));
+        assertTrue(heap.offer(1));
+        assertTrue(heap.offer(3));
+        assertFalse(heap.offer(0));
+        assertFalse(heap.offer(1));
+        assertTrue(heap.offer(4));
+        assertEquals(3, heap.push(2));
+        assertEquals(Arrays.asList(5, 4, 3), heap.toSortedList());
+        assertEquals(Integer.valueOf(3), heap.pop());
+        assertEquals(2, heap.size());
+        assertEquals(3, heap.capacity());
+    }
+
+    @Test
+    public void offer_shouldKeepSmallest_whenComparatorIsReversed() {
+        // arrange
+        final TopKHeap<Integer> heap = new TopKHeap<>(Comparator.<Integer>naturalOrder().reversed(), 3);
+        // act
+        Arrays.asList(7, 3, 9, 1, 8, 2).forEach(heap::offer);
+        // assert
+        assertEquals(Arrays.asList(1, 2, 3), heap.toSortedList());
+    }
+
+    @Test
+    public void collector_shouldReturnGreatestFirst_whenParallel() {
+        // arrange
+        final List<Integer> values = new Random().ints(100000, -1000000, 1000000).boxed().collect(Collectors.toList());
+        // act
+        final List<Integer> actual = values.parallelStream().collect(TopKHeap.collector(100));
+        // assert
+        values.sort(Comparator.reverseOrder());
+        assertEquals(values.subList(0, 100), actual);
+    }
+
+    @Test
+    public void mergeWith_shouldKeepGreatestOfBoth() {
+        // arrange
+        final TopKHeap<Integer> left = TopKHeap.createComparable(3);
+        final TopKHeap<Integer> right = TopKHeap.createComparable(5);
+        Arrays.asList(1, 10, 5).forEach(left::offer);
+        Arrays.asList(2, 9, 7, 3, 4).forEach(right::offer);
+        // act
+        final TopKHeap<Integer> actual = left.mergeWith(right);
+        // assert
+        assertSame(left, actual);
+        assertEquals(Arrays.asList(10, 9, 7), actual.toSortedList());
+        assertEquals(5, right.size());
+    }
+
+    @Test(expected = ClassCastException.class)
+    public void mergeWith_shouldThrow_whenOtherIsNotTopKHeap() {
+        TopKHeap.<Integer>createComparable(1).mergeWith(BinaryHeap.createComparable());
+    }
+
+    @Test(expected = NoSuchElementException.class)
+    public void pop_shouldThrow_whenEmpty() {
+        TopKHeap.createComparable(1).pop();
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void constructor_shouldThrow_whenKIsZero() {
+        TopKHeap.createComparable(0);
+    }
+}
@@ -0,0 +1,101 @@
+package com.abstractkamen.datastructures.impl.queues;
+
+import org.junit.Test;
+
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.NoSuchElementException;
+import java.util.Random;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class AggregatingRingBufferTest {
+
+    @Test(expected = IllegalArgumentException.class)
+    public void constructor_shouldThrow_whenCapacityIsNotPowerOfTwo() {
+        new AggregatingRingBuffer(100);
+    }
+
+    @Test
+    public void statistics_shouldMatchWindow_whenRandomEnqueueAndDequeue() {
+        for (int capacity : new int[]{1, 2, 16, 256}) {
+            // arrange
+            final Random r = new Random();
+            final AggregatingRingBuffer buffer = new AggregatingRingBuffer(capacity, 7);
+            final ArrayDeque<Long> window = new ArrayDeque<>();
+            // act & assert
+            for (int i = 0; i < 5000; i++) {
+                if (window.isEmpty() || r.nextInt(4) > 0) {
+                    final long value = r.nextBoolean() ? r.nextInt(100) : r.nextInt(1_000_000);
+                    buffer.enqueue(value);
+                    if (window.size() == capacity) {
+                        window.poll();
+                    }
+                    window.add(value);
+                } else {
+                    assertEquals(window.poll().longValue(), buffer.dequeue());
+                }
+                assertEquals(window.size(), buffer.size());
+                if (window.isEmpty()) {
+                    continue;
+                }
+                final long[] sorted = window.stream().mapToLong(Long::longValue).sorted().toArray();
+                assertEquals(Arrays.stream(sorted).sum(), buffer.sum());
+                assertEquals((double) buffer.sum() / sorted.length, buffer.mean(), 0);
+                assertEquals(sorted[0], buffer.min());
+                assertEquals(sorted[sorted.length - 1], buffer.max());
+                for (double q : new double[]{0, 0.5, 0.9, 0.99, 1}) {
+                    final long exact = sorted[Math.max(0, (int) Math.ceil(q * sorted.length) - 1)];
+                    final long estimate = buffer.quantile(q);
+                    assertTrue(estimate >= exact);
+                    assertTrue(estimate - exact <= exact / 64);
+                }
+            }
+        }
+    }
+
+    @Test
+    public void enqueue_shouldOverwriteOldest_whenFull() {
+        final AggregatingRingBuffer buffer = new AggregatingRingBuffer(4);
+        buffer.enqueueAll(9, 1, 5, 7, 3, 8);
+        assertArrayEquals(new long[]{5, 7, 3, 8}, buffer.stream().toArray());
+        assertEquals(3, buffer.min());
+        assertEquals(8, buffer.max());
+        assertEquals(23, buffer.sum());
+        assertEquals(7, buffer.get(1));
+        assertFalse(buffer.hasQuantiles());
+    }
+
+    @Test
+    public void clear_shouldResetStatistics() {
+        final AggregatingRingBuffer buffer = new AggregatingRingBuffer(4, 5);
+        buffer.enqueueAll(1, 2, 3);
+        buffer.clear();
+        assertTrue(buffer.isEmpty());
+        assertEquals(0, buffer.sum());
+        buffer.enqueue(10);
+        assertEquals(10, buffer.min());
+        assertEquals(10, buffer.max());
+        assertEquals(10, buffer.quantile(0.5));
+    }
+
+    @Test(expected = NoSuchElementException.class)
+    public void min_shouldThrow_whenEmpty() {
+        new AggregatingRingBuffer(4).min();
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void quantile_shouldThrow_whenNotKept() {
+        final AggregatingRingBuffer buffer = new AggregatingRingBuffer(4);
+        buffer.enqueue(1);
+        buffer.quantile(0.5);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void enqueue_shouldThrow_whenNegativeAndQuantilesAreKept() {
+        new AggregatingRingBuffer(4, 7).enqueue(-1);
+    }
+}
@@ -0,0 +1,134 @@
+package com.abstractkamen.datastructures.impl.queues;
+
+import com.abstractkamen.datastructures.impl.queues.BlockingRingBuffer.FullBufferPolicy;
+import com.abstractkamen.datastructures.impl.queues.BlockingRingBuffer.WaitStrategy;
+import org.junit.Test;
+
+import java.util.NoSuchElementException;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+public class BlockingRingBufferTest {
+
+    @Test(expected = IllegalArgumentException.class)
+    public void constructor_shouldThrow_whenCapacityIsNotPowerOfTwo() {
+        new BlockingRingBuffer<>(6);
+    }
+
+    @Test
+    public void enqueue_shouldOverwriteOldest_whenPolicyIsOverwrite() {
+        // arrange
+        final BlockingRingBuffer<Integer> buffer = new BlockingRingBuffer<>(4, FullBufferPolicy.OVERWRITE, WaitStrategy.PARK);
+        // act
+        for (int i = 0; i < 6; i++) {
+            assertTrue(buffer.enqueue(i));
+        }
+        // assert
+        assertEquals(4, buffer.size());
+        assertEquals("[2, 3, 4, 5]", buffer.toString());
+        assertEquals(2, buffer.dequeue().intValue());
+    }
+
+    @Test
+    public void enqueue_shouldReturnFalse_whenPolicyIsReject() throws InterruptedException {
+        // arrange
+        final BlockingRingBuffer<Integer> buffer = new BlockingRingBuffer<>(2, FullBufferPolicy.REJECT, WaitStrategy.BLOCKING);
+        buffer.enqueue(1);
+        buffer.enqueue(2);
+        // act & assert
+        assertFalse(buffer.enqueue(3));
+        assertFalse(buffer.put(3));
+        assertFalse(buffer.offer(3, 1, TimeUnit.SECONDS));
+        assertEquals("[1, 2]", buffer.toString());
+    }
+
+    @Test
+    public void offer_shouldTimeOut_whenPolicyIsBlockAndFull() throws InterruptedException {
+        for (WaitStrategy strategy : WaitStrategy.values()) {
+            // arrange
+            final BlockingRingBuffer<Integer> buffer = new BlockingRingBuffer<>(1, FullBufferPolicy.BLOCK, strategy);
+            buffer.enqueue(1);
+            // act & assert
+            assertFalse(strategy.name(), buffer.offer(2));
+            assertFalse(strategy.name(), buffer.offer(2, 10, TimeUnit.MILLISECONDS));
+            assertEquals(1, buffer.poll(10, TimeUnit.MILLISECONDS).intValue());
+            assertNull(strategy.name(), buffer.poll(10, TimeUnit.MILLISECONDS));
+        }
+    }
+
+    @Test(expected = NoSuchElementException.class)
+    public void dequeue_shouldThrow_whenEmpty() {
+        new BlockingRingBuffer<>(2).dequeue();
+    }
+
+    @Test(expected = NullPointerException.class)
+    public void enqueue_shouldThrow_whenItemIsNull() {
+        new BlockingRingBuffer<>(2).enqueue(null);
+    }
+
+    @Test
+    public void take_shouldThrow_whenInterrupted() throws InterruptedException {
+        for (WaitStrategy strategy : WaitStrategy.values()) {
+            // arrange
+            final BlockingRingBuffer<Integer> buffer = new BlockingRingBuffer<>(2, FullBufferPolicy.BLOCK, strategy);
+            final AtomicReference<Throwable> thrown = new AtomicReference<>();
+            final Thread consumer = new Thread(() -> {
+                try {
+                    buffer.take();
+                } catch (Throwable e) {
+                    thrown.set(e);
+                }
+            });
+            // act
+            consumer.start();
+            consumer.interrupt();
+            consumer.join();
+            // assert
+            assertTrue(strategy.name(), thrown.get() instanceof InterruptedException);
+        }
+    }
+
+    @Test
+    public void take_shouldReceiveEveryItemInProducerOrder_whenProducersBlock() throws InterruptedException {
+        for (WaitStrategy strategy : WaitStrategy.values()) {
+            // arrange
+            final int producers = 3;
+            final int perProducer = 2_000;
+            final BlockingRingBuffer<long[]> buffer = new BlockingRingBuffer<>(16, FullBufferPolicy.BLOCK, strategy);
+            final CountDownLatch start = new CountDownLatch(1);
+            final Thread[] threads = new Thread[producers];
+            for (int p = 0; p < producers; p++) {
+                final int producer = p;
+                threads[p] = new Thread(() -> {
+                    try {
+                        start.await();
+                        for (int i = 0; i < perProducer; i++) {
+                            buffer.put(new long[]{producer, i});
+                        }
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    }
+                });
+                threads[p].start();
+            }
+            // act
+            start.countDown();
+            final long[] nextExpected = new long[producers];
+            for (int received = 0; received < producers * perProducer; received++) {
+                final long[] item = buffer.take();
+                // assert
+                assertEquals(strategy.name(), nextExpected[(int) item[0]]++, item[1]);
+            }
+            for (Thread thread : threads) {
+                thread.join();
+            }
+            assertTrue(buffer.isEmpty());
+        }
+    }
+}
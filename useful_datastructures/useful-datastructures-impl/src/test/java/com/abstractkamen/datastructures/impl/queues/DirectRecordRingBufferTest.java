@@ -0,0 +1,96 @@
+package com.abstractkamen.datastructures.impl.queues;
+
+import org.junit.Test;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.NoSuchElementException;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class DirectRecordRingBufferTest {
+    private static final int TIMESTAMP = 0;
+    private static final int LATENCY = 8;
+    private static final int STATUS = 16;
+    private static final int RECORD_SIZE = 20;
+
+    private static ByteBuffer record(long timestamp, double latency, int status) {
+        final ByteBuffer record = ByteBuffer.allocate(RECORD_SIZE).order(ByteOrder.nativeOrder());
+        record.putLong(timestamp).putDouble(latency).putInt(status).flip();
+        return record;
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void constructor_shouldThrow_whenCapacityIsNotPowerOfTwo() {
+        new DirectRecordRingBuffer(RECORD_SIZE, 5);
+    }
+
+    @Test
+    public void enqueue_shouldOverwriteOldest_whenFull() {
+        try (DirectRecordRingBuffer buffer = new DirectRecordRingBuffer(RECORD_SIZE, 4)) {
+            // act
+            for (int i = 0; i < 7; i++) {
+                final ByteBuffer record = record(i, i / 2.0, 200 + i);
+                buffer.enqueue(record);
+                assertEquals(RECORD_SIZE, record.position());
+            }
+            // assert
+            assertEquals(4, buffer.size());
+            for (int i = 0; i < 4; i++) {
+                assertEquals(i + 3, buffer.getLong(i, TIMESTAMP));
+                assertEquals((i + 3) / 2.0, buffer.getDouble(i, LATENCY), 0);
+                assertEquals(203 + i, buffer.getInt(i, STATUS));
+            }
+        }
+    }
+
+    @Test
+    public void dequeue_shouldCopyOldestRecord() {
+        try (DirectRecordRingBuffer buffer = new DirectRecordRingBuffer(RECORD_SIZE, 4)) {
+            // arrange
+            buffer.enqueue(record(1, 1.5, 200));
+            buffer.enqueue(record(2, 2.5, 500));
+            final ByteBuffer target = ByteBuffer.allocate(2 * RECORD_SIZE).order(ByteOrder.nativeOrder());
+            // act
+            buffer.dequeue(target);
+            buffer.dequeue(target);
+            // assert
+            assertTrue(buffer.isEmpty());
+            target.flip();
+            assertEquals(record(1, 1.5, 200), target.slice(0, RECORD_SIZE));
+            assertEquals(record(2, 2.5, 500), target.slice(RECORD_SIZE, RECORD_SIZE));
+        }
+    }
+
+    @Test(expected = NoSuchElementException.class)
+    public void dequeue_shouldThrow_whenEmpty() {
+        try (DirectRecordRingBuffer buffer = new DirectRecordRingBuffer(RECORD_SIZE, 4)) {
+            buffer.dequeue(ByteBuffer.allocate(RECORD_SIZE));
+        }
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void enqueue_shouldThrow_whenRecordIsTooShort() {
+        try (DirectRecordRingBuffer buffer = new DirectRecordRingBuffer(RECORD_SIZE, 4)) {
+            buffer.enqueue(ByteBuffer.allocate(RECORD_SIZE - 1));
+        }
+    }
+
+    @Test(expected = IndexOutOfBoundsException.class)
+    public void getLong_shouldThrow_whenFieldIsNotWithinRecord() {
+        try (DirectRecordRingBuffer buffer = new DirectRecordRingBuffer(RECORD_SIZE, 4)) {
+            buffer.enqueue(record(1, 1, 1));
+            buffer.getLong(0, STATUS);
+        }
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void getLong_shouldThrow_whenClosed() {
+        final DirectRecordRingBuffer buffer = new DirectRecordRingBuffer(RECORD_SIZE, 4);
+        buffer.enqueue(record(1, 1, 1));
+        buffer.close();
+        buffer.close();
+        buffer.getLong(0, TIMESTAMP);
+    }
+}
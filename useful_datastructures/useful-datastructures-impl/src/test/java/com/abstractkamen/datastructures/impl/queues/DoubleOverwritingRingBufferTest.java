@@ -0,0 +1,89 @@
+package com.abstractkamen.datastructures.impl.queues;
+
+import org.junit.Test;
+
+import java.util.ArrayDeque;
+import java.util.NoSuchElementException;
+import java.util.Random;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class DoubleOverwritingRingBufferTest {
+
+    @Test(expected = IllegalArgumentException.class)
+    public void constructor_shouldThrow_whenCapacityIsNotPowerOfTwo() {
+        new DoubleOverwritingRingBuffer(3);
+    }
+
+    @Test
+    public void enqueue_shouldOverwriteOldest_whenFull() {
+        // arrange
+        final DoubleOverwritingRingBuffer buffer = new DoubleOverwritingRingBuffer(4);
+        // act
+        for (double i = 0; i < 6; i++) {
+            assertTrue(buffer.enqueue(i));
+        }
+        // assert
+        assertEquals(4, buffer.size());
+        assertArrayEquals(new double[]{2, 3, 4, 5}, buffer.toArray(), 0);
+        assertArrayEquals(new double[]{2, 3, 4, 5}, buffer.stream().toArray(), 0);
+        assertEquals(3, buffer.get(1), 0);
+        assertEquals("[2.0, 3.0, 4.0, 5.0]", buffer.toString());
+        assertEquals(2, buffer.dequeue(), 0);
+        assertEquals(3, buffer.size());
+    }
+
+    @Test
+    public void enqueueAll_drainTo_shouldMatchOneByOne_whenRandom() {
+        // arrange
+        final Random r = new Random();
+        final DoubleOverwritingRingBuffer buffer = new DoubleOverwritingRingBuffer(16);
+        final ArrayDeque<Double> expected = new ArrayDeque<>();
+        // act & assert
+        for (int i = 0; i < 2000; i++) {
+            if (r.nextBoolean()) {
+                final double[] values = r.doubles(r.nextInt(40)).toArray();
+                for (double value : values) {
+                    if (expected.size() == 16) {
+                        expected.poll();
+                    }
+                    expected.add(value);
+                }
+                assertEquals(expected.size(), buffer.enqueueAll(values));
+            } else {
+                final double[] target = new double[r.nextInt(20)];
+                final int n = buffer.drainTo(target);
+                assertEquals(Math.min(target.length, expected.size()), n);
+                for (int k = 0; k < n; k++) {
+                    assertEquals(expected.poll(), target[k], 0);
+                }
+            }
+            assertEquals(expected.size(), buffer.size());
+            assertArrayEquals(expected.stream().mapToDouble(Double::doubleValue).toArray(), buffer.toArray(), 0);
+        }
+    }
+
+    @Test(expected = NoSuchElementException.class)
+    public void dequeue_shouldThrow_whenEmpty() {
+        new DoubleOverwritingRingBuffer(2).dequeue();
+    }
+
+    @Test(expected = IndexOutOfBoundsException.class)
+    public void get_shouldThrow_whenIndexNotBelowSize() {
+        final DoubleOverwritingRingBuffer buffer = new DoubleOverwritingRingBuffer(4);
+        buffer.enqueue(1);
+        buffer.get(1);
+    }
+
+    @Test
+    public void clear_shouldRemoveEverything() {
+        final DoubleOverwritingRingBuffer buffer = new DoubleOverwritingRingBuffer(4);
+        buffer.enqueueAll(1, 2, 3);
+        buffer.clear();
+        assertTrue(buffer.isEmpty());
+        assertFalse(buffer.iterator().hasNext());
+    }
+}
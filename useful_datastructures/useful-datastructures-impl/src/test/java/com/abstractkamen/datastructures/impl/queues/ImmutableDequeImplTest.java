@@ -0,0 +1,107 @@
+package com.abstractkamen.datastructures.impl.queues;
+
+import com.abstractkamen.datastructures.api.queues.ImmutableDeque;
+import org.junit.Test;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+public class ImmutableDequeImplTest {
+
+    private static <T> List<T> toList(Iterable<T> iterable) {
+        final List<T> result = new ArrayList<>();
+        for (T element : iterable) {
+            result.add(element);
+        }
+        return result;
+    }
+
+    @Test
+    public void emptyDeque_shouldHaveNoElements() {
+        final ImmutableDeque<Integer> deque = new ImmutableDequeImpl<>();
+        assertTrue(deque.isEmpty());
+        assertEquals(0, deque.size());
+        assertNull(deque.peekFront());
+        assertNull(deque.peekBack());
+    }
+
+    @Test(expected = NoSuchElementException.class)
+    public void popFront_shouldThrow_whenEmpty() {
+        new ImmutableDequeImpl<>().popFront();
+    }
+
+    @Test(expected = NoSuchElementException.class)
+    public void popBack_shouldThrow_whenEmpty() {
+        new ImmutableDequeImpl<>().pushFront(1).popBack().popBack();
+    }
+
+    @Test
+    public void popFront_shouldReachElementsPushedAtBack() {
+        // arrange
+        ImmutableDeque<Integer> deque = new ImmutableDequeImpl<>();
+        for (int i = 0; i < 6; i++) {
+            deque = deque.pushBack(i);
+        }
+        // act & assert
+        for (int i = 0; i < 6; i++) {
+            assertEquals(i, deque.peekFront().intValue());
+            assertEquals(5, deque.peekBack().intValue());
+            deque = deque.popFront();
+        }
+        assertTrue(deque.isEmpty());
+    }
+
+    @Test
+    public void versions_shouldNotChange_whenNewVersionsArePublished() {
+        // arrange
+        final ImmutableDeque<String> snapshot = new ImmutableDequeImpl<String>().pushBack("b").pushFront("a").pushBack("c");
+        // act
+        final ImmutableDeque<String> left = snapshot.popFront().popFront();
+        final ImmutableDeque<String> right = snapshot.popBack().pushFront("z");
+        // assert
+        assertEquals(Arrays.asList("a", "b", "c"), toList(snapshot));
+        assertEquals(Arrays.asList("c"), toList(left));
+        assertEquals(Arrays.asList("z", "a", "b"), toList(right));
+        assertEquals("[z, a, b]", right.toString());
+    }
+
+    @Test
+    public void operations_shouldMatchArrayDeque_whenRandom() {
+        // arrange
+        final Random random = new Random(11);
+        final ArrayDeque<Integer> expected = new ArrayDeque<>();
+        ImmutableDeque<Integer> deque = new ImmutableDequeImpl<>();
+        // act & assert
+        for (int i = 0; i < 5_000; i++) {
+            final int op = random.nextInt(5);
+            if (op == 0) {
+                deque = deque.pushFront(i);
+                expected.addFirst(i);
+            } else if (op == 1) {
+                deque = deque.pushBack(i);
+                expected.addLast(i);
+            } else if (expected.isEmpty()) {
+                continue;
+            } else if (op == 2) {
+                deque = deque.popFront();
+                expected.removeFirst();
+            } else if (op == 3) {
+                deque = deque.popBack();
+                expected.removeLast();
+            } else {
+                assertEquals(new ArrayList<>(expected), toList(deque));
+            }
+            assertEquals(expected.size(), deque.size());
+            assertEquals(expected.peekFirst(), deque.peekFront());
+            assertEquals(expected.peekLast(), deque.peekBack());
+        }
+    }
+}
@@ -0,0 +1,90 @@
+package com.abstractkamen.datastructures.impl.queues;
+
+import com.abstractkamen.datastructures.api.queues.ImmutableQueue;
+import org.junit.Test;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+public class ImmutableQueueImplTest {
+
+    private static <T> List<T> toList(Iterable<T> iterable) {
+        final List<T> result = new ArrayList<>();
+        for (T element : iterable) {
+            result.add(element);
+        }
+        return result;
+    }
+
+    @Test
+    public void emptyQueue_shouldHaveNoElements() {
+        final ImmutableQueue<Integer> queue = new ImmutableQueueImpl<>();
+        assertTrue(queue.isEmpty());
+        assertEquals(0, queue.size());
+        assertNull(queue.peek());
+        assertEquals("[]", queue.toString());
+    }
+
+    @Test(expected = NoSuchElementException.class)
+    public void dequeue_shouldThrow_whenEmpty() {
+        new ImmutableQueueImpl<>().dequeue();
+    }
+
+    @Test
+    public void enqueueDequeue_shouldBeFifo() {
+        // arrange
+        ImmutableQueue<Integer> queue = new ImmutableQueueImpl<>();
+        for (int i = 0; i < 5; i++) {
+            queue = queue.enqueue(i);
+        }
+        // act
+        queue = queue.dequeue().dequeue().enqueue(5);
+        // assert
+        assertEquals(4, queue.size());
+        assertEquals(2, queue.peek().intValue());
+        assertEquals(Arrays.asList(2, 3, 4, 5), toList(queue));
+        assertEquals("[2, 3, 4, 5]", queue.toString());
+    }
+
+    @Test
+    public void versions_shouldNotChange_whenNewVersionsArePublished() {
+        // arrange
+        final ImmutableQueue<String> snapshot = new ImmutableQueueImpl<String>().enqueue("a").enqueue("b");
+        // act
+        final ImmutableQueue<String> left = snapshot.dequeue().enqueue("c");
+        final ImmutableQueue<String> right = snapshot.enqueue("d").dequeue().dequeue();
+        // assert
+        assertEquals(Arrays.asList("a", "b"), toList(snapshot));
+        assertEquals(Arrays.asList("b", "c"), toList(left));
+        assertEquals(Arrays.asList("d"), toList(right));
+    }
+
+    @Test
+    public void operations_shouldMatchArrayDeque_whenRandom() {
+        // arrange
+        final Random random = new Random(7);
+        final ArrayDeque<Integer> expected = new ArrayDeque<>();
+        ImmutableQueue<Integer> queue = new ImmutableQueueImpl<>();
+        // act & assert
+        for (int i = 0; i < 5_000; i++) {
+            if (random.nextInt(3) > 0 || expected.isEmpty()) {
+                queue = queue.enqueue(i);
+                expected.addLast(i);
+            } else {
+                queue = queue.dequeue();
+                expected.removeFirst();
+            }
+            assertEquals(expected.size(), queue.size());
+            assertEquals(expected.peekFirst(), queue.peek());
+        }
+        assertEquals(new ArrayList<>(expected), toList(queue));
+    }
+}
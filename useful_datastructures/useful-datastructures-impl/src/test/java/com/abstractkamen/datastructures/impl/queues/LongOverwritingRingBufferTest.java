@@ -0,0 +1,89 @@
+package com.abstractkamen.datastructures.impl.queues;
+
+import org.junit.Test;
+
+import java.util.ArrayDeque;
+import java.util.NoSuchElementException;
+import java.util.Random;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class LongOverwritingRingBufferTest {
+
+    @Test(expected = IllegalArgumentException.class)
+    public void constructor_shouldThrow_whenCapacityIsNotPowerOfTwo() {
+        new LongOverwritingRingBuffer(3);
+    }
+
+    @Test
+    public void enqueue_shouldOverwriteOldest_whenFull() {
+        // arrange
+        final LongOverwritingRingBuffer buffer = new LongOverwritingRingBuffer(4);
+        // act
+        for (long i = 0; i < 6; i++) {
+            assertTrue(buffer.enqueue(i));
+        }
+        // assert
+        assertEquals(4, buffer.size());
+        assertArrayEquals(new long[]{2, 3, 4, 5}, buffer.toArray());
+        assertArrayEquals(new long[]{2, 3, 4, 5}, buffer.stream().toArray());
+        assertEquals(3, buffer.get(1));
+        assertEquals("[2, 3, 4, 5]", buffer.toString());
+        assertEquals(2, buffer.dequeue());
+        assertEquals(3, buffer.size());
+    }
+
+    @Test
+    public void enqueueAll_drainTo_shouldMatchOneByOne_whenRandom() {
+        // arrange
+        final Random r = new Random();
+        final LongOverwritingRingBuffer buffer = new LongOverwritingRingBuffer(16);
+        final ArrayDeque<Long> expected = new ArrayDeque<>();
+        // act & assert
+        for (int i = 0; i < 2000; i++) {
+            if (r.nextBoolean()) {
+                final long[] values = r.longs(r.nextInt(40)).toArray();
+                for (long value : values) {
+                    if (expected.size() == 16) {
+                        expected.poll();
+                    }
+                    expected.add(value);
+                }
+                assertEquals(expected.size(), buffer.enqueueAll(values));
+            } else {
+                final long[] target = new long[r.nextInt(20)];
+                final int n = buffer.drainTo(target);
+                assertEquals(Math.min(target.length, expected.size()), n);
+                for (int k = 0; k < n; k++) {
+                    assertEquals(expected.poll().longValue(), target[k]);
+                }
+            }
+            assertEquals(expected.size(), buffer.size());
+            assertArrayEquals(expected.stream().mapToLong(Long::longValue).toArray(), buffer.toArray());
+        }
+    }
+
+    @Test(expected = NoSuchElementException.class)
+    public void dequeue_shouldThrow_whenEmpty() {
+        new LongOverwritingRingBuffer(2).dequeue();
+    }
+
+    @Test(expected = IndexOutOfBoundsException.class)
+    public void get_shouldThrow_whenIndexNotBelowSize() {
+        final LongOverwritingRingBuffer buffer = new LongOverwritingRingBuffer(4);
+        buffer.enqueue(1);
+        buffer.get(1);
+    }
+
+    @Test
+    public void clear_shouldRemoveEverything() {
+        final LongOverwritingRingBuffer buffer = new LongOverwritingRingBuffer(4);
+        buffer.enqueueAll(1, 2, 3);
+        buffer.clear();
+        assertTrue(buffer.isEmpty());
+        assertFalse(buffer.iterator().hasNext());
+    }
+}
@@ -0,0 +1,166 @@
+package com.abstractkamen.datastructures.impl.queues;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.stream.Collectors;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class MappedRingBufferTest {
+    private static final int RECORD_SIZE = 16;
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    private static byte[] bytes(String s) {
+        return s.getBytes(StandardCharsets.UTF_8);
+    }
+
+    private static String string(ByteBuffer record) {
+        final byte[] bytes = new byte[record.remaining()];
+        record.duplicate().get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    private static List<String> strings(MappedRingBuffer buffer) {
+        return buffer.stream().map(MappedRingBufferTest::string).collect(Collectors.toList());
+    }
+
+    private Path file() {
+        return folder.getRoot().toPath().resolve("audit.ring");
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void constructor_shouldThrow_whenCapacityIsNotPowerOfTwo() throws IOException {
+        new MappedRingBuffer(file(), RECORD_SIZE, 5);
+    }
+
+    @Test
+    public void enqueue_shouldOverwriteOldest_whenFull() throws IOException {
+        try (MappedRingBuffer buffer = new MappedRingBuffer(file(), RECORD_SIZE, 4)) {
+            // act
+            for (int i = 0; i < 7; i++) {
+                buffer.enqueue(bytes("event-" + "x".repeat(i)));
+            }
+            // assert
+            assertEquals(4, buffer.size());
+            assertEquals(List.of("event-xxx", "event-xxxx", "event-xxxxx", "event-xxxxxx"), strings(buffer));
+            assertEquals("event-xxxx", string(buffer.get(1)));
+            assertTrue(buffer.get(0).isReadOnly());
+        }
+    }
+
+    @Test
+    public void dequeue_shouldReturnCopyOfOldest() throws IOException {
+        try (MappedRingBuffer buffer = new MappedRingBuffer(file(), RECORD_SIZE, 2)) {
+            // arrange
+            buffer.enqueue(bytes("a"));
+            buffer.enqueue(bytes(""));
+            // act
+            final ByteBuffer first = buffer.dequeue();
+            buffer.enqueue(bytes("overwrites a"));
+            final ByteBuffer second = buffer.dequeue();
+            // assert
+            assertEquals("a", string(first));
+            assertEquals("", string(second));
+            assertEquals(List.of("overwrites a"), strings(buffer));
+        }
+    }
+
+    @Test
+    public void constructor_shouldRestoreRecords_whenFileExists() throws IOException {
+        // arrange
+        try (MappedRingBuffer buffer = new MappedRingBuffer(file(), RECORD_SIZE, 4)) {
+            for (int i = 0; i < 6; i++) {
+                buffer.enqueue(bytes("login " + i));
+            }
+            buffer.dequeue();
+        }
+        // act
+        try (MappedRingBuffer buffer = new MappedRingBuffer(file(), RECORD_SIZE, 4)) {
+            // assert
+            assertEquals(List.of("login 3", "login 4", "login 5"), strings(buffer));
+            buffer.enqueue(bytes("login 6"));
+            buffer.enqueue(bytes("login 7"));
+            assertEquals(List.of("login 4", "login 5", "login 6", "login 7"), strings(buffer));
+        }
+    }
+
+    @Test
+    public void constructor_shouldDropOldest_whenFullBufferWasTornMidEnqueue() throws IOException {
+        // arrange
+        final Path file = file();
+        try (MappedRingBuffer buffer = new MappedRingBuffer(file, RECORD_SIZE, 4)) {
+            for (int i = 0; i < 4; i++) {
+                buffer.enqueue(bytes("login " + i));
+            }
+        }
+        try (MappedRingBuffer buffer = new MappedRingBuffer(file, RECORD_SIZE, 4)) {
+            buffer.enqueue(bytes("login 4"));
+        }
+        final ByteBuffer completed = ByteBuffer.wrap(Files.readAllBytes(file)).order(ByteOrder.LITTLE_ENDIAN);
+        // act, a crash after the state dropping the oldest record and half of the new record's bytes
+        final ByteBuffer torn = completed.duplicate().order(ByteOrder.LITTLE_ENDIAN);
+        torn.putLong(24, 1L << 32 | 3);
+        torn.putInt(32, RECORD_SIZE);
+        for (int i = 0; i < RECORD_SIZE / 2; i++) {
+            torn.put(36 + RECORD_SIZE / 2 + i, (byte) 0xFF);
+        }
+        Files.write(file, torn.array());
+        // assert
+        try (MappedRingBuffer buffer = new MappedRingBuffer(file, RECORD_SIZE, 4)) {
+            assertEquals(List.of("login 1", "login 2", "login 3"), strings(buffer));
+            buffer.enqueue(bytes("login 5"));
+            assertEquals(List.of("login 1", "login 2", "login 3", "login 5"), strings(buffer));
+        }
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void constructor_shouldThrow_whenFileHasOtherGeometry() throws IOException {
+        new MappedRingBuffer(file(), RECORD_SIZE, 4).close();
+        new MappedRingBuffer(file(), RECORD_SIZE * 2, 2);
+    }
+
+    @Test(expected = IOException.class)
+    public void constructor_shouldThrow_whenFileIsNotRingBuffer() throws IOException {
+        final Path file = file();
+        new MappedRingBuffer(file, RECORD_SIZE, 4).close();
+        final byte[] content = Files.readAllBytes(file);
+        content[0] ^= 1;
+        Files.write(file, content);
+        new MappedRingBuffer(file, RECORD_SIZE, 4);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void enqueue_shouldThrow_whenRecordIsTooLong() throws IOException {
+        try (MappedRingBuffer buffer = new MappedRingBuffer(file(), RECORD_SIZE, 4)) {
+            buffer.enqueue(new byte[RECORD_SIZE + 1]);
+        }
+    }
+
+    @Test(expected = NoSuchElementException.class)
+    public void dequeue_shouldThrow_whenEmpty() throws IOException {
+        try (MappedRingBuffer buffer = new MappedRingBuffer(file(), RECORD_SIZE, 4)) {
+            buffer.dequeue();
+        }
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void enqueue_shouldThrow_whenClosed() throws IOException {
+        final MappedRingBuffer buffer = new MappedRingBuffer(file(), RECORD_SIZE, 4);
+        buffer.close();
+        buffer.close();
+        buffer.enqueue(bytes("late"));
+    }
+}
@@ -0,0 +1,115 @@
+package com.abstractkamen.datastructures.impl.queues;
+
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.NoSuchElementException;
+import java.util.concurrent.CountDownLatch;
+import java.util.stream.Collectors;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+public class MpscRingBufferTest {
+
+    @Test(expected = IllegalArgumentException.class)
+    public void constructor_shouldThrow_whenCapacityIsNotPowerOfTwo() {
+        new MpscRingBuffer<>(12);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void constructor_shouldThrow_whenCapacityLesserThan_1() {
+        new MpscRingBuffer<>(-1);
+    }
+
+    @Test
+    public void offer_shouldReturnFalse_whenFull() {
+        // arrange
+        final MpscRingBuffer<Integer> buffer = new MpscRingBuffer<>(4);
+        // act
+        for (int i = 0; i < 4; i++) {
+            assertTrue(buffer.offer(i));
+        }
+        // assert
+        assertFalse(buffer.offer(4));
+        assertEquals(4, buffer.size());
+        assertEquals(Arrays.asList(0, 1, 2, 3), buffer.stream().collect(Collectors.toList()));
+        assertEquals(0, buffer.poll().intValue());
+        assertTrue(buffer.offer(4));
+        assertFalse(buffer.offer(5));
+        assertEquals("[1, 2, 3, 4]", buffer.toString());
+    }
+
+    @Test
+    public void poll_shouldReturnItemsInOrder_whenWrappingAround() {
+        // arrange
+        final MpscRingBuffer<Integer> buffer = new MpscRingBuffer<>(8);
+        int next = 0;
+        int expected = 0;
+        // act & assert
+        for (int round = 0; round < 100; round++) {
+            for (int i = 0; i < 7; i++) {
+                assertTrue(buffer.enqueue(next++));
+            }
+            for (int i = 0; i < 7; i++) {
+                assertEquals(expected++, buffer.dequeue().intValue());
+            }
+            assertNull(buffer.poll());
+        }
+    }
+
+    @Test(expected = NoSuchElementException.class)
+    public void dequeue_shouldThrow_whenEmpty() {
+        new MpscRingBuffer<>(2).dequeue();
+    }
+
+    @Test
+    public void poll_shouldReceiveEveryItemInProducerOrder_whenManyProducers() throws InterruptedException {
+        // arrange
+        final int producers = 4;
+        final int perProducer = 250_000;
+        final MpscRingBuffer<long[]> buffer = new MpscRingBuffer<>(128);
+        final CountDownLatch start = new CountDownLatch(1);
+        final Thread[] threads = new Thread[producers];
+        for (int p = 0; p < producers; p++) {
+            final int producer = p;
+            threads[p] = new Thread(() -> {
+                try {
+                    start.await();
+                } catch (InterruptedException e) {
+                    return;
+                }
+                for (int i = 0; i < perProducer; i++) {
+                    final long[] item = {producer, i};
+                    while (!buffer.offer(item)) {
+                        Thread.yield();
+                    }
+                }
+            });
+            threads[p].start();
+        }
+        // act
+        start.countDown();
+        final long[] nextExpected = new long[producers];
+        int received = 0;
+        while (received < producers * perProducer) {
+            final long[] item = buffer.poll();
+            if (item == null) {
+                Thread.yield();
+                continue;
+            }
+            // assert
+            assertEquals(nextExpected[(int) item[0]]++, item[1]);
+            received++;
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+        for (long n : nextExpected) {
+            assertEquals(perProducer, n);
+        }
+        assertTrue(buffer.isEmpty());
+    }
+}
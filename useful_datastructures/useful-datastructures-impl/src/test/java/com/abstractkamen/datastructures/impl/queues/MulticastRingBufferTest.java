@@ -0,0 +1,172 @@
+package com.abstractkamen.datastructures.impl.queues;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+public class MulticastRingBufferTest {
+
+    private static final class Event {
+        long value;
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void constructor_shouldThrow_whenCapacityIsNotPowerOfTwo() {
+        new MulticastRingBuffer<>(Event::new, 10);
+    }
+
+    @Test
+    public void poll_shouldHandEveryPublishedEventToEveryReaderAsOneBatch() {
+        // arrange
+        final MulticastRingBuffer<Event> ring = new MulticastRingBuffer<>(Event::new, 8);
+        final MulticastRingBuffer.Reader<Event> first = ring.newReader();
+        final MulticastRingBuffer.Reader<Event> second = ring.newReader();
+        for (int i = 0; i < 5; i++) {
+            final long value = i * 10;
+            ring.publish(e -> e.value = value);
+        }
+        // act
+        final List<Long> values = new ArrayList<>();
+        final List<Boolean> ends = new ArrayList<>();
+        final int handled = first.poll((e, sequence, endOfBatch) -> {
+            assertEquals(e.value, sequence * 10);
+            values.add(e.value);
+            ends.add(endOfBatch);
+        });
+        // assert
+        assertEquals(5, handled);
+        assertEquals(List.of(0L, 10L, 20L, 30L, 40L), values);
+        assertEquals(List.of(false, false, false, false, true), ends);
+        assertEquals(0, first.poll((e, s, end) -> fail()));
+        assertEquals(5, second.lag());
+        assertEquals(2, second.poll((e, s, end) -> {
+        }, 2));
+        assertEquals(3, second.lag());
+        assertEquals(4, ring.cursor());
+    }
+
+    @Test
+    public void publish_shouldReuseEvents() {
+        // arrange
+        final MulticastRingBuffer<Event> ring = new MulticastRingBuffer<>(Event::new, 4);
+        final Event[] seen = new Event[8];
+        // act
+        for (int i = 0; i < 8; i++) {
+            final long sequence = ring.next();
+            seen[i] = ring.get(sequence);
+            ring.publish(sequence);
+        }
+        // assert
+        for (int i = 0; i < 4; i++) {
+            assertSame(seen[i], seen[i + 4]);
+        }
+    }
+
+    @Test
+    public void tryPublish_shouldReturnFalse_whenSlowestReaderIsALapBehind() {
+        // arrange
+        final MulticastRingBuffer<Event> ring = new MulticastRingBuffer<>(Event::new, 4);
+        final MulticastRingBuffer.Reader<Event> fast = ring.newReader();
+        final MulticastRingBuffer.Reader<Event> slow = ring.newReader();
+        for (int i = 0; i < 4; i++) {
+            assertTrue(ring.tryPublish(e -> e.value++));
+        }
+        fast.poll((e, s, end) -> {
+        });
+        // act & assert
+        assertFalse(ring.tryPublish(e -> e.value++));
+        assertEquals(-1, ring.tryNext());
+        assertEquals(1, slow.poll((e, s, end) -> {
+        }, 1));
+        assertTrue(ring.tryPublish(e -> e.value++));
+        assertFalse(ring.tryPublish(e -> e.value++));
+        slow.close();
+        assertEquals(1, ring.readerCount());
+        assertTrue(ring.tryPublish(e -> e.value++));
+    }
+
+    @Test
+    public void poll_shouldRedeliverFailedEvent_whenHandlerThrows() {
+        // arrange
+        final MulticastRingBuffer<Event> ring = new MulticastRingBuffer<>(Event::new, 8);
+        final MulticastRingBuffer.Reader<Event> reader = ring.newReader();
+        for (int i = 0; i < 4; i++) {
+            ring.publish(e -> e.value = 0);
+        }
+        // act
+        try {
+            reader.poll((e, sequence, end) -> {
+                if (sequence == 2) {
+                    throw new IllegalStateException();
+                }
+            });
+            fail();
+        } catch (IllegalStateException e) {
+            // expected exception is thrown
+        }
+        // assert
+        assertEquals(1, reader.sequence());
+        final List<Long> sequences = new ArrayList<>();
+        assertEquals(2, reader.poll((e, sequence, end) -> sequences.add(sequence)));
+        assertEquals(List.of(2L, 3L), sequences);
+    }
+
+    @Test
+    public void newReader_shouldStartAfterCursor() {
+        final MulticastRingBuffer<Event> ring = new MulticastRingBuffer<>(Event::new, 4);
+        for (int i = 0; i < 10; i++) {
+            ring.publish(e -> e.value++);
+        }
+        final MulticastRingBuffer.Reader<Event> reader = ring.newReader();
+        assertEquals(0, reader.lag());
+        assertEquals(0, reader.poll((e, s, end) -> fail()));
+    }
+
+    @Test
+    public void poll_shouldSeeEveryEventInOrder_whenReadersRunInOtherThreads() throws InterruptedException {
+        // arrange
+        final int count = 200_000;
+        final int readerCount = 4;
+        final MulticastRingBuffer<Event> ring = new MulticastRingBuffer<>(Event::new, 256);
+        final AtomicReference<Throwable> failure = new AtomicReference<>();
+        final Thread[] threads = new Thread[readerCount];
+        for (int r = 0; r < readerCount; r++) {
+            final MulticastRingBuffer.Reader<Event> reader = ring.newReader();
+            threads[r] = new Thread(() -> {
+                final long[] expected = {0};
+                while (expected[0] < count) {
+                    if (reader.poll((e, sequence, end) -> {
+                        assertEquals(expected[0], sequence);
+                        assertEquals(sequence * 3, e.value);
+                        expected[0]++;
+                    }) == 0) {
+                        Thread.yield();
+                    }
+                }
+            });
+            threads[r].setUncaughtExceptionHandler((t, e) -> failure.set(e));
+            threads[r].start();
+        }
+        // act
+        for (long i = 0; i < count; i++) {
+            final long value = i * 3;
+            while (!ring.tryPublish(e -> e.value = value)) {
+                Thread.yield();
+            }
+        }
+        // assert
+        for (Thread thread : threads) {
+            thread.join();
+        }
+        assertNull(failure.get());
+    }
+}
@@ -3,14 +3,19 @@ package com.abstractkamen.datastructures.impl.queues;
 import org.junit.Before;
 import org.junit.Test;
 
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
 import java.util.NoSuchElementException;
 import java.util.Spliterator;
 import java.util.stream.Collectors;
 import java.util.stream.IntStream;
 import java.util.stream.Stream;
 
+import static org.junit.Assert.assertArrayEquals;
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
 import static org.junit.Assert.assertTrue;
 
 public class OverwritingRingBufferTest {
@@ -264,5 +269,57 @@ public class OverwritingRingBufferTest {
         assertEquals(expected, actual);
     }
 
+    @Test
+    public void forEach_shouldVisitBothSegmentsInOrder_whenWrapped() {
+        // arrange
+        for (int i = 0; i < toTest.capacity() + 5; i++) {
+            toTest.enqueue(i);
+        }
+        final List<Integer> actual = new ArrayList<>();
+        // act
+        toTest.forEach(actual::add);
+        // assert
+        assertEquals(IntStream.range(5, toTest.capacity() + 5).boxed().collect(Collectors.toList()), actual);
+    }
+
+    @Test
+    public void drainTo_shouldCopyAndRemoveOldest_whenWrapped() {
+        // arrange
+        for (int i = 0; i < toTest.capacity() + 5; i++) {
+            toTest.enqueue(i);
+        }
+        final Integer[] target = new Integer[toTest.capacity()];
+        // act
+        final int drained = toTest.drainTo(target, 13);
+        // assert
+        assertEquals(13, drained);
+        assertArrayEquals(IntStream.range(5, 18).boxed().toArray(), Arrays.copyOf(target, 13));
+        assertNull(target[13]);
+        assertEquals(3, toTest.size());
+        assertEquals(3, toTest.drainTo(target, Integer.MAX_VALUE));
+        assertArrayEquals(new Integer[]{18, 19, 20}, Arrays.copyOf(target, 3));
+        assertTrue(toTest.isEmpty());
+    }
+
+    @Test
+    public void spliterator_shouldSplitEvenly_whenWrapped() {
+        // arrange
+        for (int i = 0; i < toTest.capacity() + 3; i++) {
+            toTest.enqueue(i);
+        }
+        final Spliterator<Integer> suffix = toTest.spliterator();
+        // act
+        final Spliterator<Integer> prefix = suffix.trySplit();
+        // assert
+        assertEquals(toTest.capacity() / 2, prefix.estimateSize());
+        assertEquals(toTest.capacity() / 2, suffix.estimateSize());
+        final List<Integer> actual = new ArrayList<>();
+        prefix.forEachRemaining(actual::add);
+        suffix.forEachRemaining(actual::add);
+        assertEquals(toTest.stream().collect(Collectors.toList()), actual);
+        assertEquals(IntStream.range(3, toTest.capacity() + 3).sum(),
+                     toTest.stream().parallel().mapToInt(Integer::intValue).sum());
+    }
+
     private static final int TEST_CAPACITY = 16;
 }
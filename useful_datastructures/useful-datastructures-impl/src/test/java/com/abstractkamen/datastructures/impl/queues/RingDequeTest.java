@@ -0,0 +1,157 @@
+package com.abstractkamen.datastructures.impl.queues;
+
+import com.abstractkamen.datastructures.impl.utils.ResizePolicy;
+import org.junit.Test;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.Random;
+import java.util.stream.Collectors;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+public class RingDequeTest {
+
+    @Test(expected = IllegalArgumentException.class)
+    public void constructor_shouldThrow_whenCapacityLesserThan_1() {
+        new RingDeque<>(0);
+    }
+
+    @Test
+    public void constructor_shouldRoundCapacityUpToPowerOfTwo() {
+        assertEquals(1, new RingDeque<>(1).capacity());
+        assertEquals(8, new RingDeque<>(5).capacity());
+        assertEquals(8, new RingDeque<>(8).capacity());
+    }
+
+    @Test
+    public void addFirstAndAddLast_shouldGrowAcrossWrapPoint() {
+        // arrange
+        final RingDeque<Integer> deque = new RingDeque<>(4);
+        // act
+        for (int i = 0; i < 5; i++) {
+            deque.addLast(i);
+            deque.addFirst(-i - 1);
+        }
+        // assert
+        assertEquals(10, deque.size());
+        assertEquals(16, deque.capacity());
+        assertEquals("[-5, -4, -3, -2, -1, 0, 1, 2, 3, 4]", deque.toString());
+        for (int i = 0; i < 10; i++) {
+            assertEquals(i - 5, deque.get(i).intValue());
+        }
+        assertEquals(-5, deque.peekFirst().intValue());
+        assertEquals(4, deque.peekLast().intValue());
+    }
+
+    @Test
+    public void operations_shouldMatchArrayDeque_whenRandom() {
+        // arrange
+        final Random random = new Random(42);
+        final RingDeque<Integer> deque = new RingDeque<>(2);
+        final ArrayDeque<Integer> expected = new ArrayDeque<>();
+        // act & assert
+        for (int i = 0; i < 20_000; i++) {
+            switch (random.nextInt(6)) {
+                case 0:
+                    deque.addFirst(i);
+                    expected.addFirst(i);
+                    break;
+                case 1:
+                case 2:
+                    deque.addLast(i);
+                    expected.addLast(i);
+                    break;
+                case 3:
+                    assertEquals(expected.pollFirst(), deque.isEmpty() ? null : deque.removeFirst());
+                    break;
+                case 4:
+                    assertEquals(expected.pollLast(), deque.isEmpty() ? null : deque.removeLast());
+                    break;
+                default:
+                    final List<Integer> batch = Arrays.asList(i, i + 1, i + 2);
+                    deque.addAll(batch);
+                    expected.addAll(batch);
+                    final int n = random.nextInt(expected.size() + 1);
+                    deque.removeFirst(n);
+                    for (int k = 0; k < n; k++) {
+                        expected.removeFirst();
+                    }
+            }
+            assertEquals(expected.size(), deque.size());
+            assertTrue(Integer.bitCount(deque.capacity()) == 1);
+        }
+        assertEquals(new ArrayList<>(expected), deque.asList());
+        assertEquals(new ArrayList<>(expected), deque.stream().collect(Collectors.toList()));
+    }
+
+    @Test
+    public void removeFirstN_shouldShrink_whenSparse() {
+        // arrange
+        final RingDeque<Integer> deque = new RingDeque<>(4, ResizePolicy.DEFAULT);
+        for (int i = 0; i < 64; i++) {
+            deque.addLast(i);
+        }
+        // act
+        deque.removeFirst(60);
+        // assert
+        assertEquals(Arrays.asList(60, 61, 62, 63), deque.asList());
+        assertTrue(deque.capacity() < 64);
+        deque.removeLast(2);
+        assertArrayEquals(new Object[]{60, 61}, deque.toArray());
+    }
+
+    @Test
+    public void set_shouldReplaceItem() {
+        // arrange
+        final RingDeque<String> deque = new RingDeque<>();
+        deque.addLast("b");
+        deque.addFirst("a");
+        // act
+        final String replaced = deque.set(1, "c");
+        // assert
+        assertEquals("b", replaced);
+        assertEquals("[a, c]", deque.toString());
+    }
+
+    @Test
+    public void clear_shouldKeepCapacity() {
+        // arrange
+        final RingDeque<Integer> deque = new RingDeque<>(2, ResizePolicy.GROW_ONLY);
+        deque.addAll(Arrays.asList(1, 2, 3, 4, 5));
+        // act
+        deque.clear();
+        // assert
+        assertTrue(deque.isEmpty());
+        assertEquals(8, deque.capacity());
+        assertNull(deque.peekFirst());
+        assertNull(deque.peekLast());
+        deque.trimToSize();
+        assertEquals(1, deque.capacity());
+    }
+
+    @Test(expected = NoSuchElementException.class)
+    public void removeLast_shouldThrow_whenEmpty() {
+        new RingDeque<>().removeLast();
+    }
+
+    @Test(expected = IndexOutOfBoundsException.class)
+    public void get_shouldThrow_whenIndexOutOfBounds() {
+        final RingDeque<Integer> deque = new RingDeque<>();
+        deque.addLast(1);
+        deque.get(1);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void removeFirstN_shouldThrow_whenMoreThanSize() {
+        final RingDeque<Integer> deque = new RingDeque<>();
+        deque.addLast(1);
+        deque.removeFirst(2);
+    }
+}
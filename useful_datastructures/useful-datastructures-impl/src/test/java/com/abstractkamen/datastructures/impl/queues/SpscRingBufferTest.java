@@ -0,0 +1,110 @@
+package com.abstractkamen.datastructures.impl.queues;
+
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.NoSuchElementException;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.stream.Collectors;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+public class SpscRingBufferTest {
+
+    @Test(expected = IllegalArgumentException.class)
+    public void constructor_shouldThrow_whenCapacityIsNotPowerOfTwo() {
+        new SpscRingBuffer<>(6);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void constructor_shouldThrow_whenCapacityLesserThan_1() {
+        new SpscRingBuffer<>(0);
+    }
+
+    @Test
+    public void offer_shouldReturnFalse_whenFull() {
+        // arrange
+        final SpscRingBuffer<Integer> buffer = new SpscRingBuffer<>(4);
+        // act
+        for (int i = 0; i < 4; i++) {
+            assertTrue(buffer.offer(i));
+        }
+        // assert
+        assertFalse(buffer.offer(4));
+        assertFalse(buffer.enqueue(4));
+        assertEquals(4, buffer.size());
+        assertEquals(Arrays.asList(0, 1, 2, 3), buffer.stream().collect(Collectors.toList()));
+        assertEquals(0, buffer.poll().intValue());
+        assertTrue(buffer.offer(4));
+        assertEquals("[1, 2, 3, 4]", buffer.toString());
+    }
+
+    @Test
+    public void poll_shouldReturnItemsInOrder_whenWrappingAround() {
+        // arrange
+        final SpscRingBuffer<Integer> buffer = new SpscRingBuffer<>(8);
+        int next = 0;
+        int expected = 0;
+        // act & assert
+        for (int round = 0; round < 100; round++) {
+            for (int i = 0; i < 5; i++) {
+                assertTrue(buffer.offer(next++));
+            }
+            for (int i = 0; i < 5; i++) {
+                assertEquals(expected++, buffer.dequeue().intValue());
+            }
+            assertTrue(buffer.isEmpty());
+        }
+    }
+
+    @Test
+    public void poll_shouldReturnNull_whenEmpty() {
+        final SpscRingBuffer<Integer> buffer = new SpscRingBuffer<>(2);
+        assertNull(buffer.poll());
+        assertTrue(buffer.isEmpty());
+        assertFalse(buffer.iterator().hasNext());
+    }
+
+    @Test(expected = NoSuchElementException.class)
+    public void dequeue_shouldThrow_whenEmpty() {
+        new SpscRingBuffer<>(2).dequeue();
+    }
+
+    @Test(expected = NullPointerException.class)
+    public void offer_shouldThrow_whenNull() {
+        new SpscRingBuffer<>(2).offer(null);
+    }
+
+    @Test
+    public void poll_shouldReceiveEveryItemInOrder_whenProducerRunsInAnotherThread() throws InterruptedException {
+        // arrange
+        final int count = 1_000_000;
+        final SpscRingBuffer<Integer> buffer = new SpscRingBuffer<>(64);
+        final AtomicReference<Throwable> failure = new AtomicReference<>();
+        final Thread producer = new Thread(() -> {
+            for (int i = 0; i < count; i++) {
+                while (!buffer.offer(i)) {
+                    Thread.yield();
+                }
+            }
+        });
+        producer.setUncaughtExceptionHandler((t, e) -> failure.set(e));
+        // act
+        producer.start();
+        // assert
+        for (int expected = 0; expected < count; ) {
+            final Integer item = buffer.poll();
+            if (item == null) {
+                Thread.yield();
+            } else {
+                assertEquals(expected++, item.intValue());
+            }
+        }
+        producer.join();
+        assertNull(failure.get());
+        assertTrue(buffer.isEmpty());
+    }
+}
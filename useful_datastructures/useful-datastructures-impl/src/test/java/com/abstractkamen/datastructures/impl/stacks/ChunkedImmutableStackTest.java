@@ -0,0 +1,103 @@
+package com.abstractkamen.datastructures.impl.stacks;
+
+import com.abstractkamen.datastructures.api.stacks.ImmutableStack;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+public class ChunkedImmutableStackTest {
+
+    private static List<Integer> toList(ImmutableStack<Integer> stack) {
+        final List<Integer> result = new ArrayList<>();
+        stack.forEach(result::add);
+        return result;
+    }
+
+    private static List<Integer> iterate(ImmutableStack<Integer> stack) {
+        final List<Integer> result = new ArrayList<>();
+        for (Integer element : stack) {
+            result.add(element);
+        }
+        return result;
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void constructor_shouldThrow_whenChunkSizeLesserThan_1() {
+        new ChunkedImmutableStack<>(0);
+    }
+
+    @Test
+    public void emptyStack_shouldHaveNoElements() {
+        final ChunkedImmutableStack<Integer> stack = new ChunkedImmutableStack<>();
+        assertTrue(stack.isEmpty());
+        assertEquals(0, stack.depth());
+        assertNull(stack.peek());
+        assertFalse(stack.iterator().hasNext());
+    }
+
+    @Test(expected = NoSuchElementException.class)
+    public void pop_shouldThrow_whenEmpty() {
+        new ChunkedImmutableStack<>().pop();
+    }
+
+    @Test
+    public void push_shouldSpanChunks() {
+        // arrange
+        ImmutableStack<Integer> stack = new ChunkedImmutableStack<>(4);
+        // act
+        for (int i = 0; i < 10; i++) {
+            stack = stack.push(i);
+        }
+        // assert
+        final List<Integer> expected = IntStream.range(0, 10).boxed().collect(Collectors.toList());
+        Collections.reverse(expected);
+        assertEquals(10, stack.depth());
+        assertFalse(stack.isEmpty());
+        assertEquals(9, stack.peek().intValue());
+        assertEquals(expected, toList(stack));
+        assertEquals(expected, iterate(stack));
+        for (int i = 9; i >= 0; i--) {
+            assertEquals(i, stack.peek().intValue());
+            assertEquals(i + 1, stack.depth());
+            stack = stack.pop();
+        }
+        assertTrue(stack.isEmpty());
+    }
+
+    @Test
+    public void push_shouldNotChangeOtherVersions_whenVersionsBranch() {
+        // arrange
+        final ImmutableStack<Integer> base = new ChunkedImmutableStack<Integer>(4).push(1).push(2);
+        final ImmutableStack<Integer> left = base.push(3);
+        // act
+        final ImmutableStack<Integer> right = base.push(4).push(5);
+        final ImmutableStack<Integer> afterPop = left.pop().push(6);
+        // assert
+        assertEquals(Arrays.asList(2, 1), toList(base));
+        assertEquals(Arrays.asList(3, 2, 1), toList(left));
+        assertEquals(Arrays.asList(5, 4, 2, 1), iterate(right));
+        assertEquals(Arrays.asList(6, 2, 1), toList(afterPop));
+    }
+
+    @Test
+    public void pop_shouldReturnStackBelowChunk_whenChunkHasOneElement() {
+        // arrange
+        final ChunkedImmutableStack<Integer> full = new ChunkedImmutableStack<Integer>(2).push(1).push(2);
+        // act
+        final ChunkedImmutableStack<Integer> pushed = full.push(3);
+        // assert
+        assertSame(full, pushed.pop());
+    }
+}
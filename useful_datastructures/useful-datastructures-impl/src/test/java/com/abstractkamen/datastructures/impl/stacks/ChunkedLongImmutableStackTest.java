@@ -0,0 +1,117 @@
+package com.abstractkamen.datastructures.impl.stacks;
+
+import com.abstractkamen.datastructures.api.stacks.LongImmutableStack;
+import org.junit.Test;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.PrimitiveIterator;
+import java.util.Random;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class ChunkedLongImmutableStackTest {
+
+    private static long[] toArray(LongImmutableStack stack) {
+        final long[] result = new long[stack.depth()];
+        final int[] i = {0};
+        stack.forEach(value -> result[i[0]++] = value);
+        return result;
+    }
+
+    private static long[] iterate(LongImmutableStack stack) {
+        final long[] result = new long[stack.depth()];
+        int i = 0;
+        for (PrimitiveIterator.OfLong it = stack.iterator(); it.hasNext(); ) {
+            result[i++] = it.nextLong();
+        }
+        return result;
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void constructor_shouldThrow_whenChunkSizeLesserThan_1() {
+        new ChunkedLongImmutableStack(0);
+    }
+
+    @Test(expected = NoSuchElementException.class)
+    public void peek_shouldThrow_whenEmpty() {
+        new ChunkedLongImmutableStack().peek();
+    }
+
+    @Test(expected = NoSuchElementException.class)
+    public void pop_shouldThrow_whenEmpty() {
+        new ChunkedLongImmutableStack().push(1).pop().pop();
+    }
+
+    @Test
+    public void push_shouldSpanChunks() {
+        // arrange
+        LongImmutableStack stack = new ChunkedLongImmutableStack(4);
+        // act
+        for (int i = 0; i < 10; i++) {
+            stack = stack.push(i);
+        }
+        // assert
+        assertEquals(10, stack.depth());
+        assertFalse(stack.isEmpty());
+        assertArrayEquals(new long[]{9, 8, 7, 6, 5, 4, 3, 2, 1, 0}, toArray(stack));
+        assertArrayEquals(toArray(stack), iterate(stack));
+        for (int i = 9; i >= 0; i--) {
+            assertEquals(i, stack.peek());
+            stack = stack.pop();
+        }
+        assertTrue(stack.isEmpty());
+        assertFalse(stack.iterator().hasNext());
+    }
+
+    @Test
+    public void push_shouldNotChangeOtherVersions_whenVersionsBranch() {
+        // arrange
+        final LongImmutableStack base = new ChunkedLongImmutableStack(4).push(1).push(2);
+        final LongImmutableStack left = base.push(3);
+        // act
+        final LongImmutableStack same = base.push(3);
+        final LongImmutableStack right = base.push(4).push(5);
+        // assert
+        assertArrayEquals(new long[]{2, 1}, toArray(base));
+        assertArrayEquals(new long[]{3, 2, 1}, toArray(left));
+        assertArrayEquals(new long[]{3, 2, 1}, toArray(same));
+        assertArrayEquals(new long[]{5, 4, 2, 1}, iterate(right));
+        assertArrayEquals(new long[]{6, 3, 2, 1}, toArray(same.push(6)));
+        assertArrayEquals(new long[]{7, 3, 2, 1}, toArray(left.push(7)));
+    }
+
+    @Test
+    public void operations_shouldMatchArrayDeque_whenBacktracking() {
+        // arrange
+        final Random random = new Random(3);
+        final List<LongImmutableStack> versions = new ArrayList<>();
+        final List<ArrayDeque<Long>> expected = new ArrayList<>();
+        versions.add(new ChunkedLongImmutableStack(8));
+        expected.add(new ArrayDeque<>());
+        // act & assert
+        for (int i = 0; i < 3_000; i++) {
+            final int from = random.nextInt(versions.size());
+            final ArrayDeque<Long> next = new ArrayDeque<>(expected.get(from));
+            final LongImmutableStack stack;
+            if (next.isEmpty() || random.nextInt(3) > 0) {
+                final long value = random.nextInt(4) * (1L << 40);
+                stack = versions.get(from).push(value);
+                next.push(value);
+            } else {
+                stack = versions.get(from).pop();
+                next.pop();
+            }
+            versions.add(stack);
+            expected.add(next);
+        }
+        for (int i = 0; i < versions.size(); i++) {
+            assertArrayEquals(expected.get(i).stream().mapToLong(Long::longValue).toArray(), toArray(versions.get(i)));
+        }
+    }
+}
@@ -0,0 +1,45 @@
+package com.abstractkamen.datastructures.impl.stacks;
+
+import com.abstractkamen.datastructures.api.stacks.ImmutableStack;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.NoSuchElementException;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class ImmutableStackImplTest {
+
+    @Test
+    public void push_shouldReturnNonEmptyStack() {
+        // act
+        final ImmutableStack<Integer> stack = new ImmutableStackImpl<Integer>().push(1).push(2);
+        // assert
+        assertFalse(stack.isEmpty());
+        assertEquals(2, stack.depth());
+        assertEquals(2, stack.peek().intValue());
+        assertTrue(stack.pop().pop().isEmpty());
+    }
+
+    @Test
+    public void iterator_shouldReturnTopFirst() {
+        // arrange
+        final ImmutableStack<Integer> stack = new ImmutableStackImpl<Integer>().push(1).push(2).push(3);
+        final List<Integer> actual = new ArrayList<>();
+        // act
+        for (Integer element : stack) {
+            actual.add(element);
+        }
+        // assert
+        assertEquals(Arrays.asList(3, 2, 1), actual);
+    }
+
+    @Test(expected = NoSuchElementException.class)
+    public void pop_shouldThrow_whenEmpty() {
+        new ImmutableStackImpl<>().pop();
+    }
+}
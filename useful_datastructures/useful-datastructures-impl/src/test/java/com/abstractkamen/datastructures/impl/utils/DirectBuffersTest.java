@@ -0,0 +1,41 @@
+package com.abstractkamen.datastructures.impl.utils;
+
+import org.junit.Test;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class DirectBuffersTest {
+
+    @Test
+    public void allocate_shouldReturnDirectBufferInNativeOrder() {
+        final ByteBuffer buffer = DirectBuffers.allocate(64);
+        assertTrue(buffer.isDirect());
+        assertEquals(ByteOrder.nativeOrder(), buffer.order());
+        assertEquals(64, buffer.capacity());
+        DirectBuffers.free(buffer);
+    }
+
+    @Test
+    public void free_shouldReleaseDirectBuffer() {
+        assertTrue(DirectBuffers.free(DirectBuffers.allocate(1024)));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void free_shouldThrow_whenBufferIsNotDirect() {
+        DirectBuffers.free(ByteBuffer.allocate(16));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void free_shouldThrow_whenBufferIsSlice() {
+        final ByteBuffer buffer = DirectBuffers.allocate(16);
+        try {
+            DirectBuffers.free(buffer.slice());
+        } finally {
+            DirectBuffers.free(buffer);
+        }
+    }
+}
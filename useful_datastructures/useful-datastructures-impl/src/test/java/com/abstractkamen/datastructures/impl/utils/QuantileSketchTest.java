@@ -0,0 +1,71 @@
+package com.abstractkamen.datastructures.impl.utils;
+
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.NoSuchElementException;
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class QuantileSketchTest {
+
+    @Test
+    public void quantile_shouldBeWithinRelativeError() {
+        for (int precision = 1; precision <= 10; precision++) {
+            // arrange
+            final QuantileSketch sketch = new QuantileSketch(precision);
+            final long[] values = new Random().longs(2000, 0, Long.MAX_VALUE).map(v -> v >>> new Random(v).nextInt(63)).toArray();
+            for (long value : values) {
+                sketch.add(value);
+            }
+            Arrays.sort(values);
+            // act & assert
+            for (double q = 0; q <= 1; q += 0.05) {
+                final long exact = values[Math.max(0, (int) Math.ceil(q * values.length) - 1)];
+                final long estimate = sketch.quantile(q);
+                assertTrue(estimate >= exact);
+                assertTrue((double) (estimate - exact) <= exact / (double) (1 << (precision - 1)));
+            }
+        }
+    }
+
+    @Test
+    public void quantile_shouldBeExact_whenValuesAreSmall() {
+        final QuantileSketch sketch = new QuantileSketch(7);
+        for (long v = 0; v < 100; v++) {
+            sketch.add(v);
+        }
+        assertEquals(49, sketch.quantile(0.5));
+        assertEquals(0, sketch.quantile(0));
+        assertEquals(99, sketch.quantile(1));
+    }
+
+    @Test
+    public void remove_shouldForgetValue() {
+        final QuantileSketch sketch = new QuantileSketch();
+        sketch.add(5);
+        sketch.add(Long.MAX_VALUE);
+        sketch.remove(Long.MAX_VALUE);
+        assertEquals(1, sketch.count());
+        assertEquals(5, sketch.quantile(1));
+        sketch.add(Long.MAX_VALUE);
+        assertEquals(Long.MAX_VALUE, sketch.quantile(1));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void add_shouldThrow_whenNegative() {
+        new QuantileSketch().add(-1);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void constructor_shouldThrow_whenPrecisionOutOfRange() {
+        new QuantileSketch(0);
+    }
+
+    @Test(expected = NoSuchElementException.class)
+    public void quantile_shouldThrow_whenEmpty() {
+        new QuantileSketch().quantile(0.5);
+    }
+}
@@ -0,0 +1,69 @@
+package com.abstractkamen.datastructures.impl.utils;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class ResizePolicyTest {
+
+    @Test
+    public void grow_shouldMultiplyCapacity() {
+        assertEquals(32, ResizePolicy.DEFAULT.grow(16, 17));
+        assertEquals(24, new ResizePolicy(1.5, 0.0).grow(16, 17));
+    }
+
+    @Test
+    public void grow_shouldReturnRequired_whenGrowthIsNotEnough() {
+        assertEquals(1000, ResizePolicy.DEFAULT.grow(16, 1000));
+    }
+
+    @Test
+    public void grow_shouldAlwaysMakeProgress() {
+        assertEquals(2, new ResizePolicy(1.1, 0.0).grow(1, 1));
+    }
+
+    @Test
+    public void grow_shouldCapCapacity_whenNearIntegerLimit() {
+        final int capacity = ResizePolicy.DEFAULT.grow(Integer.MAX_VALUE / 2 + 1, Integer.MAX_VALUE / 2 + 2);
+        assertTrue(capacity > Integer.MAX_VALUE / 2 + 1);
+        assertTrue(capacity <= Integer.MAX_VALUE - 8);
+    }
+
+    @Test(expected = OutOfMemoryError.class)
+    public void grow_shouldThrow_whenRequiredOverflows() {
+        ResizePolicy.DEFAULT.grow(Integer.MAX_VALUE - 8, Integer.MAX_VALUE - 7);
+    }
+
+    @Test
+    public void shrinkBelow_shouldBeZero_whenGrowOnlyOrAtMinCapacity() {
+        assertEquals(0, ResizePolicy.GROW_ONLY.shrinkBelow(1024, 16));
+        assertEquals(0, ResizePolicy.DEFAULT.shrinkBelow(16, 16));
+        assertEquals(256, ResizePolicy.DEFAULT.shrinkBelow(1024, 16));
+    }
+
+    @Test
+    public void shrink_shouldLeaveRoomForHysteresis() {
+        final ResizePolicy policy = ResizePolicy.DEFAULT;
+        final int capacity = policy.shrink(255, 16);
+        // shrunk array is half full, far from both the next grow and the next shrink
+        assertEquals(511, capacity);
+        assertTrue(255 >= policy.shrinkBelow(capacity, 16));
+        assertEquals(16, policy.shrink(3, 16));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void constructor_shouldThrow_whenGrowthFactorNotAboveOne() {
+        new ResizePolicy(1.0, 0.0);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void constructor_shouldThrow_whenShrinkThresholdWouldOscillate() {
+        new ResizePolicy(2.0, 0.5);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void constructor_shouldThrow_whenShrinkThresholdNegative() {
+        new ResizePolicy(2.0, -0.1);
+    }
+}